@@ -0,0 +1,68 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.BstSymbolTableImpl;
+import com.symboltables.SymbolTable;
+import com.symboltables.TreeMapCustom;
+
+/**
+ * Time to load keyCount sorted keys, as when an index is restored from a
+ * checkpoint, into an empty TreeMapCustom or balanced BstSymbolTableImpl.
+ *
+ * - putOneByOne : one put per key, with its comparisons and rotations.
+ *
+ * - buildFromSorted : the linear-time constructor from sorted arrays.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms12g", "-Xmx12g" })
+public class BulkLoadBenchmark {
+
+    @Param({ Implementations.TREE_MAP_CUSTOM, Implementations.BALANCED_BST })
+    public String implementation;
+
+    @Param({ "1000000", "20000000" })
+    public int keyCount;
+
+    private Integer[] keys;
+
+    @Setup
+    public void setUp() {
+        keys = KeyDistribution.keys(KeyDistribution.SEQUENTIAL, keyCount);
+    }
+
+    @Benchmark
+    public int putOneByOne() {
+        SymbolTable<Integer, Integer> st = Implementations.create(implementation);
+        for (int i = 0; i < keyCount; i++)
+            st.put(keys[i], keys[i]);
+        return st.size();
+    }
+
+    @Benchmark
+    public int buildFromSorted() {
+        if (Implementations.TREE_MAP_CUSTOM.equals(implementation))
+            return new TreeMapCustom<Integer, Integer>(keys, keys, null).size();
+        return new BstSymbolTableImpl<Integer, Integer>(keys, keys, null, true).size();
+    }
+
+}
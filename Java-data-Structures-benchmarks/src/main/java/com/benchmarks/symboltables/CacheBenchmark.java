@@ -0,0 +1,95 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.BoundedCacheSymbolTable;
+import com.symboltables.EvictionPolicy;
+
+/**
+ * Throughput and hit ratio of BoundedCacheSymbolTable, LRU against W-TinyLFU,
+ * on a Zipfian trace over keyCount keys.
+ *
+ * Every operation reads a key of the access stream and puts it on a miss. The
+ * hits and misses columns are the number of hits and misses of the
+ * iteration : the hit ratio is hits / (hits + misses).
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class CacheBenchmark {
+
+    @Param({ "LRU", "TINY_LFU" })
+    public EvictionPolicy policy;
+
+    @Param({ "1000", "10000", "100000" })
+    public int capacity;
+
+    @Param({ "1000000" })
+    public int keyCount;
+
+    private BoundedCacheSymbolTable<Integer, Integer> cache;
+    private Integer[] accessKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Integer[] keys = KeyDistribution.keys(KeyDistribution.ZIPFIAN, keyCount);
+        int[] stream = KeyDistribution.accessStream(KeyDistribution.ZIPFIAN, keyCount,
+                SymbolTableBenchmark.STREAM_LENGTH);
+        accessKeys = new Integer[SymbolTableBenchmark.STREAM_LENGTH];
+        for (int i = 0; i < SymbolTableBenchmark.STREAM_LENGTH; i++)
+            accessKeys[i] = keys[stream[i]];
+        cache = new BoundedCacheSymbolTable<Integer, Integer>(capacity, policy);
+        cursor = 0;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Benchmark
+    public Integer getOrPut(Counters counters) {
+        int index = cursor;
+        cursor = (index + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+        Integer key = accessKeys[index];
+        Integer value = cache.get(key);
+        if (value != null) {
+            counters.hits++;
+            return value;
+        }
+        counters.misses++;
+        cache.put(key, index);
+        return null;
+    }
+
+}
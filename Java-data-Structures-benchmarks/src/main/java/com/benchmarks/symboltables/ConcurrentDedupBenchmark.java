@@ -0,0 +1,108 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import com.symboltables.ConcurrentLinearProbingSymbolTable;
+import com.symboltables.SeparateChainingSymbolTableImpl;
+
+/**
+ * Insert-only deduplication : all the threads put keys in one shared table
+ * unless they are already there.
+ *
+ * Each iteration starts from an empty table, so the table keeps growing and
+ * the resizes are part of the measure. duplicatePercent % of the keys have
+ * already been put by another thread. The baseline guards a
+ * SeparateChainingSymbolTableImpl with one global lock, the lock-free table
+ * uses putIfAbsent.
+ *
+ * Run it once per thread count (-t), as ConcurrentSymbolTableBenchmark.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g" })
+public class ConcurrentDedupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Table {
+
+        @Param({ Implementations.SYNCHRONIZED_SEPARATE_CHAINING, Implementations.CONCURRENT_LINEAR_PROBING })
+        public String implementation;
+
+        @Param({ "0", "50" })
+        public int duplicatePercent;
+
+        SeparateChainingSymbolTableImpl<Integer, Boolean> locked;
+        ConcurrentLinearProbingSymbolTable<Integer, Boolean> lockFree;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            if (Implementations.CONCURRENT_LINEAR_PROBING.equals(implementation))
+                lockFree = new ConcurrentLinearProbingSymbolTable<Integer, Boolean>();
+            else
+                locked = new SeparateChainingSymbolTableImpl<Integer, Boolean>();
+        }
+
+        boolean putIfAbsent(Integer key) {
+            if (lockFree != null)
+                return lockFree.putIfAbsent(key, Boolean.TRUE) == null;
+            synchronized (this) {
+                if (locked.containsKey(key))
+                    return false;
+                locked.put(key, Boolean.TRUE);
+                return true;
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Keys {
+
+        private int threadIndex;
+        private int threadCount;
+        private int counter;
+
+        @Setup(Level.Iteration)
+        public void setUp(ThreadParams threads) {
+            threadIndex = threads.getThreadIndex();
+            threadCount = threads.getThreadCount();
+            counter = 0;
+        }
+
+        /*
+         * Returns the next key of the thread : a key of the neighbour thread
+         * for the duplicates, a key of its own otherwise.
+         */
+        Integer next(int duplicatePercent) {
+            int n = counter++;
+            int owner = threadIndex;
+            if ((n % 100) < duplicatePercent)
+                owner = (threadIndex + 1) % threadCount;
+            return KeyDistribution.scramble(n * threadCount + owner);
+        }
+    }
+
+    @Benchmark
+    public boolean putIfAbsent(Table table, Keys keys) {
+        return table.putIfAbsent(keys.next(table.duplicatePercent));
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.benchmarks.symboltables;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import com.symboltables.I_TreeMapCustom;
+
+/**
+ * Multi-threaded throughput of the lock-free ConcurrentSkipListTreeMap
+ * against a TreeMapCustom guarded by one global lock.
+ *
+ * All the threads share the same map, filled once per trial with keyCount
+ * even keys. Each operation is a read with a probability of readPercent %,
+ * and a write otherwise :
+ *
+ * - a read is a get of an existing key or a ceilingKey of a missing odd key,
+ * with the same probability.
+ *
+ * - a write overwrites the value of an existing key, or removes it and puts
+ * it back, with the same probability, so the size of the map stays about
+ * constant.
+ *
+ * The number of threads is given on the command line (-t), like for
+ * ConcurrentSymbolTableBenchmark.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ConcurrentOrderedMapBenchmark {
+
+    /*** TreeMapCustom behind one global lock. */
+    public static final String SYNCHRONIZED_TREE_MAP_CUSTOM = "SynchronizedTreeMapCustom";
+
+    @State(Scope.Benchmark)
+    public static class SharedMap {
+
+        @Param({ SYNCHRONIZED_TREE_MAP_CUSTOM, Implementations.CONCURRENT_SKIP_LIST })
+        public String implementation;
+
+        @Param({ "100000", "1000000" })
+        public int keyCount;
+
+        @Param({ "90", "50" })
+        public int readPercent;
+
+        I_TreeMapCustom<Integer, Integer> map;
+        boolean locked;
+        Integer[] accessKeys;
+        int[] operations;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            locked = SYNCHRONIZED_TREE_MAP_CUSTOM.equals(implementation);
+            map = Implementations.createTreeMap(locked ? Implementations.TREE_MAP_CUSTOM : implementation);
+            Integer[] keys = KeyDistribution.keys(KeyDistribution.UNIFORM, keyCount);
+            for (int i = 0; i < keyCount; i++)
+                map.put(keys[i] << 1, i);
+
+            int length = SymbolTableBenchmark.STREAM_LENGTH;
+            int[] stream = KeyDistribution.accessStream(KeyDistribution.UNIFORM, keyCount, length);
+            Random random = new Random(42);
+            accessKeys = new Integer[length];
+            operations = new int[length];
+            for (int i = 0; i < length; i++) {
+                accessKeys[i] = keys[stream[i]] << 1;
+                boolean read = random.nextInt(100) < readPercent;
+                operations[i] = (read ? 0 : 2) + random.nextInt(2);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int index;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threads) {
+            index = threads.getThreadIndex() * (SymbolTableBenchmark.STREAM_LENGTH / threads.getThreadCount());
+        }
+
+        int next() {
+            int current = index;
+            index = (current + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+            return current;
+        }
+    }
+
+    @Benchmark
+    public Object operation(SharedMap map, Cursor cursor) {
+        int index = cursor.next();
+        if (map.locked) {
+            synchronized (map) {
+                return apply(map, index);
+            }
+        }
+        return apply(map, index);
+    }
+
+    private static Object apply(SharedMap map, int index) {
+        Integer key = map.accessKeys[index];
+        switch (map.operations[index]) {
+        case 0:
+            return map.map.get(key);
+        case 1:
+            return map.map.ceilingKey(key + 1);
+        case 2:
+            return map.map.put(key, index);
+        default:
+            map.map.remove(key);
+            return map.map.put(key, index);
+        }
+    }
+
+}
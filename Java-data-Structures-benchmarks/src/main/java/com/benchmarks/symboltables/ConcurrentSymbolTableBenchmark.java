@@ -0,0 +1,110 @@
+package com.benchmarks.symboltables;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import com.symboltables.SymbolTable;
+
+/**
+ * Multi-threaded throughput of ConcurrentSymbolTable (striped locks) and
+ * ConcurrentLinearProbingSymbolTable (lock-free) against a
+ * SeparateChainingSymbolTableImpl guarded by one global lock.
+ *
+ * All the threads share the same SymbolTable, filled once per trial with
+ * keyCount keys. Each operation is a get with a probability of
+ * readPercent %, and a put overwriting an existing key otherwise, so the size
+ * of the SymbolTable stays constant. Each thread reads the shared access
+ * stream from its own offset.
+ *
+ * The number of threads is given on the command line (-t), see the README for
+ * the loop running 1 to 32 threads. The reported throughput is the total of
+ * all the threads.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ConcurrentSymbolTableBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Table {
+
+        @Param({ Implementations.SYNCHRONIZED_SEPARATE_CHAINING, Implementations.CONCURRENT,
+                Implementations.CONCURRENT_LINEAR_PROBING })
+        public String implementation;
+
+        @Param({ "100000", "10000000" })
+        public int keyCount;
+
+        @Param({ "100", "90", "50" })
+        public int readPercent;
+
+        SymbolTable<Integer, Integer> st;
+        Integer[] accessKeys;
+        boolean[] reads;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Integer[] keys = KeyDistribution.keys(KeyDistribution.UNIFORM, keyCount);
+            st = Implementations.create(implementation);
+            for (int i = 0; i < keyCount; i++)
+                st.put(keys[i], i);
+
+            int length = SymbolTableBenchmark.STREAM_LENGTH;
+            int[] stream = KeyDistribution.accessStream(KeyDistribution.UNIFORM, keyCount, length);
+            Random random = new Random(42);
+            accessKeys = new Integer[length];
+            reads = new boolean[length];
+            for (int i = 0; i < length; i++) {
+                accessKeys[i] = keys[stream[i]];
+                reads[i] = random.nextInt(100) < readPercent;
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int index;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threads) {
+            index = threads.getThreadIndex() * (SymbolTableBenchmark.STREAM_LENGTH / threads.getThreadCount());
+        }
+
+        int next() {
+            int current = index;
+            index = (current + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+            return current;
+        }
+    }
+
+    @Benchmark
+    public Integer operation(Table table, Cursor cursor) {
+        int index = cursor.next();
+        Integer key = table.accessKeys[index];
+        if (table.reads[index])
+            return table.st.get(key);
+        table.st.put(key, index);
+        return null;
+    }
+
+}
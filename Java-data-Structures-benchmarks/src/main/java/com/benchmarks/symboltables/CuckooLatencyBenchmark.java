@@ -0,0 +1,102 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.CuckooHashingSymbolTableImpl;
+import com.symboltables.LinearProbingSymbolTableImpl;
+import com.symboltables.SymbolTable;
+
+/**
+ * Latency histogram of the gets in CuckooHashingSymbolTableImpl against
+ * LinearProbingSymbolTableImpl, both presized for keyCount keys at the same
+ * load factor.
+ *
+ * The SampleTime mode reports the percentiles of the get latency (p50 ...
+ * p99.9, p99.99 and max) : the tail of linear probing grows with the length
+ * of the clusters, so with the load factor, while a cuckoo get reads at most
+ * two buckets and the stash.
+ *
+ * - getHit : a get of a stored key of the uniform access stream.
+ *
+ * - getMiss : a get of a key which is not stored, which reads a whole
+ * cluster in linear probing and both buckets in cuckoo hashing.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g" })
+public class CuckooLatencyBenchmark {
+
+    @Param({ Implementations.LINEAR_PROBING, Implementations.CUCKOO_HASHING })
+    public String implementation;
+
+    @Param({ "1000000", "10000000" })
+    public int keyCount;
+
+    @Param({ "0.5", "0.85" })
+    public double loadFactor;
+
+    private SymbolTable<Integer, Integer> st;
+    private Integer[] hitKeys;
+    private Integer[] missKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // the first half of the keys is stored, the second half is missing
+        Integer[] keys = KeyDistribution.keys(KeyDistribution.UNIFORM, 2 * keyCount);
+        if (Implementations.CUCKOO_HASHING.equals(implementation))
+            st = new CuckooHashingSymbolTableImpl<Integer, Integer>(keyCount, loadFactor);
+        else
+            st = new LinearProbingSymbolTableImpl<Integer, Integer>(keyCount, loadFactor);
+        for (int i = 0; i < keyCount; i++)
+            st.put(keys[i], i);
+        int[] stream = KeyDistribution.accessStream(KeyDistribution.UNIFORM, keyCount,
+                SymbolTableBenchmark.STREAM_LENGTH);
+        hitKeys = new Integer[SymbolTableBenchmark.STREAM_LENGTH];
+        missKeys = new Integer[SymbolTableBenchmark.STREAM_LENGTH];
+        for (int i = 0; i < SymbolTableBenchmark.STREAM_LENGTH; i++) {
+            hitKeys[i] = keys[stream[i]];
+            missKeys[i] = keys[keyCount + stream[i]];
+        }
+        cursor = 0;
+    }
+
+    /*
+     * Returns the index of the next key in the access streams.
+     */
+    private int next() {
+        int index = cursor;
+        cursor = (index + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+        return index;
+    }
+
+    @Benchmark
+    public Integer getHit() {
+        return st.get(hitKeys[next()]);
+    }
+
+    @Benchmark
+    public Integer getMiss() {
+        return st.get(missKeys[next()]);
+    }
+
+}
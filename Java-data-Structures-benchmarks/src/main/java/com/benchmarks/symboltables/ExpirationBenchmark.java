@@ -0,0 +1,120 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.ExpiringSymbolTable;
+import com.symboltables.LinearProbingSymbolTableImpl;
+import com.symboltables.SeparateChainingSymbolTableImpl;
+
+/**
+ * Session store workload : every operation reads a session of the access
+ * stream, and creates it again with a time to live of ttlMillis if it has
+ * expired, so that the expired sessions must be reclaimed continuously.
+ *
+ * - wheel : ExpiringSymbolTable, whose timing wheel reclaims the expired
+ * sessions as the time advances.
+ *
+ * - periodicSweep : a LinearProbingSymbolTableImpl mapping each session to
+ * its deadline, swept once per second : every slot is read and the expired
+ * sessions are deleted.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms12g", "-Xmx12g" })
+public class ExpirationBenchmark {
+
+    private static final long SWEEP_PERIOD = TimeUnit.SECONDS.toNanos(1);
+
+    @Param({ "1000000", "30000000" })
+    public int keyCount;
+
+    @Param({ "1000", "30000" })
+    public long ttlMillis;
+
+    private ExpiringSymbolTable<Integer, Integer> wheel;
+    private LinearProbingSymbolTableImpl<Integer, Long> deadlines;
+    private long nextSweep;
+    private Integer[] accessKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Integer[] keys = KeyDistribution.keys(KeyDistribution.UNIFORM, keyCount);
+        int[] stream = KeyDistribution.accessStream(KeyDistribution.UNIFORM, keyCount,
+                SymbolTableBenchmark.STREAM_LENGTH);
+        accessKeys = new Integer[SymbolTableBenchmark.STREAM_LENGTH];
+        for (int i = 0; i < SymbolTableBenchmark.STREAM_LENGTH; i++)
+            accessKeys[i] = keys[stream[i]];
+        wheel = new ExpiringSymbolTable<Integer, Integer>(ttlMillis, TimeUnit.MILLISECONDS, keyCount);
+        deadlines = new LinearProbingSymbolTableImpl<Integer, Long>(keyCount,
+                LinearProbingSymbolTableImpl.DEFAULT_LOAD_FACTOR);
+        nextSweep = System.nanoTime() + SWEEP_PERIOD;
+        cursor = 0;
+    }
+
+    /*
+     * Returns the index of the next key in the access stream.
+     */
+    private int next() {
+        int index = cursor;
+        cursor = (index + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+        return index;
+    }
+
+    @Benchmark
+    public Integer wheel() {
+        int index = next();
+        Integer key = accessKeys[index];
+        Integer value = wheel.get(key);
+        if (value == null)
+            wheel.put(key, index);
+        return value;
+    }
+
+    @Benchmark
+    public Long periodicSweep() {
+        Integer key = accessKeys[next()];
+        long now = System.nanoTime();
+        if (now - nextSweep >= 0) {
+            sweep(now);
+            nextSweep = now + SWEEP_PERIOD;
+        }
+        Long deadline = deadlines.get(key);
+        if (deadline == null || deadline - now <= 0)
+            deadlines.put(key, now + TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+        return deadline;
+    }
+
+    /*
+     * Delete every expired session, found by a scan of all the slots.
+     */
+    private void sweep(long now) {
+        SeparateChainingSymbolTableImpl<Integer, Boolean> expired = new SeparateChainingSymbolTableImpl<>();
+        deadlines.forEach((key, deadline) -> {
+            if (deadline - now <= 0)
+                expired.put(key, Boolean.TRUE);
+        });
+        for (Integer key : expired)
+            deadlines.delete(key);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.HashIndexing;
+import com.symboltables.LinearProbingSymbolTableImpl;
+import com.symboltables.SeparateChainingSymbolTableImpl;
+import com.symboltables.SymbolTable;
+
+/**
+ * Compares the MODULO and the POWER_OF_TWO HashIndexing of the hash
+ * SymbolTables on Integer and String keys.
+ * 
+ * - INTEGER : scrambled Integer keys, whose hash codes are already good.
+ * 
+ * - STRIDED_INTEGER : multiples of 1024, whose low bits are all zero. This is
+ * the worst case of the modulo indexing with a power of two capacity.
+ * 
+ * - STRING : "key-0", "key-1", ... whose hash codes are cached by String.
+ * 
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class HashIndexingBenchmark {
+
+    @Param({ Implementations.LINEAR_PROBING, Implementations.SEPARATE_CHAINING })
+    public String implementation;
+
+    @Param({ "MODULO", "POWER_OF_TWO" })
+    public HashIndexing indexing;
+
+    @Param({ "INTEGER", "STRIDED_INTEGER", "STRING" })
+    public String keyType;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int keyCount;
+
+    private SymbolTable<Object, Integer> st;
+    private Object[] accessKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Object[] keys = new Object[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            switch (keyType) {
+            case "INTEGER":
+                keys[i] = KeyDistribution.scramble(i);
+                break;
+            case "STRIDED_INTEGER":
+                keys[i] = i << 10;
+                break;
+            case "STRING":
+                keys[i] = "key-" + i;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown key type : " + keyType);
+            }
+        }
+        if (Implementations.LINEAR_PROBING.equals(implementation))
+            st = new LinearProbingSymbolTableImpl<Object, Integer>(indexing);
+        else
+            st = new SeparateChainingSymbolTableImpl<Object, Integer>(indexing);
+        for (int i = 0; i < keyCount; i++)
+            st.put(keys[i], i);
+
+        int[] stream = KeyDistribution.accessStream(KeyDistribution.UNIFORM, keyCount,
+                SymbolTableBenchmark.STREAM_LENGTH);
+        accessKeys = new Object[SymbolTableBenchmark.STREAM_LENGTH];
+        for (int i = 0; i < SymbolTableBenchmark.STREAM_LENGTH; i++)
+            accessKeys[i] = keys[stream[i]];
+        cursor = 0;
+    }
+
+    @Benchmark
+    public Integer get() {
+        Object key = accessKeys[cursor];
+        cursor = (cursor + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+        return st.get(key);
+    }
+
+    @Benchmark
+    public void put() {
+        int index = cursor;
+        cursor = (cursor + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+        st.put(accessKeys[index], index);
+    }
+
+}
@@ -0,0 +1,225 @@
+package com.benchmarks.symboltables;
+
+import java.util.Iterator;
+
+import com.symboltables.BPlusTreeMap;
+import com.symboltables.BstSymbolTableImpl;
+import com.symboltables.ConcurrentLinearProbingSymbolTable;
+import com.symboltables.ConcurrentSkipListTreeMap;
+import com.symboltables.ConcurrentSymbolTable;
+import com.symboltables.CuckooHashingSymbolTableImpl;
+import com.symboltables.I_TreeMapCustom;
+import com.symboltables.LinearProbingSymbolTableImpl;
+import com.symboltables.SeparateChainingSymbolTableImpl;
+import com.symboltables.SymbolTable;
+import com.symboltables.TreeMapCustom;
+
+/**
+ * Implementations creates the benchmarked SymbolTables from their name, so
+ * that every implementation can be selected through a JMH parameter.
+ * 
+ * TreeMapCustom and BPlusTreeMap do not implement the SymbolTable API, so
+ * they are adapted to it by TreeMapCustomAdapter.
+ * 
+ * SynchronizedAdapter serializes every call to a SymbolTable with a single
+ * lock : it is the baseline of the multi-threaded benchmarks.
+ * 
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+public final class Implementations {
+
+    public static final String LINEAR_PROBING = "LinearProbingSymbolTableImpl";
+    public static final String SEPARATE_CHAINING = "SeparateChainingSymbolTableImpl";
+    public static final String CUCKOO_HASHING = "CuckooHashingSymbolTableImpl";
+    public static final String BST = "BstSymbolTableImpl";
+    public static final String BALANCED_BST = "BalancedBstSymbolTableImpl";
+    public static final String TREE_MAP_CUSTOM = "TreeMapCustom";
+    public static final String B_PLUS_TREE = "BPlusTreeMap";
+    public static final String CONCURRENT_SKIP_LIST = "ConcurrentSkipListTreeMap";
+    public static final String CONCURRENT = "ConcurrentSymbolTable";
+    public static final String CONCURRENT_LINEAR_PROBING = "ConcurrentLinearProbingSymbolTable";
+    public static final String SYNCHRONIZED_SEPARATE_CHAINING = "SynchronizedSeparateChaining";
+
+    private Implementations() {
+    }
+
+    /**
+     * Returns a new empty SymbolTable of the given implementation.
+     * 
+     * @param <Key>
+     *            the type of the keys
+     * @param <Value>
+     *            the type of the values
+     * @param name
+     *            the name of the implementation
+     * @return a new empty SymbolTable
+     */
+    public static <Key extends Comparable<Key>, Value> SymbolTable<Key, Value> create(String name) {
+        switch (name) {
+        case LINEAR_PROBING:
+            return new LinearProbingSymbolTableImpl<Key, Value>();
+        case SEPARATE_CHAINING:
+            return new SeparateChainingSymbolTableImpl<Key, Value>();
+        case CUCKOO_HASHING:
+            return new CuckooHashingSymbolTableImpl<Key, Value>();
+        case BST:
+            return new BstSymbolTableImpl<Key, Value>();
+        case BALANCED_BST:
+            return new BstSymbolTableImpl<Key, Value>(true);
+        case TREE_MAP_CUSTOM:
+        case B_PLUS_TREE:
+            return new TreeMapCustomAdapter<Key, Value>(Implementations.<Key, Value> createTreeMap(name));
+        case CONCURRENT:
+            return new ConcurrentSymbolTable<Key, Value>();
+        case CONCURRENT_LINEAR_PROBING:
+            return new ConcurrentLinearProbingSymbolTable<Key, Value>();
+        case SYNCHRONIZED_SEPARATE_CHAINING:
+            return new SynchronizedAdapter<Key, Value>(new SeparateChainingSymbolTableImpl<Key, Value>());
+        default:
+            throw new IllegalArgumentException("Unknown implementation : " + name);
+        }
+    }
+
+    /**
+     * Returns a new empty I_TreeMapCustom of the given implementation.
+     * 
+     * @param <Key>
+     *            the type of the keys
+     * @param <Value>
+     *            the type of the values
+     * @param name
+     *            the name of the implementation, TREE_MAP_CUSTOM, B_PLUS_TREE
+     *            or CONCURRENT_SKIP_LIST
+     * @return a new empty I_TreeMapCustom
+     */
+    public static <Key, Value> I_TreeMapCustom<Key, Value> createTreeMap(String name) {
+        switch (name) {
+        case TREE_MAP_CUSTOM:
+            return new TreeMapCustom<Key, Value>();
+        case B_PLUS_TREE:
+            return new BPlusTreeMap<Key, Value>();
+        case CONCURRENT_SKIP_LIST:
+            return new ConcurrentSkipListTreeMap<Key, Value>();
+        default:
+            throw new IllegalArgumentException("Unknown implementation : " + name);
+        }
+    }
+
+    /**
+     * TreeMapCustomAdapter exposes an I_TreeMapCustom through the SymbolTable
+     * API.
+     */
+    static final class TreeMapCustomAdapter<Key, Value> implements SymbolTable<Key, Value> {
+
+        private final I_TreeMapCustom<Key, Value> map;
+
+        TreeMapCustomAdapter(I_TreeMapCustom<Key, Value> map) {
+            this.map = map;
+        }
+
+        @Override
+        public void put(Key key, Value value) {
+            map.put(key, value);
+        }
+
+        @Override
+        public Value get(Key key) {
+            return map.get(key);
+        }
+
+        @Override
+        public Value delete(Key key) {
+            return map.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+
+        @Override
+        public boolean containsKey(Key key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public boolean containsValue(Value value) {
+            return map.containsValue(value);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public Iterator<Key> iterator() {
+            return map.iterator();
+        }
+    }
+
+    /**
+     * SynchronizedAdapter guards every call to a SymbolTable with one global
+     * lock. The iterator is not guarded.
+     */
+    static final class SynchronizedAdapter<Key, Value> implements SymbolTable<Key, Value> {
+
+        private final SymbolTable<Key, Value> st;
+
+        SynchronizedAdapter(SymbolTable<Key, Value> st) {
+            this.st = st;
+        }
+
+        @Override
+        public synchronized void put(Key key, Value value) {
+            st.put(key, value);
+        }
+
+        @Override
+        public synchronized Value get(Key key) {
+            return st.get(key);
+        }
+
+        @Override
+        public synchronized Value delete(Key key) {
+            return st.delete(key);
+        }
+
+        @Override
+        public synchronized void clear() {
+            st.clear();
+        }
+
+        @Override
+        public synchronized boolean containsKey(Key key) {
+            return st.containsKey(key);
+        }
+
+        @Override
+        public synchronized boolean containsValue(Value value) {
+            return st.containsValue(value);
+        }
+
+        @Override
+        public synchronized boolean isEmpty() {
+            return st.isEmpty();
+        }
+
+        @Override
+        public synchronized int size() {
+            return st.size();
+        }
+
+        @Override
+        public Iterator<Key> iterator() {
+            return st.iterator();
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.HashIndexing;
+import com.symboltables.SeparateChainingSymbolTableImpl;
+import com.symboltables.SymbolTable;
+
+/**
+ * Latency histogram of the puts of new keys in SeparateChainingSymbolTableImpl,
+ * with and without incremental resize.
+ * 
+ * The SampleTime mode reports the percentiles of the put latency (p50 ...
+ * p99.99 and max). Every iteration starts from a SymbolTable holding
+ * initialSize keys and keeps adding new keys, so several resizes happen
+ * during each iteration : with the stop-the-world resize they show up as a
+ * max latency of several milliseconds, with the incremental resize the max
+ * stays close to the p99.99.
+ * 
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g" })
+public class IncrementalResizeBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean incrementalResize;
+
+    @Param({ "1000000", "10000000" })
+    public int initialSize;
+
+    private SymbolTable<Integer, Integer> st;
+    private int nextKey;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        st = new SeparateChainingSymbolTableImpl<Integer, Integer>(0,
+                SeparateChainingSymbolTableImpl.DEFAULT_LOAD_FACTOR, HashIndexing.MODULO, incrementalResize);
+        for (nextKey = 0; nextKey < initialSize; nextKey++)
+            st.put(KeyDistribution.scramble(nextKey), nextKey);
+    }
+
+    @Benchmark
+    public void putNewKey() {
+        st.put(KeyDistribution.scramble(nextKey), nextKey);
+        nextKey++;
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.benchmarks.symboltables;
+
+import java.util.Random;
+
+/**
+ * KeyDistribution generates the keys stored in the benchmarked SymbolTables
+ * and the order in which the benchmarks access them.
+ * 
+ * - SEQUENTIAL : the keys are 0, 1, 2, ... and are accessed in that order.
+ * 
+ * - UNIFORM : the keys are scattered over the whole int range and every key
+ * has the same probability to be accessed.
+ * 
+ * - ZIPFIAN : the keys are scattered over the whole int range and are accessed
+ * following a Zipf law (a few hot keys receive most of the accesses).
+ * 
+ * Every generator is seeded so that two runs of the same benchmark produce the
+ * same workload.
+ * 
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+public final class KeyDistribution {
+
+    public static final String SEQUENTIAL = "SEQUENTIAL";
+    public static final String UNIFORM = "UNIFORM";
+    public static final String ZIPFIAN = "ZIPFIAN";
+
+    /*** The seed used by every random generator of the benchmarks. */
+    public static final long SEED = 42L;
+
+    /*** The skew used for the Zipfian distribution (same as YCSB). */
+    public static final double ZIPFIAN_CONSTANT = 0.99;
+
+    private KeyDistribution() {
+    }
+
+    /**
+     * Returns the keyCount distinct keys to store in the SymbolTable.
+     * 
+     * @param distribution
+     *            one of SEQUENTIAL, UNIFORM or ZIPFIAN
+     * @param keyCount
+     *            the number of keys
+     * @return the keys to store in the SymbolTable
+     */
+    public static Integer[] keys(String distribution, int keyCount) {
+        Integer[] keys = new Integer[keyCount];
+        boolean sequential = SEQUENTIAL.equals(checkDistribution(distribution));
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = sequential ? i : scramble(i);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a stream of length indexes in [0, keyCount) telling in which
+     * order the keys are accessed.
+     * 
+     * @param distribution
+     *            one of SEQUENTIAL, UNIFORM or ZIPFIAN
+     * @param keyCount
+     *            the number of keys
+     * @param length
+     *            the length of the stream
+     * @return the access stream
+     */
+    public static int[] accessStream(String distribution, int keyCount, int length) {
+        int[] stream = new int[length];
+        Random random = new Random(SEED);
+        switch (checkDistribution(distribution)) {
+        case SEQUENTIAL:
+            for (int i = 0; i < length; i++)
+                stream[i] = i % keyCount;
+            break;
+        case UNIFORM:
+            for (int i = 0; i < length; i++)
+                stream[i] = random.nextInt(keyCount);
+            break;
+        default:
+            ZipfianGenerator zipf = new ZipfianGenerator(keyCount, ZIPFIAN_CONSTANT, random);
+            for (int i = 0; i < length; i++) {
+                // spread the hot ranks over the whole key set
+                stream[i] = (int) ((scramble(zipf.nextRank()) & 0x7fffffffL) % keyCount);
+            }
+            break;
+        }
+        return stream;
+    }
+
+    /*
+     * Check that the given distribution is known.
+     */
+    private static String checkDistribution(String distribution) {
+        if (!SEQUENTIAL.equals(distribution) && !UNIFORM.equals(distribution) && !ZIPFIAN.equals(distribution))
+            throw new IllegalArgumentException("Unknown distribution : " + distribution);
+        return distribution;
+    }
+
+    /*
+     * Bijective mix of the 32 bits of the given int, so distinct inputs always
+     * give distinct outputs.
+     */
+    static int scramble(int x) {
+        x = (x ^ (x >>> 16)) * 0x45d9f3b;
+        x = (x ^ (x >>> 16)) * 0x45d9f3b;
+        return x ^ (x >>> 16);
+    }
+
+    /**
+     * Zipfian generator of ranks in [0, n) as described by Gray et al. in
+     * "Quickly Generating Billion-Record Synthetic Databases" (also used by
+     * YCSB). Rank 0 is the most popular one.
+     */
+    static final class ZipfianGenerator {
+
+        private final int n;
+        private final double theta;
+        private final double alpha;
+        private final double zetan;
+        private final double eta;
+        private final Random random;
+
+        ZipfianGenerator(int n, double theta, Random random) {
+            this.n = n;
+            this.theta = theta;
+            this.random = random;
+            double zeta2 = zeta(2, theta);
+            this.alpha = 1.0 / (1.0 - theta);
+            this.zetan = zeta(n, theta);
+            this.eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetan);
+        }
+
+        int nextRank() {
+            double u = random.nextDouble();
+            double uz = u * zetan;
+            if (uz < 1.0)
+                return 0;
+            if (uz < 1.0 + Math.pow(0.5, theta))
+                return Math.min(1, n - 1);
+            return Math.min((int) (n * Math.pow(eta * u - eta + 1, alpha)), n - 1);
+        }
+
+        private static double zeta(int n, double theta) {
+            double sum = 0;
+            for (int i = 1; i <= n; i++)
+                sum += 1 / Math.pow(i, theta);
+            return sum;
+        }
+    }
+
+}
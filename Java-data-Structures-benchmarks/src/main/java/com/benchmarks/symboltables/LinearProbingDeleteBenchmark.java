@@ -0,0 +1,87 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.LinearProbingSymbolTableImpl;
+import com.symboltables.SymbolTable;
+
+/**
+ * Measures the cost of a deletion in LinearProbingSymbolTableImpl as the
+ * SymbolTable grows.
+ * 
+ * Every operation deletes a key and adds it back, so the size of the
+ * SymbolTable stays equal to keyCount during the whole measurement. A delete
+ * in O(1) amortized gives the same ns/op from 10K to 10M keys (modulo cache
+ * misses), while a delete in O(capacity) gets 1000 times slower.
+ * 
+ * The churn benchmark replays a session cache : the oldest key is deleted
+ * and a brand new key is added.
+ * 
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class LinearProbingDeleteBenchmark {
+
+    @Param({ "10000", "100000", "1000000", "10000000" })
+    public int keyCount;
+
+    private SymbolTable<Integer, Integer> st;
+    private Integer[] accessKeys;
+    private int cursor;
+    private int oldest;
+    private int newest;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        st = new LinearProbingSymbolTableImpl<Integer, Integer>();
+        for (int i = 0; i < keyCount; i++)
+            st.put(KeyDistribution.scramble(i), i);
+
+        Integer[] keys = KeyDistribution.keys(KeyDistribution.UNIFORM, keyCount);
+        int[] stream = KeyDistribution.accessStream(KeyDistribution.UNIFORM, keyCount,
+                SymbolTableBenchmark.STREAM_LENGTH);
+        accessKeys = new Integer[SymbolTableBenchmark.STREAM_LENGTH];
+        for (int i = 0; i < SymbolTableBenchmark.STREAM_LENGTH; i++)
+            accessKeys[i] = keys[stream[i]];
+        cursor = 0;
+        oldest = 0;
+        newest = keyCount;
+    }
+
+    @Benchmark
+    public Integer deleteThenPut() {
+        Integer key = accessKeys[cursor];
+        cursor = (cursor + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+        Integer value = st.delete(key);
+        st.put(key, value);
+        return value;
+    }
+
+    @Benchmark
+    public Integer churn() {
+        Integer value = st.delete(KeyDistribution.scramble(oldest++));
+        st.put(KeyDistribution.scramble(newest), newest);
+        newest++;
+        return value;
+    }
+
+}
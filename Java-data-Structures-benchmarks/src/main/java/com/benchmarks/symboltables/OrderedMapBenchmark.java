@@ -0,0 +1,115 @@
+package com.benchmarks.symboltables;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.I_TreeMapCustom;
+
+/**
+ * Compares the red-black TreeMapCustom with the BPlusTreeMap on point
+ * lookups, inserts and range scans.
+ *
+ * - get : successful lookups.
+ *
+ * - put : overwrites the value of an existing key.
+ *
+ * - putThenRemove : adds a missing key and removes it, so that the size of
+ * the map stays constant.
+ *
+ * - rangeScan : reads the rangeLength keys following a random key with
+ * iterator(fromKey).
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g" })
+public class OrderedMapBenchmark {
+
+    @Param({ Implementations.TREE_MAP_CUSTOM, Implementations.B_PLUS_TREE })
+    public String implementation;
+
+    @Param({ "100000", "10000000" })
+    public int keyCount;
+
+    @Param({ "100" })
+    public int rangeLength;
+
+    private I_TreeMapCustom<Integer, Integer> map;
+    private Integer[] accessKeys;
+    private Integer[] missingKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // even keys only, so that the odd keys are missing
+        Integer[] keys = KeyDistribution.keys(KeyDistribution.UNIFORM, keyCount);
+        map = Implementations.createTreeMap(implementation);
+        for (int i = 0; i < keyCount; i++)
+            map.put(keys[i] << 1, i);
+
+        int[] stream = KeyDistribution.accessStream(KeyDistribution.UNIFORM, keyCount,
+                SymbolTableBenchmark.STREAM_LENGTH);
+        accessKeys = new Integer[SymbolTableBenchmark.STREAM_LENGTH];
+        missingKeys = new Integer[SymbolTableBenchmark.STREAM_LENGTH];
+        for (int i = 0; i < SymbolTableBenchmark.STREAM_LENGTH; i++) {
+            accessKeys[i] = keys[stream[i]] << 1;
+            missingKeys[i] = accessKeys[i] + 1;
+        }
+        cursor = 0;
+    }
+
+    /*
+     * Returns the index of the next key in the access stream.
+     */
+    private int next() {
+        int index = cursor;
+        cursor = (index + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+        return index;
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(accessKeys[next()]);
+    }
+
+    @Benchmark
+    public void put() {
+        int index = next();
+        map.put(accessKeys[index], index);
+    }
+
+    @Benchmark
+    public Integer putThenRemove() {
+        Integer key = missingKeys[next()];
+        map.put(key, 0);
+        return map.remove(key);
+    }
+
+    @Benchmark
+    public long rangeScan() {
+        Iterator<Integer> it = map.iterator(accessKeys[next()]);
+        long sum = 0;
+        for (int i = 0; i < rangeLength && it.hasNext(); i++)
+            sum += it.next();
+        return sum;
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.HashArrayMappedTrie;
+import com.symboltables.LinearProbingSymbolTableImpl;
+
+/**
+ * Cost of publishing immutable versions of a table of keyCount keys, each
+ * version being batchSize puts of the uniform access stream away from the
+ * previous one, and cost of reading them.
+ *
+ * - hamtPublish : a batch of HashArrayMappedTrie, which copies only the nodes
+ * of the paths to the updated keys, then a snapshot.
+ *
+ * - copyOnWritePublish : the baseline, a copy of the current
+ * LinearProbingSymbolTableImpl updated then published, so that the readers
+ * never see it change.
+ *
+ * - hamtGet / linearProbingGet : a get in the last version.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms12g", "-Xmx12g" })
+public class PersistentVersionBenchmark {
+
+    @Param({ "10000", "1000000" })
+    public int keyCount;
+
+    @Param({ "1", "100" })
+    public int batchSize;
+
+    private HashArrayMappedTrie<Integer, Integer> hamt;
+    private volatile HashArrayMappedTrie<Integer, Integer> hamtVersion;
+    private volatile LinearProbingSymbolTableImpl<Integer, Integer> copyOnWriteVersion;
+    private Integer[] accessKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Integer[] keys = KeyDistribution.keys(KeyDistribution.UNIFORM, keyCount);
+        int[] stream = KeyDistribution.accessStream(KeyDistribution.UNIFORM, keyCount,
+                SymbolTableBenchmark.STREAM_LENGTH);
+        accessKeys = new Integer[SymbolTableBenchmark.STREAM_LENGTH];
+        for (int i = 0; i < SymbolTableBenchmark.STREAM_LENGTH; i++)
+            accessKeys[i] = keys[stream[i]];
+        hamt = new HashArrayMappedTrie<Integer, Integer>();
+        LinearProbingSymbolTableImpl<Integer, Integer> table = new LinearProbingSymbolTableImpl<Integer, Integer>(
+                keyCount, LinearProbingSymbolTableImpl.DEFAULT_LOAD_FACTOR);
+        for (int i = 0; i < keyCount; i++) {
+            hamt.put(keys[i], i);
+            table.put(keys[i], i);
+        }
+        hamtVersion = hamt.snapshot();
+        copyOnWriteVersion = table;
+        cursor = 0;
+    }
+
+    /*
+     * Returns the next key of the access stream.
+     */
+    private Integer next() {
+        int index = cursor;
+        cursor = (index + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+        return accessKeys[index];
+    }
+
+    @Benchmark
+    public int hamtPublish() {
+        hamt.batch(batch -> {
+            for (int i = 0; i < batchSize; i++)
+                batch.put(next(), i);
+        });
+        hamtVersion = hamt.snapshot();
+        return hamtVersion.size();
+    }
+
+    @Benchmark
+    public int copyOnWritePublish() {
+        LinearProbingSymbolTableImpl<Integer, Integer> current = copyOnWriteVersion;
+        LinearProbingSymbolTableImpl<Integer, Integer> copy = new LinearProbingSymbolTableImpl<Integer, Integer>(
+                current.size(), LinearProbingSymbolTableImpl.DEFAULT_LOAD_FACTOR);
+        current.forEach(copy::put);
+        for (int i = 0; i < batchSize; i++)
+            copy.put(next(), i);
+        copyOnWriteVersion = copy;
+        return copy.size();
+    }
+
+    @Benchmark
+    public Integer hamtGet() {
+        return hamtVersion.get(next());
+    }
+
+    @Benchmark
+    public Integer linearProbingGet() {
+        return copyOnWriteVersion.get(next());
+    }
+
+}
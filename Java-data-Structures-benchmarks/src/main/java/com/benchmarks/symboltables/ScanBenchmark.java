@@ -0,0 +1,80 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.LinearProbingSymbolTableImpl;
+import com.symboltables.SeparateChainingSymbolTableImpl;
+import com.symboltables.SymbolTable;
+import com.symboltables.SymbolTableCursor;
+
+/**
+ * Cost of a full scan of the entries of the hash SymbolTables : iterating the
+ * keys and looking up each value, against walking the entries with a cursor.
+ *
+ * Run it with the GC profiler (-prof gc) : the cursor scan allocates a single
+ * cursor whatever the size of the SymbolTable.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g" })
+public class ScanBenchmark {
+
+    @Param({ Implementations.LINEAR_PROBING, Implementations.SEPARATE_CHAINING })
+    public String implementation;
+
+    @Param({ "100000", "10000000" })
+    public int keyCount;
+
+    private SymbolTable<Integer, Integer> st;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Integer[] keys = KeyDistribution.keys(KeyDistribution.UNIFORM, keyCount);
+        st = Implementations.create(implementation);
+        for (int i = 0; i < keyCount; i++)
+            st.put(keys[i], i);
+    }
+
+    @Benchmark
+    public long iteratorAndGet() {
+        long sum = 0;
+        for (Integer key : st)
+            sum += st.get(key);
+        return sum;
+    }
+
+    @Benchmark
+    public long cursor() {
+        SymbolTableCursor<Integer, Integer> cursor = cursorOf(st);
+        long sum = 0;
+        while (cursor.next())
+            sum += cursor.value();
+        return sum;
+    }
+
+    private static SymbolTableCursor<Integer, Integer> cursorOf(SymbolTable<Integer, Integer> st) {
+        if (st instanceof LinearProbingSymbolTableImpl)
+            return ((LinearProbingSymbolTableImpl<Integer, Integer>) st).cursor();
+        return ((SeparateChainingSymbolTableImpl<Integer, Integer>) st).cursor();
+    }
+
+}
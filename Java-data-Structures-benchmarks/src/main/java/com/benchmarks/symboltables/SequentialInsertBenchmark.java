@@ -0,0 +1,72 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.SymbolTable;
+
+/**
+ * Time to fill an empty ordered SymbolTable with keyCount keys in increasing
+ * order, then to delete them all, in a single shot per table.
+ *
+ * Sorted keys drive the trees to their deepest paths : the unbalanced
+ * BstSymbolTableImpl becomes a list, whose depth would overflow the call
+ * stack with a recursive put or delete. Its inserts are quadratic, so restrict
+ * it to the small key counts :
+ *
+ * java -jar target/benchmarks.jar SequentialInsertBenchmark -p
+ * implementation=BstSymbolTableImpl -p keyCount=100000
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g" })
+public class SequentialInsertBenchmark {
+
+    @Param({ Implementations.TREE_MAP_CUSTOM, Implementations.BALANCED_BST, Implementations.BST })
+    public String implementation;
+
+    @Param({ "100000", "10000000" })
+    public int keyCount;
+
+    private Integer[] keys;
+    private SymbolTable<Integer, Integer> st;
+
+    @Setup(Level.Trial)
+    public void setUpKeys() {
+        keys = KeyDistribution.keys(KeyDistribution.SEQUENTIAL, keyCount);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        st = Implementations.create(implementation);
+    }
+
+    @Benchmark
+    public int insertThenDelete() {
+        for (int i = 0; i < keyCount; i++)
+            st.put(keys[i], i);
+        int size = st.size();
+        for (int i = 0; i < keyCount; i++)
+            st.delete(keys[i]);
+        return size;
+    }
+
+}
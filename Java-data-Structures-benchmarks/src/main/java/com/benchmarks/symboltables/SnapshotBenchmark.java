@@ -0,0 +1,127 @@
+package com.benchmarks.symboltables;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.Codecs;
+import com.symboltables.LinearProbingSymbolTableImpl;
+import com.symboltables.SymbolTable;
+import com.symboltables.SymbolTableSnapshot;
+
+/**
+ * Time to checkpoint a LinearProbingSymbolTableImpl of keyCount Integer keys
+ * and values to a file, and to load it back.
+ *
+ * - snapshotWrite / snapshotRead : SymbolTableSnapshot, through a FileChannel
+ * and direct buffers. The read presizes the loaded SymbolTable.
+ *
+ * - objectStreamWrite / objectStreamRead : the baseline, an
+ * ObjectOutputStream writing the size then each key and value, and the
+ * ObjectInputStream reading them into a SymbolTable that grows.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms12g", "-Xmx12g" })
+public class SnapshotBenchmark {
+
+    @Param({ "1000000", "50000000" })
+    public int keyCount;
+
+    private SymbolTable<Integer, Integer> st;
+    private File snapshotFile;
+    private File objectStreamFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Integer[] keys = KeyDistribution.keys(KeyDistribution.UNIFORM, keyCount);
+        st = new LinearProbingSymbolTableImpl<Integer, Integer>(keyCount,
+                LinearProbingSymbolTableImpl.DEFAULT_LOAD_FACTOR);
+        for (int i = 0; i < keyCount; i++)
+            st.put(keys[i], i);
+        snapshotFile = File.createTempFile("symboltable", ".snapshot");
+        objectStreamFile = File.createTempFile("symboltable", ".ser");
+        // the read benchmarks need the files of the write benchmarks
+        snapshotWrite();
+        objectStreamWrite();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        snapshotFile.delete();
+        objectStreamFile.delete();
+    }
+
+    @Benchmark
+    public long snapshotWrite() throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return SymbolTableSnapshot.write(st, channel, Codecs.INTEGER, Codecs.INTEGER);
+        }
+    }
+
+    @Benchmark
+    public int snapshotRead() throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            return SymbolTableSnapshot.read(channel, Codecs.INTEGER, Codecs.INTEGER,
+                    n -> new LinearProbingSymbolTableImpl<Integer, Integer>(n,
+                            LinearProbingSymbolTableImpl.DEFAULT_LOAD_FACTOR)).size();
+        }
+    }
+
+    @Benchmark
+    public int objectStreamWrite() throws IOException {
+        try (FileChannel channel = FileChannel.open(objectStreamFile.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                ObjectOutputStream out = new ObjectOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 20))) {
+            out.writeInt(st.size());
+            for (Integer key : st) {
+                out.writeObject(key);
+                out.writeObject(st.get(key));
+            }
+            return st.size();
+        }
+    }
+
+    @Benchmark
+    public int objectStreamRead() throws IOException, ClassNotFoundException {
+        try (FileChannel channel = FileChannel.open(objectStreamFile.toPath(), StandardOpenOption.READ);
+                ObjectInputStream in = new ObjectInputStream(
+                        new BufferedInputStream(Channels.newInputStream(channel), 1 << 20))) {
+            int size = in.readInt();
+            SymbolTable<Integer, Integer> copy = new LinearProbingSymbolTableImpl<Integer, Integer>();
+            for (int i = 0; i < size; i++)
+                copy.put((Integer) in.readObject(), (Integer) in.readObject());
+            return copy.size();
+        }
+    }
+
+}
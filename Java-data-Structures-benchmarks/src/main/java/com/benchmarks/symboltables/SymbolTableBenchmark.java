@@ -0,0 +1,131 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.SymbolTable;
+
+/**
+ * Measures the put/get/delete/containsKey throughput of every SymbolTable
+ * implementation for several sizes and key distributions.
+ * 
+ * The SymbolTable is filled once per trial with keyCount keys. Every
+ * operation then picks its key from a pre-computed access stream, so that
+ * the measured code never allocates anything else than what the SymbolTable
+ * itself allocates (see the gc.alloc.rate.norm column of the GC profiler).
+ * 
+ * - put : overwrites the value of an existing key with a pre-boxed value.
+ * 
+ * - get / containsKey : successful lookups.
+ * 
+ * - getMiss : unsuccessful lookups.
+ * 
+ * - deleteThenPut : removes a key and adds it back so that the size of the
+ * SymbolTable stays constant.
+ * 
+ * The unbalanced BstSymbolTableImpl is left out : filling it with 50M
+ * sequential keys is quadratic. BalancedBstSymbolTableImpl stands for the
+ * binary search trees.
+ * 
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms12g", "-Xmx12g" })
+public class SymbolTableBenchmark {
+
+    /*** Length of the pre-computed access stream (must be a power of two). */
+    static final int STREAM_LENGTH = 1 << 20;
+
+    @Param({ Implementations.LINEAR_PROBING, Implementations.SEPARATE_CHAINING, Implementations.CUCKOO_HASHING,
+            Implementations.BALANCED_BST, Implementations.TREE_MAP_CUSTOM })
+    public String implementation;
+
+    @Param({ "1000", "100000", "1000000", "10000000", "50000000" })
+    public int keyCount;
+
+    @Param({ KeyDistribution.UNIFORM, KeyDistribution.ZIPFIAN, KeyDistribution.SEQUENTIAL })
+    public String distribution;
+
+    private SymbolTable<Integer, Integer> st;
+    private Integer[] accessKeys;
+    private Integer[] missingKeys;
+    private Integer[] values;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Integer[] keys = KeyDistribution.keys(distribution, keyCount);
+        st = Implementations.create(implementation);
+        for (int i = 0; i < keyCount; i++)
+            st.put(keys[i], i);
+
+        int[] stream = KeyDistribution.accessStream(distribution, keyCount, STREAM_LENGTH);
+        accessKeys = new Integer[STREAM_LENGTH];
+        missingKeys = new Integer[STREAM_LENGTH];
+        values = new Integer[STREAM_LENGTH];
+        for (int i = 0; i < STREAM_LENGTH; i++) {
+            accessKeys[i] = keys[stream[i]];
+            // negative keys are never generated for the sequential
+            // distribution, and rarely for the scrambled ones
+            missingKeys[i] = -1 - stream[i];
+            values[i] = i;
+        }
+        cursor = 0;
+    }
+
+    /*
+     * Returns the index of the next key in the access stream.
+     */
+    private int next() {
+        int index = cursor;
+        cursor = (index + 1) & (STREAM_LENGTH - 1);
+        return index;
+    }
+
+    @Benchmark
+    public void put() {
+        int index = next();
+        st.put(accessKeys[index], values[index]);
+    }
+
+    @Benchmark
+    public Integer get() {
+        return st.get(accessKeys[next()]);
+    }
+
+    @Benchmark
+    public Integer getMiss() {
+        return st.get(missingKeys[next()]);
+    }
+
+    @Benchmark
+    public boolean containsKey() {
+        return st.containsKey(accessKeys[next()]);
+    }
+
+    @Benchmark
+    public void deleteThenPut() {
+        Integer key = accessKeys[next()];
+        Integer value = st.delete(key);
+        if (value != null)
+            st.put(key, value);
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.benchmarks.symboltables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.symboltables.SymbolTable;
+
+/**
+ * Word count : each operation increments the counter of the next word of a
+ * text whose words follow a Zipfian distribution over a vocabulary of
+ * vocabularySize words.
+ *
+ * - getThenPut : the counter is read with get and written back with put, so
+ * the entry of the word is searched twice.
+ *
+ * - merge : the counter is incremented with merge, which searches the entry
+ * once.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class WordCountBenchmark {
+
+    @Param({ Implementations.LINEAR_PROBING, Implementations.SEPARATE_CHAINING, Implementations.BST })
+    public String implementation;
+
+    @Param({ "1000", "100000" })
+    public int vocabularySize;
+
+    private SymbolTable<String, Integer> counts;
+    private String[] text;
+    private int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        String[] vocabulary = new String[vocabularySize];
+        for (int i = 0; i < vocabularySize; i++)
+            vocabulary[i] = "word" + KeyDistribution.scramble(i);
+        int[] stream = KeyDistribution.accessStream(KeyDistribution.ZIPFIAN, vocabularySize,
+                SymbolTableBenchmark.STREAM_LENGTH);
+        text = new String[stream.length];
+        for (int i = 0; i < stream.length; i++)
+            text[i] = vocabulary[stream[i]];
+        counts = Implementations.create(implementation);
+        cursor = 0;
+    }
+
+    /*
+     * Returns the next word of the text.
+     */
+    private String next() {
+        String word = text[cursor];
+        cursor = (cursor + 1) & (SymbolTableBenchmark.STREAM_LENGTH - 1);
+        return word;
+    }
+
+    @Benchmark
+    public void getThenPut() {
+        String word = next();
+        Integer count = counts.get(word);
+        counts.put(word, (count == null) ? 1 : count + 1);
+    }
+
+    @Benchmark
+    public Integer merge() {
+        return counts.merge(next(), 1, Integer::sum);
+    }
+
+}
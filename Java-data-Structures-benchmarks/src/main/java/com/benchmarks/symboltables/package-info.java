@@ -0,0 +1,8 @@
+/**
+ * This package contains the JMH benchmarks of the Symbol Table data structures
+ * and the helpers used to generate their workloads.
+ * 
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+package com.benchmarks.symboltables;
@@ -0,0 +1,750 @@
+package com.symboltables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * BPlusTreeMap is an ordered map stored in a B+-tree.
+ *
+ * Each node holds up to order keys in an array : a lookup reads a handful of
+ * wide nodes, binary searched in place, instead of following a pointer per
+ * key comparison as in the red-black TreeMapCustom. The entries are stored in
+ * the leaves only, and the leaves are linked together in the order of the
+ * keys, so an in-order scan or a range query reads the leaves one after the
+ * other without going back to the inner nodes.
+ *
+ * Every node except the root is at least half full : on remove, a node which
+ * falls below half its capacity borrows an entry from a sibling, or is merged
+ * with it.
+ *
+ * {@link https://en.wikipedia.org/wiki/B%2B_tree}
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class BPlusTreeMap<K, V> implements I_TreeMapCustom<K, V> {
+
+    /*** Default maximum number of keys of a leaf and of children of an inner node. */
+    public static final int DEFAULT_ORDER = 64;
+
+    /*
+     * Structure common to the leaves and the inner nodes. For a leaf, n is the
+     * number of keys. For an inner node, n is the number of children and the
+     * n - 1 keys separate them : every key of children[i] is less than
+     * keys[i], which is less than or equal to every key of children[i + 1].
+     */
+    private static abstract class Node {
+        int n;
+        final Object[] keys;
+
+        Node(int capacity) {
+            keys = new Object[capacity];
+        }
+    }
+
+    /*
+     * A leaf holds the entries, with one spare slot for the entry which makes
+     * it split.
+     */
+    private static final class Leaf extends Node {
+        final Object[] vals;
+        Leaf prev;
+        Leaf next;
+
+        Leaf(int order) {
+            super(order + 1);
+            vals = new Object[order + 1];
+        }
+    }
+
+    /*
+     * An inner node, with one spare slot for the child which makes it split.
+     */
+    private static final class Inner extends Node {
+        final Node[] children;
+
+        Inner(int order) {
+            super(order);
+            children = new Node[order + 1];
+        }
+    }
+
+    private final int order;
+    private int size;
+    private int modCount;
+    private Node root;
+    private Comparator<? super K> cmp;
+
+    /*** Separator key of the node created by the last split. */
+    private Object splitKey;
+
+    /*** Value of the entry removed by the last remove. */
+    private Object removedValue;
+
+    /* CONSTRUCTORS */
+    public BPlusTreeMap() {
+        this(DEFAULT_ORDER, null);
+    }
+
+    public BPlusTreeMap(Comparator<? super K> c) {
+        this(DEFAULT_ORDER, c);
+    }
+
+    /**
+     * Constructs an empty BPlusTreeMap whose nodes hold up to order keys, and
+     * which uses the given comparator, or the natural order if it is null.
+     *
+     * @param order
+     *            the maximum number of keys of a leaf and of children of an
+     *            inner node
+     * @param c
+     *            the comparator of the keys
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if order is less than 4
+     */
+    public BPlusTreeMap(int order, Comparator<? super K> c) {
+        if (order < 4)
+            throw new IllegalArgumentException("The order must be at least 4 : " + order);
+        this.order = order;
+        size = 0;
+        root = new Leaf(order);
+        cmp = c;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public V put(K key, V val) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Node right = put(root, key, val);
+        if (right != null) {
+            Inner newRoot = new Inner(order);
+            newRoot.children[0] = root;
+            newRoot.children[1] = right;
+            newRoot.keys[0] = splitKey;
+            newRoot.n = 2;
+            root = newRoot;
+        }
+        splitKey = null;
+        return val;
+    }
+
+    /*
+     * Recursive method to put a key-value in the subtree rooted by x. Return
+     * the new right sibling of x if x has been split, null otherwise.
+     */
+    private Node put(Node x, K key, V val) {
+        if (x instanceof Leaf) {
+            Leaf leaf = (Leaf) x;
+            int i = lowerBound(leaf, key);
+            if (i < leaf.n && compare(key, leaf.keys[i]) == 0) {
+                leaf.vals[i] = val;
+                return null;
+            }
+            System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.n - i);
+            System.arraycopy(leaf.vals, i, leaf.vals, i + 1, leaf.n - i);
+            leaf.keys[i] = key;
+            leaf.vals[i] = val;
+            leaf.n++;
+            size++;
+            modCount++;
+            return (leaf.n > order) ? splitLeaf(leaf) : null;
+        }
+
+        Inner inner = (Inner) x;
+        int i = childIndex(inner, key);
+        Node right = put(inner.children[i], key, val);
+        if (right == null)
+            return null;
+        System.arraycopy(inner.keys, i, inner.keys, i + 1, inner.n - 1 - i);
+        System.arraycopy(inner.children, i + 1, inner.children, i + 2, inner.n - 1 - i);
+        inner.keys[i] = splitKey;
+        inner.children[i + 1] = right;
+        inner.n++;
+        return (inner.n > order) ? splitInner(inner) : null;
+    }
+
+    /*
+     * Move the upper half of the given leaf to a new leaf linked after it.
+     */
+    private Leaf splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf(order);
+        int m = leaf.n / 2;
+        right.n = leaf.n - m;
+        System.arraycopy(leaf.keys, m, right.keys, 0, right.n);
+        System.arraycopy(leaf.vals, m, right.vals, 0, right.n);
+        Arrays.fill(leaf.keys, m, leaf.n, null);
+        Arrays.fill(leaf.vals, m, leaf.n, null);
+        leaf.n = m;
+
+        right.next = leaf.next;
+        if (right.next != null)
+            right.next.prev = right;
+        right.prev = leaf;
+        leaf.next = right;
+        splitKey = right.keys[0];
+        return right;
+    }
+
+    /*
+     * Move the upper half of the children of the given inner node to a new
+     * inner node. The key between the two halves moves up to the parent.
+     */
+    private Inner splitInner(Inner inner) {
+        Inner right = new Inner(order);
+        int m = inner.n / 2;
+        right.n = inner.n - m;
+        System.arraycopy(inner.children, m, right.children, 0, right.n);
+        System.arraycopy(inner.keys, m, right.keys, 0, right.n - 1);
+        splitKey = inner.keys[m - 1];
+        Arrays.fill(inner.children, m, inner.n, null);
+        Arrays.fill(inner.keys, m - 1, inner.n - 1, null);
+        inner.n = m;
+        return right;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Leaf leaf = findLeaf(key);
+        int i = lowerBound(leaf, key);
+        return i < leaf.n && compare(key, leaf.keys[i]) == 0;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsValue(V val) {
+        for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.n; i++) {
+                if (((val != null) && (val.equals(leaf.vals[i]))) || ((val == null) && (leaf.vals[i] == null)))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Leaf leaf = findLeaf(key);
+        int i = lowerBound(leaf, key);
+        if (i < leaf.n && compare(key, leaf.keys[i]) == 0)
+            return (V) leaf.vals[i];
+        return null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K ceilingKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Leaf leaf = findLeaf(key);
+        return keyFrom(leaf, lowerBound(leaf, key));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K floorKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Leaf leaf = findLeaf(key);
+        return keyBefore(leaf, upperBound(leaf, key));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K higherKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Leaf leaf = findLeaf(key);
+        return keyFrom(leaf, upperBound(leaf, key));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K lowerKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Leaf leaf = findLeaf(key);
+        return keyBefore(leaf, lowerBound(leaf, key));
+    }
+
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public K firstKey() {
+        Leaf leaf = firstLeaf();
+        return (leaf.n == 0) ? null : (K) leaf.keys[0];
+    }
+
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public K lastKey() {
+        Node x = root;
+        while (x instanceof Inner)
+            x = ((Inner) x).children[x.n - 1];
+        return (x.n == 0) ? null : (K) x.keys[x.n - 1];
+    }
+
+    /*
+     * Return the key at the index i of the given leaf, or the first key of
+     * the next leaf if i is past the last key. The leaves other than the root
+     * are never empty.
+     */
+    @SuppressWarnings("unchecked")
+    private K keyFrom(Leaf leaf, int i) {
+        if (i < leaf.n)
+            return (K) leaf.keys[i];
+        return (leaf.next != null) ? (K) leaf.next.keys[0] : null;
+    }
+
+    /*
+     * Return the key before the index i of the given leaf, or the last key of
+     * the previous leaf if i is 0.
+     */
+    @SuppressWarnings("unchecked")
+    private K keyBefore(Leaf leaf, int i) {
+        if (i > 0)
+            return (K) leaf.keys[i - 1];
+        return (leaf.prev != null) ? (K) leaf.prev.keys[leaf.prev.n - 1] : null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> headMap(K toKey) {
+        if (toKey == null)
+            throw new NullPointerException("The given key is null.");
+        return subMapView(null, false, toKey, false);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> tailMap(K fromKey) {
+        if (fromKey == null)
+            throw new NullPointerException("The given key is null.");
+        return subMapView(fromKey, true, null, false);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> subMap(K fromKey, K toKey) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException("The given key is null.");
+        if (compare(fromKey, toKey) > 0)
+            throw new IllegalArgumentException("fromKey is greater than toKey.");
+        return subMapView(fromKey, true, toKey, false);
+    }
+
+    /*
+     * Return the view of the keys between lo and hi, null meaning no
+     * endpoint.
+     */
+    private I_TreeMapCustom<K, V> subMapView(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+        return new SubMapView<K, V>(this, this::compare, IteratorBPlusTreeMap::new, lo, loInclusive, hi, hiInclusive);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Set<K> keySet() {
+        Set<K> result = new HashSet<>();
+        for (K key : this)
+            result.add(key);
+        return result;
+    }
+
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection<V> values() {
+        Collection<V> result = new ArrayList<>(size);
+        for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.n; i++)
+                result.add((V) leaf.vals[i]);
+        }
+        return result;
+    }
+
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public V remove(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (!remove(root, key))
+            return null;
+        if (root instanceof Inner && root.n == 1)
+            root = ((Inner) root).children[0];
+        V val = (V) removedValue;
+        removedValue = null;
+        return val;
+    }
+
+    /*
+     * Recursive method to remove the given key from the subtree rooted by x.
+     * Return true if the key has been found.
+     */
+    private boolean remove(Node x, K key) {
+        if (x instanceof Leaf) {
+            Leaf leaf = (Leaf) x;
+            int i = lowerBound(leaf, key);
+            if (i == leaf.n || compare(key, leaf.keys[i]) != 0)
+                return false;
+            removedValue = leaf.vals[i];
+            System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.n - 1 - i);
+            System.arraycopy(leaf.vals, i + 1, leaf.vals, i, leaf.n - 1 - i);
+            leaf.n--;
+            leaf.keys[leaf.n] = null;
+            leaf.vals[leaf.n] = null;
+            size--;
+            modCount++;
+            return true;
+        }
+
+        Inner inner = (Inner) x;
+        int i = childIndex(inner, key);
+        if (!remove(inner.children[i], key))
+            return false;
+        if (inner.children[i].n < minimum())
+            fixUnderflow(inner, i);
+        return true;
+    }
+
+    /*
+     * Minimum number of keys of a leaf, and of children of an inner node,
+     * other than the root.
+     */
+    private int minimum() {
+        return order / 2;
+    }
+
+    /*
+     * Refill the child i of the given inner node, which fell below the
+     * minimum, from one of its siblings : borrow an entry if the sibling has
+     * more than the minimum, merge the two nodes otherwise.
+     */
+    private void fixUnderflow(Inner parent, int i) {
+        if (i > 0 && parent.children[i - 1].n > minimum())
+            borrowFromLeft(parent, i);
+        else if (i < parent.n - 1 && parent.children[i + 1].n > minimum())
+            borrowFromRight(parent, i);
+        else if (i > 0)
+            merge(parent, i - 1);
+        else
+            merge(parent, i);
+    }
+
+    /*
+     * Move the last entry of the left sibling of the child i to the front of
+     * the child i.
+     */
+    private void borrowFromLeft(Inner parent, int i) {
+        Node left = parent.children[i - 1];
+        Node child = parent.children[i];
+        if (child instanceof Leaf) {
+            Leaf l = (Leaf) left;
+            Leaf c = (Leaf) child;
+            System.arraycopy(c.keys, 0, c.keys, 1, c.n);
+            System.arraycopy(c.vals, 0, c.vals, 1, c.n);
+            c.keys[0] = l.keys[l.n - 1];
+            c.vals[0] = l.vals[l.n - 1];
+            l.keys[l.n - 1] = null;
+            l.vals[l.n - 1] = null;
+            parent.keys[i - 1] = c.keys[0];
+        } else {
+            Inner l = (Inner) left;
+            Inner c = (Inner) child;
+            System.arraycopy(c.keys, 0, c.keys, 1, c.n - 1);
+            System.arraycopy(c.children, 0, c.children, 1, c.n);
+            c.keys[0] = parent.keys[i - 1];
+            c.children[0] = l.children[l.n - 1];
+            parent.keys[i - 1] = l.keys[l.n - 2];
+            l.keys[l.n - 2] = null;
+            l.children[l.n - 1] = null;
+        }
+        left.n--;
+        child.n++;
+    }
+
+    /*
+     * Move the first entry of the right sibling of the child i to the end of
+     * the child i.
+     */
+    private void borrowFromRight(Inner parent, int i) {
+        Node child = parent.children[i];
+        Node right = parent.children[i + 1];
+        if (child instanceof Leaf) {
+            Leaf c = (Leaf) child;
+            Leaf r = (Leaf) right;
+            c.keys[c.n] = r.keys[0];
+            c.vals[c.n] = r.vals[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.n - 1);
+            System.arraycopy(r.vals, 1, r.vals, 0, r.n - 1);
+            r.keys[r.n - 1] = null;
+            r.vals[r.n - 1] = null;
+            parent.keys[i] = r.keys[0];
+        } else {
+            Inner c = (Inner) child;
+            Inner r = (Inner) right;
+            c.keys[c.n - 1] = parent.keys[i];
+            c.children[c.n] = r.children[0];
+            parent.keys[i] = r.keys[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.n - 2);
+            System.arraycopy(r.children, 1, r.children, 0, r.n - 1);
+            r.keys[r.n - 2] = null;
+            r.children[r.n - 1] = null;
+        }
+        child.n++;
+        right.n--;
+    }
+
+    /*
+     * Merge the child j + 1 of the given inner node into the child j, and
+     * remove the separator between them.
+     */
+    private void merge(Inner parent, int j) {
+        Node left = parent.children[j];
+        Node right = parent.children[j + 1];
+        if (left instanceof Leaf) {
+            Leaf l = (Leaf) left;
+            Leaf r = (Leaf) right;
+            System.arraycopy(r.keys, 0, l.keys, l.n, r.n);
+            System.arraycopy(r.vals, 0, l.vals, l.n, r.n);
+            l.next = r.next;
+            if (l.next != null)
+                l.next.prev = l;
+        } else {
+            Inner l = (Inner) left;
+            Inner r = (Inner) right;
+            l.keys[l.n - 1] = parent.keys[j];
+            System.arraycopy(r.keys, 0, l.keys, l.n, r.n - 1);
+            System.arraycopy(r.children, 0, l.children, l.n, r.n);
+        }
+        left.n += right.n;
+
+        System.arraycopy(parent.keys, j + 1, parent.keys, j, parent.n - 2 - j);
+        System.arraycopy(parent.children, j + 2, parent.children, j + 1, parent.n - 2 - j);
+        parent.keys[parent.n - 2] = null;
+        parent.children[parent.n - 1] = null;
+        parent.n--;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        if (size == 0)
+            return true;
+        return false;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+        root = new Leaf(order);
+    }
+
+    /*
+     * Return the leaf in which the given key is, or would be inserted.
+     */
+    private Leaf findLeaf(K key) {
+        Node x = root;
+        while (x instanceof Inner) {
+            Inner inner = (Inner) x;
+            x = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) x;
+    }
+
+    /*
+     * Return the leaf of the smallest keys.
+     */
+    private Leaf firstLeaf() {
+        Node x = root;
+        while (x instanceof Inner)
+            x = ((Inner) x).children[0];
+        return (Leaf) x;
+    }
+
+    /*
+     * Return the index of the child of the given inner node which covers the
+     * given key : the number of separators less than or equal to the key.
+     */
+    private int childIndex(Inner inner, K key) {
+        int lo = 0;
+        int hi = inner.n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(key, inner.keys[mid]) < 0)
+                hi = mid;
+            else
+                lo = mid + 1;
+        }
+        return lo;
+    }
+
+    /*
+     * Return the index of the first key of the given leaf greater than or
+     * equal to the given key, or leaf.n if there is none.
+     */
+    private int lowerBound(Leaf leaf, K key) {
+        int lo = 0;
+        int hi = leaf.n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(key, leaf.keys[mid]) > 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /*
+     * Return the index of the first key of the given leaf strictly greater
+     * than the given key, or leaf.n if there is none.
+     */
+    private int upperBound(Leaf leaf, K key) {
+        int lo = 0;
+        int hi = leaf.n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(key, leaf.keys[mid]) < 0)
+                hi = mid;
+            else
+                lo = mid + 1;
+        }
+        return lo;
+    }
+
+    /*
+     * Compare the given key with a key stored in the tree.
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(K key1, Object key2) {
+        if (cmp != null)
+            return cmp.compare(key1, (K) key2);
+        Comparable<? super K> cmpKey1 = (Comparable<? super K>) key1;
+        return cmpKey1.compareTo((K) key2);
+    }
+
+    /*
+     * Return true if the given key is above the high endpoint hi, null
+     * meaning no high endpoint.
+     */
+    private boolean tooHigh(K key, K hi, boolean hiInclusive) {
+        if (hi == null)
+            return false;
+        int c = compare(key, hi);
+        return c > 0 || (c == 0 && !hiInclusive);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<K> iterator() {
+        return new IteratorBPlusTreeMap(null, false, null, false);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<K> iterator(K fromKey) {
+        if (fromKey == null)
+            throw new NullPointerException("The given key is null.");
+        return new IteratorBPlusTreeMap(fromKey, true, null, false);
+    }
+
+    /**
+     * IteratorBPlusTreeMap implements Iterator interface in order to provide
+     * iterable capabilities to the BPlusTreeMap through the Key.
+     *
+     * The iterator descends once to the leaf of its first key, then follows
+     * the links between the leaves. It is fail-fast : it throws a
+     * ConcurrentModificationException if a key is added or removed during the
+     * iteration.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class IteratorBPlusTreeMap implements SubMapView.RangeIterator<K, V> {
+
+        private final K hi;
+        private final boolean hiInclusive;
+        private final int expectedModCount;
+        private Leaf leaf;
+        private int index;
+        private Object lastValue;
+
+        /*** Constructs IteratorBPlusTreeMap over the keys between lo and hi. */
+        IteratorBPlusTreeMap(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.expectedModCount = modCount;
+            if (lo == null) {
+                leaf = firstLeaf();
+                index = 0;
+            } else {
+                leaf = findLeaf(lo);
+                index = loInclusive ? lowerBound(leaf, lo) : upperBound(leaf, lo);
+            }
+            if (index == leaf.n) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+
+        /*** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean hasNext() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return leaf != null && !tooHigh((K) leaf.keys[index], hi, hiInclusive);
+        }
+
+        /*** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public K next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            K key = (K) leaf.keys[index];
+            lastValue = leaf.vals[index];
+            if (++index == leaf.n) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            return key;
+        }
+
+        /*** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public V value() {
+            return (V) lastValue;
+        }
+
+    }
+
+}
@@ -0,0 +1,464 @@
+package com.symboltables;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+
+/**
+ * BoundedCacheSymbolTable is a SymbolTable that holds at most capacity keys :
+ * when a new key would exceed the capacity, an entry is evicted according to
+ * the EvictionPolicy.
+ *
+ * Every entry is a node of an intrusive doubly linked list (the pattern of
+ * the DoubleLinkedList), in the order of the recency of its accesses, and a
+ * SeparateChainingSymbolTableImpl indexes the nodes by key. get, put and
+ * delete find the node in the index and relink it in constant time.
+ *
+ * With the LRU policy, there is one list. With the TINY_LFU policy, there are
+ * three : the window, where the new entries enter, and the probation and
+ * protected segments of the main cache. An entry of the probation segment
+ * that is accessed again is promoted to the protected segment, which demotes
+ * its least recently used entry back to probation when it is full.
+ *
+ * get counts the hits and the misses, the evictions are reported to an
+ * optional listener and counted : see stats(). containsKey, forEach and the
+ * iterator neither change the recency of the keys nor the counters.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <Key>
+ * @param <Value>
+ */
+public class BoundedCacheSymbolTable<Key, Value> implements SymbolTable<Key, Value> {
+
+    /*
+     * Structure of each entry of the cache.
+     */
+    private static final class Node<Key, Value> {
+        Key key;
+        Value val;
+        Node<Key, Value> prev;
+        Node<Key, Value> next;
+        int segment;
+
+        private Node(Key key, Value val, int segment) {
+            this.key = key;
+            this.val = val;
+            this.segment = segment;
+        }
+    }
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    /*** The keys of the cache, mapped to their node. */
+    private final SeparateChainingSymbolTableImpl<Key, Node<Key, Value>> index;
+
+    /*** The sentinel of the list of each segment, eldest entry first. */
+    private final Node<Key, Value>[] segments;
+
+    /*** The number of entries of each segment. */
+    private final int[] segmentSizes;
+
+    private final int capacity;
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+
+    private final EvictionPolicy policy;
+    private final FrequencySketch sketch;
+    private final BiConsumer<? super Key, ? super Value> evictionListener;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Constructs an empty LRU cache holding at most capacity keys.
+     *
+     * @param capacity
+     *            the maximal number of keys
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if capacity is not positive
+     */
+    public BoundedCacheSymbolTable(int capacity) {
+        this(capacity, EvictionPolicy.LRU, null);
+    }
+
+    /**
+     * Constructs an empty cache holding at most capacity keys.
+     *
+     * @param capacity
+     *            the maximal number of keys
+     * @param policy
+     *            the choice of the evicted entries
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if capacity is not positive
+     * @exception java.lang.NullPointerException
+     *                if policy is null
+     */
+    public BoundedCacheSymbolTable(int capacity, EvictionPolicy policy) {
+        this(capacity, policy, null);
+    }
+
+    /**
+     * Constructs an empty cache holding at most capacity keys, which calls the
+     * given listener with the key and the value of every evicted entry.
+     *
+     * @param capacity
+     *            the maximal number of keys
+     * @param policy
+     *            the choice of the evicted entries
+     * @param evictionListener
+     *            called after each eviction, or null
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if capacity is not positive or greater than 2^30
+     * @exception java.lang.NullPointerException
+     *                if policy is null
+     */
+    public BoundedCacheSymbolTable(int capacity, EvictionPolicy policy,
+            BiConsumer<? super Key, ? super Value> evictionListener) {
+        if (policy == null)
+            throw new NullPointerException("The given policy is null.");
+        if (capacity <= 0 || capacity > (1 << 30))
+            throw new IllegalArgumentException("The capacity must be between 1 and 2^30.");
+        this.capacity = capacity;
+        this.policy = policy;
+        this.evictionListener = evictionListener;
+        if (policy == EvictionPolicy.LRU) {
+            windowCapacity = capacity;
+            sketch = null;
+        } else {
+            windowCapacity = Math.max(1, capacity / 100);
+            sketch = new FrequencySketch(capacity);
+        }
+        mainCapacity = capacity - windowCapacity;
+        protectedCapacity = (int) (mainCapacity * 4L / 5);
+
+        // the new key is indexed before an entry is evicted
+        index = new SeparateChainingSymbolTableImpl<Key, Node<Key, Value>>(capacity + 1, 1.0,
+                HashIndexing.POWER_OF_TWO);
+        segments = GenericArrays.newArray(Node.class, 3);
+        segmentSizes = new int[3];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Node<Key, Value>(null, null, i);
+            segments[i].prev = segments[i];
+            segments[i].next = segments[i];
+        }
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void put(Key key, Value value) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        if (sketch != null)
+            sketch.increment(key);
+        Node<Key, Value> x = index.get(key);
+        if (x != null) {
+            x.val = value;
+            onAccess(x);
+            return;
+        }
+        x = new Node<Key, Value>(key, value, WINDOW);
+        index.put(key, x);
+        linkLast(x, WINDOW);
+        if (segmentSizes[WINDOW] > windowCapacity)
+            evict();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value get(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (sketch != null)
+            sketch.increment(key);
+        Node<Key, Value> x = index.get(key);
+        if (x == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        onAccess(x);
+        return x.val;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value delete(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Node<Key, Value> x = index.delete(key);
+        if (x == null)
+            return null;
+        unlink(x);
+        return x.val;
+    }
+
+    /*
+     * Move the given node to the most recently used end of its segment, or
+     * promote it from probation to the protected segment.
+     */
+    private void onAccess(Node<Key, Value> x) {
+        int segment = x.segment;
+        unlink(x);
+        if (segment != PROBATION) {
+            linkLast(x, segment);
+            return;
+        }
+        linkLast(x, PROTECTED);
+        if (segmentSizes[PROTECTED] > protectedCapacity) {
+            Node<Key, Value> demoted = segments[PROTECTED].next;
+            unlink(demoted);
+            linkLast(demoted, PROBATION);
+        }
+    }
+
+    /*
+     * The window is over its capacity : move its eldest entry to the main
+     * cache if there is room, otherwise keep the most frequent of this
+     * candidate and of the eldest entry of the main cache.
+     */
+    private void evict() {
+        Node<Key, Value> candidate = segments[WINDOW].next;
+        unlink(candidate);
+        if (segmentSizes[PROBATION] + segmentSizes[PROTECTED] < mainCapacity) {
+            linkLast(candidate, PROBATION);
+            return;
+        }
+        if (mainCapacity == 0) {
+            evict(candidate);
+            return;
+        }
+        int segment = (segmentSizes[PROBATION] > 0) ? PROBATION : PROTECTED;
+        Node<Key, Value> victim = segments[segment].next;
+        if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            unlink(victim);
+            evict(victim);
+            linkLast(candidate, PROBATION);
+        } else {
+            evict(candidate);
+        }
+    }
+
+    /*
+     * Remove the given unlinked node from the index and report its eviction.
+     */
+    private void evict(Node<Key, Value> x) {
+        index.delete(x.key);
+        evictionCount++;
+        if (evictionListener != null)
+            evictionListener.accept(x.key, x.val);
+    }
+
+    /*
+     * Append the given node at the most recently used end of the given
+     * segment.
+     */
+    private void linkLast(Node<Key, Value> x, int segment) {
+        Node<Key, Value> sentinel = segments[segment];
+        x.segment = segment;
+        x.prev = sentinel.prev;
+        x.next = sentinel;
+        sentinel.prev.next = x;
+        sentinel.prev = x;
+        segmentSizes[segment]++;
+    }
+
+    /*
+     * Remove the given node from the list of its segment.
+     */
+    private void unlink(Node<Key, Value> x) {
+        x.prev.next = x.next;
+        x.next.prev = x.prev;
+        x.prev = null;
+        x.next = null;
+        segmentSizes[x.segment]--;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void forEach(BiConsumer<? super Key, ? super Value> action) {
+        if (action == null)
+            throw new NullPointerException("The given action is null.");
+        for (Node<Key, Value> sentinel : segments) {
+            for (Node<Key, Value> x = sentinel.next; x != sentinel; x = x.next)
+                action.accept(x.key, x.val);
+        }
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void clear() {
+        index.clear();
+        for (int i = 0; i < segments.length; i++) {
+            segments[i].prev = segments[i];
+            segments[i].next = segments[i];
+            segmentSizes[i] = 0;
+        }
+        if (sketch != null)
+            sketch.clear();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        return index.containsKey(key);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsValue(Value value) {
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        for (Node<Key, Value> sentinel : segments) {
+            for (Node<Key, Value> x = sentinel.next; x != sentinel; x = x.next) {
+                if (x.val.equals(value))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the maximal number of keys of the cache.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the policy used to choose the evicted entries.
+     */
+    public EvictionPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Returns a snapshot of the hit, miss and eviction counters of the cache
+     * since its creation.
+     *
+     * @return the statistics of the cache
+     */
+    public CacheStatistics stats() {
+        return new CacheStatistics(hitCount, missCount, evictionCount);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The keys are produced in no particular order.
+     */
+    @Override
+    public Iterator<Key> iterator() {
+        return index.iterator();
+    }
+
+    /**
+     * FrequencySketch is a count-min sketch : the frequency of a key is the
+     * smallest of 4 counters of 4 bits, each chosen by a different hash of the
+     * key. When the number of increments reaches 10 times the capacity of the
+     * cache, all the counters are halved, so that the old accesses weigh less
+     * than the recent ones.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+                0xcbf29ce484222325L };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        /*** 16 counters of 4 bits per long. */
+        private final long[] table;
+        private final int counterMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            table = new long[HashIndexing.powerOfTwoCapacity(Math.max(8, Math.min(capacity, 1 << 24)))];
+            counterMask = (table.length << 4) - 1;
+            sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+        }
+
+        /*
+         * Returns the estimated number of accesses to the given key, between
+         * 0 and 15.
+         */
+        int frequency(Object key) {
+            int hash = HashIndexing.spread(key.hashCode());
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++)
+                frequency = Math.min(frequency, counter(indexOf(hash, i)));
+            return frequency;
+        }
+
+        /*
+         * Record an access to the given key.
+         */
+        void increment(Object key) {
+            int hash = HashIndexing.spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int counter = indexOf(hash, i);
+                if (counter(counter) < 15) {
+                    table[counter >>> 4] += 1L << ((counter & 15) << 2);
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize)
+                reset();
+        }
+
+        void clear() {
+            Arrays.fill(table, 0);
+            additions = 0;
+        }
+
+        /*
+         * Halve all the counters.
+         */
+        private void reset() {
+            for (int i = 0; i < table.length; i++)
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            additions >>>= 1;
+        }
+
+        private int counter(int counter) {
+            return (int) (table[counter >>> 4] >>> ((counter & 15) << 2)) & 15;
+        }
+
+        /*
+         * Returns the index of the counter of the given hash for the i-th
+         * hash function.
+         */
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & counterMask;
+        }
+    }
+
+}
@@ -1,7 +1,15 @@
 package com.symboltables;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import com.stacks.LinkedListImplOfStack;
+import com.stacks.Stack;
 
 /**
  * Symbol table is an important data structure created and maintained by
@@ -21,6 +29,21 @@ import java.util.Iterator;
  * 
  * {@link https://www.tutorialspoint.com/compiler_design/compiler_design_symbol_table.htm}
  * 
+ * Each node stores the number of nodes of its subtree, so the order
+ * statistics (rank, select) and the range counts run in time proportional to
+ * the height of the tree. A plain Binary Search Tree degenerates into a list
+ * when the keys are put in sorted order : in balanced mode, the tree is kept
+ * an AVL tree, whose height stays below 1.44 log2(n), by rotations on put and
+ * delete.
+ * 
+ * put, delete and the traversals are iterative : the path from the root is
+ * kept in an array and the in-order walks use an explicit stack, so the depth
+ * of an unbalanced tree is limited by the heap, not by the call stack.
+ * 
+ * A SymbolTable can be built from keys sorted in increasing order, and a
+ * sorted batch merged into it, in linear time : the entries are laid out in a
+ * perfectly balanced tree, with one comparison per key to check the order.
+ * 
  * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
  *
  * @param <Key>
@@ -36,19 +59,32 @@ public class BstSymbolTableImpl<Key extends Comparable<Key>, Value> implements S
         Value val;
         Node left;
         Node right;
+        int count;
+        int height;
 
         public Node(Key key, Value val, int count) {
             this.key = key;
             this.val = val;
+            this.count = count;
+            this.height = 1;
         }
     }
 
-    /*** Contains the size of the SymbolTable. */
-    private int stSize;
+    /*** Number of structural modifications, for the fail-fast iterators. */
+    private int modCount;
+
+    /*** True if the tree is kept balanced as an AVL tree. */
+    private final boolean balanced;
 
     /*** A reference to the root node of the Binary Search Tree. */
     private Node root;
 
+    /*** The nodes of the path walked by the last put or delete. */
+    private Node[] path;
+
+    /*** For each node of the path, true if the path goes to its left child. */
+    private boolean[] pathLeft;
+
     /**
      * the comparator used by the Binary Search Tree. If not provided, the
      * Binary Search Tree use the natural order.
@@ -59,9 +95,7 @@ public class BstSymbolTableImpl<Key extends Comparable<Key>, Value> implements S
      * Constructs an empty SymbolTable.
      */
     public BstSymbolTableImpl() {
-        stSize = 0;
-        root = null;
-        comparator = null;
+        this(null, false);
     }
 
     /**
@@ -69,9 +103,202 @@ public class BstSymbolTableImpl<Key extends Comparable<Key>, Value> implements S
      * given comparator.
      */
     public BstSymbolTableImpl(Comparator<Key> com) {
-        stSize = 0;
+        this(com, false);
+    }
+
+    /**
+     * Constructs an empty SymbolTable whose Binary Search Tree is kept
+     * balanced if balanced is true.
+     * 
+     * @param balanced
+     *            true to keep the tree balanced as an AVL tree
+     */
+    public BstSymbolTableImpl(boolean balanced) {
+        this(null, balanced);
+    }
+
+    /**
+     * Constructs an empty SymbolTable in which the Binary Search Tree use the
+     * given comparator, and is kept balanced if balanced is true.
+     * 
+     * @param com
+     *            the comparator of the keys, null for the natural order
+     * @param balanced
+     *            true to keep the tree balanced as an AVL tree
+     */
+    public BstSymbolTableImpl(Comparator<Key> com, boolean balanced) {
         root = null;
         comparator = com;
+        this.balanced = balanced;
+        path = newPath(16);
+        pathLeft = new boolean[16];
+    }
+
+    /**
+     * Constructs a SymbolTable holding the given keys, mapped to the values of
+     * the same index, in linear time. The Binary Search Tree is perfectly
+     * balanced, whatever the value of balanced.
+     * 
+     * @param keys
+     *            the keys, sorted in strictly increasing order
+     * @param values
+     *            the values of the keys
+     * @param com
+     *            the comparator of the keys, null for the natural order
+     * @param balanced
+     *            true to keep the tree balanced as an AVL tree
+     * @exception java.lang.IllegalArgumentException
+     *                if the keys are not sorted, or if there are not as many
+     *                keys as values
+     * @exception java.lang.NullPointerException
+     *                if one of the keys or values is null
+     */
+    public BstSymbolTableImpl(Key[] keys, Value[] values, Comparator<Key> com, boolean balanced) {
+        this(com, balanced);
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("The number of keys and the number of values differ.");
+        root = build(keys.length, new SortedInput(Arrays.asList(keys).iterator(), Arrays.asList(values).iterator()));
+    }
+
+    /**
+     * Constructs a SymbolTable holding the first size keys of the given
+     * iterator, mapped to the values produced in the same order, in linear
+     * time. The Binary Search Tree is perfectly balanced, whatever the value
+     * of balanced.
+     * 
+     * @param keys
+     *            the keys, sorted in strictly increasing order
+     * @param values
+     *            the values of the keys
+     * @param size
+     *            the number of entries to read
+     * @param com
+     *            the comparator of the keys, null for the natural order
+     * @param balanced
+     *            true to keep the tree balanced as an AVL tree
+     * @exception java.lang.IllegalArgumentException
+     *                if the keys are not sorted, or if the iterators hold
+     *                less than size elements
+     * @exception java.lang.NullPointerException
+     *                if one of the keys or values is null
+     */
+    public BstSymbolTableImpl(Iterator<? extends Key> keys, Iterator<? extends Value> values, int size,
+            Comparator<Key> com, boolean balanced) {
+        this(com, balanced);
+        if (size < 0)
+            throw new IllegalArgumentException("The given size is negative.");
+        root = build(size, new SortedInput(keys, values));
+    }
+
+    /**
+     * Associates the given values with the given keys, sorted in strictly
+     * increasing order. The keys are merged with the keys of the SymbolTable
+     * and a perfectly balanced tree is rebuilt in time proportional to size()
+     * + keys.length, unless the batch is small enough for keys.length puts to
+     * cost less.
+     * 
+     * @param keys
+     *            the keys, sorted in strictly increasing order
+     * @param values
+     *            the values of the keys
+     * @exception java.lang.IllegalArgumentException
+     *                if the keys are not sorted, or if there are not as many
+     *                keys as values
+     * @exception java.lang.NullPointerException
+     *                if one of the keys or values is null
+     */
+    public void putAllSorted(Key[] keys, Value[] values) {
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("The number of keys and the number of values differ.");
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null)
+                throw new NullPointerException("The given key is null.");
+            if (values[i] == null)
+                throw new NullPointerException("The given value is null.");
+            if (i > 0 && compare(keys[i - 1], keys[i]) >= 0)
+                throw new IllegalArgumentException("The keys are not sorted in strictly increasing order.");
+        }
+        int m = keys.length;
+        int n = size();
+        if ((long) m * height() < n) {
+            for (int i = 0; i < m; i++)
+                put(keys[i], values[i]);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Key[] mergedKeys = (Key[]) new Comparable[n + m];
+        @SuppressWarnings("unchecked")
+        Value[] mergedValues = (Value[]) new Object[n + m];
+        IteratorBstSymbolTableImpl it = new IteratorBstSymbolTableImpl(null, null);
+        Node x = it.hasNext() ? it.nextNode() : null;
+        int i = 0;
+        n = 0;
+        while (x != null || i < m) {
+            int cmp = (x == null) ? 1 : (i == m) ? -1 : compare(x.key, keys[i]);
+            if (cmp < 0) {
+                mergedKeys[n] = x.key;
+                mergedValues[n] = x.val;
+            } else {
+                mergedKeys[n] = keys[i];
+                mergedValues[n] = values[i];
+                i++;
+            }
+            if (cmp <= 0)
+                x = it.hasNext() ? it.nextNode() : null;
+            n++;
+        }
+        root = build(n, new SortedInput(Arrays.asList(mergedKeys).iterator(), Arrays.asList(mergedValues).iterator()));
+        modCount++;
+    }
+
+    /*
+     * Build a perfectly balanced tree of the next n entries of the given
+     * input : the middle entry is the root, the entries before it form the
+     * left subtree and the entries after it the right subtree. The recursion
+     * depth is log2(n).
+     */
+    private Node build(int n, SortedInput input) {
+        if (n == 0)
+            return null;
+        int left = (n - 1) / 2;
+        Node l = build(left, input);
+        Node x = input.next();
+        x.left = l;
+        x.right = build(n - 1 - left, input);
+        update(x);
+        return x;
+    }
+
+    /*
+     * SortedInput produces the nodes of the keys and values of two iterators,
+     * and checks that the keys are sorted.
+     */
+    private class SortedInput {
+
+        private final Iterator<? extends Key> keys;
+        private final Iterator<? extends Value> values;
+        private Key last;
+
+        SortedInput(Iterator<? extends Key> keys, Iterator<? extends Value> values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        Node next() {
+            if (!keys.hasNext() || !values.hasNext())
+                throw new IllegalArgumentException("The input holds less entries than the given size.");
+            Key key = keys.next();
+            Value value = values.next();
+            if (key == null)
+                throw new NullPointerException("The given key is null.");
+            if (value == null)
+                throw new NullPointerException("The given value is null.");
+            if (last != null && compare(last, key) >= 0)
+                throw new IllegalArgumentException("The keys are not sorted in strictly increasing order.");
+            last = key;
+            return new Node(key, value, 1);
+        }
     }
 
     /*** {@inheritDoc} */
@@ -81,25 +308,20 @@ public class BstSymbolTableImpl<Key extends Comparable<Key>, Value> implements S
             throw new NullPointerException("The given key is null.");
         if (value == null)
             throw new NullPointerException("The given value is null.");
-        root = put(root, key, value);
-        stSize++;
-    }
-
-    /*
-     * Recursive method to put a key-value in the SymbolTable.
-     */
-    private Node put(Node x, Key key, Value value) {
-        if (x == null)
-            return new Node(key, value, 0);
-        int cmp = compare(x.key, key);
-        if (cmp > 0) {
-            x.left = put(x.left, key, value);
-        } else if (cmp < 0) {
-            x.right = put(x.right, key, value);
-        } else {
-            x.val = value;
+        int depth = 0;
+        Node x = root;
+        while (x != null) {
+            int cmp = compare(x.key, key);
+            if (cmp == 0) {
+                x.val = value;
+                clearPath(depth);
+                return;
+            }
+            depth = push(depth, x, cmp > 0);
+            x = (cmp > 0) ? x.left : x.right;
         }
-        return x;
+        modCount++;
+        root = rebuild(depth, new Node(key, value, 1));
     }
 
     /*** {@inheritDoc} */
@@ -126,37 +348,144 @@ public class BstSymbolTableImpl<Key extends Comparable<Key>, Value> implements S
     public Value delete(Key key) {
         if (key == null)
             throw new NullPointerException("The given key is null.");
-        Value value = get(key);
-        if (value != null) {
-            root = delete(root, key);
-            stSize--;
+        int depth = 0;
+        Node x = root;
+        while (x != null) {
+            int cmp = compare(x.key, key);
+            if (cmp == 0)
+                break;
+            depth = push(depth, x, cmp > 0);
+            x = (cmp > 0) ? x.left : x.right;
+        }
+        if (x == null) {
+            clearPath(depth);
+            return null;
+        }
+        Value value = x.val;
+
+        // HIBBARD DELETION : a node with two children takes the entry of its
+        // successor, which is deleted instead
+        Node replacement;
+        if (x.left == null) {
+            replacement = x.right;
+        } else if (x.right == null) {
+            replacement = x.left;
+        } else {
+            depth = push(depth, x, false);
+            Node successor = x.right;
+            while (successor.left != null) {
+                depth = push(depth, successor, true);
+                successor = successor.left;
+            }
+            x.key = successor.key;
+            x.val = successor.val;
+            replacement = successor.right;
         }
+        modCount++;
+        root = rebuild(depth, replacement);
         return value;
     }
 
     /*
-     * Recursive method to delete the specified key from the SymbolTable. Here
-     * we implement the HIBBARD DELETION method.
+     * Push the given node on the path, with the direction taken from it, and
+     * return the new depth of the path.
      */
-    private Node delete(Node x, Key key) {
-        if (x == null)
-            return null;
-        int cmp = compare(x.key, key);
-        if (cmp > 0)
-            x.left = delete(x.left, key);
-        else if (cmp < 0)
-            x.right = delete(x.right, key);
-        else {
-            if (x.left == null)
-                return x.right;
-            if (x.right == null)
-                return x.left;
-            Node t = x;
-            x = getMin(t.right);
-            x.right = deleteMin(t.right);
-            x.left = t.left;
+    private int push(int depth, Node x, boolean left) {
+        if (depth == path.length) {
+            Node[] newPath = newPath(2 * depth);
+            System.arraycopy(path, 0, newPath, 0, depth);
+            path = newPath;
+            pathLeft = Arrays.copyOf(pathLeft, 2 * depth);
+        }
+        path[depth] = x;
+        pathLeft[depth] = left;
+        return depth + 1;
+    }
+
+    /*
+     * Walk the path back to the root : attach the given subtree in place of
+     * the child of the last node of the path, then update and rebalance every
+     * node of the path. Return the new root.
+     */
+    private Node rebuild(int depth, Node child) {
+        for (int i = depth - 1; i >= 0; i--) {
+            Node parent = path[i];
+            if (pathLeft[i])
+                parent.left = child;
+            else
+                parent.right = child;
+            child = balance(parent);
+            path[i] = null;
+        }
+        return child;
+    }
+
+    /*
+     * Release the nodes of the path.
+     */
+    private void clearPath(int depth) {
+        Arrays.fill(path, 0, depth, null);
+    }
+
+    private Node[] newPath(int length) {
+        return GenericArrays.newArray(Node.class, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * The mappings are visited in the order of the keys.
+     */
+    @Override
+    public void forEach(BiConsumer<? super Key, ? super Value> action) {
+        if (action == null)
+            throw new NullPointerException("The given action is null.");
+        Stack<Node> stack = new LinkedListImplOfStack<Node>();
+        Node x = root;
+        while (x != null || !stack.isEmpty()) {
+            while (x != null) {
+                stack.push(x);
+                x = x.left;
+            }
+            x = stack.pop();
+            action.accept(x.key, x.val);
+            x = x.right;
         }
-        return x;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * The path to the key is walked once when the key is already mapped : the
+     * new value is written in its node. Adding or removing the key walks the
+     * path again, to update the subtree sizes and rebalance the tree.
+     */
+    @Override
+    public Value compute(Key key, BiFunction<? super Key, ? super Value, ? extends Value> remapping) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (remapping == null)
+            throw new NullPointerException("The given function is null.");
+        Node x = root;
+        while (x != null) {
+            int cmp = compare(x.key, key);
+            if (cmp == 0)
+                break;
+            x = (cmp > 0) ? x.left : x.right;
+        }
+        int expectedModCount = modCount;
+        Value newValue = remapping.apply(key, (x != null) ? x.val : null);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+        if (newValue == null) {
+            if (x != null)
+                delete(key);
+        } else if (x != null) {
+            x.val = newValue;
+        } else {
+            put(key, newValue);
+        }
+        return newValue;
     }
 
     /*
@@ -170,21 +499,270 @@ public class BstSymbolTableImpl<Key extends Comparable<Key>, Value> implements S
     }
 
     /*
-     * Delete the node with the minimum key in the subtree rooted by the given
-     * node x.
+     * Returns the number of nodes of the subtree rooted by the given node x.
+     */
+    private int size(Node x) {
+        return (x == null) ? 0 : x.count;
+    }
+
+    /*
+     * Returns the height of the subtree rooted by the given node x.
+     */
+    private int height(Node x) {
+        return (x == null) ? 0 : x.height;
+    }
+
+    /*
+     * Recompute the size and the height of the given node x from its
+     * children.
+     */
+    private void update(Node x) {
+        x.count = 1 + size(x.left) + size(x.right);
+        x.height = 1 + Math.max(height(x.left), height(x.right));
+    }
+
+    /*
+     * Rotate the subtree rooted by the given node x to the right and return
+     * the new root of the subtree.
      */
-    private Node deleteMin(Node x) {
-        if (x.left == null)
-            return x.right;
-        x.left = deleteMin(x.left);
+    private Node rotateRight(Node x) {
+        Node t = x.left;
+        x.left = t.right;
+        t.right = x;
+        update(x);
+        update(t);
+        return t;
+    }
+
+    /*
+     * Rotate the subtree rooted by the given node x to the left and return
+     * the new root of the subtree.
+     */
+    private Node rotateLeft(Node x) {
+        Node t = x.right;
+        x.right = t.left;
+        t.left = x;
+        update(x);
+        update(t);
+        return t;
+    }
+
+    /*
+     * Update the given node x after a change in one of its subtrees and, in
+     * balanced mode, restore the AVL property at x : the heights of its two
+     * subtrees differ by at most one. Return the new root of the subtree.
+     */
+    private Node balance(Node x) {
+        update(x);
+        if (!balanced)
+            return x;
+        int factor = height(x.left) - height(x.right);
+        if (factor > 1) {
+            if (height(x.left.left) < height(x.left.right))
+                x.left = rotateLeft(x.left);
+            return rotateRight(x);
+        }
+        if (factor < -1) {
+            if (height(x.right.right) < height(x.right.left))
+                x.right = rotateRight(x.right);
+            return rotateLeft(x);
+        }
         return x;
     }
 
+    /**
+     * Returns the number of keys strictly less than the given key.
+     * 
+     * @param key
+     *            the key whose rank is to be returned
+     * 
+     * @return the number of keys strictly less than the given key
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key is null
+     */
+    public int rank(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        int rank = 0;
+        Node x = root;
+        while (x != null) {
+            int cmp = compare(key, x.key);
+            if (cmp < 0) {
+                x = x.left;
+            } else if (cmp > 0) {
+                rank += 1 + size(x.left);
+                x = x.right;
+            } else {
+                return rank + size(x.left);
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the key of the given rank, that is the key such that exactly k
+     * keys are less than it.
+     * 
+     * @param k
+     *            the rank of the key to return, from 0 to size() - 1
+     * 
+     * @return the key of rank k
+     * 
+     * @exception java.lang.IllegalArgumentException
+     *                if k is negative or not less than size()
+     */
+    public Key select(int k) {
+        if (k < 0 || k >= size())
+            throw new IllegalArgumentException("The given rank is out of range : " + k);
+        Node x = root;
+        while (true) {
+            int leftSize = size(x.left);
+            if (k < leftSize) {
+                x = x.left;
+            } else if (k > leftSize) {
+                k -= leftSize + 1;
+                x = x.right;
+            } else {
+                return x.key;
+            }
+        }
+    }
+
+    /**
+     * Returns the smallest key, or null if the SymbolTable is empty.
+     * 
+     * @return the smallest key, or null if the SymbolTable is empty
+     */
+    public Key minKey() {
+        return (root == null) ? null : getMin(root).key;
+    }
+
+    /**
+     * Returns the largest key, or null if the SymbolTable is empty.
+     * 
+     * @return the largest key, or null if the SymbolTable is empty
+     */
+    public Key maxKey() {
+        if (root == null)
+            return null;
+        Node x = root;
+        while (x.right != null)
+            x = x.right;
+        return x.key;
+    }
+
+    /**
+     * Returns the greatest key less than or equal to the given key, or null if
+     * there is no such key.
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key is null
+     */
+    public Key floorKey(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Key floor = null;
+        Node x = root;
+        while (x != null) {
+            int cmp = compare(key, x.key);
+            if (cmp < 0) {
+                x = x.left;
+            } else if (cmp > 0) {
+                floor = x.key;
+                x = x.right;
+            } else {
+                return x.key;
+            }
+        }
+        return floor;
+    }
+
+    /**
+     * Returns the least key greater than or equal to the given key, or null if
+     * there is no such key.
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key is null
+     */
+    public Key ceilingKey(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Key ceiling = null;
+        Node x = root;
+        while (x != null) {
+            int cmp = compare(key, x.key);
+            if (cmp > 0) {
+                x = x.right;
+            } else if (cmp < 0) {
+                ceiling = x.key;
+                x = x.left;
+            } else {
+                return x.key;
+            }
+        }
+        return ceiling;
+    }
+
+    /**
+     * Returns the number of keys between lo and hi, both included.
+     * 
+     * @param lo
+     *            the lower bound of the range
+     * @param hi
+     *            the upper bound of the range
+     * 
+     * @return the number of keys k such that lo <= k <= hi
+     * 
+     * @exception java.lang.NullPointerException
+     *                if lo or hi is null
+     */
+    public int rangeCount(Key lo, Key hi) {
+        if (lo == null || hi == null)
+            throw new NullPointerException("The given key is null.");
+        if (compare(lo, hi) > 0)
+            return 0;
+        int count = rank(hi) - rank(lo);
+        return containsKey(hi) ? count + 1 : count;
+    }
+
+    /**
+     * Returns the keys between lo and hi, both included, in increasing order.
+     * The keys are produced lazily : walking the first m keys of the range
+     * costs O(log n + m), whatever the size of the range. The iterator fails
+     * if the SymbolTable is structurally modified during the iteration.
+     * 
+     * @param lo
+     *            the lower bound of the range
+     * @param hi
+     *            the upper bound of the range
+     * 
+     * @return the keys k such that lo <= k <= hi, in increasing order
+     * 
+     * @exception java.lang.NullPointerException
+     *                if lo or hi is null
+     */
+    public Iterable<Key> rangeKeys(Key lo, Key hi) {
+        if (lo == null || hi == null)
+            throw new NullPointerException("The given key is null.");
+        return () -> new IteratorBstSymbolTableImpl(lo, hi);
+    }
+
+    /**
+     * Returns the height of the Binary Search Tree, 0 if the SymbolTable is
+     * empty.
+     * 
+     * @return the height of the Binary Search Tree
+     */
+    public int height() {
+        return height(root);
+    }
+
     /*** {@inheritDoc} */
     @Override
     public void clear() {
-        stSize = 0;
         root = null;
+        modCount++;
     }
 
     /*** {@inheritDoc} */
@@ -210,23 +788,25 @@ public class BstSymbolTableImpl<Key extends Comparable<Key>, Value> implements S
     public boolean containsValue(Value value) {
         if (value == null)
             throw new NullPointerException("The given value is null.");
-        return containsValue(root, value);
-    }
-
-    /*** {@inheritDoc} */
-    private boolean containsValue(Node x, Value value) {
-        if (x == null)
-            return false;
-        if (x.val.equals(value))
-            return true;
-        else
-            return containsValue(x.left, value) || containsValue(x.right, value);
+        Stack<Node> stack = new LinkedListImplOfStack<Node>();
+        if (root != null)
+            stack.push(root);
+        while (!stack.isEmpty()) {
+            Node x = stack.pop();
+            if (x.val.equals(value))
+                return true;
+            if (x.left != null)
+                stack.push(x.left);
+            if (x.right != null)
+                stack.push(x.right);
+        }
+        return false;
     }
 
     /*** {@inheritDoc} */
     @Override
     public boolean isEmpty() {
-        if (stSize == 0)
+        if (root == null)
             return true;
         return false;
     }
@@ -234,7 +814,7 @@ public class BstSymbolTableImpl<Key extends Comparable<Key>, Value> implements S
     /*** {@inheritDoc} */
     @Override
     public int size() {
-        return stSize;
+        return size(root);
     }
 
     /*
@@ -249,56 +829,68 @@ public class BstSymbolTableImpl<Key extends Comparable<Key>, Value> implements S
     /*** {@inheritDoc} */
     @Override
     public Iterator<Key> iterator() {
-        return new IteratorBstSymbolTableImpl();
+        return new IteratorBstSymbolTableImpl(null, null);
     }
 
     /**
      * IteratorBstSymbolTableImpl implements Iterator interface in order to
      * provide iterable capabilities to the SymbolTable through the Key.
+     * 
+     * It iterates lazily over the keys between lo and hi, null meaning no
+     * bound. The stack holds the nodes whose key and right subtree are still
+     * to be visited, the next node on top. The iterator is fail-fast : it
+     * throws a ConcurrentModificationException if a key is added or deleted
+     * during the iteration.
      *
      * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
      *
      */
     private class IteratorBstSymbolTableImpl implements Iterator<Key> {
 
-        /*** Iteration index. */
-        private int index;
-        private Key[] keys;
-
-        /*** Constructs IteratorArrayImplOfStack. */
-        @SuppressWarnings("unchecked")
-        IteratorBstSymbolTableImpl() {
-            index = 0;
-            keys = (Key[]) new Comparable[stSize];
-            InorderTraversal(root, keys, 0);
-        }
-
-        /*
-         * Perform the InorderTraversal on the binary search tree and put the
-         * keys in the keys arrays.
-         */
-        private int InorderTraversal(Node x, Key[] keys, int currIndex) {
-            if (x == null)
-                return currIndex;
-            int indexLeft = InorderTraversal(x.left, keys, currIndex);
-            keys[indexLeft] = x.key;
-            indexLeft++;
-            return InorderTraversal(x.right, keys, indexLeft);
+        private final Key hi;
+        private final Stack<Node> stack;
+        private final int expectedModCount;
+
+        /*** Constructs IteratorBstSymbolTableImpl. */
+        IteratorBstSymbolTableImpl(Key lo, Key hi) {
+            this.hi = hi;
+            this.stack = new LinkedListImplOfStack<Node>();
+            this.expectedModCount = modCount;
+            Node x = root;
+            while (x != null) {
+                if (lo == null || compare(lo, x.key) <= 0) {
+                    stack.push(x);
+                    x = x.left;
+                } else {
+                    x = x.right;
+                }
+            }
         }
 
         /*** {@inheritDoc} */
         @Override
         public boolean hasNext() {
-            if (index < stSize) {
-                return true;
-            }
-            return false;
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return !stack.isEmpty() && (hi == null || compare(stack.peek().key, hi) <= 0);
         }
 
         /*** {@inheritDoc} */
         @Override
         public Key next() {
-            return keys[index++];
+            return nextNode().key;
+        }
+
+        /*
+         * Return the next node of the iteration.
+         */
+        Node nextNode() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Node x = stack.pop();
+            for (Node t = x.right; t != null; t = t.left)
+                stack.push(t);
+            return x;
         }
 
     }
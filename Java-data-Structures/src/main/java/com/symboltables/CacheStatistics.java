@@ -0,0 +1,80 @@
+package com.symboltables;
+
+/**
+ * CacheStatistics is an immutable snapshot of the counters of a cache : how
+ * many lookups found their key, how many did not, and how many entries were
+ * evicted to respect the capacity.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+public final class CacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    /**
+     * Constructs the statistics of a cache.
+     *
+     * @param hitCount
+     *            the number of lookups that found their key
+     * @param missCount
+     *            the number of lookups that did not find their key
+     * @param evictionCount
+     *            the number of entries evicted by the cache
+     */
+    public CacheStatistics(long hitCount, long missCount, long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Returns the number of lookups that found their key.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that did not find their key.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of lookups.
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Returns the ratio between the number of hits and the number of lookups,
+     * or 0 if there was no lookup.
+     */
+    public double getHitRatio() {
+        long requestCount = getRequestCount();
+        if (requestCount == 0)
+            return 0;
+        return (double) hitCount / requestCount;
+    }
+
+    /**
+     * Returns the number of entries evicted by the cache. The explicit deletes
+     * are not counted.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "CacheStatistics [hitCount=" + hitCount + ", missCount=" + missCount + ", hitRatio=" + getHitRatio()
+                + ", evictionCount=" + evictionCount + "]";
+    }
+
+}
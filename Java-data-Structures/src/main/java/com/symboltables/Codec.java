@@ -0,0 +1,53 @@
+package com.symboltables;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A Codec turns the keys or the values of a SymbolTable into bytes and back,
+ * for SymbolTableSnapshot. The length of each encoded object is stored by
+ * the snapshot, so an encoding does not need to be self-delimited.
+ *
+ * Codecs contains the codecs of the common types.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <T>
+ *            the type of the encoded objects
+ */
+public interface Codec<T> {
+
+    /**
+     * Returns the number of bytes of the encoding of the given object.
+     *
+     * @param value
+     *            the object to encode, never null
+     * @return the number of bytes written by encode
+     */
+    int encodedSize(T value);
+
+    /**
+     * Writes the encoding of the given object at the position of the buffer,
+     * which has at least encodedSize(value) remaining bytes.
+     *
+     * @param value
+     *            the object to encode, never null
+     * @param buffer
+     *            the destination of the encoding
+     */
+    void encode(T value, ByteBuffer buffer);
+
+    /**
+     * Reads an object from the next length bytes of the buffer.
+     *
+     * @param buffer
+     *            the source of the encoding
+     * @param length
+     *            the number of bytes of the encoding
+     * @return the decoded object
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if the bytes are not a valid encoding
+     */
+    T decode(ByteBuffer buffer, int length);
+
+}
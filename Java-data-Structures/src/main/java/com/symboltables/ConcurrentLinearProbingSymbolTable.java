@@ -0,0 +1,652 @@
+package com.symboltables;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * This is a lock-free HashTable implementation of symbol table.
+ *
+ * Like LinearProbingSymbolTableImpl, it uses the Linear probing technique,
+ * but the keys and the values live in a single AtomicReferenceArray (the key
+ * of the slot i at 2 * i and its value at 2 * i + 1) and every update is a
+ * compare-and-set on one slot, so no thread ever waits for another one.
+ *
+ * - A key slot goes only once from null to its key, and never changes
+ * again : the keys are never moved inside a table.
+ *
+ * - A deleted key keeps its slot, its value is replaced by a tombstone. The
+ * tombstones are dropped by the next resize.
+ *
+ * The resize is cooperative : the thread which finds the table too full
+ * allocates the next table, then every thread which updates the SymbolTable
+ * copies a chunk of slots from the old table to the next one before doing
+ * its own update. A slot is copied in three steps : its value is first
+ * boxed (from then on, it cannot be updated in the old table), then the value
+ * is put in the next table if the key is not already there, and finally the
+ * old value is marked as copied. A thread which meets a boxed or copied value
+ * helps copying the slot and continues in the next table, and the writes
+ * only go to the next table once it exists. When all the slots are copied,
+ * the next table replaces the old one.
+ *
+ * The capacity is always a power of two and the hash codes are spread with
+ * the murmur3 finalizer (see HashIndexing). A table is resized when half of
+ * its key slots are used.
+ *
+ * size, containsValue and the iterator are weakly consistent : they reflect
+ * the updates completed before the call and may reflect the concurrent ones.
+ *
+ * {@link https://en.wikipedia.org/wiki/Non-blocking_algorithm}
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <Key>
+ * @param <Value>
+ */
+
+public class ConcurrentLinearProbingSymbolTable<Key, Value> implements SymbolTable<Key, Value> {
+
+    /*** The value of a deleted key. */
+    private static final Object TOMBSTONE = new Object();
+
+    /*** The value of a slot already copied to the next table. */
+    private static final Object COPIED = new Object();
+
+    /*** The key of an empty slot closed by a copy. */
+    private static final Object CLOSED = new Object();
+
+    /*
+     * A value being copied to the next table.
+     */
+    private static final class Boxed {
+        final Object value;
+
+        Boxed(Object value) {
+            this.value = value;
+        }
+    }
+
+    /*
+     * A table of slots. The tables of a SymbolTable form a chain through
+     * next while a resize is in progress, and share the same size counter.
+     */
+    private static final class Table {
+        final AtomicReferenceArray<Object> kvs;
+        final int mask;
+        final LongAdder size;
+
+        /*
+         * The number of slots claimed by a key, deleted keys included. The
+         * slots closed by a copy are not counted : they only appear once the
+         * table is already being copied to the next one.
+         */
+        final AtomicInteger slotsUsed = new AtomicInteger();
+
+        /*** The table to which the slots are copied. */
+        final AtomicReference<Table> next = new AtomicReference<Table>();
+
+        /*** The first slot not yet claimed by a copying thread. */
+        final AtomicInteger copyIndex = new AtomicInteger();
+
+        /*** The number of slots already copied. */
+        final AtomicInteger copyDone = new AtomicInteger();
+
+        Table(int capacity, LongAdder size) {
+            this.kvs = new AtomicReferenceArray<Object>(2 * capacity);
+            this.mask = capacity - 1;
+            this.size = size;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        /*
+         * Returns the maximal number of probes of a lookup.
+         */
+        int reprobeLimit() {
+            return REPROBE_LIMIT + (capacity() >> 2);
+        }
+    }
+
+    /*** Contains the initial capacity of an empty table. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*** Contains the maximal capacity of a table. */
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    /*** Contains the minimal number of probes of a lookup. */
+    private static final int REPROBE_LIMIT = 10;
+
+    /*** Number of slots copied by an update while a resize is in progress. */
+    private static final int COPY_CHUNK = 1024;
+
+    /*** Put modes. */
+    private static final int MATCH_ANY = 0;
+    private static final int MATCH_ABSENT = 1;
+    private static final int MATCH_NEVER_SET = 2;
+    private static final int MATCH_VALUE = 3;
+
+    /*** The current table. */
+    private final AtomicReference<Table> table;
+
+    /*** The capacity of a new or cleared SymbolTable. */
+    private final int minCapacity;
+
+    /**
+     * Constructs an empty SymbolTable.
+     */
+    public ConcurrentLinearProbingSymbolTable() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty SymbolTable able to hold expectedSize keys without
+     * being resized.
+     *
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if expectedSize is negative or too large
+     */
+    public ConcurrentLinearProbingSymbolTable(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("The expected size is negative.");
+        if (expectedSize >= MAX_CAPACITY / 2)
+            throw new IllegalArgumentException("The expected size is too large.");
+        this.minCapacity = HashIndexing.powerOfTwoCapacity(Math.max(INITIAL_CAPACITY, 2 * expectedSize + 2));
+        this.table = new AtomicReference<Table>(new Table(minCapacity, new LongAdder()));
+    }
+
+    /*
+     * Returns the spread hash code of the given key.
+     */
+    private static int hash(Object key) {
+        return HashIndexing.spread(key.hashCode());
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void put(Key key, Value value) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        putIfMatch(helpCopy(), key, hash(key), value, MATCH_ANY, null);
+    }
+
+    /**
+     * Associates the specified value with the specified key only if the key
+     * is not already in this SymbolTable. Among several threads putting the
+     * same missing key, exactly one succeeds.
+     *
+     * @param key
+     *            key with which the specified value is to be associated
+     * @param value
+     *            value to be associated with the specified key
+     * @return the current value of the key, or null if the given value has
+     *         been associated with the key
+     *
+     * @exception java.lang.NullPointerException
+     *                if the specified key or value is null
+     */
+    @SuppressWarnings("unchecked")
+    public Value putIfAbsent(Key key, Value value) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        return (Value) putIfMatch(helpCopy(), key, hash(key), value, MATCH_ABSENT, null);
+    }
+
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Value get(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        return (Value) get(table.get(), key, hash(key));
+    }
+
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Value delete(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        return (Value) putIfMatch(helpCopy(), key, hash(key), TOMBSTONE, MATCH_ANY, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The update is atomic : the new value replaces the value given to the
+     * function with a compare-and-set, and the function is called again with
+     * the new current value if another thread updated the key in between. So
+     * the function may be called several times and must have no side effect.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Value compute(Key key, BiFunction<? super Key, ? super Value, ? extends Value> remapping) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (remapping == null)
+            throw new NullPointerException("The given function is null.");
+        int hash = hash(key);
+        while (true) {
+            Object oldValue = get(table.get(), key, hash);
+            Value newValue = remapping.apply(key, (Value) oldValue);
+            if (replace(key, hash, oldValue, newValue))
+                return newValue;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The function is called at most once by a call, but several threads
+     * computing the same missing key may all call it : only one of the
+     * computed values is put, and all the calls return it.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Value computeIfAbsent(Key key, Function<? super Key, ? extends Value> mapping) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (mapping == null)
+            throw new NullPointerException("The given function is null.");
+        int hash = hash(key);
+        Object oldValue = get(table.get(), key, hash);
+        if (oldValue != null)
+            return (Value) oldValue;
+        Value newValue = mapping.apply(key);
+        if (newValue == null)
+            return null;
+        Object current = putIfMatch(helpCopy(), key, hash, newValue, MATCH_ABSENT, null);
+        return (current == null) ? newValue : (Value) current;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The merge is atomic : the new value replaces the value given to the
+     * function with a compare-and-set, and the function is called again with
+     * the new current value if another thread updated the key in between. So
+     * the function may be called several times and must have no side effect.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Value merge(Key key, Value value, BiFunction<? super Value, ? super Value, ? extends Value> remapping) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        if (remapping == null)
+            throw new NullPointerException("The given function is null.");
+        int hash = hash(key);
+        while (true) {
+            Object oldValue = get(table.get(), key, hash);
+            Value newValue = (oldValue == null) ? value : remapping.apply((Value) oldValue, value);
+            if (replace(key, hash, oldValue, newValue))
+                return newValue;
+        }
+    }
+
+    /*
+     * Replace the given current value of the given key (null if the key is
+     * absent) by the given new value (null to delete the key). Returns false
+     * if the current value has changed in the meantime.
+     */
+    private boolean replace(Object key, int hash, Object oldValue, Object newValue) {
+        if (oldValue == null) {
+            if (newValue == null)
+                return true;
+            return putIfMatch(helpCopy(), key, hash, newValue, MATCH_ABSENT, null) == null;
+        }
+        Object value = (newValue == null) ? TOMBSTONE : newValue;
+        return putIfMatch(helpCopy(), key, hash, value, MATCH_VALUE, oldValue) == oldValue;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(Key key) {
+        return get(key) != null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsValue(Value value) {
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        Table t = table.get();
+        for (int i = 0; i < t.capacity(); i++) {
+            if (value.equals(valueAt(t, i)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The updates concurrent with clear may be lost.
+     */
+    @Override
+    public void clear() {
+        table.set(new Table(minCapacity, new LongAdder()));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public int size() {
+        long size = table.get().size.sum();
+        return (int) Math.max(0, Math.min(size, Integer.MAX_VALUE));
+    }
+
+    /*
+     * Returns the value of the given key in the given table or in its next
+     * tables, or null.
+     */
+    private Object get(Table t, Object key, int hash) {
+        while (true) {
+            int index = slotOf(t, key, hash, false);
+            if (index < 0) {
+                // the key may have been put directly in the next table
+                t = t.next.get();
+                if (t == null)
+                    return null;
+                continue;
+            }
+            Object v = t.kvs.get(2 * index + 1);
+            if (v instanceof Boxed || v == COPIED) {
+                copySlotAndCount(t, index);
+                t = t.next.get();
+                continue;
+            }
+            return (v == TOMBSTONE) ? null : v;
+        }
+    }
+
+    /*
+     * Put the given value (TOMBSTONE to delete the key) in the slot of the
+     * given key, starting from the given table, if the current value matches
+     * the given mode (MATCH_VALUE : the current value is expected). Returns
+     * the previous value, or null if the key was absent.
+     */
+    private Object putIfMatch(Table t, Object key, int hash, Object value, int mode, Object expected) {
+        boolean deleting = (value == TOMBSTONE);
+        while (true) {
+            int index = slotOf(t, key, hash, !deleting);
+            if (index < 0) {
+                Table next = t.next.get();
+                if (deleting && next == null)
+                    return null;
+                t = (next != null) ? next : resize(t, true);
+                continue;
+            }
+            if (t.next.get() != null) {
+                // the writes go to the newest table
+                copySlotAndCount(t, index);
+                t = t.next.get();
+                continue;
+            }
+            Object v = t.kvs.get(2 * index + 1);
+            while (true) {
+                if (v instanceof Boxed || v == COPIED)
+                    break;
+                boolean absent = (v == null) || (v == TOMBSTONE);
+                if ((mode == MATCH_ABSENT && !absent) || (mode == MATCH_NEVER_SET && v != null)
+                        || (mode == MATCH_VALUE && v != expected))
+                    return absent ? null : v;
+                if (deleting && absent)
+                    return null;
+                if (t.kvs.compareAndSet(2 * index + 1, v, value)) {
+                    if (mode != MATCH_NEVER_SET) {
+                        if (deleting)
+                            t.size.decrement();
+                        else if (absent)
+                            t.size.increment();
+                    }
+                    return absent ? null : v;
+                }
+                v = t.kvs.get(2 * index + 1);
+            }
+            copySlotAndCount(t, index);
+            t = t.next.get();
+        }
+    }
+
+    /*
+     * Returns the index of the slot of the given key in the given table, or
+     * -1 if the key is not in the table. If claim is true, a missing key
+     * takes the first empty slot of its probe sequence, and -1 means that
+     * the table is too full.
+     */
+    private int slotOf(Table t, Object key, int hash, boolean claim) {
+        AtomicReferenceArray<Object> kvs = t.kvs;
+        int limit = t.reprobeLimit();
+        int index = hash & t.mask;
+        for (int probes = 0; probes < limit; probes++) {
+            Object k = kvs.get(2 * index);
+            if (k == null) {
+                if (!claim)
+                    return -1;
+                if (kvs.compareAndSet(2 * index, null, key)) {
+                    if (t.slotsUsed.incrementAndGet() > t.capacity() / 2)
+                        resize(t, false);
+                    return index;
+                }
+                k = kvs.get(2 * index);
+            }
+            if (k == key || key.equals(k))
+                return index;
+            index = (index + 1) & t.mask;
+        }
+        return -1;
+    }
+
+    /*
+     * Returns the live value of the slot at the given index, looking it up in
+     * the next tables if it has been copied, or null.
+     */
+    private Object valueAt(Table t, int index) {
+        Object k = t.kvs.get(2 * index);
+        if (k == null || k == CLOSED)
+            return null;
+        Object v = t.kvs.get(2 * index + 1);
+        if (v instanceof Boxed || v == COPIED)
+            return get(t, k, hash(k));
+        return (v == TOMBSTONE) ? null : v;
+    }
+
+    /*
+     * Returns the next table of the given table, allocating it if needed.
+     */
+    private Table resize(Table t, boolean tooManyProbes) {
+        Table next = t.next.get();
+        if (next != null)
+            return next;
+        int capacity = t.capacity();
+        long live = t.size.sum();
+        long needed = Math.max(minCapacity, 4 * live);
+        int newCapacity = HashIndexing.powerOfTwoCapacity((int) Math.min(needed, MAX_CAPACITY));
+        if (tooManyProbes && newCapacity <= capacity)
+            newCapacity = 2 * capacity;
+        if (newCapacity > MAX_CAPACITY)
+            throw new IllegalStateException("The SymbolTable is full.");
+        t.next.compareAndSet(null, new Table(newCapacity, t.size));
+        return t.next.get();
+    }
+
+    /*
+     * Copy a chunk of the current table if it is being resized, and returns
+     * the current table.
+     */
+    private Table helpCopy() {
+        Table t = table.get();
+        if (t.next.get() == null)
+            return t;
+        int start = t.copyIndex.getAndAdd(COPY_CHUNK);
+        if (start < t.capacity()) {
+            int end = Math.min(start + COPY_CHUNK, t.capacity());
+            int copied = 0;
+            for (int i = start; i < end; i++) {
+                if (copySlot(t, i))
+                    copied++;
+            }
+            if (copied > 0 && t.copyDone.addAndGet(copied) == t.capacity())
+                promote();
+        }
+        return table.get();
+    }
+
+    /*
+     * Copy the slot at the given index and count it if this thread is the
+     * one which completed the copy.
+     */
+    private void copySlotAndCount(Table t, int index) {
+        if (copySlot(t, index) && t.copyDone.incrementAndGet() == t.capacity())
+            promote();
+    }
+
+    /*
+     * Copy the slot at the given index of the given table to its next
+     * table. Returns true if this thread completed the copy.
+     */
+    private boolean copySlot(Table t, int index) {
+        AtomicReferenceArray<Object> kvs = t.kvs;
+        Object k = kvs.get(2 * index);
+        while (k == null) {
+            // close the empty slot, no key can take it anymore
+            if (kvs.compareAndSet(2 * index, null, CLOSED))
+                k = CLOSED;
+            else
+                k = kvs.get(2 * index);
+        }
+        Object v = kvs.get(2 * index + 1);
+        Boxed boxed;
+        while (true) {
+            if (v == COPIED)
+                return false;
+            if (v instanceof Boxed) {
+                boxed = (Boxed) v;
+                break;
+            }
+            if (k == CLOSED || v == null || v == TOMBSTONE) {
+                // nothing to copy
+                if (kvs.compareAndSet(2 * index + 1, v, COPIED))
+                    return true;
+            } else {
+                boxed = new Boxed(v);
+                if (kvs.compareAndSet(2 * index + 1, v, boxed))
+                    break;
+            }
+            v = kvs.get(2 * index + 1);
+        }
+        // the key cannot be written in the next table before its slot is
+        // copied, so the value is only put in a slot never set
+        putIfMatch(t.next.get(), k, hash(k), boxed.value, MATCH_NEVER_SET, null);
+        return kvs.compareAndSet(2 * index + 1, boxed, COPIED);
+    }
+
+    /*
+     * Replace the current table by its next table while it is fully copied.
+     */
+    private void promote() {
+        Table t = table.get();
+        Table next = t.next.get();
+        while (next != null && t.copyDone.get() == t.capacity()) {
+            table.compareAndSet(t, next);
+            t = table.get();
+            next = t.next.get();
+        }
+    }
+
+    /**
+     * Returns the capacity of the current table of the SymbolTable.
+     *
+     * @return the capacity of the current table
+     */
+    public int capacity() {
+        return table.get().capacity();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<Key> iterator() {
+        return new IteratorConcurrentLinearProbingSymbolTable();
+    }
+
+    /**
+     * IteratorConcurrentLinearProbingSymbolTable implements Iterator interface
+     * in order to provide iterable capabilities to the SymbolTable through the
+     * Key.
+     *
+     * It walks the slots of the current table. A key copied to a next table
+     * during the walk is still returned, but a key put directly in a next
+     * table may be missed.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class IteratorConcurrentLinearProbingSymbolTable implements Iterator<Key> {
+
+        /*** The walked table. */
+        private final Table walked;
+
+        /*** Index of the next slot to walk. */
+        private int index;
+
+        /*** The next key, or null at the end of the iteration. */
+        private Object nextKey;
+
+        /*** Constructs IteratorConcurrentLinearProbingSymbolTable. */
+        IteratorConcurrentLinearProbingSymbolTable() {
+            walked = table.get();
+            advance();
+        }
+
+        /*
+         * Move nextKey to the next live key of the walked table.
+         */
+        private void advance() {
+            nextKey = null;
+            while (nextKey == null && index < walked.capacity()) {
+                if (valueAt(walked, index) != null)
+                    nextKey = walked.kvs.get(2 * index);
+                index++;
+            }
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            return nextKey != null;
+        }
+
+        /*** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Key next() {
+            if (nextKey == null)
+                throw new NoSuchElementException();
+            Key key = (Key) nextKey;
+            advance();
+            return key;
+        }
+
+    }
+
+}
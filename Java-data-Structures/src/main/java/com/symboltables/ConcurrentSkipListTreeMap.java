@@ -0,0 +1,598 @@
+package com.symboltables;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConcurrentSkipListTreeMap is a thread safe ordered map stored in a lock-free
+ * skip list.
+ *
+ * Each node is linked in the lists of the levels 0 to topLevel - 1, where
+ * topLevel is drawn at random with P(topLevel > l) = 2^-l : a search goes down
+ * from the sparse upper lists to the full list of level 0 and reads O(log n)
+ * nodes on average.
+ *
+ * No operation takes a lock. Every link is an AtomicMarkableReference whose
+ * mark tells that the node owning the link is deleted :
+ *
+ * - A key is removed in three steps. Its value is set to null with a CAS,
+ * which is the point where the key disappears from the map. The links of
+ * the node are then marked from the top level down, and the node is finally
+ * unlinked by the next traversal which meets it. Any thread finding a node
+ * with a null value marks it, so no thread waits for a stalled remover.
+ *
+ * - A key is added by linking a new node in the list of level 0 with a CAS,
+ * which is the point where the key appears in the map, then in the upper
+ * lists. Replacing the value of a key is a CAS on the value of its node.
+ *
+ * get, containsKey and the navigation methods never write : they skip the
+ * deleted nodes. The iterators and the views are weakly consistent : they
+ * never throw ConcurrentModificationException, and see the modifications
+ * made during the iteration or not.
+ *
+ * The values must not be null, since null marks the removed keys. size is
+ * exact when no update is in progress.
+ *
+ * {@link https://en.wikipedia.org/wiki/Skip_list}
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class ConcurrentSkipListTreeMap<K, V> implements I_TreeMapCustom<K, V> {
+
+    /*** Maximum number of levels of the skip list. */
+    private static final int MAX_LEVEL = 32;
+
+    /*
+     * Structure of each node of the skip list. The head node has a null key
+     * and is before every other node.
+     */
+    static final class Node<K, V> {
+        final K key;
+        volatile Object value;
+        final AtomicMarkableReference<Node<K, V>>[] next;
+
+        Node(K key, Object value, int topLevel) {
+            this.key = key;
+            this.value = value;
+            this.next = GenericArrays.newArray(AtomicMarkableReference.class, topLevel);
+            for (int i = 0; i < topLevel; i++)
+                next[i] = new AtomicMarkableReference<Node<K, V>>(null, false);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Object> VALUE = AtomicReferenceFieldUpdater
+            .newUpdater(Node.class, Object.class, "value");
+
+    private final Node<K, V> head;
+    private final LongAdder size;
+    private final Comparator<? super K> cmp;
+
+    /* CONSTRUCTORS */
+    public ConcurrentSkipListTreeMap() {
+        this(null);
+    }
+
+    public ConcurrentSkipListTreeMap(Comparator<? super K> c) {
+        head = new Node<K, V>(null, null, MAX_LEVEL);
+        size = new LongAdder();
+        cmp = c;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @exception java.lang.NullPointerException
+     *                if the specified key or value is null
+     */
+    @Override
+    public V put(K key, V val) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (val == null)
+            throw new NullPointerException("The given value is null.");
+        Node<K, V>[] preds = GenericArrays.newArray(Node.class, MAX_LEVEL);
+        Node<K, V>[] succs = GenericArrays.newArray(Node.class, MAX_LEVEL);
+        int topLevel = randomLevel();
+        while (true) {
+            if (find(key, preds, succs)) {
+                Node<K, V> node = succs[0];
+                Object v = node.value;
+                if (v != null) {
+                    if (VALUE.compareAndSet(node, v, val))
+                        return val;
+                } else {
+                    // help the remover, the next find unlinks the node
+                    markNode(node);
+                }
+                continue;
+            }
+
+            Node<K, V> node = new Node<K, V>(key, val, topLevel);
+            for (int level = 0; level < topLevel; level++)
+                node.next[level].set(succs[level], false);
+            if (!preds[0].next[0].compareAndSet(succs[0], node, false, false))
+                continue;
+            size.increment();
+            linkUpperLevels(node, preds, succs);
+            return val;
+        }
+    }
+
+    /*
+     * Link the given node, already in the list of level 0, in the upper
+     * lists. Stop if the node is removed meanwhile.
+     */
+    private void linkUpperLevels(Node<K, V> node, Node<K, V>[] preds, Node<K, V>[] succs) {
+        for (int level = 1; level < node.next.length; level++) {
+            while (true) {
+                Node<K, V> succ = succs[level];
+                boolean[] marked = { false };
+                Node<K, V> current = node.next[level].get(marked);
+                if (marked[0])
+                    return;
+                if (current != succ && !node.next[level].compareAndSet(current, succ, false, false))
+                    return;
+                if (preds[level].next[level].compareAndSet(succ, node, false, false))
+                    break;
+                find(node.key, preds, succs);
+                if (succs[0] != node)
+                    return;
+            }
+        }
+    }
+
+    /*
+     * Search the given key, unlinking the deleted nodes on the way. For each
+     * level, set preds to the last node with a smaller key and succs to the
+     * next node. Return true if the node of the key is succs[0].
+     */
+    private boolean find(K key, Node<K, V>[] preds, Node<K, V>[] succs) {
+        boolean[] marked = { false };
+        retry: while (true) {
+            Node<K, V> pred = head;
+            Node<K, V> curr = null;
+            for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+                curr = pred.next[level].getReference();
+                while (curr != null) {
+                    Node<K, V> succ = curr.next[level].get(marked);
+                    if (marked[0]) {
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false))
+                            continue retry;
+                        curr = succ;
+                    } else if (compare(curr.key, key) < 0) {
+                        pred = curr;
+                        curr = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return curr != null && compare(curr.key, key) == 0;
+        }
+    }
+
+    /*
+     * Mark the links of the given node, from the top level down. The node is
+     * deleted once its link of level 0 is marked.
+     */
+    private void markNode(Node<K, V> node) {
+        boolean[] marked = { false };
+        for (int level = node.next.length - 1; level >= 0; level--) {
+            Node<K, V> succ = node.next[level].get(marked);
+            while (!marked[0]) {
+                node.next[level].attemptMark(succ, true);
+                succ = node.next[level].get(marked);
+            }
+        }
+    }
+
+    /*
+     * Return the first node of level 0 whose key is greater than or equal to
+     * the given key (strictly greater if inclusive is false), null meaning no
+     * bound, and which is not deleted, or null if there is none. Never
+     * writes.
+     */
+    private Node<K, V> findCeiling(K key, boolean inclusive) {
+        boolean[] marked = { false };
+        Node<K, V> pred = head;
+        Node<K, V> curr = null;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            curr = pred.next[level].getReference();
+            while (curr != null) {
+                Node<K, V> succ = curr.next[level].get(marked);
+                if (marked[0]) {
+                    curr = succ;
+                    continue;
+                }
+                int c = (key == null) ? 1 : compare(curr.key, key);
+                if (c < 0 || (c == 0 && !inclusive)) {
+                    pred = curr;
+                    curr = succ;
+                } else {
+                    break;
+                }
+            }
+        }
+        while (curr != null && (curr.value == null || curr.next[0].isMarked()))
+            curr = curr.next[0].getReference();
+        return curr;
+    }
+
+    /*
+     * Return the last node of level 0 whose key is less than or equal to the
+     * given key (strictly less if inclusive is false), null meaning no bound,
+     * or the head if there is none. The returned node may be deleted. Never
+     * writes.
+     */
+    private Node<K, V> findFloor(K key, boolean inclusive) {
+        boolean[] marked = { false };
+        Node<K, V> pred = head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            Node<K, V> curr = pred.next[level].getReference();
+            while (curr != null) {
+                Node<K, V> succ = curr.next[level].get(marked);
+                if (marked[0]) {
+                    curr = succ;
+                    continue;
+                }
+                int c = (key == null) ? -1 : compare(curr.key, key);
+                if (c < 0 || (c == 0 && inclusive)) {
+                    pred = curr;
+                    curr = succ;
+                } else {
+                    break;
+                }
+            }
+        }
+        return pred;
+    }
+
+    /*
+     * Return the greatest key less than or equal to the given key (strictly
+     * less if inclusive is false), null meaning no bound, or null if there is
+     * none. A deleted candidate is skipped by searching again below its key.
+     */
+    private K floor(K key, boolean inclusive) {
+        while (true) {
+            Node<K, V> node = findFloor(key, inclusive);
+            if (node == head)
+                return null;
+            if (node.value != null)
+                return node.key;
+            key = node.key;
+            inclusive = false;
+        }
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsValue(V val) {
+        if (val == null)
+            throw new NullPointerException("The given value is null.");
+        for (Node<K, V> x = findCeiling(null, true); x != null; x = nextNode(x)) {
+            if (val.equals(x.value))
+                return true;
+        }
+        return false;
+    }
+
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Node<K, V> node = findCeiling(key, true);
+        if (node == null || compare(node.key, key) != 0)
+            return null;
+        return (V) node.value;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K ceilingKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Node<K, V> node = findCeiling(key, true);
+        return (node == null) ? null : node.key;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K floorKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        return floor(key, true);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K higherKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Node<K, V> node = findCeiling(key, false);
+        return (node == null) ? null : node.key;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K lowerKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        return floor(key, false);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K firstKey() {
+        Node<K, V> node = findCeiling(null, true);
+        return (node == null) ? null : node.key;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K lastKey() {
+        return floor(null, true);
+    }
+
+    /*
+     * Return the node following the given node in the list of level 0 which
+     * is not deleted, or null if there is none.
+     */
+    private Node<K, V> nextNode(Node<K, V> x) {
+        Node<K, V> next = x.next[0].getReference();
+        while (next != null && (next.value == null || next.next[0].isMarked()))
+            next = next.next[0].getReference();
+        return next;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> headMap(K toKey) {
+        if (toKey == null)
+            throw new NullPointerException("The given key is null.");
+        return subMapView(null, false, toKey, false);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> tailMap(K fromKey) {
+        if (fromKey == null)
+            throw new NullPointerException("The given key is null.");
+        return subMapView(fromKey, true, null, false);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> subMap(K fromKey, K toKey) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException("The given key is null.");
+        if (compare(fromKey, toKey) > 0)
+            throw new IllegalArgumentException("fromKey is greater than toKey.");
+        return subMapView(fromKey, true, toKey, false);
+    }
+
+    /*
+     * Return the view of the keys between lo and hi, null meaning no
+     * endpoint.
+     */
+    private I_TreeMapCustom<K, V> subMapView(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+        return new SubMapView<K, V>(this, this::compare, IteratorConcurrentSkipListTreeMap::new, lo, loInclusive, hi, hiInclusive);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Set<K> keySet() {
+        Set<K> result = new HashSet<>();
+        for (K key : this)
+            result.add(key);
+        return result;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Collection<V> values() {
+        Collection<V> result = new ArrayList<>();
+        IteratorConcurrentSkipListTreeMap it = new IteratorConcurrentSkipListTreeMap(null, false, null, false);
+        while (it.hasNext()) {
+            it.next();
+            result.add(it.value());
+        }
+        return result;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public V remove(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Node<K, V>[] preds = GenericArrays.newArray(Node.class, MAX_LEVEL);
+        Node<K, V>[] succs = GenericArrays.newArray(Node.class, MAX_LEVEL);
+        if (!find(key, preds, succs))
+            return null;
+        Node<K, V> node = succs[0];
+        while (true) {
+            Object v = node.value;
+            if (v == null)
+                return null;
+            if (VALUE.compareAndSet(node, v, null)) {
+                size.decrement();
+                markNode(node);
+                find(key, preds, succs);
+                @SuppressWarnings("unchecked")
+                V value = (V) v;
+                return value;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The size is exact when no update is in progress.
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(size.sum(), Integer.MAX_VALUE);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        return firstKey() == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The keys are removed one by one : the keys added during the call may
+     * remain.
+     */
+    @Override
+    public void clear() {
+        for (K key = firstKey(); key != null; key = higherKey(key))
+            remove(key);
+    }
+
+    /*
+     * Compare the two given keys.
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(K key1, K key2) {
+        if (cmp != null)
+            return cmp.compare(key1, key2);
+        Comparable<? super K> cmpKey1 = (Comparable<? super K>) key1;
+        return cmpKey1.compareTo(key2);
+    }
+
+    /*
+     * Return true if the given key is above the high endpoint hi, null
+     * meaning no high endpoint.
+     */
+    private boolean tooHigh(K key, K hi, boolean hiInclusive) {
+        if (hi == null)
+            return false;
+        int c = compare(key, hi);
+        return c > 0 || (c == 0 && !hiInclusive);
+    }
+
+    /*
+     * Return a random level between 1 and MAX_LEVEL, with P(level > l) =
+     * 2^-l.
+     */
+    private static int randomLevel() {
+        int r = ThreadLocalRandom.current().nextInt();
+        return Math.min(Integer.numberOfTrailingZeros(~r) + 1, MAX_LEVEL);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<K> iterator() {
+        return new IteratorConcurrentSkipListTreeMap(null, false, null, false);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<K> iterator(K fromKey) {
+        if (fromKey == null)
+            throw new NullPointerException("The given key is null.");
+        return new IteratorConcurrentSkipListTreeMap(fromKey, true, null, false);
+    }
+
+    /**
+     * IteratorConcurrentSkipListTreeMap implements Iterator interface in order
+     * to provide iterable capabilities to the ConcurrentSkipListTreeMap through
+     * the Key.
+     *
+     * The iterator walks the list of level 0 and skips the deleted nodes. It
+     * is weakly consistent : it returns the keys in increasing order, and each
+     * key is in the map at some point between the creation of the iterator
+     * and the call to next which returns it.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class IteratorConcurrentSkipListTreeMap implements SubMapView.RangeIterator<K, V> {
+
+        private final K hi;
+        private final boolean hiInclusive;
+        private Node<K, V> nextNode;
+        private Object nextValue;
+        private Object lastValue;
+
+        /*** Constructs IteratorConcurrentSkipListTreeMap over the keys between lo and hi. */
+        IteratorConcurrentSkipListTreeMap(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            advance((lo == null) ? findCeiling(null, true) : findCeiling(lo, loInclusive));
+        }
+
+        /*
+         * Move to the given node, or to the end if it is above the high
+         * endpoint. The value is read once, so that the key and the value
+         * returned by the iterator belong together.
+         */
+        private void advance(Node<K, V> node) {
+            while (node != null) {
+                if (tooHigh(node.key, hi, hiInclusive)) {
+                    node = null;
+                    break;
+                }
+                Object v = node.value;
+                if (v != null) {
+                    nextValue = v;
+                    break;
+                }
+                node = nextNode(node);
+            }
+            nextNode = node;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public K next() {
+            if (nextNode == null)
+                throw new NoSuchElementException();
+            K key = nextNode.key;
+            lastValue = nextValue;
+            advance(nextNode(nextNode));
+            return key;
+        }
+
+        /*** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public V value() {
+            return (V) lastValue;
+        }
+
+    }
+
+}
@@ -0,0 +1,519 @@
+package com.symboltables;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * This is a thread safe HashTable implementation of symbol table.
+ *
+ * The key space is striped across independent segments. Each segment is a
+ * separate chaining HashTable protected by its own lock, so the writes to
+ * keys of different segments never wait for each other, and a segment is
+ * resized without blocking the other segments.
+ *
+ * The reads (get, containsKey, containsValue and the iteration) never take a
+ * lock : the buckets of a segment are published through an
+ * AtomicReferenceArray and the value and the next node of a node are
+ * volatile, so a reader always sees a fully constructed node. A resize
+ * copies the nodes into a new array of buckets before publishing it, so a
+ * reader still walking the old buckets keeps seeing consistent chains.
+ *
+ * The segment of a key is selected with the high bits of its spread hash
+ * code, and its bucket inside the segment with the low bits, so both choices
+ * are independent.
+ *
+ * size, isEmpty, containsValue and the iterator are weakly consistent : they
+ * reflect the state of each segment at some point during the call, and do
+ * not block the concurrent writes. The iterator never throws
+ * ConcurrentModificationException.
+ *
+ * {@link https://en.wikipedia.org/wiki/Lock_(computer_science)#Granularity}
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <Key>
+ * @param <Value>
+ */
+
+public class ConcurrentSymbolTable<Key, Value> implements SymbolTable<Key, Value> {
+
+    /*
+     * Structure of each node of the chains. The key and the hash never change
+     * once the node is published.
+     */
+    private static final class Node {
+        final int hash;
+        final Object key;
+        volatile Object value;
+        volatile Node next;
+
+        Node(int hash, Object key, Object value, Node next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /*
+     * A segment is a separate chaining HashTable. The writes hold the lock of
+     * the segment, the reads only read the volatile buckets.
+     */
+    private static final class Segment extends ReentrantLock {
+
+        private static final long serialVersionUID = 1L;
+
+        /*** The buckets of the segment, replaced as a whole by a resize. */
+        volatile AtomicReferenceArray<Node> buckets;
+
+        /*** The number of keys of the segment. */
+        volatile int count;
+
+        /*** The count from which the segment grows. */
+        int threshold;
+
+        Segment(int capacity) {
+            setBuckets(new AtomicReferenceArray<Node>(capacity));
+        }
+
+        private void setBuckets(AtomicReferenceArray<Node> newBuckets) {
+            threshold = (int) (newBuckets.length() * LOAD_FACTOR);
+            buckets = newBuckets;
+        }
+
+        Node find(int hash, Object key) {
+            AtomicReferenceArray<Node> tab = buckets;
+            for (Node x = tab.get(hash & (tab.length() - 1)); x != null; x = x.next) {
+                if (x.hash == hash && key.equals(x.key))
+                    return x;
+            }
+            return null;
+        }
+
+        Object put(int hash, Object key, Object value) {
+            lock();
+            try {
+                Node x = find(hash, key);
+                if (x != null) {
+                    Object old = x.value;
+                    x.value = value;
+                    return old;
+                }
+                insert(hash, key, value);
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        /*
+         * Computes the new value of the given key with the lock held, so that
+         * no other write of the segment interleaves with the computation.
+         */
+        @SuppressWarnings("unchecked")
+        <K, V> V compute(int hash, K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+            lock();
+            try {
+                Node x = find(hash, key);
+                V oldValue = (x == null) ? null : (V) x.value;
+                int oldCount = count;
+                V newValue = remapping.apply(key, oldValue);
+                // the lock is reentrant : only the function itself can have
+                // changed the segment
+                if (count != oldCount)
+                    throw new ConcurrentModificationException();
+                if (newValue != null) {
+                    if (x != null)
+                        x.value = newValue;
+                    else
+                        insert(hash, key, newValue);
+                } else if (x != null) {
+                    delete(hash, key);
+                }
+                return newValue;
+            } finally {
+                unlock();
+            }
+        }
+
+        /*
+         * Add a new node at the head of its bucket. The lock must be held.
+         */
+        private void insert(int hash, Object key, Object value) {
+            if (count >= threshold)
+                rehash();
+            AtomicReferenceArray<Node> tab = buckets;
+            int index = hash & (tab.length() - 1);
+            tab.set(index, new Node(hash, key, value, tab.get(index)));
+            count++;
+        }
+
+        Object delete(int hash, Object key) {
+            lock();
+            try {
+                AtomicReferenceArray<Node> tab = buckets;
+                int index = hash & (tab.length() - 1);
+                Node prev = null;
+                for (Node x = tab.get(index); x != null; prev = x, x = x.next) {
+                    if (x.hash == hash && key.equals(x.key)) {
+                        // a reader standing on x still reaches the rest of
+                        // the chain through x.next
+                        if (prev == null)
+                            tab.set(index, x.next);
+                        else
+                            prev.next = x.next;
+                        count--;
+                        return x.value;
+                    }
+                }
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        /*
+         * Double the number of buckets. The nodes are copied, not relinked,
+         * so the concurrent readers of the old buckets are not disturbed.
+         */
+        private void rehash() {
+            AtomicReferenceArray<Node> oldTab = buckets;
+            AtomicReferenceArray<Node> newTab = new AtomicReferenceArray<Node>(2 * oldTab.length());
+            int mask = newTab.length() - 1;
+            for (int i = 0; i < oldTab.length(); i++) {
+                for (Node x = oldTab.get(i); x != null; x = x.next) {
+                    int index = x.hash & mask;
+                    newTab.set(index, new Node(x.hash, x.key, x.value, newTab.get(index)));
+                }
+            }
+            setBuckets(newTab);
+        }
+
+        boolean containsValue(Object value) {
+            AtomicReferenceArray<Node> tab = buckets;
+            for (int i = 0; i < tab.length(); i++) {
+                for (Node x = tab.get(i); x != null; x = x.next) {
+                    if (value.equals(x.value))
+                        return true;
+                }
+            }
+            return false;
+        }
+
+        void clear(int capacity) {
+            lock();
+            try {
+                setBuckets(new AtomicReferenceArray<Node>(capacity));
+                count = 0;
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+    /*** Contains the default number of segments. */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /*** Contains the maximal number of segments. */
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    /*** Contains the initial number of buckets of a segment. */
+    private static final int MIN_SEGMENT_CAPACITY = 2;
+
+    /*** A segment grows when its count reaches capacity * LOAD_FACTOR. */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*** Contains the segments of the SymbolTable. */
+    private final Segment[] segments;
+
+    /*** The shift which keeps the high bits of a hash. */
+    private final int segmentShift;
+
+    /*** Contains the number of segments minus one. */
+    private final int segmentMask;
+
+    /*** The number of buckets of a new or cleared segment. */
+    private final int segmentCapacity;
+
+    /**
+     * Constructs an empty SymbolTable with 16 segments.
+     */
+    public ConcurrentSymbolTable() {
+        this(0, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructs an empty SymbolTable able to hold expectedSize keys without
+     * being resized, and whose key space is striped across (at least)
+     * concurrencyLevel segments.
+     *
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     * @param concurrencyLevel
+     *            the expected number of threads updating the SymbolTable
+     *            concurrently
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if expectedSize is negative or if concurrencyLevel is not
+     *                positive
+     */
+    public ConcurrentSymbolTable(int expectedSize, int concurrencyLevel) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("The expected size is negative.");
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException("The concurrency level is not positive.");
+        int segmentCount = HashIndexing.powerOfTwoCapacity(Math.min(concurrencyLevel, MAX_SEGMENTS));
+        int perSegment = (int) Math.ceil((double) expectedSize / segmentCount / LOAD_FACTOR) + 1;
+        this.segmentCapacity = HashIndexing.powerOfTwoCapacity(Math.max(MIN_SEGMENT_CAPACITY, perSegment));
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        this.segmentMask = segmentCount - 1;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++)
+            segments[i] = new Segment(segmentCapacity);
+    }
+
+    /*
+     * Returns the spread hash code of the given key.
+     */
+    private static int hash(Object key) {
+        return HashIndexing.spread(key.hashCode());
+    }
+
+    /*
+     * Returns the segment of the given hash.
+     */
+    private Segment segmentFor(int hash) {
+        // with a single segment the shift is 32, which Java reduces to 0
+        return segments[(hash >>> segmentShift) & segmentMask];
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void put(Key key, Value value) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        int hash = hash(key);
+        segmentFor(hash).put(hash, key, value);
+    }
+
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Value get(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        int hash = hash(key);
+        Node x = segmentFor(hash).find(hash, key);
+        if (x == null)
+            return null;
+        return (Value) x.value;
+    }
+
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Value delete(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        int hash = hash(key);
+        return (Value) segmentFor(hash).delete(hash, key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The computation is atomic : it holds the lock of the segment of the key
+     * while the function runs, so the function must be short and must not
+     * update this SymbolTable.
+     */
+    @Override
+    public Value compute(Key key, BiFunction<? super Key, ? super Value, ? extends Value> remapping) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (remapping == null)
+            throw new NullPointerException("The given function is null.");
+        int hash = hash(key);
+        return segmentFor(hash).compute(hash, key, remapping);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The computation is atomic : the function is called at most once, with
+     * the lock of the segment of the key held, so it must be short and must
+     * not update this SymbolTable.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Value computeIfAbsent(Key key, Function<? super Key, ? extends Value> mapping) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (mapping == null)
+            throw new NullPointerException("The given function is null.");
+        int hash = hash(key);
+        Segment segment = segmentFor(hash);
+        // a present key is read without taking the lock
+        Node x = segment.find(hash, key);
+        if (x != null)
+            return (Value) x.value;
+        return segment.compute(hash, key,
+                (Key k, Value oldValue) -> (oldValue != null) ? oldValue : mapping.apply(k));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The merge is atomic : it holds the lock of the segment of the key while
+     * the function runs, so the function must be short and must not update
+     * this SymbolTable.
+     */
+    @Override
+    public Value merge(Key key, Value value, BiFunction<? super Value, ? super Value, ? extends Value> remapping) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        if (remapping == null)
+            throw new NullPointerException("The given function is null.");
+        int hash = hash(key);
+        return segmentFor(hash).compute(hash, key,
+                (Key k, Value oldValue) -> (oldValue == null) ? value : remapping.apply(oldValue, value));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void clear() {
+        for (Segment segment : segments)
+            segment.clear(segmentCapacity);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        int hash = hash(key);
+        return segmentFor(hash).find(hash, key) != null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsValue(Value value) {
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        for (Segment segment : segments) {
+            if (segment.containsValue(value))
+                return true;
+        }
+        return false;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        for (Segment segment : segments) {
+            if (segment.count != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment segment : segments)
+            size += segment.count;
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of segments of the SymbolTable.
+     *
+     * @return the number of segments
+     */
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<Key> iterator() {
+        return new IteratorConcurrentSymbolTable();
+    }
+
+    /**
+     * IteratorConcurrentSymbolTable implements Iterator interface in order to
+     * provide iterable capabilities to the SymbolTable through the Key.
+     *
+     * It walks the segments one after the other without locking them, and
+     * reads the buckets of each segment as they are when the iteration
+     * reaches it.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class IteratorConcurrentSymbolTable implements Iterator<Key> {
+
+        /*** Index of the next segment to walk. */
+        private int segmentIndex;
+
+        /*** Buckets of the segment being walked. */
+        private AtomicReferenceArray<Node> buckets;
+
+        /*** Index of the next bucket to walk. */
+        private int bucketIndex;
+
+        /*** The node of the next key, or null at the end of the iteration. */
+        private Node nextNode;
+
+        /*** Constructs IteratorConcurrentSymbolTable. */
+        IteratorConcurrentSymbolTable() {
+            advance();
+        }
+
+        /*
+         * Move nextNode to the next node of the SymbolTable.
+         */
+        private void advance() {
+            if (nextNode != null)
+                nextNode = nextNode.next;
+            while (nextNode == null) {
+                if (buckets == null || bucketIndex == buckets.length()) {
+                    if (segmentIndex == segments.length)
+                        return;
+                    buckets = segments[segmentIndex++].buckets;
+                    bucketIndex = 0;
+                } else {
+                    nextNode = buckets.get(bucketIndex++);
+                }
+            }
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        /*** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Key next() {
+            if (nextNode == null)
+                throw new NoSuchElementException();
+            Key key = (Key) nextNode.key;
+            advance();
+            return key;
+        }
+
+    }
+
+}
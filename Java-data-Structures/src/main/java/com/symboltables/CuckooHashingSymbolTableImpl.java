@@ -0,0 +1,635 @@
+package com.symboltables;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * This is a HashTable implementation of symbol table.
+ *
+ * Here we are using the Cuckoo hashing technique to handle collisions.
+ *
+ * Every key has two candidate buckets of 4 slots, given by two different hash
+ * functions, and is always stored in one of them. When both buckets of a new
+ * key are full, the key takes the slot of one of the keys of its bucket,
+ * chosen at random, and this key is moved to its other bucket, possibly
+ * evicting another key, and so on. The few keys which cannot be placed after
+ * MAX_KICKS evictions are kept in a small stash, which is read by the
+ * lookups of the keys missing from both buckets.
+ *
+ * {@link https://en.wikipedia.org/wiki/Cuckoo_hashing}
+ *
+ * A lookup thus reads at most two buckets and the stash, whatever the load
+ * of the SymbolTable : it never follows a cluster as in linear probing. The
+ * spread hash code of every key is stored next to it, so the four slots of a
+ * bucket are compared without reading the keys, and the evicted keys are
+ * moved without calling hashCode again.
+ *
+ * The second bucket of a key is its first bucket xor a non-zero tag drawn
+ * from its hash code, so the two buckets always differ.
+ *
+ * The buckets stay usable up to a load of about 95%, so the SymbolTable
+ * doubles its capacity when its size reaches capacity * loadFactor (0.9 by
+ * default), or when the stash overflows, and halves it when its size drops
+ * to a quarter of this threshold. The stash thus holds at most 4 keys, apart
+ * from the keys which no capacity can separate : when both buckets of a key
+ * are full of keys with the same hash code as it, growing the SymbolTable
+ * would not help, and the key is kept in the stash beyond its usual size. A
+ * lookup compares only the hash codes of these keys.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <Key>
+ * @param <Value>
+ */
+public class CuckooHashingSymbolTableImpl<Key, Value> implements SymbolTable<Key, Value> {
+
+    /*** The number of slots of a bucket. */
+    private static final int BUCKET_SIZE = 4;
+
+    /*** The maximal number of keys of the stash which can be separated. */
+    private static final int STASH_SIZE = 4;
+
+    /*** The number of evictions before a key is put in the stash. */
+    private static final int MAX_KICKS = 500;
+
+    /*** Contains the initial number of buckets of an empty SymbolTable. */
+    private static final int INITIAL_BUCKETS = 4;
+
+    /*** Mixed with the hash code of a key to compute its bucket tag. */
+    private static final int SECOND_HASH_SEED = 0x9e3779b9;
+
+    /*** Contains the default load factor of the SymbolTable. */
+    public static final double DEFAULT_LOAD_FACTOR = 0.9;
+
+    /*** Contains the spread hash code of the key of each slot. */
+    private int[] hashes;
+
+    /*** Contains the keys of the SymbolTable, by bucket. */
+    private Key[] keys;
+
+    /*** Contains the value associated to the keys of the SymbolTable. */
+    private Value[] values;
+
+    /*** Contains the hash codes, keys and values of the stash. */
+    private int[] stashHashes;
+    private Key[] stashKeys;
+    private Value[] stashValues;
+
+    /*** Contains the number of keys of the stash. */
+    private int stashSize;
+
+    /*** Contains the number of buckets - 1. */
+    private int mask;
+
+    /*** Contains the size of the SymbolTable. */
+    private int stSize;
+
+    /*** Contains the number of slots of the SymbolTable. */
+    private int capacity;
+
+    /*** Contains the number of times the SymbolTable has been resized. */
+    private int resizeCount;
+
+    /*** Contains the number of structural modifications of the SymbolTable. */
+    private int modCount;
+
+    /*** The maximal ratio between the size and the capacity. */
+    private final double loadFactor;
+
+    /*** The size from which the SymbolTable grows. */
+    private int threshold;
+
+    /*** The capacity of a new or cleared SymbolTable. */
+    private final int minCapacity;
+
+    /*** The state of the generator choosing the evicted slots. */
+    private int random = 0x2545f491;
+
+    /**
+     * Constructs an empty SymbolTable with an initial capacity of 16.
+     */
+    public CuckooHashingSymbolTableImpl() {
+        this(0, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty SymbolTable able to hold expectedSize keys without
+     * being resized.
+     *
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     * @param loadFactor
+     *            the maximal ratio between the size and the capacity, in ]0,
+     *            0.95]
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if expectedSize is negative or if loadFactor is not in ]0,
+     *                0.95]
+     */
+    public CuckooHashingSymbolTableImpl(int expectedSize, double loadFactor) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("The expected size is negative.");
+        if (!(loadFactor > 0 && loadFactor <= 0.95))
+            throw new IllegalArgumentException("The load factor must be in ]0, 0.95].");
+        this.loadFactor = loadFactor;
+        this.minCapacity = capacityFor(expectedSize);
+        allocate(minCapacity);
+        stSize = 0;
+        resizeCount = 0;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void put(Key key, Value value) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        int hash = HashIndexing.spread(key.hashCode());
+        int index = indexOf(hash, key);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+        index = stashIndexOf(hash, key);
+        if (index >= 0) {
+            stashValues[index] = value;
+            return;
+        }
+        if (stSize >= threshold)
+            resize(2 * capacity);
+        insert(hash, key, value);
+        stSize++;
+        modCount++;
+        if (stashSize > STASH_SIZE)
+            growWhileStashOverflows();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value get(Key key) {
+        return getOrDefault(key, null);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value getOrDefault(Key key, Value defaultValue) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        int hash = HashIndexing.spread(key.hashCode());
+        int index = indexOf(hash, key);
+        if (index >= 0)
+            return values[index];
+        index = stashIndexOf(hash, key);
+        return (index >= 0) ? stashValues[index] : defaultValue;
+    }
+
+    /*
+     * Returns the slot of the given key, or -1 if the key is in none of its
+     * buckets.
+     */
+    private int indexOf(int hash, Object key) {
+        int index = findInBucket(bucket1(hash), hash, key);
+        return (index >= 0) ? index : findInBucket(bucket2(hash), hash, key);
+    }
+
+    private int findInBucket(int bucket, int hash, Object key) {
+        int start = bucket * BUCKET_SIZE;
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            if ((hashes[i] == hash) && key.equals(keys[i]))
+                return i;
+        }
+        return -1;
+    }
+
+    /*
+     * Returns the index of the given key in the stash, or -1.
+     */
+    private int stashIndexOf(int hash, Object key) {
+        for (int i = 0; i < stashSize; i++) {
+            if ((stashHashes[i] == hash) && key.equals(stashKeys[i]))
+                return i;
+        }
+        return -1;
+    }
+
+    /*
+     * Insert the given key, which is not in the SymbolTable, in one of its
+     * buckets, moving the other keys if needed, or in the stash.
+     */
+    private void insert(int hash, Key key, Value value) {
+        int bucket = bucket1(hash);
+        if (placeInBucket(bucket, hash, key, value) || placeInBucket(bucket2(hash), hash, key, value))
+            return;
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int slot = bucket * BUCKET_SIZE + (nextRandom() & (BUCKET_SIZE - 1));
+            int h = hashes[slot];
+            Key k = keys[slot];
+            Value v = values[slot];
+            hashes[slot] = hash;
+            keys[slot] = key;
+            values[slot] = value;
+            hash = h;
+            key = k;
+            value = v;
+            bucket = alternateBucket(hash, bucket);
+            if (placeInBucket(bucket, hash, key, value))
+                return;
+        }
+        if (stashSize == stashKeys.length)
+            growStash();
+        stashHashes[stashSize] = hash;
+        stashKeys[stashSize] = key;
+        stashValues[stashSize] = value;
+        stashSize++;
+    }
+
+    /*
+     * Put the given key in a free slot of the given bucket, and return false
+     * if the bucket is full.
+     */
+    private boolean placeInBucket(int bucket, int hash, Key key, Value value) {
+        int start = bucket * BUCKET_SIZE;
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            if (keys[i] == null) {
+                hashes[i] = hash;
+                keys[i] = key;
+                values[i] = value;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Double the capacity until the stash holds at most STASH_SIZE keys which
+     * a larger SymbolTable could place in their buckets.
+     */
+    private void growWhileStashOverflows() {
+        while (separableStashKeys() > STASH_SIZE)
+            resize(2 * capacity);
+    }
+
+    /*
+     * Returns the number of keys of the stash which do not have both their
+     * buckets full of keys with the same hash code as them.
+     */
+    private int separableStashKeys() {
+        int count = 0;
+        for (int i = 0; i < stashSize; i++) {
+            int hash = stashHashes[i];
+            if (!bucketFullOf(bucket1(hash), hash) || !bucketFullOf(bucket2(hash), hash))
+                count++;
+        }
+        return count;
+    }
+
+    /*
+     * Returns true if all the slots of the given bucket hold keys with the
+     * given hash code.
+     */
+    private boolean bucketFullOf(int bucket, int hash) {
+        int start = bucket * BUCKET_SIZE;
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            if ((keys[i] == null) || (hashes[i] != hash))
+                return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void growStash() {
+        int length = 2 * stashKeys.length;
+        int[] newHashes = new int[length];
+        Key[] newKeys = (Key[]) new Object[length];
+        Value[] newValues = (Value[]) new Object[length];
+        System.arraycopy(stashHashes, 0, newHashes, 0, stashSize);
+        System.arraycopy(stashKeys, 0, newKeys, 0, stashSize);
+        System.arraycopy(stashValues, 0, newValues, 0, stashSize);
+        stashHashes = newHashes;
+        stashKeys = newKeys;
+        stashValues = newValues;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value delete(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        int hash = HashIndexing.spread(key.hashCode());
+        Value val;
+        int index = indexOf(hash, key);
+        if (index >= 0) {
+            val = values[index];
+            keys[index] = null;
+            values[index] = null;
+            refill(index);
+        } else {
+            index = stashIndexOf(hash, key);
+            if (index < 0)
+                return null;
+            val = stashValues[index];
+            removeFromStash(index);
+        }
+        stSize--;
+        modCount++;
+        if ((capacity > minCapacity) && (stSize <= threshold / 4)) {
+            resize(Math.max(capacity / 2, minCapacity));
+            growWhileStashOverflows();
+        }
+        return val;
+    }
+
+    /*
+     * Move to the given free slot a key of the stash belonging to its bucket,
+     * if any.
+     */
+    private void refill(int slot) {
+        int bucket = slot / BUCKET_SIZE;
+        for (int i = 0; i < stashSize; i++) {
+            int hash = stashHashes[i];
+            if ((bucket1(hash) == bucket) || (bucket2(hash) == bucket)) {
+                hashes[slot] = hash;
+                keys[slot] = stashKeys[i];
+                values[slot] = stashValues[i];
+                removeFromStash(i);
+                return;
+            }
+        }
+    }
+
+    /*
+     * Remove the key at the given index of the stash, replacing it by the
+     * last one.
+     */
+    private void removeFromStash(int index) {
+        stashSize--;
+        stashHashes[index] = stashHashes[stashSize];
+        stashKeys[index] = stashKeys[stashSize];
+        stashValues[index] = stashValues[stashSize];
+        stashKeys[stashSize] = null;
+        stashValues[stashSize] = null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void forEach(BiConsumer<? super Key, ? super Value> action) {
+        if (action == null)
+            throw new NullPointerException("The given action is null.");
+        int expectedModCount = modCount;
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], values[i]);
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+            }
+        }
+        for (int i = 0; i < stashSize; i++) {
+            action.accept(stashKeys[i], stashValues[i]);
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void clear() {
+        allocate(minCapacity);
+        stSize = 0;
+        modCount++;
+    }
+
+    /**
+     * Resizes the SymbolTable, if needed, so that it can hold expectedSize
+     * keys without being resized again.
+     *
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     */
+    public void ensureCapacity(int expectedSize) {
+        int newCapacity = capacityFor(expectedSize);
+        if (newCapacity > capacity)
+            resize(newCapacity);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(Key key) {
+        return get(key) != null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsValue(Value value) {
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        for (int i = 0; i < capacity; i++) {
+            if (value.equals(values[i]))
+                return true;
+        }
+        for (int i = 0; i < stashSize; i++) {
+            if (value.equals(stashValues[i]))
+                return true;
+        }
+        return false;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        return stSize == 0;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public int size() {
+        return stSize;
+    }
+
+    /**
+     * Returns the probe statistics of the SymbolTable. The probe length of a
+     * key is the number of slots read by a successful lookup of this key : at
+     * most 4 in its first bucket, 8 in its second one, and 8 plus its index
+     * in the stash.
+     *
+     * This method scans all the slots of the SymbolTable, so its cost is
+     * proportional to the capacity.
+     *
+     * @return the probe statistics of the SymbolTable
+     */
+    public ProbeStatistics stats() {
+        int maxProbeLength = 0;
+        long totalProbeLength = 0;
+        for (int i = 0; i < capacity + stashSize; i++) {
+            int probeLength;
+            if (i >= capacity) {
+                probeLength = 2 * BUCKET_SIZE + 1 + i - capacity;
+            } else if (keys[i] == null) {
+                continue;
+            } else {
+                int bucket = i / BUCKET_SIZE;
+                probeLength = 1 + i % BUCKET_SIZE;
+                if (bucket != bucket1(hashes[i]))
+                    probeLength += BUCKET_SIZE;
+            }
+            totalProbeLength += probeLength;
+            if (probeLength > maxProbeLength)
+                maxProbeLength = probeLength;
+        }
+        return new ProbeStatistics(stSize, capacity, maxProbeLength, totalProbeLength, resizeCount);
+    }
+
+    /*
+     * Returns the first bucket of the given spread hash code.
+     */
+    private int bucket1(int hash) {
+        return hash & mask;
+    }
+
+    /*
+     * Returns the second bucket of the given spread hash code, which is never
+     * its first bucket.
+     */
+    private int bucket2(int hash) {
+        return bucket1(hash) ^ tag(hash);
+    }
+
+    /*
+     * Returns the non-zero tag of the given spread hash code, computed from
+     * bits independent of those of its first bucket.
+     */
+    private int tag(int hash) {
+        int tag = HashIndexing.spread(hash ^ SECOND_HASH_SEED) & mask;
+        return (tag != 0) ? tag : 1;
+    }
+
+    /*
+     * Returns the bucket of the given hash code other than the given one.
+     */
+    private int alternateBucket(int hash, int bucket) {
+        return bucket ^ tag(hash);
+    }
+
+    /*
+     * Returns the next value of a xorshift generator.
+     */
+    private int nextRandom() {
+        int x = random;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        random = x;
+        return x;
+    }
+
+    /*
+     * Returns the smallest capacity able to hold the given number of keys
+     * without being resized.
+     */
+    private int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / loadFactor) + 1;
+        if (needed > (1 << 30))
+            throw new IllegalArgumentException("The expected size is too large.");
+        int buckets = (int) ((needed + BUCKET_SIZE - 1) / BUCKET_SIZE);
+        return BUCKET_SIZE * HashIndexing.powerOfTwoCapacity(Math.max(buckets, INITIAL_BUCKETS));
+    }
+
+    /*
+     * Replace the arrays by empty arrays of the given capacity.
+     */
+    @SuppressWarnings("unchecked")
+    private void allocate(int newCapacity) {
+        hashes = new int[newCapacity];
+        keys = (Key[]) new Object[newCapacity];
+        values = (Value[]) new Object[newCapacity];
+        stashHashes = new int[STASH_SIZE];
+        stashKeys = (Key[]) new Object[STASH_SIZE];
+        stashValues = (Value[]) new Object[STASH_SIZE];
+        stashSize = 0;
+        capacity = newCapacity;
+        mask = newCapacity / BUCKET_SIZE - 1;
+        threshold = Math.max(1, (int) (newCapacity * loadFactor));
+    }
+
+    /**
+     * Resize the SymbolTable.
+     *
+     * @param newCapacity
+     *            the new capacity of the SymbolTable
+     */
+    private void resize(int newCapacity) {
+        int[] oldHashes = hashes;
+        Key[] oldKeys = keys;
+        Value[] oldValues = values;
+        int[] oldStashHashes = stashHashes;
+        Key[] oldStashKeys = stashKeys;
+        Value[] oldStashValues = stashValues;
+        int oldCapacity = capacity;
+        int oldStashSize = stashSize;
+        allocate(newCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            if (oldKeys[i] != null)
+                insert(oldHashes[i], oldKeys[i], oldValues[i]);
+        }
+        for (int i = 0; i < oldStashSize; i++)
+            insert(oldStashHashes[i], oldStashKeys[i], oldStashValues[i]);
+        resizeCount++;
+        modCount++;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<Key> iterator() {
+        return new IteratorCuckooHashingSymbolTableImpl();
+    }
+
+    /**
+     * IteratorCuckooHashingSymbolTableImpl implements Iterator interface in
+     * order to provide iterable capabilities to the SymbolTable through the
+     * Key. It walks the slots, then the stash.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class IteratorCuckooHashingSymbolTableImpl implements Iterator<Key> {
+
+        /*** Index of the next used slot, from capacity in the stash. */
+        private int index;
+        private final int expectedModCount;
+
+        /*** Constructs IteratorCuckooHashingSymbolTableImpl. */
+        IteratorCuckooHashingSymbolTableImpl() {
+            expectedModCount = modCount;
+            index = nextUsedSlot(0);
+        }
+
+        private int nextUsedSlot(int i) {
+            while ((i < capacity) && (keys[i] == null))
+                i++;
+            return i;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            return index < capacity + stashSize;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public Key next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (!hasNext())
+                throw new NoSuchElementException();
+            if (index >= capacity)
+                return stashKeys[index++ - capacity];
+            Key key = keys[index];
+            index = nextUsedSlot(index + 1);
+            return key;
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.symboltables;
+
+/**
+ * EvictionPolicy tells a BoundedCacheSymbolTable which entry to drop when it
+ * is full.
+ *
+ * - LRU : the least recently used entry is evicted. A scan of keys read only
+ * once flushes the whole cache.
+ *
+ * - TINY_LFU : W-TinyLFU. A new entry first enters a small LRU window (1% of
+ * the capacity). When it leaves the window, it is admitted in the main
+ * segmented LRU only if its estimated frequency is greater than the one of
+ * the entry it would evict. The frequencies are estimated by a count-min
+ * sketch of 4 bits counters, halved periodically so that the history ages.
+ * Frequent keys survive the scans, and the recency of the window still
+ * catches the bursts.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+public enum EvictionPolicy {
+
+    LRU, TINY_LFU;
+
+}
@@ -0,0 +1,488 @@
+package com.symboltables;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * ExpiringSymbolTable is a SymbolTable whose entries expire : each entry
+ * carries a time to live, given to put or the default one, after which it is
+ * not visible anymore and is removed.
+ *
+ * The entries are stored in a LinearProbingSymbolTableImpl and, to be
+ * reclaimed, in a hierarchical timing wheel instead of being found by a scan
+ * of the table. The wheel is an array of levels, each an array of buckets of
+ * a fixed time span : 64 buckets of about 1 second, 64 of about 1 minute, 32
+ * of about 1 hour, 4 of about 1.6 days and one bucket for the farther
+ * deadlines. An entry is linked, in constant time, in the bucket of the
+ * finest level whose range covers its deadline. When the time advances, only
+ * the buckets of the elapsed spans are visited : their expired entries are
+ * removed, the others are moved down to a finer level. Each entry is moved at
+ * most once per level, so the expiration costs O(1) amortized per entry.
+ *
+ * The time is read on every operation, which first advances the wheel. An
+ * entry is never returned after its deadline, but its memory may be reclaimed
+ * up to one tick (about 1 second) later : size counts these entries.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <Key>
+ * @param <Value>
+ */
+public class ExpiringSymbolTable<Key, Value> implements SymbolTable<Key, Value> {
+
+    /*
+     * Structure of each entry, linked in a bucket of the timing wheel.
+     */
+    private static final class Node<Key, Value> {
+        Key key;
+        Value val;
+        long deadline;
+        Node<Key, Value> prev;
+        Node<Key, Value> next;
+
+        private Node(Key key, Value val, long deadline) {
+            this.key = key;
+            this.val = val;
+            this.deadline = deadline;
+        }
+    }
+
+    /*** The number of buckets of each level of the wheel. */
+    private static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+
+    /*** The time span of a bucket of each level, in nanoseconds. */
+    private static final long[] SPANS = { 1L << 30, 1L << 36, 1L << 42, 1L << 47, 1L << 49, 1L << 49 };
+
+    /*** log2 of the span of a bucket of each level. */
+    private static final int[] SHIFT = { 30, 36, 42, 47, 49 };
+
+    /*** The entries, by key. */
+    private final SymbolTable<Key, Node<Key, Value>> st;
+
+    /*** The sentinel of each bucket of each level of the wheel. */
+    private final Node<Key, Value>[][] wheel;
+
+    private final long defaultTtl;
+    private final LongSupplier clock;
+    private final BiConsumer<? super Key, ? super Value> expirationListener;
+
+    /*** The time the wheel has been advanced to, in nanoseconds. */
+    private long nanos;
+
+    /**
+     * Constructs an empty ExpiringSymbolTable whose entries live for the given
+     * default time to live.
+     *
+     * @param defaultTtl
+     *            the time to live of the entries put without one
+     * @param unit
+     *            the unit of defaultTtl
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if defaultTtl is not positive
+     */
+    public ExpiringSymbolTable(long defaultTtl, TimeUnit unit) {
+        this(defaultTtl, unit, 0, System::nanoTime, null);
+    }
+
+    /**
+     * Constructs an empty ExpiringSymbolTable able to hold expectedSize keys
+     * without being resized.
+     *
+     * @param defaultTtl
+     *            the time to live of the entries put without one
+     * @param unit
+     *            the unit of defaultTtl
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if defaultTtl is not positive or expectedSize is negative
+     */
+    public ExpiringSymbolTable(long defaultTtl, TimeUnit unit, int expectedSize) {
+        this(defaultTtl, unit, expectedSize, System::nanoTime, null);
+    }
+
+    /**
+     * Constructs an empty ExpiringSymbolTable able to hold expectedSize keys
+     * without being resized, which reads the time from the given clock and
+     * calls the given listener with the key and the value of every expired
+     * entry it removes.
+     *
+     * @param defaultTtl
+     *            the time to live of the entries put without one
+     * @param unit
+     *            the unit of defaultTtl
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     * @param clock
+     *            the current time in nanoseconds, such as System::nanoTime
+     * @param expirationListener
+     *            called after each removal of an expired entry, or null
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if defaultTtl is not positive or expectedSize is negative
+     * @exception java.lang.NullPointerException
+     *                if unit or clock is null
+     */
+    public ExpiringSymbolTable(long defaultTtl, TimeUnit unit, int expectedSize, LongSupplier clock,
+            BiConsumer<? super Key, ? super Value> expirationListener) {
+        if (clock == null)
+            throw new NullPointerException("The given clock is null.");
+        this.defaultTtl = toNanos(defaultTtl, unit);
+        this.clock = clock;
+        this.expirationListener = expirationListener;
+        this.st = new LinearProbingSymbolTableImpl<Key, Node<Key, Value>>(expectedSize,
+                LinearProbingSymbolTableImpl.DEFAULT_LOAD_FACTOR);
+        this.wheel = GenericArrays.newArray(Node[].class, BUCKETS.length);
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheel[i] = GenericArrays.newArray(Node.class, BUCKETS[i]);
+            for (int j = 0; j < BUCKETS[i]; j++)
+                wheel[i][j] = sentinel();
+        }
+        this.nanos = clock.getAsLong();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void put(Key key, Value value) {
+        putNanos(key, value, defaultTtl);
+    }
+
+    /**
+     * Associates the specified value with the specified key for the given
+     * time to live.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @param ttl
+     *            the time to live of the entry
+     * @param unit
+     *            the unit of ttl
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if ttl is not positive
+     * @exception java.lang.NullPointerException
+     *                if key, value or unit is null
+     */
+    public void put(Key key, Value value, long ttl, TimeUnit unit) {
+        putNanos(key, value, toNanos(ttl, unit));
+    }
+
+    private void putNanos(Key key, Value value, long ttl) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        long now = advance();
+        Node<Key, Value> x = st.get(key);
+        if (x == null) {
+            x = new Node<Key, Value>(key, value, now + ttl);
+            st.put(key, x);
+        } else {
+            unlink(x);
+            x.val = value;
+            x.deadline = now + ttl;
+        }
+        schedule(x);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value get(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Node<Key, Value> x = find(key, advance());
+        return (x == null) ? null : x.val;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value delete(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Node<Key, Value> x = find(key, advance());
+        if (x == null)
+            return null;
+        st.delete(key);
+        unlink(x);
+        return x.val;
+    }
+
+    /**
+     * Returns the remaining time to live of the given key, in the given unit,
+     * or -1 if the key is absent or expired.
+     *
+     * @param key
+     *            the key
+     * @param unit
+     *            the unit of the result
+     * @return the remaining time to live of the key, or -1
+     *
+     * @exception java.lang.NullPointerException
+     *                if key or unit is null
+     */
+    public long ttl(Key key, TimeUnit unit) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (unit == null)
+            throw new NullPointerException("The given unit is null.");
+        long now = advance();
+        Node<Key, Value> x = find(key, now);
+        return (x == null) ? -1 : unit.convert(x.deadline - now, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Advances the timing wheel to the current time and removes the expired
+     * entries of the elapsed buckets. Every operation does it : this is for
+     * the SymbolTables left idle.
+     */
+    public void cleanUp() {
+        advance();
+    }
+
+    /*
+     * Returns the live node of the given key, and removes it if it is
+     * expired.
+     */
+    private Node<Key, Value> find(Key key, long now) {
+        Node<Key, Value> x = st.get(key);
+        if (x == null)
+            return null;
+        if (x.deadline - now <= 0) {
+            st.delete(key);
+            unlink(x);
+            expired(x);
+            return null;
+        }
+        return x;
+    }
+
+    /*
+     * Read the clock, advance the wheel to this time and return it.
+     */
+    private long advance() {
+        long now = clock.getAsLong();
+        long previous = nanos;
+        if (now - previous <= 0)
+            return now;
+        nanos = now;
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = previous >> SHIFT[i];
+            long currentTicks = now >> SHIFT[i];
+            if (currentTicks - previousTicks <= 0)
+                break;
+            expire(i, previousTicks, currentTicks - previousTicks);
+        }
+        return now;
+    }
+
+    /*
+     * Visit the buckets of the given level from the one of previousTicks to
+     * the current one, at most once each : remove their expired entries and
+     * schedule the others again, in a finer level.
+     */
+    private void expire(int level, long previousTicks, long delta) {
+        Node<Key, Value>[] buckets = wheel[level];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(delta + 1, buckets.length);
+        int start = (int) (previousTicks & mask);
+        for (int i = start; i < start + steps; i++) {
+            Node<Key, Value> sentinel = buckets[i & mask];
+            Node<Key, Value> x = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (x != sentinel) {
+                Node<Key, Value> next = x.next;
+                x.prev = null;
+                x.next = null;
+                if (x.deadline - nanos <= 0) {
+                    st.delete(x.key);
+                    expired(x);
+                } else {
+                    schedule(x);
+                }
+                x = next;
+            }
+        }
+    }
+
+    /*
+     * Link the given node in the bucket of its deadline.
+     */
+    private void schedule(Node<Key, Value> x) {
+        // an overdue node is linked in the current bucket, visited by the
+        // next advance
+        long time = Math.max(x.deadline - nanos, 0) + nanos;
+        long duration = time - nanos;
+        Node<Key, Value> sentinel = wheel[BUCKETS.length - 1][0];
+        for (int i = 0; i < BUCKETS.length - 1; i++) {
+            if (duration < SPANS[i + 1]) {
+                long ticks = time >> SHIFT[i];
+                sentinel = wheel[i][(int) (ticks & (BUCKETS[i] - 1))];
+                break;
+            }
+        }
+        x.prev = sentinel.prev;
+        x.next = sentinel;
+        sentinel.prev.next = x;
+        sentinel.prev = x;
+    }
+
+    /*
+     * Remove the given node from its bucket.
+     */
+    private void unlink(Node<Key, Value> x) {
+        x.prev.next = x.next;
+        x.next.prev = x.prev;
+        x.prev = null;
+        x.next = null;
+    }
+
+    private void expired(Node<Key, Value> x) {
+        if (expirationListener != null)
+            expirationListener.accept(x.key, x.val);
+    }
+
+    private Node<Key, Value> sentinel() {
+        Node<Key, Value> sentinel = new Node<Key, Value>(null, null, 0);
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        return sentinel;
+    }
+
+    private static long toNanos(long ttl, TimeUnit unit) {
+        if (unit == null)
+            throw new NullPointerException("The given unit is null.");
+        if (ttl <= 0)
+            throw new IllegalArgumentException("The time to live must be positive.");
+        return unit.toNanos(ttl);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void clear() {
+        st.clear();
+        for (Node<Key, Value>[] buckets : wheel) {
+            for (Node<Key, Value> sentinel : buckets) {
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+            }
+        }
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(Key key) {
+        return get(key) != null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsValue(Value value) {
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        long now = advance();
+        for (Key key : st) {
+            Node<Key, Value> x = st.get(key);
+            if (x.deadline - now > 0 && x.val.equals(value))
+                return true;
+        }
+        return false;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The entries expired during the current tick of the wheel are counted.
+     */
+    @Override
+    public int size() {
+        advance();
+        return st.size();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void forEach(BiConsumer<? super Key, ? super Value> action) {
+        if (action == null)
+            throw new NullPointerException("The given action is null.");
+        long now = advance();
+        st.forEach((key, x) -> {
+            if (x.deadline - now > 0)
+                action.accept(key, x.val);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The expired keys are skipped.
+     */
+    @Override
+    public Iterator<Key> iterator() {
+        return new IteratorExpiringSymbolTable(advance());
+    }
+
+    /**
+     * IteratorExpiringSymbolTable implements Iterator interface in order to
+     * provide iterable capabilities to the SymbolTable through the Key.
+     *
+     * It iterates over the keys of the table, and skips the keys expired at
+     * its creation time.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class IteratorExpiringSymbolTable implements Iterator<Key> {
+
+        private final Iterator<Key> keys;
+        private final long now;
+        private Key next;
+
+        /*** Constructs IteratorExpiringSymbolTable. */
+        IteratorExpiringSymbolTable(long now) {
+            this.keys = st.iterator();
+            this.now = now;
+            advanceToLiveKey();
+        }
+
+        private void advanceToLiveKey() {
+            next = null;
+            while (next == null && keys.hasNext()) {
+                Key key = keys.next();
+                if (st.get(key).deadline - now > 0)
+                    next = key;
+            }
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public Key next() {
+            if (next == null)
+                throw new NoSuchElementException();
+            Key key = next;
+            advanceToLiveKey();
+            return key;
+        }
+
+    }
+
+}
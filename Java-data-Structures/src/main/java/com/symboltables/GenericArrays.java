@@ -0,0 +1,33 @@
+package com.symboltables;
+
+import java.lang.reflect.Array;
+
+/**
+ * GenericArrays creates the arrays of the generic node classes of the
+ * SymbolTables. Java cannot create an array of a parameterized type, so the
+ * array is created with the erasure of the class and cast once, here.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+final class GenericArrays {
+
+    private GenericArrays() {
+    }
+
+    /**
+     * Returns a new array of the given length, whose elements are of the
+     * given class.
+     *
+     * @param componentClass
+     *            the class of the elements, such as Node.class
+     * @param length
+     *            the length of the array
+     * @return the new array, filled with null
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T[] newArray(Class<?> componentClass, int length) {
+        return (T[]) Array.newInstance(componentClass, length);
+    }
+
+}
@@ -0,0 +1,769 @@
+package com.symboltables;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * HashArrayMappedTrie is a persistent implementation of symbol table : an
+ * update never modifies the existing nodes, it creates new versions of the
+ * nodes of the path to the key and shares all the others with the previous
+ * version.
+ *
+ * The trie is a tree of 32-way nodes. A node holds a 32 bits bitmap of its
+ * occupied children and a compact array of the occupied ones only, in the
+ * order of the bitmap, each being either a key and its value or a subnode.
+ * The child of a key at depth d is given by the bits 5d to 5d + 4 of its
+ * spread hash code, and its index in the array by the number of bits of the
+ * bitmap below it. get and put visit at most log32(n) nodes, and put copies
+ * only these nodes. The keys whose hash codes are equal are kept in a
+ * collision node.
+ *
+ * A HashArrayMappedTrie is meant to be updated by one thread and read by any
+ * number of threads without lock : each update publishes the new version with
+ * a single volatile write, and a reader always sees a complete version.
+ * snapshot() returns, in constant time, a read-only HashArrayMappedTrie that
+ * never changes. plus and minus return such a read-only new version without
+ * modifying this one.
+ *
+ * batch runs a group of updates on a transient version : the nodes created
+ * during the batch are owned by it and updated in place, so a batch of k puts
+ * copies far less than k independent puts. The new version is published at
+ * the end of the batch, all at once, or not at all if an exception is thrown.
+ *
+ * {@link https://en.wikipedia.org/wiki/Hash_array_mapped_trie}
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <Key>
+ * @param <Value>
+ */
+public class HashArrayMappedTrie<Key, Value> implements SymbolTable<Key, Value> {
+
+    /*
+     * An immutable version of the trie : its root and its size.
+     */
+    private static final class Version {
+        final Node root;
+        final int size;
+
+        private Version(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+    }
+
+    private static final Version EMPTY = new Version(null, 0);
+
+    /*** The number of bits of the hash code consumed by each level. */
+    private static final int BITS = 5;
+
+    /*** The current version, replaced by each update. */
+    private volatile Version version;
+
+    /*** True if the updates are forbidden. */
+    private final boolean readOnly;
+
+    /**
+     * Constructs an empty HashArrayMappedTrie.
+     */
+    public HashArrayMappedTrie() {
+        this(EMPTY, false);
+    }
+
+    private HashArrayMappedTrie(Version version, boolean readOnly) {
+        this.version = version;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @exception java.lang.UnsupportedOperationException
+     *                if this HashArrayMappedTrie is read-only
+     */
+    @Override
+    public void put(Key key, Value value) {
+        checkWritable();
+        version = put(version, null, key, value);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value get(Key key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        return cast(find(version.root, key));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @exception java.lang.UnsupportedOperationException
+     *                if this HashArrayMappedTrie is read-only
+     */
+    @Override
+    public Value delete(Key key) {
+        checkWritable();
+        Box box = new Box();
+        version = delete(version, null, key, box);
+        return cast(box.oldValue);
+    }
+
+    /**
+     * Returns a read-only new version of this HashArrayMappedTrie in which the
+     * given key is mapped to the given value. This HashArrayMappedTrie is not
+     * modified.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @return the new version
+     *
+     * @exception java.lang.NullPointerException
+     *                if key or value is null
+     */
+    public HashArrayMappedTrie<Key, Value> plus(Key key, Value value) {
+        return new HashArrayMappedTrie<Key, Value>(put(version, null, key, value), true);
+    }
+
+    /**
+     * Returns a read-only new version of this HashArrayMappedTrie without the
+     * given key. This HashArrayMappedTrie is not modified.
+     *
+     * @param key
+     *            the key
+     * @return the new version
+     *
+     * @exception java.lang.NullPointerException
+     *                if key is null
+     */
+    public HashArrayMappedTrie<Key, Value> minus(Key key) {
+        return new HashArrayMappedTrie<Key, Value>(delete(version, null, key, new Box()), true);
+    }
+
+    /**
+     * Returns a read-only HashArrayMappedTrie holding the current version,
+     * which is never modified by the later updates. It costs no copy.
+     *
+     * @return a snapshot of this HashArrayMappedTrie
+     */
+    public HashArrayMappedTrie<Key, Value> snapshot() {
+        return readOnly ? this : new HashArrayMappedTrie<Key, Value>(version, true);
+    }
+
+    /**
+     * Returns true if this HashArrayMappedTrie cannot be updated.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Gives a transient version of this HashArrayMappedTrie to the given
+     * updates, then publishes it. The transient version must only be used
+     * during the call, by the calling thread. If updates throws an exception,
+     * nothing is published.
+     *
+     * @param updates
+     *            the updates to apply
+     *
+     * @exception java.lang.NullPointerException
+     *                if updates is null
+     * @exception java.lang.UnsupportedOperationException
+     *                if this HashArrayMappedTrie is read-only
+     */
+    public void batch(Consumer<? super SymbolTable<Key, Value>> updates) {
+        if (updates == null)
+            throw new NullPointerException("The given updates are null.");
+        checkWritable();
+        TransientHashArrayMappedTrie batch = new TransientHashArrayMappedTrie(version);
+        try {
+            updates.accept(batch);
+            version = batch.current;
+        } finally {
+            batch.edit = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @exception java.lang.UnsupportedOperationException
+     *                if this HashArrayMappedTrie is read-only
+     */
+    @Override
+    public void clear() {
+        checkWritable();
+        version = EMPTY;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(Key key) {
+        return get(key) != null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsValue(Value value) {
+        return containsValue(version.root, value);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        return version.size == 0;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public int size() {
+        return version.size;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void forEach(BiConsumer<? super Key, ? super Value> action) {
+        forEach(version.root, action);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The iterator walks the version current at its creation, and is not
+     * affected by the later updates.
+     */
+    @Override
+    public Iterator<Key> iterator() {
+        return new IteratorHashArrayMappedTrie(version.root);
+    }
+
+    private void checkWritable() {
+        if (readOnly)
+            throw new UnsupportedOperationException("This HashArrayMappedTrie is read-only.");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    /*
+     * Return the given version with the given mapping. The nodes owned by edit
+     * are updated in place.
+     */
+    private static Version put(Version version, Object edit, Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        Box box = new Box();
+        int hash = hash(key);
+        Node root = (version.root == null) ? BitmapNode.EMPTY : version.root;
+        Node newRoot = root.put(edit, 0, hash, key, value, box);
+        if (newRoot == version.root && !box.added)
+            return version;
+        return new Version(newRoot, box.added ? version.size + 1 : version.size);
+    }
+
+    /*
+     * Return the given version without the given key, whose value is stored
+     * in the box.
+     */
+    private static Version delete(Version version, Object edit, Object key, Box box) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (version.root == null)
+            return version;
+        Node newRoot = version.root.remove(edit, 0, hash(key), key, box);
+        if (box.oldValue == null)
+            return version;
+        return new Version(newRoot, version.size - 1);
+    }
+
+    private static Object find(Node root, Object key) {
+        return (root == null) ? null : root.find(0, hash(key), key);
+    }
+
+    private static boolean containsValue(Node root, Object value) {
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        Walk walk = new Walk(root);
+        while (walk.advance()) {
+            if (value.equals(walk.value()))
+                return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void forEach(Node root, BiConsumer<? super K, ? super V> action) {
+        if (action == null)
+            throw new NullPointerException("The given action is null.");
+        Walk walk = new Walk(root);
+        while (walk.advance())
+            action.accept((K) walk.key(), (V) walk.value());
+    }
+
+    private static int hash(Object key) {
+        return HashIndexing.spread(key.hashCode());
+    }
+
+    /*
+     * Returns the bit of the child of the given hash at the given depth.
+     */
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    /*
+     * The result of an update : whether a key was added, and the previous
+     * value of the key.
+     */
+    private static final class Box {
+        boolean added;
+        Object oldValue;
+    }
+
+    /*
+     * A node of the trie. A node whose edit is not null may be updated in
+     * place by the batch owning this edit.
+     */
+    private abstract static class Node {
+        final Object edit;
+        Object[] array;
+
+        Node(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(Object edit, int shift, int hash, Object key, Object value, Box box);
+
+        abstract Node remove(Object edit, int shift, int hash, Object key, Box box);
+
+        /*
+         * Returns true if this node may be updated in place for the given
+         * edit.
+         */
+        boolean ownedBy(Object edit) {
+            return edit != null && this.edit == edit;
+        }
+    }
+
+    /*
+     * An inner node : for each bit of the bitmap, a key and its value, or
+     * null and a subnode.
+     */
+    private static final class BitmapNode extends Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        int bitmap;
+
+        BitmapNode(Object edit, int bitmap, Object[] array) {
+            super(edit, array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            Node x = this;
+            while (true) {
+                if (x instanceof CollisionNode)
+                    return x.find(shift, hash, key);
+                BitmapNode node = (BitmapNode) x;
+                int bit = bitpos(hash, shift);
+                if ((node.bitmap & bit) == 0)
+                    return null;
+                int i = 2 * node.index(bit);
+                Object k = node.array[i];
+                if (k == null) {
+                    x = (Node) node.array[i + 1];
+                    shift += BITS;
+                } else {
+                    return key.equals(k) ? node.array[i + 1] : null;
+                }
+            }
+        }
+
+        @Override
+        Node put(Object edit, int shift, int hash, Object key, Object value, Box box) {
+            int bit = bitpos(hash, shift);
+            int i = 2 * index(bit);
+            if ((bitmap & bit) != 0) {
+                Object k = array[i];
+                Object v = array[i + 1];
+                if (k == null) {
+                    Node child = ((Node) v).put(edit, shift + BITS, hash, key, value, box);
+                    return (child == v) ? this : set(edit, i + 1, child);
+                }
+                if (key.equals(k)) {
+                    box.oldValue = v;
+                    return (v == value) ? this : set(edit, i + 1, value);
+                }
+                box.added = true;
+                Node child = createNode(edit, shift + BITS, k, v, hash, key, value);
+                BitmapNode node = (BitmapNode) set(edit, i, null);
+                node.array[i + 1] = child;
+                return node;
+            }
+            box.added = true;
+            int n = array.length;
+            Object[] newArray = new Object[n + 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            newArray[i] = key;
+            newArray[i + 1] = value;
+            System.arraycopy(array, i, newArray, i + 2, n - i);
+            if (ownedBy(edit)) {
+                array = newArray;
+                bitmap |= bit;
+                return this;
+            }
+            return new BitmapNode(edit, bitmap | bit, newArray);
+        }
+
+        @Override
+        Node remove(Object edit, int shift, int hash, Object key, Box box) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0)
+                return this;
+            int i = 2 * index(bit);
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                Node child = ((Node) v).remove(edit, shift + BITS, hash, key, box);
+                if (child == v)
+                    return this;
+                if (child != null)
+                    return set(edit, i + 1, child);
+            } else if (key.equals(k)) {
+                box.oldValue = v;
+            } else {
+                return this;
+            }
+            // the child is empty
+            if (bitmap == bit)
+                return null;
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            if (ownedBy(edit)) {
+                array = newArray;
+                bitmap ^= bit;
+                return this;
+            }
+            return new BitmapNode(edit, bitmap ^ bit, newArray);
+        }
+
+        /*
+         * Returns this node, or a copy of it owned by edit, with the given
+         * element of the array replaced.
+         */
+        private Node set(Object edit, int i, Object element) {
+            if (ownedBy(edit)) {
+                array[i] = element;
+                return this;
+            }
+            Object[] newArray = array.clone();
+            newArray[i] = element;
+            return new BitmapNode(edit, bitmap, newArray);
+        }
+
+        /*
+         * Returns a node holding the two given keys, at the given depth.
+         */
+        private static Node createNode(Object edit, int shift, Object key1, Object value1, int hash2, Object key2,
+                Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2)
+                return new CollisionNode(edit, hash1, new Object[] { key1, value1, key2, value2 });
+            Box box = new Box();
+            return EMPTY.put(edit, shift, hash1, key1, value1, box).put(edit, shift, hash2, key2, value2, box);
+        }
+    }
+
+    /*
+     * A leaf holding the keys whose hash codes are all equal.
+     */
+    private static final class CollisionNode extends Node {
+
+        final int hash;
+
+        CollisionNode(Object edit, int hash, Object[] array) {
+            super(edit, array);
+            this.hash = hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i]))
+                    return i;
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            if (hash != this.hash)
+                return null;
+            int i = indexOf(key);
+            return (i < 0) ? null : array[i + 1];
+        }
+
+        @Override
+        Node put(Object edit, int shift, int hash, Object key, Object value, Box box) {
+            if (hash != this.hash) {
+                // nest this node in a bitmap node
+                Node node = new BitmapNode(edit, bitpos(this.hash, shift), new Object[] { null, this });
+                return node.put(edit, shift, hash, key, value, box);
+            }
+            int i = indexOf(key);
+            Object[] newArray;
+            if (i >= 0) {
+                box.oldValue = array[i + 1];
+                if (array[i + 1] == value)
+                    return this;
+                newArray = ownedBy(edit) ? array : array.clone();
+                newArray[i + 1] = value;
+            } else {
+                box.added = true;
+                newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, array.length);
+                newArray[array.length] = key;
+                newArray[array.length + 1] = value;
+            }
+            if (ownedBy(edit)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(edit, hash, newArray);
+        }
+
+        @Override
+        Node remove(Object edit, int shift, int hash, Object key, Box box) {
+            if (hash != this.hash)
+                return this;
+            int i = indexOf(key);
+            if (i < 0)
+                return this;
+            box.oldValue = array[i + 1];
+            if (array.length == 2)
+                return null;
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            if (ownedBy(edit)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(edit, hash, newArray);
+        }
+    }
+
+    /**
+     * TransientHashArrayMappedTrie is the version of a HashArrayMappedTrie
+     * updated by a batch. Its nodes are owned by its edit, which is cleared at
+     * the end of the batch : then every method fails.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class TransientHashArrayMappedTrie implements SymbolTable<Key, Value> {
+
+        private Object edit;
+        private Version current;
+
+        TransientHashArrayMappedTrie(Version version) {
+            this.edit = new Object();
+            this.current = version;
+        }
+
+        private void checkOpen() {
+            if (edit == null)
+                throw new IllegalStateException("The batch is over.");
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public void put(Key key, Value value) {
+            checkOpen();
+            current = HashArrayMappedTrie.put(current, edit, key, value);
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public Value get(Key key) {
+            checkOpen();
+            if (key == null)
+                throw new NullPointerException("The given key is null.");
+            return cast(find(current.root, key));
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public Value delete(Key key) {
+            checkOpen();
+            Box box = new Box();
+            current = HashArrayMappedTrie.delete(current, edit, key, box);
+            return cast(box.oldValue);
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public void clear() {
+            checkOpen();
+            current = EMPTY;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean containsKey(Key key) {
+            return get(key) != null;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean containsValue(Value value) {
+            checkOpen();
+            return HashArrayMappedTrie.containsValue(current.root, value);
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public int size() {
+            checkOpen();
+            return current.size;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public void forEach(BiConsumer<? super Key, ? super Value> action) {
+            checkOpen();
+            HashArrayMappedTrie.forEach(current.root, action);
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * The batch must not be updated during the iteration.
+         */
+        @Override
+        public Iterator<Key> iterator() {
+            checkOpen();
+            return new IteratorHashArrayMappedTrie(current.root);
+        }
+    }
+
+    /*
+     * Walk moves over the entries of a trie.
+     */
+    private static final class Walk {
+
+        // 7 levels of bitmap nodes, and a collision node
+        private final Object[][] arrays = new Object[8][];
+        private final int[] positions = new int[8];
+        private int depth;
+        private Object key;
+        private Object value;
+
+        Walk(Node root) {
+            depth = -1;
+            if (root != null) {
+                arrays[0] = root.array;
+                depth = 0;
+            }
+        }
+
+        /*
+         * Move to the next entry, and return false if there is none.
+         */
+        boolean advance() {
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int i = positions[depth];
+                if (i == array.length) {
+                    arrays[depth] = null;
+                    depth--;
+                    continue;
+                }
+                positions[depth] = i + 2;
+                if (array[i] == null) {
+                    depth++;
+                    arrays[depth] = ((Node) array[i + 1]).array;
+                    positions[depth] = 0;
+                } else {
+                    key = array[i];
+                    value = array[i + 1];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Object key() {
+            return key;
+        }
+
+        Object value() {
+            return value;
+        }
+    }
+
+    /**
+     * IteratorHashArrayMappedTrie implements Iterator interface in order to
+     * provide iterable capabilities to the SymbolTable through the Key.
+     *
+     * It walks the nodes of one version of the trie in depth first order,
+     * with a stack of the arrays being visited and of the positions in them.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class IteratorHashArrayMappedTrie implements Iterator<Key> {
+
+        private final Walk walk;
+        private boolean ready;
+        private boolean hasNext;
+
+        /*** Constructs IteratorHashArrayMappedTrie. */
+        IteratorHashArrayMappedTrie(Node root) {
+            this.walk = new Walk(root);
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            if (!ready) {
+                hasNext = walk.advance();
+                ready = true;
+            }
+            return hasNext;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public Key next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            ready = false;
+            return cast(walk.key());
+        }
+    }
+
+}
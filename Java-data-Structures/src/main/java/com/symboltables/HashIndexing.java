@@ -0,0 +1,62 @@
+package com.symboltables;
+
+/**
+ * HashIndexing tells a HashTable how to turn the hash code of a key into the
+ * index of a slot (or of a bucket).
+ *
+ * - MODULO : the index is (hashCode & 0x7fffffff) % capacity, and a probe
+ * step is (index + 1) % capacity. This costs an integer division per
+ * computed index, and the quality of the index relies on the hash code.
+ *
+ * - POWER_OF_TWO : the capacity is always a power of two, the hash code is
+ * first spread with the murmur3 finalizer (so weak hash codes such as
+ * sequential or strided Integers still use all the bits of the index) and
+ * then masked with capacity - 1. A probe step is (index + 1) & (capacity - 1).
+ * No division is ever performed.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+public enum HashIndexing {
+
+    MODULO, POWER_OF_TWO;
+
+    /**
+     * Spread the bits of the given hash code with the 32 bits finalizer of
+     * murmur3, so that every bit of the input affects the low bits of the
+     * output.
+     *
+     * @param h
+     *            the hash code to spread
+     * @return the spread hash code
+     */
+    static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Returns the smallest power of two greater than or equal to the given
+     * capacity.
+     *
+     * @param capacity
+     *            the minimal capacity
+     * @return a power of two capacity
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if the capacity is greater than 2^30
+     */
+    static int powerOfTwoCapacity(int capacity) {
+        if (capacity > (1 << 30))
+            throw new IllegalArgumentException("The capacity is too large.");
+        int powerOfTwo = 1;
+        while (powerOfTwo < capacity)
+            powerOfTwo <<= 1;
+        return powerOfTwo;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.symboltables;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Set;
 
 /**
@@ -84,6 +85,101 @@ public interface I_TreeMapCustom<K, V> extends Iterable<K> {
      */
     K floorKey(K key);
 
+    /**
+     * Returns the least key strictly greater than the given key, or null if
+     * there is no such key.
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key is null
+     */
+    K higherKey(K key);
+
+    /**
+     * Returns the greatest key strictly less than the given key, or null if
+     * there is no such key.
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key is null
+     */
+    K lowerKey(K key);
+
+    /**
+     * Returns the first (lowest) key of this TreeMap, or null if this TreeMap
+     * is empty.
+     */
+    K firstKey();
+
+    /**
+     * Returns the last (highest) key of this TreeMap, or null if this TreeMap
+     * is empty.
+     */
+    K lastKey();
+
+    /**
+     * Returns a view of the portion of this TreeMap whose keys are strictly
+     * less than toKey. The view is backed by this TreeMap : changes in one are
+     * visible in the other. Putting a key out of the range of the view throws
+     * an IllegalArgumentException.
+     * 
+     * @param toKey
+     *            high endpoint (exclusive) of the keys of the view
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key is null
+     * @exception java.lang.IllegalArgumentException
+     *                if this TreeMap is itself a view and toKey is out of its
+     *                range
+     */
+    I_TreeMapCustom<K, V> headMap(K toKey);
+
+    /**
+     * Returns a view of the portion of this TreeMap whose keys are greater
+     * than or equal to fromKey. The view is backed by this TreeMap : changes
+     * in one are visible in the other. Putting a key out of the range of the
+     * view throws an IllegalArgumentException.
+     * 
+     * @param fromKey
+     *            low endpoint (inclusive) of the keys of the view
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key is null
+     * @exception java.lang.IllegalArgumentException
+     *                if this TreeMap is itself a view and fromKey is out of
+     *                its range
+     */
+    I_TreeMapCustom<K, V> tailMap(K fromKey);
+
+    /**
+     * Returns a view of the portion of this TreeMap whose keys range from
+     * fromKey, inclusive, to toKey, exclusive. The view is backed by this
+     * TreeMap : changes in one are visible in the other. Putting a key out of
+     * the range of the view throws an IllegalArgumentException.
+     * 
+     * @param fromKey
+     *            low endpoint (inclusive) of the keys of the view
+     * @param toKey
+     *            high endpoint (exclusive) of the keys of the view
+     * 
+     * @exception java.lang.NullPointerException
+     *                if one of the specified keys is null
+     * @exception java.lang.IllegalArgumentException
+     *                if fromKey is greater than toKey, or if this TreeMap is
+     *                itself a view and one of the keys is out of its range
+     */
+    I_TreeMapCustom<K, V> subMap(K fromKey, K toKey);
+
+    /**
+     * Returns an iterator over the keys greater than or equal to fromKey, in
+     * increasing order. The iterator walks the tree lazily : reading the
+     * first k keys visits O(log n + k) nodes.
+     * 
+     * @param fromKey
+     *            the first key of the iteration if it is present
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key is null
+     */
+    Iterator<K> iterator(K fromKey);
 
     /**
      * Returns a Set view of the keys contained in this TreeMap.
@@ -1,20 +1,47 @@
 package com.symboltables;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 /**
  * This is a HashTable implementation of symbol table.
- * 
+ *
  * Here we are using the Linear probing technique do handle collisions.
- * 
+ *
  * Linear probing is a scheme in computer programming for resolving collisions
  * in hash tables, data structures for maintaining a collection of key–value
  * pairs and looking up the value associated with a given key. It was invented
  * in 1954 by Gene Amdahl, Elaine M. McGraw, and Arthur Samuel and first
  * analyzed in 1963 by Donald Knuth.
- * 
+ *
  * {@link https://en.wikipedia.org/wiki/Linear_probing}
- * 
+ *
+ * The SymbolTable can also use the Robin Hood displacement policy : when a
+ * key being inserted is further from its home slot than the key occupying
+ * the probed slot, the two keys are swapped and the insertion continues with
+ * the displaced key. This equalizes the probe lengths of all the keys, and
+ * since the keys of a cluster are then sorted by home slot, an unsuccessful
+ * lookup stops as soon as it meets a key closer to its home slot than the
+ * searched key would be. The displacement of every key is stored, so the
+ * lookups never recompute the hash of the stored keys.
+ *
+ * {@link https://en.wikipedia.org/wiki/Hash_table#Robin_Hood_hashing}
+ *
+ * The slot of a key is computed according to the HashIndexing of the
+ * SymbolTable (see HashIndexing), MODULO by default.
+ *
+ * The SymbolTable doubles its capacity when its size reaches capacity *
+ * loadFactor (0.5 by default), and halves it when its size drops to a quarter
+ * of this threshold. When the number of keys is known in advance, use the
+ * constructor taking an expected size, or ensureCapacity, to avoid the
+ * successive rehashes of a growing SymbolTable.
+ *
+ * The iterator and the cursor (see SymbolTableCursor) walk the slots in
+ * place, without copying the keys, and are fail-fast.
+ *
  * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
  *
  * @param <Key>
@@ -29,24 +56,146 @@ public class LinearProbingSymbolTableImpl<Key, Value> implements SymbolTable<Key
     /*** Contains the value associated to the keys of the SymbolTable. */
     private Value[] values;
 
+    /**
+     * Contains the distance between the slot of each key and its home slot.
+     * Only used by the Robin Hood policy, null otherwise.
+     */
+    private int[] displacements;
+
+    /*** True if the SymbolTable uses the Robin Hood policy. */
+    private final boolean robinHood;
+
+    /*** True if the capacity is a power of two and indexes are masked. */
+    private final boolean powerOfTwo;
+
+    /*** Contains capacity - 1 when the capacity is a power of two. */
+    private int mask;
+
     /*** Contains the size of the SymbolTable. */
     private int stSize;
 
     /*** Contains the capacity of the SymbolTable. */
     private int capacity;
 
+    /*** Contains the number of times the SymbolTable has been resized. */
+    private int resizeCount;
+
+    /*** Contains the number of structural modifications of the SymbolTable. */
+    private int modCount;
+
+    /*** The maximal ratio between the size and the capacity. */
+    private final double loadFactor;
+
+    /*** The size from which the SymbolTable grows. */
+    private int threshold;
+
+    /*** The capacity of a new or cleared SymbolTable. */
+    private final int minCapacity;
+
     /*** Contains the initial capacity of an empty SymbolTable. */
     private static final int INITIAL_CAPACITY = 16;
 
+    /*** Contains the default load factor of the SymbolTable. */
+    public static final double DEFAULT_LOAD_FACTOR = 0.5;
+
     /**
      * Constructs an empty SymbolTable with an initial capacity of 16.
      */
-    @SuppressWarnings("unchecked")
     public LinearProbingSymbolTableImpl() {
-        keys = (Key[]) new Object[INITIAL_CAPACITY];
-        values = (Value[]) new Object[INITIAL_CAPACITY];
+        this(false);
+    }
+
+    /**
+     * Constructs an empty SymbolTable with an initial capacity of 16.
+     *
+     * @param robinHood
+     *            true to use the Robin Hood displacement policy, false to use
+     *            the classic linear probing
+     */
+    public LinearProbingSymbolTableImpl(boolean robinHood) {
+        this(robinHood, HashIndexing.MODULO);
+    }
+
+    /**
+     * Constructs an empty SymbolTable with an initial capacity of 16.
+     *
+     * @param indexing
+     *            the way the slot of a key is computed
+     */
+    public LinearProbingSymbolTableImpl(HashIndexing indexing) {
+        this(false, indexing);
+    }
+
+    /**
+     * Constructs an empty SymbolTable with an initial capacity of 16.
+     *
+     * @param robinHood
+     *            true to use the Robin Hood displacement policy, false to use
+     *            the classic linear probing
+     * @param indexing
+     *            the way the slot of a key is computed
+     *
+     * @exception java.lang.NullPointerException
+     *                if indexing is null
+     */
+    public LinearProbingSymbolTableImpl(boolean robinHood, HashIndexing indexing) {
+        this(0, DEFAULT_LOAD_FACTOR, robinHood, indexing);
+    }
+
+    /**
+     * Constructs an empty SymbolTable able to hold expectedSize keys without
+     * being resized.
+     *
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     * @param loadFactor
+     *            the maximal ratio between the size and the capacity, in ]0,
+     *            1]
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if expectedSize is negative or if loadFactor is not in ]0,
+     *                1]
+     */
+    public LinearProbingSymbolTableImpl(int expectedSize, double loadFactor) {
+        this(expectedSize, loadFactor, false, HashIndexing.MODULO);
+    }
+
+    /**
+     * Constructs an empty SymbolTable able to hold expectedSize keys without
+     * being resized.
+     *
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     * @param loadFactor
+     *            the maximal ratio between the size and the capacity, in ]0,
+     *            1]
+     * @param robinHood
+     *            true to use the Robin Hood displacement policy, false to use
+     *            the classic linear probing
+     * @param indexing
+     *            the way the slot of a key is computed
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if expectedSize is negative or if loadFactor is not in ]0,
+     *                1]
+     * @exception java.lang.NullPointerException
+     *                if indexing is null
+     */
+    public LinearProbingSymbolTableImpl(int expectedSize, double loadFactor, boolean robinHood,
+            HashIndexing indexing) {
+        if (indexing == null)
+            throw new NullPointerException("The given indexing is null.");
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("The expected size is negative.");
+        if (!(loadFactor > 0 && loadFactor <= 1))
+            throw new IllegalArgumentException("The load factor must be in ]0, 1].");
+        this.robinHood = robinHood;
+        this.powerOfTwo = (indexing == HashIndexing.POWER_OF_TWO);
+        this.loadFactor = loadFactor;
+        this.minCapacity = capacityFor(expectedSize);
+        allocate(minCapacity);
         stSize = 0;
-        capacity = INITIAL_CAPACITY;
+        resizeCount = 0;
     }
 
     /*** {@inheritDoc} */
@@ -56,18 +205,88 @@ public class LinearProbingSymbolTableImpl<Key, Value> implements SymbolTable<Key
             throw new NullPointerException("The given key is null.");
         if (value == null)
             throw new NullPointerException("The given value is null.");
-        if (stSize == capacity - 1)
-            resize(2 * capacity);
+        if (robinHood) {
+            putRobinHood(key, value);
+            return;
+        }
         int index;
-        for (index = hash(key); keys[index] != null; index = (index + 1) % capacity) {
+        for (index = hash(key); keys[index] != null; index = next(index)) {
             if (keys[index].equals(key)) {
                 values[index] = value;
                 return;
             }
         }
+        // only an insertion can make the SymbolTable grow
+        insert(~index, key, value);
+    }
+
+    /*
+     * Put the given key-value in the SymbolTable with the Robin Hood policy.
+     */
+    private void putRobinHood(Key key, Value value) {
+        int dist = 0;
+        int index = hash(key);
+        while (keys[index] != null) {
+            if (displacements[index] < dist) {
+                if (stSize >= threshold) {
+                    resize(2 * capacity);
+                    putRobinHood(key, value);
+                    return;
+                }
+                // the key is not in the SymbolTable : it takes the place of
+                // the richer key, which is then moved further
+                robinHoodInsert(index, key, value, dist);
+                stSize++;
+                modCount++;
+                return;
+            }
+            if ((displacements[index] == dist) && keys[index].equals(key)) {
+                values[index] = value;
+                return;
+            }
+            index = next(index);
+            dist++;
+        }
+        if (stSize >= threshold) {
+            resize(2 * capacity);
+            putRobinHood(key, value);
+            return;
+        }
         keys[index] = key;
         values[index] = value;
+        displacements[index] = dist;
         stSize++;
+        modCount++;
+    }
+
+    /*
+     * Insert the given key, which is not in the SymbolTable, at the given
+     * index and push the displaced keys further in the cluster.
+     */
+    private void robinHoodInsert(int index, Key key, Value value, int dist) {
+        while (keys[index] != null) {
+            if (displacements[index] < dist) {
+                Key k = keys[index];
+                Value v = values[index];
+                int d = displacements[index];
+                keys[index] = key;
+                values[index] = value;
+                displacements[index] = dist;
+                key = k;
+                value = v;
+                dist = d;
+            }
+            index = next(index);
+            dist++;
+        }
+        if (stSize >= threshold) {
+            resize(2 * capacity);
+            putRobinHood(key, value);
+            return;
+        }
+        keys[index] = key;
+        values[index] = value;
+        displacements[index] = dist;
     }
 
     /*** {@inheritDoc} */
@@ -75,11 +294,31 @@ public class LinearProbingSymbolTableImpl<Key, Value> implements SymbolTable<Key
     public Value get(Key key) {
         if (key == null)
             throw new NullPointerException("The given key is null.");
-        for (int index = hash(key); keys[index] != null; index = (index + 1) % capacity) {
+        int index = indexOf(key);
+        if (index < 0)
+            return null;
+        return values[index];
+    }
+
+    /*
+     * Returns the slot of the given key, or -1 if the key is not in the
+     * SymbolTable.
+     */
+    private int indexOf(Key key) {
+        int index = hash(key);
+        if (robinHood) {
+            for (int dist = 0; (keys[index] != null) && (displacements[index] >= dist); dist++) {
+                if ((displacements[index] == dist) && key.equals(keys[index]))
+                    return index;
+                index = next(index);
+            }
+            return -1;
+        }
+        for (; keys[index] != null; index = next(index)) {
             if (key.equals(keys[index]))
-                return values[index];
+                return index;
         }
-        return null;
+        return -1;
     }
 
     /*** {@inheritDoc} */
@@ -89,35 +328,212 @@ public class LinearProbingSymbolTableImpl<Key, Value> implements SymbolTable<Key
             throw new NullPointerException("The given key is null.");
 
         Value val = null;
-        boolean isInside = false;
+        int index = indexOf(key);
+        if (index >= 0) {
+            val = values[index];
+            removeAt(index);
+        }
+
+        return val;
+    }
+
+    /*
+     * Remove the key at the given slot from the SymbolTable.
+     */
+    private void removeAt(int index) {
+        if (robinHood)
+            shiftBackRobinHood(index);
+        else
+            shiftBack(index);
+        stSize--;
+        modCount++;
+        if ((capacity > minCapacity) && (stSize <= threshold / 4))
+            resize(Math.max(capacity / 2, minCapacity));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value getOrDefault(Key key, Value defaultValue) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        int index = indexOf(key);
+        return (index >= 0) ? values[index] : defaultValue;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void forEach(BiConsumer<? super Key, ? super Value> action) {
+        if (action == null)
+            throw new NullPointerException("The given action is null.");
+        int expectedModCount = modCount;
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], values[i]);
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * The slot of the key is found once : the new value is written in place,
+     * or in the empty slot which ended the probe sequence of a missing key.
+     */
+    @Override
+    public Value compute(Key key, BiFunction<? super Key, ? super Value, ? extends Value> remapping) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (remapping == null)
+            throw new NullPointerException("The given function is null.");
+        int slot = probe(key);
+        Value oldValue = (slot >= 0) ? values[slot] : null;
+        int expectedModCount = modCount;
+        Value newValue = remapping.apply(key, oldValue);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+        if (newValue == null) {
+            if (slot >= 0)
+                removeAt(slot);
+        } else if (slot >= 0) {
+            values[slot] = newValue;
+        } else {
+            insert(slot, key, newValue);
+        }
+        return newValue;
+    }
+
+    /*
+     * Returns the slot of the given key. If the key is not in the
+     * SymbolTable, returns ~slot where slot is the empty slot which ends its
+     * probe sequence, or -1 with the Robin Hood policy.
+     */
+    private int probe(Key key) {
+        if (robinHood)
+            return indexOf(key);
         int index;
-        for (index = hash(key); keys[index] != null; index = (index + 1) % capacity) {
-            if (key.equals(keys[index])) {
-                isInside = true;
-                break;
+        for (index = hash(key); keys[index] != null; index = next(index)) {
+            if (key.equals(keys[index]))
+                return index;
+        }
+        return ~index;
+    }
+
+    /*
+     * Insert the given key, which is not in the SymbolTable, with the result
+     * of probe for this key.
+     */
+    private void insert(int probe, Key key, Value value) {
+        if (stSize >= threshold) {
+            resize(2 * capacity);
+            probe = probe(key);
+        }
+        if (robinHood) {
+            putRobinHood(key, value);
+            return;
+        }
+        keys[~probe] = key;
+        values[~probe] = value;
+        stSize++;
+        modCount++;
+    }
+
+    /*
+     * Empty the slot at the given index, then move back the keys of its
+     * cluster that can be moved closer to their home slot. This is the
+     * backward shift deletion : no tombstone is left in the table and the
+     * cluster stays as compact as if the deleted key had never been inserted,
+     * so the cost of a deletion is proportional to the length of the cluster
+     * and not to the capacity of the SymbolTable.
+     */
+    private void shiftBack(int gap) {
+        for (int index = next(gap); keys[index] != null; index = next(index)) {
+            int home = hash(keys[index]);
+            // the key can fill the gap only if the gap is between its home
+            // slot and its current slot
+            if (distance(home, index) >= distance(gap, index)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
             }
         }
-        if (isInside == true) {
-            val = values[index];
-            keys[index] = null;
-            values[index] = null;
-            stSize--;
-            if ((capacity > INITIAL_CAPACITY) && (stSize <= capacity / 4))
-                resize(capacity / 2);
-            else
-                resize(capacity);
+        keys[gap] = null;
+        values[gap] = null;
+    }
+
+    /*
+     * Backward shift deletion for the Robin Hood policy : since the keys of a
+     * cluster are sorted by home slot, every following key is moved back by
+     * one slot until an empty slot or a key already at its home slot.
+     */
+    private void shiftBackRobinHood(int gap) {
+        int index = next(gap);
+        while ((keys[index] != null) && (displacements[index] > 0)) {
+            keys[gap] = keys[index];
+            values[gap] = values[index];
+            displacements[gap] = displacements[index] - 1;
+            gap = index;
+            index = next(index);
         }
+        keys[gap] = null;
+        values[gap] = null;
+        displacements[gap] = 0;
+    }
 
-        return val;
+    /*
+     * Returns the number of probes needed to go from the slot from to the
+     * slot to.
+     */
+    private int distance(int from, int to) {
+        int dist = to - from;
+        return (dist < 0) ? dist + capacity : dist;
     }
 
     /*** {@inheritDoc} */
-    @SuppressWarnings("unchecked")
     @Override
     public void clear() {
-        keys = (Key[]) new Object[INITIAL_CAPACITY];
-        values = (Value[]) new Object[INITIAL_CAPACITY];
+        allocate(minCapacity);
         stSize = 0;
+        modCount++;
+    }
+
+    /**
+     * Copies all of the mappings of the given SymbolTable to this SymbolTable.
+     * The SymbolTable is resized at most once, before the copy.
+     *
+     * @param st
+     *            the SymbolTable whose mappings are copied
+     *
+     * @exception java.lang.NullPointerException
+     *                if st is null
+     */
+    public void putAll(SymbolTable<? extends Key, ? extends Value> st) {
+        if (st == null)
+            throw new NullPointerException("The given SymbolTable is null.");
+        ensureCapacity(stSize + st.size());
+        copyFrom(st);
+    }
+
+    /*
+     * Put all the mappings of the given SymbolTable in this SymbolTable.
+     */
+    private <K extends Key, V extends Value> void copyFrom(SymbolTable<K, V> st) {
+        for (K key : st)
+            put(key, st.get(key));
+    }
+
+    /**
+     * Resizes the SymbolTable, if needed, so that it can hold expectedSize
+     * keys without being resized again.
+     *
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     */
+    public void ensureCapacity(int expectedSize) {
+        int newCapacity = capacityFor(expectedSize);
+        if (newCapacity > capacity)
+            resize(newCapacity);
     }
 
     /*** {@inheritDoc} */
@@ -125,11 +541,7 @@ public class LinearProbingSymbolTableImpl<Key, Value> implements SymbolTable<Key
     public boolean containsKey(Key key) {
         if (key == null)
             throw new NullPointerException("The given key is null.");
-        for (int index = hash(key); keys[index] != null; index = (index + 1) % capacity) {
-            if (key.equals(keys[index]))
-                return true;
-        }
-        return false;
+        return indexOf(key) >= 0;
     }
 
     /*** {@inheritDoc} */
@@ -158,38 +570,100 @@ public class LinearProbingSymbolTableImpl<Key, Value> implements SymbolTable<Key
         return stSize;
     }
 
+    /**
+     * Returns the probe statistics of the SymbolTable. The probe length of a
+     * key is the number of slots read by a successful lookup of this key.
+     *
+     * This method scans all the slots of the SymbolTable, so its cost is
+     * proportional to the capacity.
+     *
+     * @return the probe statistics of the SymbolTable
+     */
+    public ProbeStatistics stats() {
+        int maxProbeLength = 0;
+        long totalProbeLength = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != null) {
+                int probeLength = 1 + (robinHood ? displacements[i] : distance(hash(keys[i]), i));
+                totalProbeLength += probeLength;
+                if (probeLength > maxProbeLength)
+                    maxProbeLength = probeLength;
+            }
+        }
+        return new ProbeStatistics(stSize, capacity, maxProbeLength, totalProbeLength, resizeCount);
+    }
+
     /*
      * Compute the hash code of the given key.
      */
     private int hash(Key key) {
+        if (powerOfTwo)
+            return HashIndexing.spread(key.hashCode()) & mask;
         return (key.hashCode() & 0x7fffffff) % capacity;
     }
 
+    /*
+     * Returns the slot probed after the given one.
+     */
+    private int next(int index) {
+        if (powerOfTwo)
+            return (index + 1) & mask;
+        return (index + 1) % capacity;
+    }
+
+    /*
+     * Returns the smallest capacity able to hold the given number of keys
+     * without being resized.
+     */
+    private int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / loadFactor) + 1;
+        if (needed > (1 << 30))
+            throw new IllegalArgumentException("The expected size is too large.");
+        int newCapacity = Math.max((int) needed, INITIAL_CAPACITY);
+        if (powerOfTwo)
+            return HashIndexing.powerOfTwoCapacity(newCapacity);
+        return newCapacity;
+    }
+
+    /*
+     * Replace the arrays by empty arrays of the given capacity.
+     */
+    @SuppressWarnings("unchecked")
+    private void allocate(int newCapacity) {
+        keys = (Key[]) new Object[newCapacity];
+        values = (Value[]) new Object[newCapacity];
+        displacements = robinHood ? new int[newCapacity] : null;
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        threshold = Math.max(1, Math.min((int) (newCapacity * loadFactor), newCapacity - 1));
+    }
+
     /**
      * Resize the SymbolTable.
      *
      * @param newCapacity
      *            the new capacity of the SymbolTable
      */
-    @SuppressWarnings({ "unchecked" })
     private void resize(int newCapacity) {
-        Key[] newKeys = (Key[]) new Object[newCapacity];
-        Value[] newValues = (Value[]) new Object[newCapacity];
-        int index;
+        Key[] oldKeys = keys;
+        Value[] oldValues = values;
         int oldCapacity = capacity;
-        capacity = newCapacity;
+        allocate(newCapacity);
+        int index;
         for (int i = 0; i < oldCapacity; i++) {
-            if (keys[i] != null) {
-                for (index = hash(keys[i]); newKeys[index] != null; index = (index + 1) % newCapacity)
+            if (oldKeys[i] != null) {
+                if (robinHood) {
+                    robinHoodInsert(hash(oldKeys[i]), oldKeys[i], oldValues[i], 0);
+                    continue;
+                }
+                for (index = hash(oldKeys[i]); keys[index] != null; index = next(index))
                     continue;
-                newKeys[index] = keys[i];
-                newValues[index] = values[i];
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
             }
         }
-        keys = newKeys;
-        values = newValues;
-        newKeys = null;
-        newValues = null;
+        resizeCount++;
+        modCount++;
     }
 
     /*** {@inheritDoc} */
@@ -198,6 +672,25 @@ public class LinearProbingSymbolTableImpl<Key, Value> implements SymbolTable<Key
         return new IteratorLinearProbingSymbolTableImpl();
     }
 
+    /**
+     * Returns a cursor over the entries of the SymbolTable.
+     * 
+     * @return a fail-fast cursor positioned before the first entry
+     */
+    public SymbolTableCursor<Key, Value> cursor() {
+        return new CursorLinearProbingSymbolTableImpl();
+    }
+
+    /*
+     * Returns the first used slot from the given index, or capacity if there
+     * is none.
+     */
+    private int nextUsedSlot(int index) {
+        while ((index < capacity) && (keys[index] == null))
+            index++;
+        return index;
+    }
+
     /**
      * IteratorLinearProbingSymbolTableImpl implements Iterator interface in
      * order to provide iterable capabilities to the SymbolTable through the
@@ -208,43 +701,86 @@ public class LinearProbingSymbolTableImpl<Key, Value> implements SymbolTable<Key
      */
     private class IteratorLinearProbingSymbolTableImpl implements Iterator<Key> {
 
-        /*** Iteration index. */
+        /*** Index of the next used slot. */
         private int index;
-        private Key[] allKeys;
+        private final int expectedModCount;
 
         /*** Constructs IteratorLinearProbingSymbolTableImpl. */
-        @SuppressWarnings({ "unchecked" })
         IteratorLinearProbingSymbolTableImpl() {
-            index = 0;
-            allKeys = (Key[]) new Object[stSize];
-            retrieveAllKeys();
-        }
-
-        /*
-         * Retrieve all the keys and fill the allKeys array with them.
-         */
-        private void retrieveAllKeys() {
-            int indx = 0;
-            for (int i = 0; (i < capacity) && (indx < stSize); i++) {
-                if (keys[i] != null) {
-                    allKeys[indx++] = keys[i];
-                }
-            }
+            expectedModCount = modCount;
+            index = nextUsedSlot(0);
         }
 
         /*** {@inheritDoc} */
         @Override
         public boolean hasNext() {
-            if (index < stSize) {
-                return true;
-            }
-            return false;
+            return index < capacity;
         }
 
         /*** {@inheritDoc} */
         @Override
         public Key next() {
-            return allKeys[index++];
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (index >= capacity)
+                throw new NoSuchElementException();
+            Key key = keys[index];
+            index = nextUsedSlot(index + 1);
+            return key;
+        }
+
+    }
+
+    /**
+     * CursorLinearProbingSymbolTableImpl walks the slots of the SymbolTable.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class CursorLinearProbingSymbolTableImpl implements SymbolTableCursor<Key, Value> {
+
+        /*** Index of the current slot, -1 before the first entry. */
+        private int index;
+        private final int expectedModCount;
+
+        /*** Constructs CursorLinearProbingSymbolTableImpl. */
+        CursorLinearProbingSymbolTableImpl() {
+            expectedModCount = modCount;
+            index = -1;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean next() {
+            checkForComodification();
+            if (index < capacity)
+                index = nextUsedSlot(index + 1);
+            return index < capacity;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public Key key() {
+            checkCurrent();
+            return keys[index];
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public Value value() {
+            checkCurrent();
+            return values[index];
+        }
+
+        private void checkCurrent() {
+            checkForComodification();
+            if ((index < 0) || (index >= capacity))
+                throw new IllegalStateException("The cursor is not on an entry.");
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
         }
 
     }
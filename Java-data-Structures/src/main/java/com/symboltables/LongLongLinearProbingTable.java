@@ -0,0 +1,338 @@
+package com.symboltables;
+
+/**
+ * This is a HashTable from primitive long keys to primitive long values.
+ *
+ * It uses the same Linear probing technique as LinearProbingSymbolTableImpl
+ * but keeps the keys and the values in two parallel long[] arrays instead of
+ * Object arrays. So no Long is ever allocated : an entry costs 16 bytes of
+ * slot (against a reference to a boxed key and a reference to a boxed value
+ * in LinearProbingSymbolTableImpl), and the lookups do not allocate at all.
+ *
+ * An empty slot is marked by the key 0. The key 0 itself is stored outside of
+ * the arrays, so every long can be used as a key.
+ *
+ * Since a long cannot be null, the methods which return null in the
+ * SymbolTable API return the "no entry value" given at construction time
+ * (0 by default). Use containsKey to distinguish a missing key from a key
+ * mapped to the no entry value.
+ *
+ * The capacity is always a power of two, so the index of a slot is computed
+ * with a bit mask, and the keys are spread with the murmur3 finalizer before
+ * being masked. Deletions use the backward shift technique : the entries that
+ * follow the deleted one in its cluster are moved back, so no tombstone is
+ * ever left in the table.
+ *
+ * {@link https://en.wikipedia.org/wiki/Linear_probing}
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+public class LongLongLinearProbingTable {
+
+    /*** The key used to mark an empty slot. */
+    private static final long FREE_KEY = 0L;
+
+    /*** Contains the initial capacity of an empty table. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*** The greatest capacity of the table. */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /*** The table grows when its size reaches capacity * MAX_LOAD_FACTOR. */
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    /*** Contains the keys of the table. */
+    private long[] keys;
+
+    /*** Contains the value associated to the keys of the table. */
+    private long[] values;
+
+    /*** True if the key FREE_KEY is in the table. */
+    private boolean hasFreeKey;
+
+    /*** Contains the value associated to FREE_KEY. */
+    private long freeKeyValue;
+
+    /*** Contains the size of the table. */
+    private int stSize;
+
+    /*** Contains the capacity of the table minus one. */
+    private int mask;
+
+    /*** The size from which the table grows. */
+    private int threshold;
+
+    /*** The capacity of a new or cleared table. */
+    private final int minCapacity;
+
+    /*** The value returned for the missing keys. */
+    private final long noEntryValue;
+
+    /**
+     * Constructs an empty table with an initial capacity of 16 and 0 as no
+     * entry value.
+     */
+    public LongLongLinearProbingTable() {
+        this(0, 0L);
+    }
+
+    /**
+     * Constructs an empty table able to hold expectedSize entries without
+     * growing.
+     *
+     * @param expectedSize
+     *            the number of entries the table is expected to hold
+     * @param noEntryValue
+     *            the value returned by get and delete for the missing keys
+     *
+     * @exception java.lang.IllegalArgumentException
+     *                if expectedSize is negative
+     */
+    public LongLongLinearProbingTable(int expectedSize, long noEntryValue) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("The expected size is negative.");
+        this.minCapacity = capacityFor(expectedSize);
+        this.noEntryValue = noEntryValue;
+        allocate(minCapacity);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this table. If
+     * the table previously contained a mapping for the given key, the old
+     * value is replaced by the specified value.
+     *
+     * @param key
+     *            key with which the specified value is to be associated
+     * @param value
+     *            value to be associated with the specified key
+     *
+     * @exception java.lang.IllegalStateException
+     *                if the key is new and the table is full at its greatest
+     *                capacity of 2^30 slots
+     */
+    public void put(long key, long value) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                stSize++;
+            }
+            freeKeyValue = value;
+            return;
+        }
+        int index;
+        for (index = hash(key); keys[index] != FREE_KEY; index = (index + 1) & mask) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+        }
+        if ((stSize + 1 >= threshold) && (mask + 1 == MAX_CAPACITY))
+            throw new IllegalStateException("The table is full : it cannot grow beyond " + MAX_CAPACITY + " slots.");
+        keys[index] = key;
+        values[index] = value;
+        if (++stSize >= threshold)
+            resize(2 * (mask + 1));
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or the no entry
+     * value if this table contains no mapping for the key.
+     *
+     * @param key
+     *            the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or the no entry
+     *         value
+     */
+    public long get(long key) {
+        if (key == FREE_KEY)
+            return hasFreeKey ? freeKeyValue : noEntryValue;
+        for (int index = hash(key); keys[index] != FREE_KEY; index = (index + 1) & mask) {
+            if (keys[index] == key)
+                return values[index];
+        }
+        return noEntryValue;
+    }
+
+    /**
+     * Removes the mapping for a key from this table if it is present.
+     *
+     * @param key
+     *            key whose mapping is to be removed from the table
+     * @return the previous value associated with the given key, or the no
+     *         entry value if there was no mapping for key.
+     */
+    public long delete(long key) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey)
+                return noEntryValue;
+            hasFreeKey = false;
+            stSize--;
+            return freeKeyValue;
+        }
+        for (int index = hash(key); keys[index] != FREE_KEY; index = (index + 1) & mask) {
+            if (keys[index] == key) {
+                long val = values[index];
+                shiftBack(index);
+                stSize--;
+                if ((mask + 1 > minCapacity) && (stSize <= threshold / 4))
+                    resize((mask + 1) / 2);
+                return val;
+            }
+        }
+        return noEntryValue;
+    }
+
+    /*
+     * Empty the slot at the given index, then move back the entries of its
+     * cluster that can be moved closer to their home slot.
+     */
+    private void shiftBack(int gap) {
+        for (int index = (gap + 1) & mask; keys[index] != FREE_KEY; index = (index + 1) & mask) {
+            int home = hash(keys[index]);
+            // the entry can fill the gap only if the gap is between its home
+            // slot and its current slot
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = FREE_KEY;
+        values[gap] = 0L;
+    }
+
+    /**
+     * Returns true if this table contains a mapping for the specified key.
+     *
+     * @param key
+     *            key whose presence in this table is to be tested
+     * @return true if this table contains a mapping for the specified key
+     */
+    public boolean containsKey(long key) {
+        if (key == FREE_KEY)
+            return hasFreeKey;
+        for (int index = hash(key); keys[index] != FREE_KEY; index = (index + 1) & mask) {
+            if (keys[index] == key)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if this table maps one or more keys to the specified value.
+     *
+     * @param value
+     *            value whose presence in this table is to be tested
+     * @return true if this table maps one or more keys to the specified value.
+     */
+    public boolean containsValue(long value) {
+        if (hasFreeKey && freeKeyValue == value)
+            return true;
+        for (int i = 0; i <= mask; i++) {
+            if (keys[i] != FREE_KEY && values[i] == value)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the mappings from this table. The table will be empty
+     * after this call returns.
+     */
+    public void clear() {
+        hasFreeKey = false;
+        freeKeyValue = 0L;
+        allocate(minCapacity);
+    }
+
+    /**
+     * Returns true if this table contains no key-value mappings.
+     *
+     * @return true if this table contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return stSize == 0;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this table.
+     *
+     * @return the number of key-value mappings in this table
+     */
+    public int size() {
+        return stSize;
+    }
+
+    /**
+     * Returns the value returned by get and delete for the missing keys.
+     *
+     * @return the no entry value of this table
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /*
+     * Compute the index of the home slot of the given key.
+     */
+    private int hash(long key) {
+        // murmur3 64 bits finalizer
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /*
+     * Returns the smallest power of two capacity able to hold the given
+     * number of entries without growing.
+     */
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil((expectedSize + 1) / MAX_LOAD_FACTOR);
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < needed) {
+            if (capacity == MAX_CAPACITY)
+                throw new IllegalArgumentException("The expected size is too large.");
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /*
+     * Replace the arrays by empty arrays of the given capacity.
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * MAX_LOAD_FACTOR);
+        stSize = hasFreeKey ? 1 : 0;
+    }
+
+    /**
+     * Resize the table.
+     *
+     * @param newCapacity
+     *            the new capacity of the table, a power of two
+     */
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        int size = stSize;
+        allocate(newCapacity);
+        stSize = size;
+        int index;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                for (index = hash(oldKeys[i]); keys[index] != FREE_KEY; index = (index + 1) & mask)
+                    continue;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+}
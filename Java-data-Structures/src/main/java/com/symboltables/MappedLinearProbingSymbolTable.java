@@ -0,0 +1,606 @@
+package com.symboltables;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This is an off-heap HashTable implementation of symbol table, whose slots
+ * live in a memory-mapped file.
+ *
+ * The keys and the values are byte arrays of fixed widths, given when the
+ * file is created. It uses the same Linear probing technique as
+ * LinearProbingSymbolTableImpl with backward shift deletion, but each slot is
+ * a record of the file : one state byte, then the key bytes, then the value
+ * bytes. Nothing but the mapping is on the heap, so the size of the
+ * SymbolTable is not limited by the heap and the garbage collector never
+ * scans its content.
+ *
+ * Opening an existing file only maps it : the SymbolTable is immediately
+ * usable, and the pages are loaded by the operating system when they are
+ * first read. The size is kept up to date in the header of the file at each
+ * update, and force() writes the modified pages to the disk. An update
+ * interrupted by a crash may leave the file inconsistent : call force() at
+ * the points the file must survive a crash.
+ *
+ * The file is mapped by segments of at most 1GB (a MappedByteBuffer is
+ * limited to 2GB), so the capacity of a file is only limited by the address
+ * space. The capacity is a power of two and the table grows when 3/4 of its
+ * slots are used : the entries are rehashed in a new file which then
+ * replaces the old one.
+ *
+ * The get method returns a copy of the value, and the iterator copies of the
+ * keys. Keys and values of the wrong width are rejected. This class is not
+ * thread safe.
+ *
+ * {@link https://en.wikipedia.org/wiki/Memory-mapped_file}
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+public class MappedLinearProbingSymbolTable implements SymbolTable<byte[], byte[]>, Closeable {
+
+    /*** Identifies the files of this class. */
+    private static final long MAGIC = 0x4d4c505354424c31L;
+
+    /*** Layout of the header of the file. */
+    private static final int MAGIC_OFFSET = 0;
+    private static final int KEY_WIDTH_OFFSET = 8;
+    private static final int VALUE_WIDTH_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 24;
+    private static final int HEADER_SIZE = 64;
+
+    /*** States of a slot. */
+    private static final byte FREE = 0;
+    private static final byte USED = 1;
+
+    /*** Contains the initial capacity of an empty table. */
+    private static final long INITIAL_CAPACITY = 16;
+
+    /*** The table grows when its size reaches capacity * MAX_LOAD_FACTOR. */
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    /*** Maximal number of bytes of a mapped segment. */
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+    /*** The file of the SymbolTable. */
+    private final File file;
+
+    private final int keyWidth;
+    private final int valueWidth;
+
+    /*** Number of bytes of a slot : the state, the key and the value. */
+    private final int slotWidth;
+
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private MappedByteBuffer[] segments;
+
+    /*** log2 of the number of slots of a segment. */
+    private int segmentShift;
+
+    /*** Number of slots of a segment minus one. */
+    private long segmentMask;
+
+    /*** Contains the capacity of the table minus one. */
+    private long mask;
+
+    /*** Contains the size of the table. */
+    private long stSize;
+
+    /*** The size from which the table grows. */
+    private long threshold;
+
+    /**
+     * Opens the SymbolTable stored in the given file, or creates it if the
+     * file does not exist or is empty.
+     *
+     * @param file
+     *            the file of the SymbolTable
+     * @param keyWidth
+     *            the number of bytes of each key
+     * @param valueWidth
+     *            the number of bytes of each value
+     * @param expectedSize
+     *            the number of keys a new SymbolTable is expected to hold
+     *            without growing, ignored if the file already exists
+     *
+     * @exception java.io.IOException
+     *                if the file cannot be opened or mapped
+     * @exception java.lang.IllegalArgumentException
+     *                if a width is not positive, if expectedSize is negative,
+     *                or if the existing file is not a SymbolTable with the
+     *                given widths
+     * @exception java.lang.NullPointerException
+     *                if file is null
+     */
+    public MappedLinearProbingSymbolTable(File file, int keyWidth, int valueWidth, long expectedSize)
+            throws IOException {
+        this(file, keyWidth, valueWidth);
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("The expected size is negative.");
+        if (file.exists() && file.length() > 0)
+            open();
+        else
+            create(capacityFor(expectedSize));
+    }
+
+    /*
+     * Constructs a SymbolTable whose file is neither opened nor created.
+     */
+    private MappedLinearProbingSymbolTable(File file, int keyWidth, int valueWidth) {
+        if (file == null)
+            throw new NullPointerException("The given file is null.");
+        if (keyWidth <= 0 || valueWidth <= 0)
+            throw new IllegalArgumentException("The key and value widths must be positive.");
+        this.file = file;
+        this.keyWidth = keyWidth;
+        this.valueWidth = valueWidth;
+        this.slotWidth = 1 + keyWidth + valueWidth;
+    }
+
+    /*
+     * Map the existing file and check its header.
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            channel.close();
+            throw new IllegalArgumentException("The file is not a mapped SymbolTable.");
+        }
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (header.getLong(MAGIC_OFFSET) != MAGIC || header.getInt(KEY_WIDTH_OFFSET) != keyWidth
+                || header.getInt(VALUE_WIDTH_OFFSET) != valueWidth) {
+            channel.close();
+            throw new IllegalArgumentException("The file is not a mapped SymbolTable with the given widths.");
+        }
+        mapSlots(header.getLong(CAPACITY_OFFSET));
+        stSize = header.getLong(SIZE_OFFSET);
+    }
+
+    /*
+     * Create a new empty file of the given capacity and map it.
+     */
+    private void create(long capacity) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.putLong(MAGIC_OFFSET, MAGIC);
+        header.putInt(KEY_WIDTH_OFFSET, keyWidth);
+        header.putInt(VALUE_WIDTH_OFFSET, valueWidth);
+        header.putLong(CAPACITY_OFFSET, capacity);
+        header.putLong(SIZE_OFFSET, 0L);
+        // the file is extended with zeros by the mapping, i.e. free slots
+        mapSlots(capacity);
+        stSize = 0;
+    }
+
+    /*
+     * Map the slots of the file in segments.
+     */
+    private void mapSlots(long capacity) throws IOException {
+        long slotsPerSegment = Long.highestOneBit(Math.max(1, MAX_SEGMENT_BYTES / slotWidth));
+        slotsPerSegment = Math.min(slotsPerSegment, capacity);
+        segmentShift = Long.numberOfTrailingZeros(slotsPerSegment);
+        segmentMask = slotsPerSegment - 1;
+        int segmentCount = (int) (capacity / slotsPerSegment);
+        segments = new MappedByteBuffer[segmentCount];
+        long segmentBytes = slotsPerSegment * slotWidth;
+        for (int i = 0; i < segmentCount; i++)
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + i * segmentBytes, segmentBytes);
+        mask = capacity - 1;
+        threshold = (long) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    /*
+     * Returns the smallest power of two capacity able to hold the given
+     * number of entries without growing.
+     */
+    private static long capacityFor(long expectedSize) {
+        long needed = (long) Math.ceil((expectedSize + 1) / MAX_LOAD_FACTOR);
+        long capacity = INITIAL_CAPACITY;
+        while (capacity < needed)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void put(byte[] key, byte[] value) {
+        checkKey(key);
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        if (value.length != valueWidth)
+            throw new IllegalArgumentException("The given value has not the value width.");
+        long slot;
+        for (slot = hash(key); isUsed(slot); slot = (slot + 1) & mask) {
+            if (keyEquals(slot, key)) {
+                write(slot, 1 + keyWidth, value);
+                return;
+            }
+        }
+        write(slot, 1, key);
+        write(slot, 1 + keyWidth, value);
+        segment(slot).put(offset(slot), USED);
+        setSize(stSize + 1);
+        if (stSize >= threshold)
+            resize(2 * (mask + 1));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public byte[] get(byte[] key) {
+        checkKey(key);
+        long slot = indexOf(key);
+        if (slot < 0)
+            return null;
+        return read(slot, 1 + keyWidth, valueWidth);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public byte[] delete(byte[] key) {
+        checkKey(key);
+        long slot = indexOf(key);
+        if (slot < 0)
+            return null;
+        byte[] value = read(slot, 1 + keyWidth, valueWidth);
+        shiftBack(slot);
+        setSize(stSize - 1);
+        return value;
+    }
+
+    /*
+     * Empty the slot at the given index, then move back the entries of its
+     * cluster that can be moved closer to their home slot.
+     */
+    private void shiftBack(long gap) {
+        for (long slot = (gap + 1) & mask; isUsed(slot); slot = (slot + 1) & mask) {
+            long home = hash(read(slot, 1, keyWidth));
+            // the entry can fill the gap only if the gap is between its home
+            // slot and its current slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                copySlot(slot, gap);
+                gap = slot;
+            }
+        }
+        segment(gap).put(offset(gap), FREE);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(byte[] key) {
+        checkKey(key);
+        return indexOf(key) >= 0;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsValue(byte[] value) {
+        checkMapped();
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        if (value.length != valueWidth)
+            return false;
+        for (long slot = 0; slot <= mask; slot++) {
+            if (isUsed(slot) && bytesEqual(slot, 1 + keyWidth, value))
+                return true;
+        }
+        return false;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void clear() {
+        checkMapped();
+        for (long slot = 0; slot <= mask; slot++)
+            segment(slot).put(offset(slot), FREE);
+        setSize(0);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        return stSize == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Returns Integer.MAX_VALUE if the size does not fit in an int, see
+     * longSize.
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(stSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this SymbolTable.
+     *
+     * @return the number of key-value mappings in this SymbolTable
+     */
+    public long longSize() {
+        return stSize;
+    }
+
+    /**
+     * Returns the number of slots of the file.
+     *
+     * @return the capacity of the SymbolTable
+     */
+    public long capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Writes the modified pages of the file to the disk.
+     *
+     * @exception java.lang.IllegalStateException
+     *                if a failed resize left the SymbolTable unusable
+     */
+    public void force() {
+        checkMapped();
+        header.force();
+        for (MappedByteBuffer segment : segments)
+            segment.force();
+    }
+
+    /**
+     * Writes the modified pages to the disk and closes the file. The
+     * SymbolTable cannot be used anymore.
+     *
+     * @exception java.io.IOException
+     *                if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        // nothing is open anymore after a failed resize
+        if (header == null)
+            return;
+        force();
+        channel.close();
+    }
+
+    /*
+     * Returns the slot of the given key, or -1 if the key is not in the
+     * table.
+     */
+    private long indexOf(byte[] key) {
+        for (long slot = hash(key); isUsed(slot); slot = (slot + 1) & mask) {
+            if (keyEquals(slot, key))
+                return slot;
+        }
+        return -1;
+    }
+
+    /*
+     * Check that the file is mapped : a resize which replaced the file but
+     * could not open it leaves the SymbolTable unusable.
+     */
+    private void checkMapped() {
+        if (header == null)
+            throw new IllegalStateException("The SymbolTable lost its file in a failed resize.");
+    }
+
+    private void checkKey(byte[] key) {
+        checkMapped();
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (key.length != keyWidth)
+            throw new IllegalArgumentException("The given key has not the key width.");
+    }
+
+    private void setSize(long size) {
+        stSize = size;
+        header.putLong(SIZE_OFFSET, size);
+    }
+
+    /*
+     * Compute the index of the home slot of the given key.
+     */
+    private long hash(byte[] key) {
+        // FNV-1a followed by the murmur3 64 bits finalizer
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h & mask;
+    }
+
+    private MappedByteBuffer segment(long slot) {
+        return segments[(int) (slot >>> segmentShift)];
+    }
+
+    /*
+     * Returns the offset of the given slot in its segment.
+     */
+    private int offset(long slot) {
+        return (int) ((slot & segmentMask) * slotWidth);
+    }
+
+    private boolean isUsed(long slot) {
+        return segment(slot).get(offset(slot)) == USED;
+    }
+
+    private boolean keyEquals(long slot, byte[] key) {
+        return bytesEqual(slot, 1, key);
+    }
+
+    /*
+     * Returns true if the bytes of the slot from the given position are
+     * equal to the given bytes.
+     */
+    private boolean bytesEqual(long slot, int position, byte[] bytes) {
+        MappedByteBuffer segment = segment(slot);
+        int start = offset(slot) + position;
+        for (int i = 0; i < bytes.length; i++) {
+            if (segment.get(start + i) != bytes[i])
+                return false;
+        }
+        return true;
+    }
+
+    private byte[] read(long slot, int position, int length) {
+        MappedByteBuffer segment = segment(slot);
+        int start = offset(slot) + position;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = segment.get(start + i);
+        return bytes;
+    }
+
+    private void write(long slot, int position, byte[] bytes) {
+        MappedByteBuffer segment = segment(slot);
+        int start = offset(slot) + position;
+        for (int i = 0; i < bytes.length; i++)
+            segment.put(start + i, bytes[i]);
+    }
+
+    private void copySlot(long from, long to) {
+        MappedByteBuffer source = segment(from);
+        MappedByteBuffer target = segment(to);
+        int sourceStart = offset(from);
+        int targetStart = offset(to);
+        for (int i = 0; i < slotWidth; i++)
+            target.put(targetStart + i, source.get(sourceStart + i));
+    }
+
+    /**
+     * Resize the table : the entries are rehashed in a new file, which
+     * replaces the file of the SymbolTable once it is complete. The old
+     * mappings are released before the file is replaced, so that the old and
+     * the new file are not both mapped. The old file stays open until the new
+     * one is : if the new file cannot replace it, the SymbolTable keeps
+     * working on the old file and the new file is deleted. If the new file
+     * replaces it but cannot be opened, the old file is no longer reachable
+     * and its updates would be lost : the SymbolTable is then unusable, and
+     * its entries are in the new file, which can be opened again.
+     *
+     * @param newCapacity
+     *            the new capacity of the table, a power of two
+     */
+    private void resize(long newCapacity) {
+        File resized = new File(file.getPath() + ".resize");
+        boolean replaced = false;
+        try {
+            MappedLinearProbingSymbolTable target = new MappedLinearProbingSymbolTable(resized, keyWidth,
+                    valueWidth);
+            try {
+                target.create(newCapacity);
+                for (long slot = 0; slot <= mask; slot++) {
+                    if (isUsed(slot))
+                        target.put(read(slot, 1, keyWidth), read(slot, 1 + keyWidth, valueWidth));
+                }
+                target.close();
+            } finally {
+                if (target.channel != null)
+                    target.channel.close();
+            }
+            if ((target.stSize != stSize) || (resized.length() != HEADER_SIZE + newCapacity * slotWidth))
+                throw new IOException("The resized file is incomplete.");
+
+            long oldCapacity = mask + 1;
+            FileChannel oldChannel = channel;
+            header = null;
+            segments = null;
+            try {
+                Files.move(resized.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                replaced = true;
+                open();
+            } catch (IOException | RuntimeException e) {
+                if (channel != oldChannel) {
+                    try {
+                        channel.close();
+                    } catch (IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                if (replaced) {
+                    channel = null;
+                    try {
+                        oldChannel.close();
+                    } catch (IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                    throw e;
+                }
+                channel = oldChannel;
+                header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                mapSlots(oldCapacity);
+                throw e;
+            }
+            oldChannel.close();
+        } catch (IOException e) {
+            if (!replaced)
+                resized.delete();
+            throw new UncheckedIOException("The SymbolTable cannot be resized.", e);
+        }
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<byte[]> iterator() {
+        checkMapped();
+        return new IteratorMappedLinearProbingSymbolTable();
+    }
+
+    /**
+     * IteratorMappedLinearProbingSymbolTable implements Iterator interface in
+     * order to provide iterable capabilities to the SymbolTable through the
+     * Key. It returns copies of the keys.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class IteratorMappedLinearProbingSymbolTable implements Iterator<byte[]> {
+
+        /*** Index of the next used slot, or capacity at the end. */
+        private long slot;
+
+        /*** Constructs IteratorMappedLinearProbingSymbolTable. */
+        IteratorMappedLinearProbingSymbolTable() {
+            slot = -1;
+            advance();
+        }
+
+        private void advance() {
+            do {
+                slot++;
+            } while (slot <= mask && !isUsed(slot));
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            return slot <= mask;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public byte[] next() {
+            if (slot > mask)
+                throw new NoSuchElementException();
+            byte[] key = read(slot, 1, keyWidth);
+            advance();
+            return key;
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.symboltables;
+
+/**
+ * ProbeStatistics is an immutable snapshot of the health of an open
+ * addressing HashTable : how full it is, how long its probe sequences are and
+ * how many times it has been resized.
+ *
+ * The probe length of a key is the number of slots read by a successful
+ * lookup of this key, so a key stored in its home slot has a probe length of
+ * 1. A growing max probe length at a constant load factor is the sign of
+ * clusters degradation (poor hash codes or adversarial keys).
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+public final class ProbeStatistics {
+
+    private final int size;
+    private final int capacity;
+    private final int maxProbeLength;
+    private final long totalProbeLength;
+    private final int resizeCount;
+
+    /**
+     * Constructs the statistics of a HashTable.
+     *
+     * @param size
+     *            the number of keys of the HashTable
+     * @param capacity
+     *            the number of slots of the HashTable
+     * @param maxProbeLength
+     *            the greatest probe length of the keys
+     * @param totalProbeLength
+     *            the sum of the probe lengths of all the keys
+     * @param resizeCount
+     *            the number of times the HashTable has been resized
+     */
+    public ProbeStatistics(int size, int capacity, int maxProbeLength, long totalProbeLength, int resizeCount) {
+        this.size = size;
+        this.capacity = capacity;
+        this.maxProbeLength = maxProbeLength;
+        this.totalProbeLength = totalProbeLength;
+        this.resizeCount = resizeCount;
+    }
+
+    /**
+     * Returns the number of keys of the HashTable.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots of the HashTable.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the ratio between the number of keys and the number of slots.
+     */
+    public double getLoadFactor() {
+        return (double) size / capacity;
+    }
+
+    /**
+     * Returns the greatest probe length of the keys, or 0 if the HashTable is
+     * empty.
+     */
+    public int getMaxProbeLength() {
+        return maxProbeLength;
+    }
+
+    /**
+     * Returns the mean probe length of the keys, or 0 if the HashTable is
+     * empty.
+     */
+    public double getMeanProbeLength() {
+        if (size == 0)
+            return 0;
+        return (double) totalProbeLength / size;
+    }
+
+    /**
+     * Returns the number of times the HashTable has been resized.
+     */
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "ProbeStatistics [size=" + size + ", capacity=" + capacity + ", loadFactor=" + getLoadFactor()
+                + ", maxProbeLength=" + maxProbeLength + ", meanProbeLength=" + getMeanProbeLength()
+                + ", resizeCount=" + resizeCount + "]";
+    }
+
+}
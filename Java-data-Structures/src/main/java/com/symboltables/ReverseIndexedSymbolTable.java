@@ -0,0 +1,210 @@
+package com.symboltables;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+
+/**
+ * ReverseIndexedSymbolTable adds a reverse index, from each value to the keys
+ * mapped to it, to any SymbolTable implementation.
+ *
+ * containsValue is a full scan in every SymbolTable implementation. Here the
+ * reverse index is a HashTable from the values to the sets of their keys, so
+ * containsValue runs in constant time and keysForValue in time proportional
+ * to the number of keys of the value. The price is an index entry per key,
+ * and an update of the index on every put and delete.
+ *
+ * The values must implement equals and hashCode consistently, since they are
+ * the keys of the index. The operations of the wrapped SymbolTable must only
+ * be called through this ReverseIndexedSymbolTable, otherwise the index is
+ * not up to date anymore.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <Key>
+ * @param <Value>
+ */
+public class ReverseIndexedSymbolTable<Key, Value> implements SymbolTable<Key, Value> {
+
+    /*** The indexed SymbolTable. */
+    private final SymbolTable<Key, Value> st;
+
+    /*** Maps each value to the set of its keys. */
+    private final SymbolTable<Value, LinearProbingSymbolTableImpl<Key, Boolean>> keysByValue;
+
+    /**
+     * Constructs an empty ReverseIndexedSymbolTable backed by a
+     * LinearProbingSymbolTableImpl.
+     */
+    public ReverseIndexedSymbolTable() {
+        this(new LinearProbingSymbolTableImpl<Key, Value>());
+    }
+
+    /**
+     * Constructs a ReverseIndexedSymbolTable backed by the given SymbolTable,
+     * and indexes its current mappings.
+     *
+     * @param st
+     *            the SymbolTable to index
+     *
+     * @exception java.lang.NullPointerException
+     *                if st is null
+     */
+    public ReverseIndexedSymbolTable(SymbolTable<Key, Value> st) {
+        if (st == null)
+            throw new NullPointerException("The given SymbolTable is null.");
+        this.st = st;
+        this.keysByValue = new SeparateChainingSymbolTableImpl<Value, LinearProbingSymbolTableImpl<Key, Boolean>>();
+        st.forEach(this::index);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void put(Key key, Value value) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        Value oldValue = st.get(key);
+        st.put(key, value);
+        // an equal value keeps the key at the same place of the index
+        if (value.equals(oldValue))
+            return;
+        if (oldValue != null)
+            unindex(key, oldValue);
+        index(key, value);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value get(Key key) {
+        return st.get(key);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value getOrDefault(Key key, Value defaultValue) {
+        return st.getOrDefault(key, defaultValue);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Value delete(Key key) {
+        Value value = st.delete(key);
+        if (value != null)
+            unindex(key, value);
+        return value;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void clear() {
+        st.clear();
+        keysByValue.clear();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(Key key) {
+        return st.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This is a lookup in the reverse index.
+     */
+    @Override
+    public boolean containsValue(Value value) {
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        return keysByValue.containsKey(value);
+    }
+
+    /**
+     * Returns the keys mapped to the specified value. The returned Iterable is
+     * a read-only view : its iterator fails if the SymbolTable is modified
+     * during the iteration.
+     *
+     * @param value
+     *            the value whose keys are to be returned
+     *
+     * @return the keys mapped to the specified value, empty if there is none
+     *
+     * @exception java.lang.NullPointerException
+     *                if the specified value is null
+     */
+    public Iterable<Key> keysForValue(Value value) {
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        SymbolTable<Key, Boolean> keys = keysByValue.get(value);
+        if (keys == null)
+            return Collections.emptyList();
+        return keys::iterator;
+    }
+
+    /**
+     * Returns the number of keys mapped to the specified value.
+     *
+     * @param value
+     *            the value whose keys are to be counted
+     *
+     * @return the number of keys mapped to the specified value
+     *
+     * @exception java.lang.NullPointerException
+     *                if the specified value is null
+     */
+    public int countKeysForValue(Value value) {
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        SymbolTable<Key, Boolean> keys = keysByValue.get(value);
+        return (keys == null) ? 0 : keys.size();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        return st.isEmpty();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public int size() {
+        return st.size();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void forEach(BiConsumer<? super Key, ? super Value> action) {
+        st.forEach(action);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<Key> iterator() {
+        return st.iterator();
+    }
+
+    /*
+     * Add the given key to the keys of the given value.
+     */
+    private void index(Key key, Value value) {
+        LinearProbingSymbolTableImpl<Key, Boolean> keys = keysByValue.get(value);
+        if (keys == null) {
+            keys = new LinearProbingSymbolTableImpl<Key, Boolean>();
+            keysByValue.put(value, keys);
+        }
+        keys.put(key, Boolean.TRUE);
+    }
+
+    /*
+     * Remove the given key from the keys of the given value.
+     */
+    private void unindex(Key key, Value value) {
+        LinearProbingSymbolTableImpl<Key, Boolean> keys = keysByValue.get(value);
+        keys.delete(key);
+        if (keys.isEmpty())
+            keysByValue.delete(value);
+    }
+
+}
@@ -1,6 +1,10 @@
 package com.symboltables;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 /**
  * This is a HashTable implementation of symbol table.
@@ -17,6 +21,37 @@ import java.util.Iterator;
  * 
  * {@link https://en.wikipedia.org/wiki/Hash_table}
  * 
+ * The bucket of a key is computed according to the HashIndexing of the
+ * SymbolTable (see HashIndexing), MODULO by default.
+ * 
+ * The SymbolTable doubles its capacity when its size reaches capacity *
+ * loadFactor (5 by default, i.e. chains of 5 nodes on average), and halves it
+ * when its size drops to a quarter of this threshold. When the number of keys
+ * is known in advance, use the constructor taking an expected size, or
+ * ensureCapacity, to avoid the successive rehashes of a growing SymbolTable.
+ * 
+ * By default a resize rehashes all the chains at once, so the operation
+ * which triggers it pays for the whole SymbolTable. In incremental resize
+ * mode, a resize only allocates the new buckets : the old buckets are kept
+ * and every following put or delete migrates a bounded number of them, so
+ * the cost of a resize is spread over the operations and the worst case
+ * latency of a put stays flat. During the migration, a key whose old bucket
+ * has not been migrated yet is looked up in the old buckets, and in the new
+ * buckets otherwise.
+ * 
+ * When many keys collide, a chain degrades to a linear scan. In treeified
+ * buckets mode, a chain which reaches 8 nodes is converted to a red-black
+ * tree (a TreeMapCustom) as long as all its keys are Comparable and of the
+ * same class, so the lookups in the bucket stay in O(log n) even with
+ * adversarial or poorly hashed keys. The tree is converted back to a chain
+ * when it shrinks to 6 nodes, or when it would hold two keys equal for
+ * compareTo but not for equals (such as BigDecimal 1.0 and 1.00) : a bucket
+ * holds exactly the same keys whether it is treeified or not. Such a bucket
+ * stays a chain until the next resize.
+ * 
+ * The iterator and the cursor (see SymbolTableCursor) walk the chains in
+ * place, without copying the keys, and are fail-fast.
+ * 
  * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
  *
  * @param <Key>
@@ -40,25 +75,252 @@ public class SeparateChainingSymbolTableImpl<Key, Value> implements SymbolTable<
         }
     }
 
+    /*
+     * A bucket converted to a red-black tree. It is stored in the buckets
+     * array in place of the first node of the chain, and has no key, no
+     * value and no next node.
+     */
+    private static final class TreeBucket extends Node {
+        /*** The class of all the keys of the tree. */
+        final Class<?> keyClass;
+        final TreeMapCustom<Object, Object> tree;
+
+        TreeBucket(Class<?> keyClass) {
+            super(null, null, null);
+            this.keyClass = keyClass;
+            this.tree = new TreeMapCustom<Object, Object>();
+        }
+
+        /*
+         * Returns true if the given key can be put in the tree : it can be
+         * compared with the keys of the tree, and no other key of the tree
+         * is equal to it for compareTo.
+         */
+        boolean accepts(Object key) {
+            if (key.getClass() != keyClass)
+                return false;
+            Object stored = find(key);
+            return (stored == null) || key.equals(stored);
+        }
+
+        Object get(Object key) {
+            if (key.getClass() != keyClass)
+                return null;
+            Object value = tree.get(key);
+            // compareTo may be inconsistent with equals
+            if ((value == null) || !key.equals(find(key)))
+                return null;
+            return value;
+        }
+
+        /*
+         * Returns the key of the tree equal to the given key for compareTo,
+         * or null.
+         */
+        @SuppressWarnings("unchecked")
+        private Object find(Object key) {
+            Object stored = tree.ceilingKey(key);
+            if ((stored != null) && (((Comparable<Object>) stored).compareTo(key) == 0))
+                return stored;
+            return null;
+        }
+    }
+
     /*** Arrays of Linked List */
     private Node[] contents;
 
+    /*** The buckets being migrated by an incremental resize, or null. */
+    private Node[] oldContents;
+
+    /*** All the old buckets before this index have been migrated. */
+    private int migrateIndex;
+
+    /*** True if the SymbolTable resizes incrementally. */
+    private final boolean incrementalResize;
+
+    /*** Number of old buckets migrated by each put or delete. */
+    private final int migrationStep;
+
+    /*** True if the long chains are converted to red-black trees. */
+    private final boolean treeifyBuckets;
+
+    /*
+     * The buckets of contents which cannot be treeified, or null if there is
+     * none. It is dropped with the buckets by the next resize.
+     */
+    private boolean[] untreeifiable;
+
     /*** Contains the size of the SymbolTable. */
     private int stSize;
 
+    /*** Contains the number of structural modifications of the SymbolTable. */
+    private int modCount;
+
     /*** Contains the capacity of the SymbolTable. */
     private int capacity;
 
+    /*** True if the capacity is a power of two and indexes are masked. */
+    private final boolean powerOfTwo;
+
+    /*** The maximal ratio between the size and the capacity. */
+    private final double loadFactor;
+
+    /*** The size from which the SymbolTable grows. */
+    private int threshold;
+
+    /*** The capacity of a new or cleared SymbolTable. */
+    private final int minCapacity;
+
     /*** Contains the initial capacity of an empty SymbolTable. */
     private static final int INITIAL_CAPACITY = 16;
 
+    /*** Contains the default load factor of the SymbolTable. */
+    public static final double DEFAULT_LOAD_FACTOR = 5.0;
+
+    /*** Minimal number of old buckets migrated by each put or delete. */
+    private static final int MIGRATION_STEP = 4;
+
+    /*** Length from which a chain is converted to a red-black tree. */
+    private static final int TREEIFY_THRESHOLD = 8;
+
+    /*** Size from which a red-black tree is converted back to a chain. */
+    private static final int UNTREEIFY_THRESHOLD = 6;
+
     /**
      * Constructs an empty SymbolTable with an initial capacity of 16.
      */
     public SeparateChainingSymbolTableImpl() {
-        contents = new Node[INITIAL_CAPACITY];
+        this(HashIndexing.MODULO);
+    }
+
+    /**
+     * Constructs an empty SymbolTable with an initial capacity of 16.
+     * 
+     * @param indexing
+     *            the way the bucket of a key is computed
+     * 
+     * @exception java.lang.NullPointerException
+     *                if indexing is null
+     */
+    public SeparateChainingSymbolTableImpl(HashIndexing indexing) {
+        this(0, DEFAULT_LOAD_FACTOR, indexing);
+    }
+
+    /**
+     * Constructs an empty SymbolTable able to hold expectedSize keys without
+     * being resized.
+     * 
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     * @param loadFactor
+     *            the maximal average length of the chains
+     * 
+     * @exception java.lang.IllegalArgumentException
+     *                if expectedSize is negative or if loadFactor is not
+     *                positive
+     */
+    public SeparateChainingSymbolTableImpl(int expectedSize, double loadFactor) {
+        this(expectedSize, loadFactor, HashIndexing.MODULO);
+    }
+
+    /**
+     * Constructs an empty SymbolTable able to hold expectedSize keys without
+     * being resized.
+     * 
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     * @param loadFactor
+     *            the maximal average length of the chains
+     * @param indexing
+     *            the way the bucket of a key is computed
+     * 
+     * @exception java.lang.IllegalArgumentException
+     *                if expectedSize is negative or if loadFactor is not
+     *                positive
+     * @exception java.lang.NullPointerException
+     *                if indexing is null
+     */
+    public SeparateChainingSymbolTableImpl(int expectedSize, double loadFactor, HashIndexing indexing) {
+        this(expectedSize, loadFactor, indexing, false);
+    }
+
+    /**
+     * Constructs an empty SymbolTable with an initial capacity of 16.
+     * 
+     * @param incrementalResize
+     *            true to spread the resizes over the following operations,
+     *            false to rehash all the chains at once
+     */
+    public SeparateChainingSymbolTableImpl(boolean incrementalResize) {
+        this(0, DEFAULT_LOAD_FACTOR, HashIndexing.MODULO, incrementalResize);
+    }
+
+    /**
+     * Constructs an empty SymbolTable able to hold expectedSize keys without
+     * being resized.
+     * 
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     * @param loadFactor
+     *            the maximal average length of the chains
+     * @param indexing
+     *            the way the bucket of a key is computed
+     * @param incrementalResize
+     *            true to spread the resizes over the following operations,
+     *            false to rehash all the chains at once
+     * 
+     * @exception java.lang.IllegalArgumentException
+     *                if expectedSize is negative or if loadFactor is not
+     *                positive
+     * @exception java.lang.NullPointerException
+     *                if indexing is null
+     */
+    public SeparateChainingSymbolTableImpl(int expectedSize, double loadFactor, HashIndexing indexing,
+            boolean incrementalResize) {
+        this(expectedSize, loadFactor, indexing, incrementalResize, false);
+    }
+
+    /**
+     * Constructs an empty SymbolTable able to hold expectedSize keys without
+     * being resized.
+     * 
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     * @param loadFactor
+     *            the maximal average length of the chains
+     * @param indexing
+     *            the way the bucket of a key is computed
+     * @param incrementalResize
+     *            true to spread the resizes over the following operations,
+     *            false to rehash all the chains at once
+     * @param treeifyBuckets
+     *            true to convert the long chains of Comparable keys to
+     *            red-black trees
+     * 
+     * @exception java.lang.IllegalArgumentException
+     *                if expectedSize is negative or if loadFactor is not
+     *                positive
+     * @exception java.lang.NullPointerException
+     *                if indexing is null
+     */
+    public SeparateChainingSymbolTableImpl(int expectedSize, double loadFactor, HashIndexing indexing,
+            boolean incrementalResize, boolean treeifyBuckets) {
+        if (indexing == null)
+            throw new NullPointerException("The given indexing is null.");
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("The expected size is negative.");
+        if (!(loadFactor > 0) || Double.isInfinite(loadFactor))
+            throw new IllegalArgumentException("The load factor must be positive.");
+        this.powerOfTwo = (indexing == HashIndexing.POWER_OF_TWO);
+        this.loadFactor = loadFactor;
+        this.incrementalResize = incrementalResize;
+        this.treeifyBuckets = treeifyBuckets;
+        // a migration must be over before the next resize : at worst
+        // capacity * loadFactor / 8 deletes after a shrink
+        this.migrationStep = Math.max(MIGRATION_STEP, (int) Math.ceil(8 / loadFactor));
+        this.minCapacity = capacityFor(expectedSize);
+        allocate(minCapacity);
         stSize = 0;
-        capacity = INITIAL_CAPACITY;
     }
 
     /*** {@inheritDoc} */
@@ -68,17 +330,133 @@ public class SeparateChainingSymbolTableImpl<Key, Value> implements SymbolTable<
             throw new NullPointerException("The given key is null.");
         if (value == null)
             throw new NullPointerException("The given value is null.");
-        if ((stSize / capacity) >= 5)
-            resize(2 * capacity);
-        int index = hash(key);
-        for (Node x = contents[index]; x != null; x = x.next) {
+        if (oldContents != null)
+            migrate(migrationStep);
+        Node[] buckets = bucketsOf(key);
+        int index = hash(key, buckets.length);
+        if (buckets[index] instanceof TreeBucket) {
+            TreeBucket bucket = (TreeBucket) buckets[index];
+            if (bucket.accepts(key)) {
+                if ((stSize >= threshold) && (bucket.get(key) == null)) {
+                    // the SymbolTable grows before the insertion
+                    resize(2 * capacity);
+                    put(key, value);
+                    return;
+                }
+                int treeSize = bucket.tree.size();
+                bucket.tree.put(key, value);
+                if (bucket.tree.size() != treeSize) {
+                    stSize++;
+                    modCount++;
+                }
+                return;
+            }
+            // the key cannot be compared with the keys of the tree
+            buckets[index] = untreeify(bucket);
+            markUntreeifiable(buckets, index);
+        }
+        int length = 0;
+        for (Node x = buckets[index]; x != null; x = x.next) {
             if (key.equals(x.key)) {
                 x.value = value;
                 return;
             }
+            length++;
         }
-        contents[index] = new Node(key, value, contents[index]);
+        if (stSize >= threshold) {
+            // only an insertion can make the SymbolTable grow
+            resize(2 * capacity);
+            put(key, value);
+            return;
+        }
+        buckets[index] = new Node(key, value, buckets[index]);
         stSize++;
+        modCount++;
+        if (treeifyBuckets && (length + 1 >= TREEIFY_THRESHOLD))
+            treeify(buckets, index);
+    }
+
+    /*
+     * Returns the value of the given key, or null if the key is not in the
+     * SymbolTable.
+     */
+    private Object findValue(Object key) {
+        Node[] buckets = bucketsOf(key);
+        Node first = buckets[hash(key, buckets.length)];
+        if (first instanceof TreeBucket)
+            return ((TreeBucket) first).get(key);
+        for (Node x = first; x != null; x = x.next) {
+            if (key.equals(x.key))
+                return x.value;
+        }
+        return null;
+    }
+
+    /*
+     * Convert the chain of the given bucket to a red-black tree, if all its
+     * keys are Comparable and of the same class, and if none of them is equal
+     * to another one for compareTo : the tree would merge them. A bucket
+     * which cannot be treeified is marked, so that the following puts do not
+     * try again until the next resize. The old buckets of a migration are
+     * never treeified : the migration rebuilds them soon.
+     */
+    private void treeify(Node[] buckets, int index) {
+        if ((buckets != contents) || ((untreeifiable != null) && untreeifiable[index]))
+            return;
+        Class<?> keyClass = buckets[index].key.getClass();
+        if (!Comparable.class.isAssignableFrom(keyClass)) {
+            markUntreeifiable(buckets, index);
+            return;
+        }
+        for (Node x = buckets[index]; x != null; x = x.next) {
+            if (x.key.getClass() != keyClass) {
+                markUntreeifiable(buckets, index);
+                return;
+            }
+        }
+        TreeBucket bucket = new TreeBucket(keyClass);
+        for (Node x = buckets[index]; x != null; x = x.next) {
+            int treeSize = bucket.tree.size();
+            bucket.tree.put(x.key, x.value);
+            if (bucket.tree.size() == treeSize) {
+                markUntreeifiable(buckets, index);
+                return;
+            }
+        }
+        buckets[index] = bucket;
+    }
+
+    /*
+     * Mark the given bucket as not treeifiable, if it is a bucket of
+     * contents.
+     */
+    private void markUntreeifiable(Node[] buckets, int index) {
+        if (buckets != contents)
+            return;
+        if (untreeifiable == null)
+            untreeifiable = new boolean[contents.length];
+        untreeifiable[index] = true;
+    }
+
+    /*
+     * Convert the given red-black tree back to a chain.
+     */
+    private Node untreeify(TreeBucket bucket) {
+        Node first = null;
+        for (Object key : bucket.tree)
+            first = new Node(key, bucket.tree.get(key), first);
+        return first;
+    }
+
+    /*
+     * Returns the buckets in which the given key is (or must be put) : the
+     * old buckets while its old bucket has not been migrated, the new
+     * buckets otherwise.
+     */
+    private Node[] bucketsOf(Object key) {
+        if ((oldContents != null) && (hash(key, oldContents.length) >= migrateIndex))
+            return oldContents;
+        return contents;
     }
 
     /*** {@inheritDoc} */
@@ -87,11 +465,7 @@ public class SeparateChainingSymbolTableImpl<Key, Value> implements SymbolTable<
     public Value get(Key key) {
         if (key == null)
             throw new NullPointerException("The given key is null.");
-        for (Node x = contents[hash(key)]; x != null; x = x.next) {
-            if (key.equals(x.key))
-                return (Value) x.value;
-        }
-        return null;
+        return (Value) findValue(key);
     }
 
     /*** {@inheritDoc} */
@@ -99,17 +473,107 @@ public class SeparateChainingSymbolTableImpl<Key, Value> implements SymbolTable<
     public Value delete(Key key) {
         if (key == null)
             throw new NullPointerException("The given key is null.");
+        if (oldContents != null)
+            migrate(migrationStep);
         Value deletedVal = get(key);
         if (deletedVal != null) {
-            int index = hash(key);
-            contents[index] = delete(contents[index], key);
+            Node[] buckets = bucketsOf(key);
+            int index = hash(key, buckets.length);
+            if (buckets[index] instanceof TreeBucket) {
+                TreeBucket bucket = (TreeBucket) buckets[index];
+                bucket.tree.remove(key);
+                if (bucket.tree.size() <= UNTREEIFY_THRESHOLD)
+                    buckets[index] = untreeify(bucket);
+            } else {
+                buckets[index] = delete(buckets[index], key);
+            }
             stSize--;
-            if ((capacity > INITIAL_CAPACITY) && (stSize <= capacity / 4))
-                resize(capacity / 2);
+            modCount++;
+            if ((capacity > minCapacity) && (stSize <= threshold / 4))
+                resize(Math.max(capacity / 2, minCapacity));
         }
         return deletedVal;
     }
 
+    /*** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Value getOrDefault(Key key, Value defaultValue) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        Object value = findValue(key);
+        return (value != null) ? (Value) value : defaultValue;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void forEach(BiConsumer<? super Key, ? super Value> action) {
+        if (action == null)
+            throw new NullPointerException("The given action is null.");
+        SymbolTableCursor<Key, Value> cursor = cursor();
+        while (cursor.next())
+            action.accept(cursor.key(), cursor.value());
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * The chain of the key is walked once : the new value is written in the
+     * node of the key, or in a new node at the head of the chain. The keys of
+     * a treeified bucket are computed with get, put and delete.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Value compute(Key key, BiFunction<? super Key, ? super Value, ? extends Value> remapping) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (remapping == null)
+            throw new NullPointerException("The given function is null.");
+        if (oldContents != null)
+            migrate(migrationStep);
+        Node[] buckets = bucketsOf(key);
+        int index = hash(key, buckets.length);
+        Node first = buckets[index];
+        if (first instanceof TreeBucket)
+            return SymbolTable.super.compute(key, remapping);
+        Node prev = null;
+        Node x = first;
+        int length = 0;
+        for (; x != null; prev = x, x = x.next) {
+            if (key.equals(x.key))
+                break;
+            length++;
+        }
+        int expectedModCount = modCount;
+        Value newValue = remapping.apply(key, (x != null) ? (Value) x.value : null);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+        if (newValue == null) {
+            if (x != null) {
+                if (prev == null)
+                    buckets[index] = x.next;
+                else
+                    prev.next = x.next;
+                stSize--;
+                modCount++;
+                if ((capacity > minCapacity) && (stSize <= threshold / 4))
+                    resize(Math.max(capacity / 2, minCapacity));
+            }
+        } else if (x != null) {
+            x.value = newValue;
+        } else if (stSize >= threshold) {
+            // the SymbolTable grows before the insertion
+            put(key, newValue);
+        } else {
+            buckets[index] = new Node(key, newValue, first);
+            stSize++;
+            modCount++;
+            if (treeifyBuckets && (length + 1 >= TREEIFY_THRESHOLD))
+                treeify(buckets, index);
+        }
+        return newValue;
+    }
+
     /*
      * Recursive method to delete the node with the given key from it linked
      * list.
@@ -127,9 +591,48 @@ public class SeparateChainingSymbolTableImpl<Key, Value> implements SymbolTable<
     /*** {@inheritDoc} */
     @Override
     public void clear() {
-        contents = new Node[INITIAL_CAPACITY];
+        oldContents = null;
+        allocate(minCapacity);
         stSize = 0;
-        capacity = INITIAL_CAPACITY;
+        modCount++;
+    }
+
+    /**
+     * Copies all of the mappings of the given SymbolTable to this SymbolTable.
+     * The SymbolTable is resized at most once, before the copy.
+     * 
+     * @param st
+     *            the SymbolTable whose mappings are copied
+     * 
+     * @exception java.lang.NullPointerException
+     *                if st is null
+     */
+    public void putAll(SymbolTable<? extends Key, ? extends Value> st) {
+        if (st == null)
+            throw new NullPointerException("The given SymbolTable is null.");
+        ensureCapacity(stSize + st.size());
+        copyFrom(st);
+    }
+
+    /*
+     * Put all the mappings of the given SymbolTable in this SymbolTable.
+     */
+    private <K extends Key, V extends Value> void copyFrom(SymbolTable<K, V> st) {
+        for (K key : st)
+            put(key, st.get(key));
+    }
+
+    /**
+     * Resizes the SymbolTable, if needed, so that it can hold expectedSize
+     * keys without being resized again.
+     * 
+     * @param expectedSize
+     *            the number of keys the SymbolTable is expected to hold
+     */
+    public void ensureCapacity(int expectedSize) {
+        int newCapacity = capacityFor(expectedSize);
+        if (newCapacity > capacity)
+            resize(newCapacity);
     }
 
     /*** {@inheritDoc} */
@@ -137,11 +640,7 @@ public class SeparateChainingSymbolTableImpl<Key, Value> implements SymbolTable<
     public boolean containsKey(Key key) {
         if (key == null)
             throw new NullPointerException("The given key is null.");
-        for (Node x = contents[hash(key)]; x != null; x = x.next) {
-            if (key.equals(x.key))
-                return true;
-        }
-        return false;
+        return findValue(key) != null;
     }
 
     /*** {@inheritDoc} */
@@ -150,14 +649,42 @@ public class SeparateChainingSymbolTableImpl<Key, Value> implements SymbolTable<
         if (value == null)
             throw new NullPointerException("The given value is null.");
         for (int i = 0; i < capacity; i++) {
-            for (Node x = contents[i]; x != null; x = x.next) {
-                if (value.equals(x.value))
+            if (containsValue(contents[i], value))
+                return true;
+        }
+        if (oldContents != null) {
+            for (int i = migrateIndex; i < oldContents.length; i++) {
+                if (containsValue(oldContents[i], value))
                     return true;
             }
         }
         return false;
     }
 
+    /*
+     * Returns true if the bucket starting with the given node contains the
+     * given value.
+     */
+    private boolean containsValue(Node first, Object value) {
+        if (first instanceof TreeBucket)
+            return ((TreeBucket) first).tree.containsValue(value);
+        for (Node x = first; x != null; x = x.next) {
+            if (value.equals(x.value))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if an incremental resize is in progress, i.e. if some keys
+     * are still in the old buckets.
+     * 
+     * @return true if an incremental resize is in progress
+     */
+    public boolean isResizing() {
+        return oldContents != null;
+    }
+
     /*** {@inheritDoc} */
     @Override
     public boolean isEmpty() {
@@ -172,32 +699,111 @@ public class SeparateChainingSymbolTableImpl<Key, Value> implements SymbolTable<
         return stSize;
     }
 
+    /*
+     * Returns the smallest capacity able to hold the given number of keys
+     * without being resized.
+     */
+    private int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / loadFactor) + 1;
+        if (needed > (1 << 30))
+            throw new IllegalArgumentException("The expected size is too large.");
+        int newCapacity = Math.max((int) needed, INITIAL_CAPACITY);
+        if (powerOfTwo)
+            return HashIndexing.powerOfTwoCapacity(newCapacity);
+        return newCapacity;
+    }
+
+    /*
+     * Replace the buckets by empty buckets of the given capacity.
+     */
+    private void allocate(int newCapacity) {
+        contents = new Node[newCapacity];
+        untreeifiable = null;
+        capacity = newCapacity;
+        threshold = (int) Math.max(1, Math.min(newCapacity * loadFactor, Integer.MAX_VALUE));
+    }
+
     /**
-     * Resize the SymbolTable.
+     * Resize the SymbolTable. In incremental resize mode, this only starts the
+     * migration of the old buckets.
      *
      * @param newCapacity
      *            the new capacity of the SymbolTable
      */
     private void resize(int newCapacity) {
-        Node[] newContents = new Node[newCapacity];
-        int index;
-        int oldCapacity = capacity;
-        capacity = newCapacity;
-        for (int i = 0; i < oldCapacity; i++) {
-            for (Node x = contents[i]; x != null; x = x.next) {
-                index = hash(x.key);
-                newContents[index] = new Node(x.key, x.value, newContents[index]);
+        // finish the migration in progress, if any
+        if (oldContents != null)
+            migrate(oldContents.length);
+        oldContents = contents;
+        migrateIndex = 0;
+        allocate(newCapacity);
+        modCount++;
+        if (!incrementalResize)
+            migrate(oldContents.length);
+    }
+
+    /*
+     * Move the nodes of the next old buckets, at most the given number of
+     * buckets, to the new buckets. The nodes are relinked, not copied.
+     */
+    private void migrate(int bucketCount) {
+        modCount++;
+        int end = Math.min(oldContents.length, migrateIndex + bucketCount);
+        for (; migrateIndex < end; migrateIndex++) {
+            Node x = oldContents[migrateIndex];
+            oldContents[migrateIndex] = null;
+            if (x instanceof TreeBucket)
+                x = untreeify((TreeBucket) x);
+            while (x != null) {
+                Node next = x.next;
+                moveToContents(x);
+                x = next;
+            }
+        }
+        if (migrateIndex == oldContents.length)
+            oldContents = null;
+    }
+
+    /*
+     * Move the given node, which is not in the new buckets, to its new
+     * bucket.
+     */
+    private void moveToContents(Node x) {
+        int index = hash(x.key, capacity);
+        if (contents[index] instanceof TreeBucket) {
+            TreeBucket bucket = (TreeBucket) contents[index];
+            if (bucket.accepts(x.key)) {
+                bucket.tree.put(x.key, x.value);
+                return;
             }
+            contents[index] = untreeify(bucket);
+            markUntreeifiable(contents, index);
         }
-        contents = newContents;
-        newContents = null;
+        x.next = contents[index];
+        contents[index] = x;
+        if (treeifyBuckets && isLongChain(x))
+            treeify(contents, index);
+    }
+
+    /*
+     * Returns true if the chain starting with the given node has at least
+     * TREEIFY_THRESHOLD nodes.
+     */
+    private boolean isLongChain(Node x) {
+        int length = 0;
+        for (; (x != null) && (length < TREEIFY_THRESHOLD); x = x.next)
+            length++;
+        return length >= TREEIFY_THRESHOLD;
     }
 
     /*
-     * Compute the hash code of the given key.
+     * Compute the index of the bucket of the given key among the given
+     * number of buckets.
      */
-    private int hash(Object key) {
-        return (key.hashCode() & 0x7fffffff) % capacity;
+    private int hash(Object key, int buckets) {
+        if (powerOfTwo)
+            return HashIndexing.spread(key.hashCode()) & (buckets - 1);
+        return (key.hashCode() & 0x7fffffff) % buckets;
     }
 
     /*** {@inheritDoc} */
@@ -206,6 +812,17 @@ public class SeparateChainingSymbolTableImpl<Key, Value> implements SymbolTable<
         return new IteratorSeparateChainingSymbolTableImpl();
     }
 
+    /**
+     * Returns a cursor over the entries of the SymbolTable. The keys of a
+     * treeified bucket are walked in place by the lazy iterator of its tree,
+     * and the value of each key is looked up in the tree.
+     * 
+     * @return a fail-fast cursor positioned before the first entry
+     */
+    public SymbolTableCursor<Key, Value> cursor() {
+        return new CursorSeparateChainingSymbolTableImpl();
+    }
+
     /**
      * IteratorSeparateChainingSymbolTableImpl implements Iterator interface in
      * order to provide iterable capabilities to the SymbolTable through the
@@ -216,44 +833,135 @@ public class SeparateChainingSymbolTableImpl<Key, Value> implements SymbolTable<
      */
     private class IteratorSeparateChainingSymbolTableImpl implements Iterator<Key> {
 
-        /*** Iteration index. */
-        private int index;
-        private Key[] allKeys;
+        /*** The cursor, on the next key while hasNext is true. */
+        private final CursorSeparateChainingSymbolTableImpl cursor;
+        private boolean hasNext;
 
-        /*** Constructs IteratorLinearProbingSymbolTableImpl. */
-        @SuppressWarnings({ "unchecked" })
+        /*** Constructs IteratorSeparateChainingSymbolTableImpl. */
         IteratorSeparateChainingSymbolTableImpl() {
-            index = 0;
-            allKeys = (Key[]) new Object[stSize];
-            retrieveAllKeys();
+            cursor = new CursorSeparateChainingSymbolTableImpl();
+            hasNext = cursor.next();
         }
 
-        /*
-         * Retrieve all the keys and fill the allKeys array with them.
-         */
-        @SuppressWarnings("unchecked")
-        private void retrieveAllKeys() {
-            int indx = 0;
-            for (int i = 0; (i < capacity) && (indx < stSize); i++) {
-                for (Node x = contents[i]; x != null; x = x.next) {
-                    allKeys[indx++] = (Key) x.key;
-                }
-            }
+        /*** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            return hasNext;
         }
 
         /*** {@inheritDoc} */
         @Override
-        public boolean hasNext() {
-            if (index < stSize) {
-                return true;
+        public Key next() {
+            if (!hasNext)
+                throw new NoSuchElementException();
+            Key key = cursor.key();
+            hasNext = cursor.next();
+            return key;
+        }
+
+    }
+
+    /**
+     * CursorSeparateChainingSymbolTableImpl walks the chains of the buckets,
+     * then the chains of the old buckets not yet migrated.
+     *
+     * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+     *
+     */
+    private class CursorSeparateChainingSymbolTableImpl implements SymbolTableCursor<Key, Value> {
+
+        private final int expectedModCount;
+
+        /*** The walked buckets, null at the end of the walk. */
+        private Node[] buckets;
+
+        /*** Index of the next bucket to walk. */
+        private int bucketIndex;
+
+        /*** The current node of a chain, or null. */
+        private Node node;
+
+        /*** The current tree bucket, or null. */
+        private TreeBucket tree;
+        private Iterator<Object> treeKeys;
+        private Object treeKey;
+
+        /*** Constructs CursorSeparateChainingSymbolTableImpl. */
+        CursorSeparateChainingSymbolTableImpl() {
+            expectedModCount = modCount;
+            buckets = contents;
+            bucketIndex = 0;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public boolean next() {
+            checkForComodification();
+            if (tree != null) {
+                if (treeKeys.hasNext()) {
+                    treeKey = treeKeys.next();
+                    return true;
+                }
+                tree = null;
+                treeKeys = null;
+                treeKey = null;
+            } else if (node != null) {
+                node = node.next;
+                if (node != null)
+                    return true;
+            }
+            while (buckets != null) {
+                if (bucketIndex == buckets.length) {
+                    if (buckets == contents && oldContents != null) {
+                        buckets = oldContents;
+                        bucketIndex = migrateIndex;
+                    } else {
+                        buckets = null;
+                    }
+                    continue;
+                }
+                Node first = buckets[bucketIndex++];
+                if (first instanceof TreeBucket) {
+                    Iterator<Object> keys = ((TreeBucket) first).tree.iterator();
+                    if (keys.hasNext()) {
+                        tree = (TreeBucket) first;
+                        treeKeys = keys;
+                        treeKey = keys.next();
+                        return true;
+                    }
+                } else if (first != null) {
+                    node = first;
+                    return true;
+                }
             }
             return false;
         }
 
         /*** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
         @Override
-        public Key next() {
-            return allKeys[index++];
+        public Key key() {
+            checkCurrent();
+            return (Key) ((tree != null) ? treeKey : node.key);
+        }
+
+        /*** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override
+        public Value value() {
+            checkCurrent();
+            return (Value) ((tree != null) ? tree.tree.get(treeKey) : node.value);
+        }
+
+        private void checkCurrent() {
+            checkForComodification();
+            if ((tree == null) && (node == null))
+                throw new IllegalStateException("The cursor is not on an entry.");
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
         }
 
     }
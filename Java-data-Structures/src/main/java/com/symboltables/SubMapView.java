@@ -0,0 +1,312 @@
+package com.symboltables;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * SubMapView is a view of the keys of an ordered map (TreeMapCustom,
+ * BPlusTreeMap or ConcurrentSkipListTreeMap) between a low and a high
+ * endpoint, null meaning no endpoint. Every operation is delegated to the map
+ * after a check of the range, so the lookups keep the cost they have in the
+ * map. The maps do not store the sizes of their subtrees : size,
+ * containsValue, keySet and values walk the keys of the view.
+ *
+ * The view only needs the comparator of the map and the iterators over its
+ * ranges of keys, which the map gives through RangeIterators.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <K>
+ * @param <V>
+ */
+final class SubMapView<K, V> implements I_TreeMapCustom<K, V> {
+
+    /*
+     * An iterator over the keys of a range of the map, which also gives the
+     * value of the key last returned by next.
+     */
+    interface RangeIterator<K, V> extends Iterator<K> {
+        V value();
+    }
+
+    /*
+     * Creates the iterators over the keys between lo and hi, null meaning no
+     * endpoint.
+     */
+    interface RangeIterators<K, V> {
+        RangeIterator<K, V> iterator(K lo, boolean loInclusive, K hi, boolean hiInclusive);
+    }
+
+    private final I_TreeMapCustom<K, V> map;
+    private final Comparator<? super K> cmp;
+    private final RangeIterators<K, V> iterators;
+    private final K lo;
+    private final boolean loInclusive;
+    private final K hi;
+    private final boolean hiInclusive;
+
+    /*** Constructs SubMapView. */
+    SubMapView(I_TreeMapCustom<K, V> map, Comparator<? super K> cmp, RangeIterators<K, V> iterators, K lo,
+            boolean loInclusive, K hi, boolean hiInclusive) {
+        this.map = map;
+        this.cmp = cmp;
+        this.iterators = iterators;
+        this.lo = lo;
+        this.loInclusive = loInclusive;
+        this.hi = hi;
+        this.hiInclusive = hiInclusive;
+    }
+
+    /*
+     * Return true if the given key is below the low endpoint of the view.
+     */
+    private boolean tooLow(K key) {
+        if (lo == null)
+            return false;
+        int c = cmp.compare(key, lo);
+        return c < 0 || (c == 0 && !loInclusive);
+    }
+
+    /*
+     * Return true if the given key is above the high endpoint of the view.
+     */
+    private boolean tooHigh(K key) {
+        if (hi == null)
+            return false;
+        int c = cmp.compare(key, hi);
+        return c > 0 || (c == 0 && !hiInclusive);
+    }
+
+    /*
+     * Return true if the given key is in the range of the view.
+     */
+    private boolean inRange(K key) {
+        return !tooLow(key) && !tooHigh(key);
+    }
+
+    /*
+     * Return the given key if it is in the range of the view, null
+     * otherwise.
+     */
+    private K inRangeOrNull(K key) {
+        return (key != null && inRange(key)) ? key : null;
+    }
+
+    /*
+     * Check that the given endpoint of a nested view lies within the
+     * endpoints of this view.
+     */
+    private void checkEndpoint(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if ((lo != null && cmp.compare(key, lo) < 0) || (hi != null && cmp.compare(key, hi) > 0))
+            throw new IllegalArgumentException("The given key is out of the range of the view.");
+    }
+
+    /*
+     * Return a nested view of the map between the given endpoints.
+     */
+    private SubMapView<K, V> view(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        return new SubMapView<K, V>(map, cmp, iterators, from, fromInclusive, to, toInclusive);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public V put(K key, V val) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (!inRange(key))
+            throw new IllegalArgumentException("The given key is out of the range of the view.");
+        return map.put(key, val);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public V get(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        return inRange(key) ? map.get(key) : null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        return inRange(key) && map.containsKey(key);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean containsValue(V val) {
+        RangeIterator<K, V> it = newIterator();
+        while (it.hasNext()) {
+            it.next();
+            V v = it.value();
+            if ((val != null) ? val.equals(v) : (v == null))
+                return true;
+        }
+        return false;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K ceilingKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (tooLow(key))
+            return firstKey();
+        return inRangeOrNull(map.ceilingKey(key));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K floorKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (tooHigh(key))
+            return lastKey();
+        return inRangeOrNull(map.floorKey(key));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K higherKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (tooLow(key))
+            return firstKey();
+        return inRangeOrNull(map.higherKey(key));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K lowerKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (tooHigh(key))
+            return lastKey();
+        return inRangeOrNull(map.lowerKey(key));
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K firstKey() {
+        if (lo == null)
+            return inRangeOrNull(map.firstKey());
+        K first = loInclusive ? map.ceilingKey(lo) : map.higherKey(lo);
+        return inRangeOrNull(first);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K lastKey() {
+        if (hi == null)
+            return inRangeOrNull(map.lastKey());
+        K last = hiInclusive ? map.floorKey(hi) : map.lowerKey(hi);
+        return inRangeOrNull(last);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> headMap(K toKey) {
+        checkEndpoint(toKey);
+        return view(lo, loInclusive, toKey, false);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> tailMap(K fromKey) {
+        checkEndpoint(fromKey);
+        return view(fromKey, true, hi, hiInclusive);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> subMap(K fromKey, K toKey) {
+        checkEndpoint(fromKey);
+        checkEndpoint(toKey);
+        if (cmp.compare(fromKey, toKey) > 0)
+            throw new IllegalArgumentException("fromKey is greater than toKey.");
+        return view(fromKey, true, toKey, false);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Set<K> keySet() {
+        Set<K> result = new HashSet<>();
+        for (K key : this)
+            result.add(key);
+        return result;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Collection<V> values() {
+        Collection<V> result = new ArrayList<>();
+        RangeIterator<K, V> it = newIterator();
+        while (it.hasNext()) {
+            it.next();
+            result.add(it.value());
+        }
+        return result;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public V remove(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        return inRange(key) ? map.remove(key) : null;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public int size() {
+        int count = 0;
+        for (Iterator<K> it = newIterator(); it.hasNext(); it.next())
+            count++;
+        return count;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        return !newIterator().hasNext();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public void clear() {
+        for (K key = firstKey(); key != null; key = higherKey(key))
+            map.remove(key);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<K> iterator() {
+        return newIterator();
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<K> iterator(K fromKey) {
+        if (fromKey == null)
+            throw new NullPointerException("The given key is null.");
+        if (tooLow(fromKey))
+            return newIterator();
+        return iterators.iterator(fromKey, true, hi, hiInclusive);
+    }
+
+    /*
+     * Return an iterator over all the keys of the view.
+     */
+    private RangeIterator<K, V> newIterator() {
+        return iterators.iterator(lo, loInclusive, hi, hiInclusive);
+    }
+
+}
@@ -1,5 +1,10 @@
 package com.symboltables;
 
+import java.util.ConcurrentModificationException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
 /**
  * Symbol table is an important data structure created and maintained by
  * compilers in order to store information about the occurrence of various
@@ -18,6 +23,14 @@ package com.symboltables;
  * 
  * {@link https://www.tutorialspoint.com/compiler_design/compiler_design_symbol_table.htm}
  * 
+ * Besides the basic operations, the SymbolTable offers entry level
+ * operations (getOrDefault, forEach, compute, computeIfAbsent and merge)
+ * with the same semantics as the methods of java.util.Map. Their default
+ * implementations are built on get, put and delete, and the implementations
+ * override them to find the entry of the key only once. None of them is
+ * atomic in a SymbolTable shared between threads, unless the implementation
+ * says otherwise.
+ * 
  * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
  *
  * @param <Key>
@@ -116,4 +129,128 @@ public interface SymbolTable<Key, Value> extends Iterable<Key> {
      */
     int size();
 
+    /**
+     * Returns the value to which the specified key is mapped, or the given
+     * default value if this SymbolTable contains no mapping for the key.
+     * 
+     * @param key
+     *            the key whose associated value is to be returned
+     * @param defaultValue
+     *            the value returned if the key is not in the SymbolTable
+     * 
+     * @return the value to which the specified key is mapped, or defaultValue
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key is null
+     */
+    default Value getOrDefault(Key key, Value defaultValue) {
+        Value value = get(key);
+        return (value != null) ? value : defaultValue;
+    }
+
+    /**
+     * Performs the given action on each key-value mapping of this
+     * SymbolTable, in the order of the iterator.
+     * 
+     * @param action
+     *            the action to perform on each mapping
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified action is null
+     */
+    default void forEach(BiConsumer<? super Key, ? super Value> action) {
+        if (action == null)
+            throw new NullPointerException("The given action is null.");
+        for (Key key : this)
+            action.accept(key, get(key));
+    }
+
+    /**
+     * Computes a new value for the specified key from its current value (null
+     * if the key is not in the SymbolTable). If the new value is null, the
+     * key is removed from the SymbolTable.
+     * 
+     * @param key
+     *            key with which the computed value is to be associated
+     * @param remapping
+     *            the function computing the new value
+     * 
+     * @return the new value associated with the specified key, or null if
+     *         there is none
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key or function is null
+     * @exception java.util.ConcurrentModificationException
+     *                if the function modified this SymbolTable
+     */
+    default Value compute(Key key, BiFunction<? super Key, ? super Value, ? extends Value> remapping) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+        if (remapping == null)
+            throw new NullPointerException("The given function is null.");
+        Value oldValue = get(key);
+        int oldSize = size();
+        Value newValue = remapping.apply(key, oldValue);
+        if (size() != oldSize)
+            throw new ConcurrentModificationException();
+        if (newValue != null)
+            put(key, newValue);
+        else if (oldValue != null)
+            delete(key);
+        return newValue;
+    }
+
+    /**
+     * If the specified key is not in the SymbolTable, computes its value with
+     * the given function and puts it in the SymbolTable unless it is null.
+     * 
+     * @param key
+     *            key with which the computed value is to be associated
+     * @param mapping
+     *            the function computing the value of a missing key
+     * 
+     * @return the current (existing or computed) value associated with the
+     *         specified key, or null if the computed value is null
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key or function is null
+     * @exception java.util.ConcurrentModificationException
+     *                if the function modified this SymbolTable
+     */
+    default Value computeIfAbsent(Key key, Function<? super Key, ? extends Value> mapping) {
+        if (mapping == null)
+            throw new NullPointerException("The given function is null.");
+        return compute(key, (k, oldValue) -> (oldValue != null) ? oldValue : mapping.apply(k));
+    }
+
+    /**
+     * If the specified key is not in the SymbolTable, associates it with the
+     * given value. Otherwise, replaces its value with the result of the given
+     * function applied to its current value and the given value, or removes
+     * the key if the result is null.
+     * 
+     * @param key
+     *            key with which the resulting value is to be associated
+     * @param value
+     *            the value of a missing key, and the second argument of the
+     *            function otherwise
+     * @param remapping
+     *            the function combining the current value and the given value
+     * 
+     * @return the new value associated with the specified key, or null if
+     *         there is none
+     * 
+     * @exception java.lang.NullPointerException
+     *                if the specified key, value or function is null
+     * @exception java.util.ConcurrentModificationException
+     *                if the function modified this SymbolTable
+     */
+    default Value merge(Key key, Value value, BiFunction<? super Value, ? super Value, ? extends Value> remapping) {
+        if (value == null)
+            throw new NullPointerException("The given value is null.");
+        if (remapping == null)
+            throw new NullPointerException("The given function is null.");
+        return compute(key, (k, oldValue) -> (oldValue == null) ? value : remapping.apply(oldValue, value));
+    }
+
 }
@@ -0,0 +1,62 @@
+package com.symboltables;
+
+/**
+ * A SymbolTableCursor walks the entries of a SymbolTable in place, giving
+ * access to the key and the value of the current entry together.
+ *
+ * Unlike the iterator over the keys, a cursor needs no lookup to read the
+ * value of a key and allocates nothing while it moves, so a full scan of a
+ * large SymbolTable costs one pass over its internal arrays.
+ *
+ * A cursor starts before the first entry : call next to move it to the
+ * first entry. The order of the entries is the internal order of the
+ * SymbolTable.
+ *
+ * A cursor is fail-fast : if the SymbolTable is structurally modified after
+ * the creation of the cursor (a key is added or deleted, or the SymbolTable is
+ * resized or cleared), its methods throw a ConcurrentModificationException.
+ * Replacing the value of an existing key is not a structural modification.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ * @param <Key>
+ * @param <Value>
+ */
+public interface SymbolTableCursor<Key, Value> {
+
+    /**
+     * Moves the cursor to the next entry.
+     *
+     * @return true if the cursor is on an entry, false if there is no more
+     *         entry
+     *
+     * @exception java.util.ConcurrentModificationException
+     *                if the SymbolTable has been structurally modified
+     */
+    boolean next();
+
+    /**
+     * Returns the key of the current entry.
+     *
+     * @return the key of the current entry
+     *
+     * @exception java.lang.IllegalStateException
+     *                if the cursor is not on an entry
+     * @exception java.util.ConcurrentModificationException
+     *                if the SymbolTable has been structurally modified
+     */
+    Key key();
+
+    /**
+     * Returns the value of the current entry.
+     *
+     * @return the value of the current entry
+     *
+     * @exception java.lang.IllegalStateException
+     *                if the cursor is not on an entry
+     * @exception java.util.ConcurrentModificationException
+     *                if the SymbolTable has been structurally modified
+     */
+    Value value();
+
+}
@@ -0,0 +1,297 @@
+package com.symboltables;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ConcurrentModificationException;
+import java.util.function.IntFunction;
+
+/**
+ * SymbolTableSnapshot writes the entries of any SymbolTable to a FileChannel
+ * in a compact binary format, and loads them back into a new SymbolTable.
+ *
+ * The snapshot is a header of 20 bytes (a magic number, the version of the
+ * format and the number of entries) followed by one record per entry : the
+ * length of the key as a varint, the bytes of the key, the length of the
+ * value as a varint and the bytes of the value. The keys and the values are
+ * encoded by Codecs, so a record of an Integer key and a Long value takes 14
+ * bytes.
+ *
+ * The records are encoded in a direct ByteBuffer of 1MB, written to the
+ * channel each time it is full, and decoded the same way : the channel is
+ * read and written by large blocks without any stream. The codecs encode
+ * straight into the buffer, and only the decoding of a String or a byte array
+ * copies its bytes out of it.
+ * The entries are read from the SymbolTable with forEach, which walks the
+ * internal arrays of the hash SymbolTables and the nodes of the trees in
+ * order. The loader knows the number of entries from the header, so it
+ * creates a SymbolTable presized for it, which is never resized while it is
+ * filled.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+public final class SymbolTableSnapshot {
+
+    /*** Identifies the snapshots. */
+    private static final long MAGIC = 0x5354534e41505331L;
+
+    /*** The version of the format. */
+    private static final int VERSION = 1;
+
+    /*** The number of bytes of the header. */
+    private static final int HEADER_SIZE = 20;
+
+    /*** The number of bytes of the buffers. */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /*** The greatest number of bytes of a varint. */
+    private static final int MAX_VARINT_SIZE = 5;
+
+    private SymbolTableSnapshot() {
+    }
+
+    /**
+     * Writes the entries of the given SymbolTable at the position of the
+     * given channel, and returns the number of bytes written.
+     *
+     * @param st
+     *            the SymbolTable to save
+     * @param channel
+     *            the destination, open for writing
+     * @param keyCodec
+     *            the codec of the keys
+     * @param valueCodec
+     *            the codec of the values
+     * @return the number of bytes written
+     *
+     * @exception java.io.IOException
+     *                if the channel cannot be written
+     * @exception java.lang.NullPointerException
+     *                if an argument is null
+     * @exception java.util.ConcurrentModificationException
+     *                if the size of the SymbolTable changes during the write
+     */
+    public static <Key, Value> long write(SymbolTable<Key, Value> st, FileChannel channel, Codec<? super Key> keyCodec,
+            Codec<? super Value> valueCodec) throws IOException {
+        if (st == null)
+            throw new NullPointerException("The given SymbolTable is null.");
+        if (channel == null)
+            throw new NullPointerException("The given channel is null.");
+        if (keyCodec == null || valueCodec == null)
+            throw new NullPointerException("The given codec is null.");
+        Writer writer = new Writer(channel);
+        int size = st.size();
+        writer.buffer.putLong(MAGIC).putInt(VERSION).putLong(size);
+        long[] count = { 0 };
+        try {
+            st.forEach((key, value) -> {
+                try {
+                    writer.write(key, keyCodec, value, valueCodec);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (count[0] != size)
+            throw new ConcurrentModificationException();
+        writer.flush();
+        return writer.written;
+    }
+
+    /**
+     * Reads a snapshot at the position of the given channel, into the
+     * SymbolTable returned by the given factory for the number of entries of
+     * the snapshot.
+     *
+     * @param channel
+     *            the source, open for reading
+     * @param keyCodec
+     *            the codec of the keys
+     * @param valueCodec
+     *            the codec of the values
+     * @param factory
+     *            creates an empty SymbolTable able to hold the given number
+     *            of entries, such as
+     *            n -> new LinearProbingSymbolTableImpl&lt;&gt;(n, 0.5)
+     * @return the SymbolTable created by the factory, holding the entries of
+     *         the snapshot
+     *
+     * @exception java.io.IOException
+     *                if the channel cannot be read or is not a snapshot
+     * @exception java.io.EOFException
+     *                if the snapshot is truncated
+     * @exception java.lang.NullPointerException
+     *                if an argument is null
+     */
+    public static <Key, Value, S extends SymbolTable<Key, Value>> S read(FileChannel channel, Codec<Key> keyCodec,
+            Codec<Value> valueCodec, IntFunction<S> factory) throws IOException {
+        if (channel == null)
+            throw new NullPointerException("The given channel is null.");
+        if (keyCodec == null || valueCodec == null)
+            throw new NullPointerException("The given codec is null.");
+        if (factory == null)
+            throw new NullPointerException("The given factory is null.");
+        Reader reader = new Reader(channel);
+        ByteBuffer header = reader.require(HEADER_SIZE);
+        if (header.getLong() != MAGIC)
+            throw new IOException("The channel does not hold a SymbolTable snapshot.");
+        int version = header.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported snapshot version " + version + ".");
+        long size = header.getLong();
+        if (size < 0 || size > Integer.MAX_VALUE)
+            throw new IOException("Invalid number of entries " + size + ".");
+
+        S st = factory.apply((int) size);
+        for (long i = 0; i < size; i++) {
+            Key key = reader.read(keyCodec);
+            Value value = reader.read(valueCodec);
+            st.put(key, value);
+        }
+        return st;
+    }
+
+    /*
+     * Writer encodes the records in a direct buffer and writes it to the
+     * channel when it is full.
+     */
+    private static final class Writer {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long written;
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+
+        <Key, Value> void write(Key key, Codec<? super Key> keyCodec, Value value, Codec<? super Value> valueCodec)
+                throws IOException {
+            int keySize = keyCodec.encodedSize(key);
+            int valueSize = valueCodec.encodedSize(value);
+            long recordSize = 2L * MAX_VARINT_SIZE + keySize + valueSize;
+            if (recordSize > buffer.remaining())
+                flush();
+            if (recordSize <= buffer.remaining()) {
+                encode(buffer, key, keySize, keyCodec);
+                encode(buffer, value, valueSize, valueCodec);
+                return;
+            }
+            // a record larger than the buffer is written alone
+            ByteBuffer large = ByteBuffer.allocate((int) Math.min(recordSize, Integer.MAX_VALUE));
+            encode(large, key, keySize, keyCodec);
+            encode(large, value, valueSize, valueCodec);
+            large.flip();
+            writeFully(large);
+        }
+
+        private <T> void encode(ByteBuffer target, T object, int size, Codec<? super T> codec) {
+            putVarint(target, size);
+            int end = target.position() + size;
+            codec.encode(object, target);
+            if (target.position() != end)
+                throw new IllegalStateException("The codec did not write the announced number of bytes.");
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining())
+                written += channel.write(source);
+        }
+
+        private static void putVarint(ByteBuffer target, int value) {
+            while ((value & ~0x7f) != 0) {
+                target.put((byte) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            target.put((byte) value);
+        }
+    }
+
+    /*
+     * Reader reads the channel by blocks in a direct buffer, and decodes the
+     * records from it.
+     */
+    private static final class Reader {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        Reader(FileChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.flip();
+        }
+
+        <T> T read(Codec<T> codec) throws IOException {
+            int length = readVarint();
+            ByteBuffer source = require(length);
+            int end = source.position() + length;
+            T object = codec.decode(source, length);
+            if (source.position() != end)
+                throw new IOException("The codec did not read the announced number of bytes.");
+            return object;
+        }
+
+        /*
+         * Returns a buffer whose next length bytes are the next bytes of the
+         * channel, and consumes them.
+         */
+        ByteBuffer require(int length) throws IOException {
+            if (length <= buffer.capacity()) {
+                fill(length);
+                return buffer;
+            }
+            ByteBuffer large = ByteBuffer.allocate(length);
+            large.put(buffer);
+            while (large.hasRemaining()) {
+                if (channel.read(large) < 0)
+                    throw new EOFException("The snapshot is truncated.");
+            }
+            large.flip();
+            return large;
+        }
+
+        /*
+         * Read the channel until the buffer holds at least length bytes.
+         */
+        private void fill(int length) throws IOException {
+            if (buffer.remaining() >= length)
+                return;
+            buffer.compact();
+            while (buffer.position() < length) {
+                if (channel.read(buffer) < 0)
+                    throw new EOFException("The snapshot is truncated.");
+            }
+            buffer.flip();
+        }
+
+        private int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 7 * MAX_VARINT_SIZE; shift += 7) {
+                fill(1);
+                byte b = buffer.get();
+                value |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    if (value < 0)
+                        break;
+                    return value;
+                }
+            }
+            throw new IOException("Invalid record length.");
+        }
+    }
+
+}
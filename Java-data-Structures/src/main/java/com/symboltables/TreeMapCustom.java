@@ -1,13 +1,29 @@
 package com.symboltables;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
+import com.stacks.LinkedListImplOfStack;
+import com.stacks.Stack;
+
 /**
+ * TreeMapCustom is an ordered map stored in a left-leaning red-black tree.
+ * 
+ * put and remove are iterative : the nodes of the path from the root are kept
+ * in an array, and the fix-ups of the left-leaning red-black tree are applied
+ * to them bottom-up, in the order the recursive algorithm applies them when
+ * it returns. The traversals use an explicit stack.
+ * 
+ * A TreeMap can be built from keys sorted in increasing order, and a sorted
+ * batch merged into it, in linear time : the entries are laid out directly in
+ * a tree of minimal black height, colored as a 2-3 tree, without rotations.
  * 
  * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
  *
@@ -35,20 +51,207 @@ public class TreeMapCustom<K, V> implements I_TreeMapCustom<K, V> {
     private static final boolean BLACK = false;
 
     private int size;
+    private int modCount;
     private Node<K, V> root;
     private Comparator<? super K> cmp;
 
+    // the nodes of the path walked by the last put or remove, and for each
+    // of them, true if the path goes to its left child
+    private Node<K, V>[] path;
+    private boolean[] pathLeft;
+
     /* CONSTRUCTORS */
     public TreeMapCustom() {
-        size = 0;
-        root = null;
-        cmp = null;
+        this(null);
     }
 
     public TreeMapCustom(Comparator<? super K> c) {
         size = 0;
         root = null;
         cmp = c;
+        path = GenericArrays.newArray(Node.class, 16);
+        pathLeft = new boolean[16];
+    }
+
+    /**
+     * Constructs a TreeMap holding the given keys, mapped to the values of the
+     * same index, in linear time.
+     * 
+     * @param keys
+     *            the keys, sorted in strictly increasing order
+     * @param vals
+     *            the values of the keys
+     * @param c
+     *            the comparator of the keys, null for the natural order
+     * @exception java.lang.IllegalArgumentException
+     *                if the keys are not sorted, or if there are not as many
+     *                keys as values
+     * @exception java.lang.NullPointerException
+     *                if one of the keys is null
+     */
+    public TreeMapCustom(K[] keys, V[] vals, Comparator<? super K> c) {
+        this(c);
+        if (keys.length != vals.length)
+            throw new IllegalArgumentException("The number of keys and the number of values differ.");
+        buildFromSorted(Arrays.asList(keys).iterator(), Arrays.asList(vals).iterator(), keys.length);
+    }
+
+    /**
+     * Constructs a TreeMap holding the first size keys of the given iterator,
+     * mapped to the values produced in the same order, in linear time.
+     * 
+     * @param keys
+     *            the keys, sorted in strictly increasing order
+     * @param vals
+     *            the values of the keys
+     * @param size
+     *            the number of entries to read
+     * @param c
+     *            the comparator of the keys, null for the natural order
+     * @exception java.lang.IllegalArgumentException
+     *                if the keys are not sorted, or if the iterators hold
+     *                less than size elements
+     * @exception java.lang.NullPointerException
+     *                if one of the keys is null
+     */
+    public TreeMapCustom(Iterator<? extends K> keys, Iterator<? extends V> vals, int size, Comparator<? super K> c) {
+        this(c);
+        if (size < 0)
+            throw new IllegalArgumentException("The given size is negative.");
+        buildFromSorted(keys, vals, size);
+    }
+
+    /**
+     * Associates the given values with the given keys, sorted in strictly
+     * increasing order. The keys are merged with the keys of the TreeMap and
+     * the tree is rebuilt in time proportional to size() + keys.length, unless
+     * the batch is small enough for keys.length puts to cost less.
+     * 
+     * @param keys
+     *            the keys, sorted in strictly increasing order
+     * @param vals
+     *            the values of the keys
+     * @exception java.lang.IllegalArgumentException
+     *                if the keys are not sorted, or if there are not as many
+     *                keys as values
+     * @exception java.lang.NullPointerException
+     *                if one of the keys is null
+     */
+    public void putAllSorted(K[] keys, V[] vals) {
+        if (keys.length != vals.length)
+            throw new IllegalArgumentException("The number of keys and the number of values differ.");
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null)
+                throw new NullPointerException("The given key is null.");
+            if (i > 0 && compare(keys[i - 1], keys[i]) >= 0)
+                throw new IllegalArgumentException("The keys are not sorted in strictly increasing order.");
+        }
+        int m = keys.length;
+        if ((long) m * (32 - Integer.numberOfLeadingZeros(size)) < size) {
+            for (int i = 0; i < m; i++)
+                put(keys[i], vals[i]);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        K[] mergedKeys = (K[]) new Object[size + m];
+        @SuppressWarnings("unchecked")
+        V[] mergedVals = (V[]) new Object[size + m];
+        IteratorTreeMapCustom it = new IteratorTreeMapCustom(null, false, null, false);
+        Node<K, V> x = it.hasNext() ? it.nextNode() : null;
+        int i = 0;
+        int n = 0;
+        while (x != null || i < m) {
+            int c = (x == null) ? 1 : (i == m) ? -1 : compare(x.key, keys[i]);
+            if (c < 0) {
+                mergedKeys[n] = x.key;
+                mergedVals[n] = x.val;
+            } else {
+                mergedKeys[n] = keys[i];
+                mergedVals[n] = vals[i];
+                i++;
+            }
+            if (c <= 0)
+                x = it.hasNext() ? it.nextNode() : null;
+            n++;
+        }
+        buildFromSorted(Arrays.asList(mergedKeys).iterator(), Arrays.asList(mergedVals).iterator(), n);
+    }
+
+    /*
+     * Replace the content of the TreeMap by the next n keys and values of the
+     * given iterators.
+     * 
+     * The tree is built as a 2-3 tree whose leaves are all at the same depth,
+     * the smallest black height able to hold n keys : a 2-node is a black
+     * node, a 3-node a black node with a red left child, so that the result is
+     * a valid left-leaning red-black tree.
+     */
+    private void buildFromSorted(Iterator<? extends K> keys, Iterator<? extends V> vals, int n) {
+        SortedInput input = new SortedInput(keys, vals);
+        int blackHeight = 63 - Long.numberOfLeadingZeros(n + 1L);
+        root = build(n, blackHeight, input);
+        size = n;
+        modCount++;
+    }
+
+    /*
+     * Build a tree of n keys of the given black height, with
+     * 2^blackHeight - 1 <= n <= 3^blackHeight - 1.
+     */
+    private Node<K, V> build(int n, int blackHeight, SortedInput input) {
+        if (n == 0)
+            return null;
+        // the largest subtree of the children, made of 3-nodes only
+        long childMax = 1;
+        for (int i = 1; i < blackHeight; i++)
+            childMax *= 3;
+        childMax--;
+
+        if (n <= 2 * childMax + 1) {
+            int left = (n - 1) / 2;
+            Node<K, V> l = build(left, blackHeight - 1, input);
+            Node<K, V> h = input.next(BLACK);
+            h.left = l;
+            h.right = build(n - 1 - left, blackHeight - 1, input);
+            return h;
+        }
+        Node<K, V> a = build((n - 2) / 3, blackHeight - 1, input);
+        Node<K, V> red = input.next(RED);
+        red.left = a;
+        red.right = build((n - 1) / 3, blackHeight - 1, input);
+        Node<K, V> h = input.next(BLACK);
+        h.left = red;
+        h.right = build(n / 3, blackHeight - 1, input);
+        return h;
+    }
+
+    /*
+     * SortedInput produces the nodes of the keys and values of two iterators,
+     * and checks that the keys are sorted.
+     */
+    private class SortedInput {
+
+        private final Iterator<? extends K> keys;
+        private final Iterator<? extends V> vals;
+        private K last;
+
+        SortedInput(Iterator<? extends K> keys, Iterator<? extends V> vals) {
+            this.keys = keys;
+            this.vals = vals;
+        }
+
+        Node<K, V> next(boolean color) {
+            if (!keys.hasNext() || !vals.hasNext())
+                throw new IllegalArgumentException("The input holds less entries than the given size.");
+            K key = keys.next();
+            if (key == null)
+                throw new NullPointerException("The given key is null.");
+            if (last != null && compare(last, key) >= 0)
+                throw new IllegalArgumentException("The keys are not sorted in strictly increasing order.");
+            last = key;
+            return new Node<K, V>(key, vals.next(), color);
+        }
     }
 
     /*** {@inheritDoc} */
@@ -56,33 +259,63 @@ public class TreeMapCustom<K, V> implements I_TreeMapCustom<K, V> {
     public V put(K key, V val) {
         if (key == null)
             throw new NullPointerException("The given key is null.");
-        root = put(root, key, val);
-        root.color = BLACK;
+        int depth = 0;
+        Node<K, V> h = root;
+        while (h != null) {
+            int c = compare(key, h.key);
+            if (c == 0) {
+                h.val = val;
+                clearPath(depth);
+                return val;
+            }
+            depth = push(depth, h, c < 0);
+            h = (c < 0) ? h.left : h.right;
+        }
         size++;
+        modCount++;
+
+        Node<K, V> child = new Node<K, V>(key, val, RED);
+        for (int i = depth - 1; i >= 0; i--) {
+            h = path[i];
+            path[i] = null;
+            if (pathLeft[i])
+                h.left = child;
+            else
+                h.right = child;
+
+            // fix-up any right-leaning links
+            if (isRed(h.right) && !isRed(h.left))
+                h = rotateLeft(h);
+            if (isRed(h.left) && isRed(h.left.left))
+                h = rotateRight(h);
+            if (isRed(h.left) && isRed(h.right))
+                flipColors(h);
+            child = h;
+        }
+        root = child;
+        root.color = BLACK;
         return val;
     }
 
-    private Node<K, V> put(Node<K, V> h, K key, V val) {
-        if (h == null)
-            return new Node<K, V>(key, val, RED);
-
-        int c = compare(key, h.key);
-        if (c < 0)
-            h.left = put(h.left, key, val);
-        else if (c > 0)
-            h.right = put(h.right, key, val);
-        else
-            h.val = val;
-
-        // fix-up any right-leaning links
-        if (isRed(h.right) && !isRed(h.left))
-            h = rotateLeft(h);
-        if (isRed(h.left) && isRed(h.left.left))
-            h = rotateRight(h);
-        if (isRed(h.left) && isRed(h.right))
-            flipColors(h);
+    /*
+     * Push the given node on the path, with the direction taken from it, and
+     * return the new depth of the path.
+     */
+    private int push(int depth, Node<K, V> h, boolean left) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, 2 * depth);
+            pathLeft = Arrays.copyOf(pathLeft, 2 * depth);
+        }
+        path[depth] = h;
+        pathLeft[depth] = left;
+        return depth + 1;
+    }
 
-        return h;
+    /*
+     * Release the nodes of the path.
+     */
+    private void clearPath(int depth) {
+        Arrays.fill(path, 0, depth, null);
     }
 
     /*** {@inheritDoc} */
@@ -108,16 +341,20 @@ public class TreeMapCustom<K, V> implements I_TreeMapCustom<K, V> {
     /*** {@inheritDoc} */
     @Override
     public boolean containsValue(V val) {
-        return containsValue(root, val);
-    }
-
-    private boolean containsValue(Node<K, V> x, V val) {
-        if (x == null)
-            return false;
-        if (((val != null) && (val.equals(x.val))) || ((val == null) && (x.val == null))) {
-            return true;
+        Stack<Node<K, V>> stack = new LinkedListImplOfStack<Node<K, V>>();
+        if (root != null)
+            stack.push(root);
+        while (!stack.isEmpty()) {
+            Node<K, V> x = stack.pop();
+            if (((val != null) && (val.equals(x.val))) || ((val == null) && (x.val == null))) {
+                return true;
+            }
+            if (x.left != null)
+                stack.push(x.left);
+            if (x.right != null)
+                stack.push(x.right);
         }
-        return containsValue(x.left, val) || containsValue(x.right, val);
+        return false;
     }
 
     /*** {@inheritDoc} */
@@ -146,94 +383,181 @@ public class TreeMapCustom<K, V> implements I_TreeMapCustom<K, V> {
         if (key == null)
             throw new NullPointerException("The given key is null.");
 
-        Node<K, V> ceil = ceilingKey(root, key);
-        if (ceil == null)
-            return null;
-        return ceil.key;
+        K ceil = null;
+        Node<K, V> current = root;
+        while (current != null) {
+            int c = compare(key, current.key);
+            if (c == 0) {
+                return current.key;
+            } else if (c > 0) {
+                current = current.right;
+            } else {
+                ceil = current.key;
+                current = current.left;
+            }
+        }
+        return ceil;
     }
 
-    private Node<K, V> ceilingKey(Node<K, V> x, K key) {
-        if (x == null)
-            return null;
+    /*** {@inheritDoc} */
+    @Override
+    public K floorKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
 
-        int c = compare(key, x.key);
-        if (c == 0) {
-            return x;
-        } else if (c > 0) {
-            return ceilingKey(x.right, key);
+        K floor = null;
+        Node<K, V> current = root;
+        while (current != null) {
+            int c = compare(key, current.key);
+            if (c == 0) {
+                return current.key;
+            } else if (c < 0) {
+                current = current.left;
+            } else {
+                floor = current.key;
+                current = current.right;
+            }
         }
+        return floor;
+    }
 
-        Node<K, V> t = ceilingKey(x.left, key);
-        if (t != null)
-            return t;
-        return x;
+    /*** {@inheritDoc} */
+    @Override
+    public K higherKey(K key) {
+        if (key == null)
+            throw new NullPointerException("The given key is null.");
+
+        K higher = null;
+        Node<K, V> current = root;
+        while (current != null) {
+            if (compare(key, current.key) < 0) {
+                higher = current.key;
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+        return higher;
     }
 
     /*** {@inheritDoc} */
     @Override
-    public K floorKey(K key) {
+    public K lowerKey(K key) {
         if (key == null)
             throw new NullPointerException("The given key is null.");
 
-        Node<K, V> floor = floorKey(root, key);
-        if (floor == null)
+        K lower = null;
+        Node<K, V> current = root;
+        while (current != null) {
+            if (compare(key, current.key) > 0) {
+                lower = current.key;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return lower;
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public K firstKey() {
+        if (root == null)
             return null;
-        return floor.key;
+        return min(root).key;
     }
 
-    private Node<K, V> floorKey(Node<K, V> x, K key) {
-        if (x == null)
+    /*** {@inheritDoc} */
+    @Override
+    public K lastKey() {
+        if (root == null)
             return null;
+        Node<K, V> x = root;
+        while (x.right != null)
+            x = x.right;
+        return x.key;
+    }
 
-        int c = compare(key, x.key);
-        if (c == 0) {
-            return x;
-        } else if (c < 0) {
-            return floorKey(x.left, key);
-        }
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> headMap(K toKey) {
+        if (toKey == null)
+            throw new NullPointerException("The given key is null.");
+        return subMapView(null, false, toKey, false);
+    }
 
-        Node<K, V> t = floorKey(x.right, key);
-        if (t != null)
-            return t;
-        return x;
+    /*** {@inheritDoc} */
+    @Override
+    public I_TreeMapCustom<K, V> tailMap(K fromKey) {
+        if (fromKey == null)
+            throw new NullPointerException("The given key is null.");
+        return subMapView(fromKey, true, null, false);
     }
 
     /*** {@inheritDoc} */
     @Override
-    public Set<K> keySet() {
-        Set<K> result = new HashSet<>();
-        keySet(root, result);
-        return result;
+    public I_TreeMapCustom<K, V> subMap(K fromKey, K toKey) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException("The given key is null.");
+        if (compare(fromKey, toKey) > 0)
+            throw new IllegalArgumentException("fromKey is greater than toKey.");
+        return subMapView(fromKey, true, toKey, false);
     }
 
-    private void keySet(Node<K, V> x, Set<K> result) {
-        if (x == null)
-            return;
-        keySet(x.left, result);
-        result.add(x.key);
-        keySet(x.right, result);
+    /*
+     * Return the view of the keys between lo and hi, null meaning no
+     * endpoint.
+     */
+    private I_TreeMapCustom<K, V> subMapView(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+        return new SubMapView<K, V>(this, this::compare, IteratorTreeMapCustom::new, lo, loInclusive, hi, hiInclusive);
+    }
+
+    /*
+     * Return true if the given key is below the low endpoint lo, null meaning
+     * no low endpoint.
+     */
+    private boolean tooLow(K key, K lo, boolean loInclusive) {
+        if (lo == null)
+            return false;
+        int c = compare(key, lo);
+        return c < 0 || (c == 0 && !loInclusive);
+    }
+
+    /*
+     * Return true if the given key is above the high endpoint hi, null
+     * meaning no high endpoint.
+     */
+    private boolean tooHigh(K key, K hi, boolean hiInclusive) {
+        if (hi == null)
+            return false;
+        int c = compare(key, hi);
+        return c > 0 || (c == 0 && !hiInclusive);
     }
 
     /*** {@inheritDoc} */
     @Override
-    public Collection<V> values() {
-        Collection<V> result = new ArrayList<>();
-        values(root, result);
+    public Set<K> keySet() {
+        Set<K> result = new HashSet<>();
+        for (K key : this)
+            result.add(key);
         return result;
     }
 
-    private void values(Node<K, V> x, Collection<V> result) {
-        if (x == null)
-            return;
-        values(x.left, result);
-        result.add(x.val);
-        values(x.right, result);
+    /*** {@inheritDoc} */
+    @Override
+    public Collection<V> values() {
+        Collection<V> result = new ArrayList<>(size);
+        IteratorTreeMapCustom it = new IteratorTreeMapCustom(null, false, null, false);
+        while (it.hasNext())
+            result.add(it.nextNode().val);
+        return result;
     }
 
     /*** {@inheritDoc} */
     @Override
     public void clear() {
         size = 0;
+        modCount++;
         root = null;
     }
 
@@ -263,8 +587,9 @@ public class TreeMapCustom<K, V> implements I_TreeMapCustom<K, V> {
             if (!isRed(root.left) && !isRed(root.right))
                 root.color = RED;
 
-            root = remove(root, key);
+            root = removeNode(key);
             size--;
+            modCount++;
             if (!isEmpty())
                 root.color = BLACK;
             return val;
@@ -272,49 +597,65 @@ public class TreeMapCustom<K, V> implements I_TreeMapCustom<K, V> {
         return null;
     }
 
-    private Node<K, V> remove(Node<K, V> h, K key) {
-        if (compare(key, h.key) < 0) {
-            if (!isRed(h.left) && !isRed(h.left.left))
-                h = moveRedLeft(h);
-            h.left = remove(h.left, key);
-        } else {
-            if (isRed(h.left))
-                h = rotateRight(h);
-            if (compare(key, h.key) == 0 && (h.right == null))
-                return null;
-            if (!isRed(h.right) && !isRed(h.right.left))
-                h = moveRedRight(h);
-            if (compare(key, h.key) == 0) {
-                Node<K, V> x = min(h.right);
-                h.key = x.key;
-                h.val = x.val;
-                // h.val = get(h.right, min(h.right).key);
-                // h.key = min(h.right).key;
-                h.right = removeMin(h.right);
-            } else
-                h.right = remove(h.right, key);
+    // Remove the given key, which is in the tree, and return the new root.
+    // The nodes are transformed on the way down exactly as the recursive
+    // algorithm does before its recursive call, and balanced on the way up.
+    // Once the node of the key is found, its entry is replaced by the one of
+    // its successor, and the descent goes on to remove the minimum of its
+    // right subtree.
+    private Node<K, V> removeNode(K key) {
+        int depth = 0;
+        Node<K, V> h = root;
+        boolean removeMin = false;
+        while (true) {
+            if (removeMin) {
+                if (h.left == null)
+                    break;
+                if (!isRed(h.left) && !isRed(h.left.left))
+                    h = moveRedLeft(h);
+                depth = push(depth, h, true);
+                h = h.left;
+            } else if (compare(key, h.key) < 0) {
+                if (!isRed(h.left) && !isRed(h.left.left))
+                    h = moveRedLeft(h);
+                depth = push(depth, h, true);
+                h = h.left;
+            } else {
+                if (isRed(h.left))
+                    h = rotateRight(h);
+                if (compare(key, h.key) == 0 && (h.right == null))
+                    break;
+                if (!isRed(h.right) && !isRed(h.right.left))
+                    h = moveRedRight(h);
+                if (compare(key, h.key) == 0) {
+                    Node<K, V> x = min(h.right);
+                    h.key = x.key;
+                    h.val = x.val;
+                    removeMin = true;
+                }
+                depth = push(depth, h, false);
+                h = h.right;
+            }
         }
-        return balance(h);
+
+        Node<K, V> child = null;
+        for (int i = depth - 1; i >= 0; i--) {
+            h = path[i];
+            path[i] = null;
+            if (pathLeft[i])
+                h.left = child;
+            else
+                h.right = child;
+            child = balance(h);
+        }
+        return child;
     }
 
     // the smallest key in subtree rooted at x; null if no such key
     private Node<K, V> min(Node<K, V> x) {
-        if (x.left == null)
-            return x;
-        else
-            return min(x.left);
-    }
-
-    // delete the key-value pair with the minimum key rooted at h
-    private Node<K, V> removeMin(Node<K, V> h) {
-        if (h.left == null)
-            return null;
-
-        if (!isRed(h.left) && !isRed(h.left.left))
-            h = moveRedLeft(h);
-
-        h.left = removeMin(h.left);
-        return balance(h);
+        while (x.left != null)
+            x = x.left;
+        return x;
     }
 
     // Assuming that h is red and both h.right and h.right.left
@@ -418,56 +759,86 @@ public class TreeMapCustom<K, V> implements I_TreeMapCustom<K, V> {
     /*** {@inheritDoc} */
     @Override
     public Iterator<K> iterator() {
-        return new IteratorTreeMapCustom();
+        return new IteratorTreeMapCustom(null, false, null, false);
+    }
+
+    /*** {@inheritDoc} */
+    @Override
+    public Iterator<K> iterator(K fromKey) {
+        if (fromKey == null)
+            throw new NullPointerException("The given key is null.");
+        return new IteratorTreeMapCustom(fromKey, true, null, false);
     }
 
     /**
      * IteratorTreeMapCustom implements Iterator interface in order to provide
      * iterable capabilities to the TreeMap through the Key.
+     * 
+     * The keys are produced lazily by an in-order traversal driven by a
+     * stack, which holds the nodes whose key and right subtree are still to
+     * be visited, the next node on top. The iterator is fail-fast : it throws
+     * a ConcurrentModificationException if a key is added or removed during
+     * the iteration.
      *
      * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
      *
      */
-    private class IteratorTreeMapCustom implements Iterator<K> {
-
-        /*** Iteration index. */
-        private int index;
-        private K[] keys;
-
-        /*** Constructs IteratorArrayImplOfStack. */
-        @SuppressWarnings("unchecked")
-        public IteratorTreeMapCustom() {
-            index = 0;
-            keys = (K[]) new Object[size];
-            InorderTraversal(root, keys, 0);
-        }
-
-        /*
-         * Perform the InorderTraversal on the binary search tree and put the
-         * keys in the keys arrays.
-         */
-        private int InorderTraversal(Node<K, V> x, K[] keys, int currIndex) {
-            if (x == null)
-                return currIndex;
-            int indexLeft = InorderTraversal(x.left, keys, currIndex);
-            keys[indexLeft] = x.key;
-            indexLeft++;
-            return InorderTraversal(x.right, keys, indexLeft);
+    private class IteratorTreeMapCustom implements SubMapView.RangeIterator<K, V> {
+
+        private final K hi;
+        private final boolean hiInclusive;
+        private final Stack<Node<K, V>> stack;
+        private final int expectedModCount;
+        private Node<K, V> last;
+
+        /*** Constructs IteratorTreeMapCustom over the keys between lo and hi. */
+        IteratorTreeMapCustom(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.stack = new LinkedListImplOfStack<Node<K, V>>();
+            this.expectedModCount = modCount;
+            Node<K, V> x = root;
+            while (x != null) {
+                if (tooLow(x.key, lo, loInclusive)) {
+                    x = x.right;
+                } else {
+                    stack.push(x);
+                    x = x.left;
+                }
+            }
         }
 
         /*** {@inheritDoc} */
         @Override
         public boolean hasNext() {
-            if (index < size) {
-                return true;
-            }
-            return false;
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return !stack.isEmpty() && !tooHigh(stack.peek().key, hi, hiInclusive);
         }
 
         /*** {@inheritDoc} */
         @Override
         public K next() {
-            return keys[index++];
+            return nextNode().key;
+        }
+
+        /*
+         * Return the next node of the iteration.
+         */
+        Node<K, V> nextNode() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Node<K, V> x = stack.pop();
+            for (Node<K, V> t = x.right; t != null; t = t.left)
+                stack.push(t);
+            last = x;
+            return x;
+        }
+
+        /*** {@inheritDoc} */
+        @Override
+        public V value() {
+            return last.val;
         }
 
     }
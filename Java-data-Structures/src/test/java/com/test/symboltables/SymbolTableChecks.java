@@ -0,0 +1,101 @@
+package com.test.symboltables;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.fail;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.symboltables.SymbolTable;
+
+/**
+ * SymbolTableChecks holds the checks shared by the tests of several
+ * SymbolTable implementations.
+ *
+ * @author STEPHANE MIGUEL KAKANAKOU (Skakanakou@gmail.com)
+ *
+ */
+final class SymbolTableChecks {
+
+    private SymbolTableChecks() {
+    }
+
+    /*
+     * Count words with merge and check getOrDefault, compute, computeIfAbsent
+     * and forEach against a HashMap.
+     */
+    static void checkEntryOperations(SymbolTable<String, Integer> st) {
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 20000; i++) {
+            String word = "w" + random.nextInt(500);
+            assertEquals(expected.merge(word, 1, Integer::sum), st.merge(word, 1, Integer::sum));
+        }
+        assertEquals(expected.size(), st.size());
+        assertEquals(Integer.valueOf(-1), st.getOrDefault("missing", -1));
+        assertEquals(expected.get("w7"), st.getOrDefault("w7", -1));
+
+        // a null result removes the key
+        assertEquals(null, st.compute("w7", (k, v) -> null));
+        assertEquals(false, st.containsKey("w7"));
+        assertEquals(null, st.compute("w7", (k, v) -> null));
+        expected.remove("w7");
+        assertEquals(Integer.valueOf(1), st.compute("new", (k, v) -> (v == null) ? 1 : v + 1));
+        assertEquals(Integer.valueOf(2), st.compute("new", (k, v) -> (v == null) ? 1 : v + 1));
+        expected.put("new", 2);
+        assertEquals(Integer.valueOf(3), st.computeIfAbsent("other", k -> 3));
+        assertEquals(Integer.valueOf(3), st.computeIfAbsent("other", k -> 4));
+        assertEquals(null, st.computeIfAbsent("none", k -> null));
+        expected.put("other", 3);
+        assertEquals(null, st.merge("w8", 1, (a, b) -> null));
+        expected.remove("w8");
+        assertEquals(expected.size(), st.size());
+
+        Map<String, Integer> visited = new HashMap<>();
+        st.forEach((k, v) -> visited.put(k, v));
+        assertEquals(expected, visited);
+
+        try {
+            st.compute("w9", (k, v) -> {
+                st.put("inserted", 1);
+                return 1;
+            });
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertNotNull(e);
+        }
+    }
+
+    /*
+     * Apply random operations on keyCount keys to the given SymbolTable and
+     * to a HashMap and check that they always agree. A small number of keys
+     * makes long clusters or chains.
+     */
+    static void checkAgainstHashMap(SymbolTable<Integer, Integer> st, int keyCount) {
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(keyCount) * 16;
+            switch (random.nextInt(3)) {
+            case 0:
+                st.put(key, i);
+                expected.put(key, i);
+                break;
+            case 1:
+                assertEquals(expected.remove(key), st.delete(key));
+                break;
+            default:
+                assertEquals(expected.containsKey(key), st.containsKey(key));
+                break;
+            }
+            assertEquals(expected.size(), st.size());
+        }
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), st.get(entry.getKey()));
+        }
+    }
+
+}
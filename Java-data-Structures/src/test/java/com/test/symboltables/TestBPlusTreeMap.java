@@ -0,0 +1,207 @@
+package com.test.symboltables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import com.symboltables.BPlusTreeMap;
+import com.symboltables.I_TreeMapCustom;
+
+import junit.framework.TestCase;
+
+public class TestBPlusTreeMap extends TestCase {
+
+    public void testEmpty() {
+        I_TreeMapCustom<Integer, String> st = new BPlusTreeMap<Integer, String>();
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.remove(3));
+        assertEquals(null, st.get(3));
+        assertEquals(false, st.containsKey(3));
+        assertEquals(false, st.containsValue("3"));
+        assertEquals(null, st.firstKey());
+        assertEquals(null, st.lastKey());
+        assertEquals(null, st.ceilingKey(3));
+        assertEquals(null, st.floorKey(3));
+        assertEquals(false, st.iterator().hasNext());
+    }
+
+    public void testInvalidOrder() {
+        try {
+            new BPlusTreeMap<Integer, String>(3, null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testListOperations() {
+        I_TreeMapCustom<Integer, String> st = new BPlusTreeMap<Integer, String>(4, null);
+        try {
+            st.put(null, "1");
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        st.put(20, "life");
+        st.put(3, "good");
+        st.put(4, "best");
+        st.put(6, "java");
+        st.put(7, "c++");
+        st.put(30, "javascript");
+        st.put(55, "datastructure");
+        st.put(18, "bst");
+        st.put(4, "better");
+
+        assertEquals(8, st.size());
+        assertEquals("better", st.get(4));
+        assertEquals(true, st.containsValue("java"));
+        assertEquals(false, st.containsValue("best"));
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : st)
+            keys.add(key);
+        assertEquals(Arrays.asList(3, 4, 6, 7, 18, 20, 30, 55), keys);
+        assertEquals("javascript", st.remove(30));
+        assertEquals(null, st.remove(30));
+        assertEquals(7, st.size());
+
+        st = new BPlusTreeMap<Integer, String>(4, Collections.reverseOrder());
+        for (int i = 0; i < 10; i++)
+            st.put(i, "v" + i);
+        keys.clear();
+        for (Integer key : st)
+            keys.add(key);
+        assertEquals(Arrays.asList(9, 8, 7, 6, 5, 4, 3, 2, 1, 0), keys);
+        assertEquals(Integer.valueOf(9), st.firstKey());
+        assertEquals(Integer.valueOf(4), st.higherKey(5));
+    }
+
+    public void testAgainstTreeMap() {
+        checkAgainstTreeMap(new BPlusTreeMap<Integer, Integer>(4, null));
+        checkAgainstTreeMap(new BPlusTreeMap<Integer, Integer>(5, null));
+        checkAgainstTreeMap(new BPlusTreeMap<Integer, Integer>());
+    }
+
+    public void testRangeViews() {
+        I_TreeMapCustom<Integer, Integer> st = new BPlusTreeMap<Integer, Integer>(6, null);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            int key = 2 * random.nextInt(400);
+            st.put(key, i);
+            expected.put(key, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            int lo = random.nextInt(820) - 10;
+            int hi = lo + random.nextInt(200);
+            checkView(expected.headMap(hi, false), st.headMap(hi));
+            checkView(expected.tailMap(lo, true), st.tailMap(lo));
+            checkView(expected.subMap(lo, true, hi, false), st.subMap(lo, hi));
+        }
+
+        I_TreeMapCustom<Integer, Integer> view = st.subMap(100, 200);
+        try {
+            view.put(200, 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        int size = st.size();
+        int viewSize = view.size();
+        view.clear();
+        assertEquals(true, view.isEmpty());
+        assertEquals(size - viewSize, st.size());
+    }
+
+    public void testIteratorFrom() {
+        I_TreeMapCustom<Integer, String> st = new BPlusTreeMap<Integer, String>(4, null);
+        for (int i = 0; i < 100; i += 10)
+            st.put(i, "v" + i);
+        List<Integer> keys = new ArrayList<>();
+        for (Iterator<Integer> it = st.iterator(35); it.hasNext();)
+            keys.add(it.next());
+        assertEquals(Arrays.asList(40, 50, 60, 70, 80, 90), keys);
+        assertEquals(Integer.valueOf(30), st.iterator(30).next());
+        assertEquals(false, st.iterator(91).hasNext());
+
+        Iterator<Integer> it = st.iterator();
+        it.next();
+        st.remove(50);
+        try {
+            it.next();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertNotNull(e);
+        }
+    }
+
+    /*
+     * Put and remove random keys, and check every operation against a
+     * java.util.TreeMap, until the tree is empty again.
+     */
+    private void checkAgainstTreeMap(I_TreeMapCustom<Integer, Integer> st) {
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), st.remove(key));
+            } else {
+                expected.put(key, i);
+                st.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), st.size());
+        assertEquals(expected.firstKey(), st.firstKey());
+        assertEquals(expected.lastKey(), st.lastKey());
+        for (int key = -1; key <= 3001; key++) {
+            assertEquals(expected.get(key), st.get(key));
+            assertEquals(expected.ceilingKey(key), st.ceilingKey(key));
+            assertEquals(expected.floorKey(key), st.floorKey(key));
+            assertEquals(expected.higherKey(key), st.higherKey(key));
+            assertEquals(expected.lowerKey(key), st.lowerKey(key));
+        }
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : st)
+            keys.add(key);
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(st.values()));
+
+        List<Integer> shuffled = new ArrayList<>(expected.keySet());
+        Collections.shuffle(shuffled, random);
+        for (Integer key : shuffled)
+            assertEquals(expected.remove(key), st.remove(key));
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.firstKey());
+        assertEquals(false, st.iterator().hasNext());
+    }
+
+    /*
+     * Check a view against the same view of a java.util.TreeMap.
+     */
+    private void checkView(NavigableMap<Integer, Integer> expected, I_TreeMapCustom<Integer, Integer> view) {
+        assertEquals(expected.size(), view.size());
+        assertEquals(expected.isEmpty() ? null : expected.firstKey(), view.firstKey());
+        assertEquals(expected.isEmpty() ? null : expected.lastKey(), view.lastKey());
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : view)
+            keys.add(key);
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(view.values()));
+        for (int key = -12; key <= 812; key += 3) {
+            assertEquals(expected.get(key), view.get(key));
+            assertEquals(expected.ceilingKey(key), view.ceilingKey(key));
+            assertEquals(expected.floorKey(key), view.floorKey(key));
+            assertEquals(expected.higherKey(key), view.higherKey(key));
+            assertEquals(expected.lowerKey(key), view.lowerKey(key));
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.test.symboltables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.symboltables.BoundedCacheSymbolTable;
+import com.symboltables.CacheStatistics;
+import com.symboltables.EvictionPolicy;
+
+import junit.framework.TestCase;
+
+public class TestBoundedCacheSymbolTable extends TestCase {
+
+    public void testEmpty() {
+        BoundedCacheSymbolTable<Integer, String> st = new BoundedCacheSymbolTable<Integer, String>(3);
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.delete(3));
+        assertEquals(null, st.get(3));
+        assertEquals(false, st.containsKey(3));
+        assertEquals(false, st.containsValue("3"));
+        assertEquals(false, st.iterator().hasNext());
+        assertEquals(1, st.stats().getMissCount());
+        try {
+            new BoundedCacheSymbolTable<Integer, String>(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testLruEviction() {
+        List<String> evicted = new ArrayList<>();
+        BoundedCacheSymbolTable<Integer, String> st = new BoundedCacheSymbolTable<Integer, String>(3,
+                EvictionPolicy.LRU, (key, value) -> evicted.add(key + "=" + value));
+        st.put(1, "a");
+        st.put(2, "b");
+        st.put(3, "c");
+        assertEquals("a", st.get(1));
+        st.put(4, "d");
+        assertEquals(Arrays.asList("2=b"), evicted);
+        assertEquals(false, st.containsKey(2));
+        st.put(3, "cc");
+        st.put(5, "e");
+        assertEquals(Arrays.asList("2=b", "1=a"), evicted);
+        assertEquals(3, st.size());
+        assertEquals("cc", st.get(3));
+
+        // containsKey does not change the recency
+        st.containsKey(4);
+        st.put(6, "f");
+        assertEquals(Arrays.asList("2=b", "1=a", "4=d"), evicted);
+        assertEquals("cc", st.delete(3));
+        assertEquals(2, st.size());
+
+        CacheStatistics stats = st.stats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(0, stats.getMissCount());
+        assertEquals(3, stats.getEvictionCount());
+        assertEquals(1.0, stats.getHitRatio());
+    }
+
+    public void testLruAgainstLinkedHashMap() {
+        final int capacity = 100;
+        Map<Integer, Integer> expected = new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > capacity;
+            }
+        };
+        BoundedCacheSymbolTable<Integer, Integer> st = new BoundedCacheSymbolTable<Integer, Integer>(capacity);
+        Random random = new Random(7);
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(300);
+            switch (random.nextInt(4)) {
+            case 0:
+                assertEquals(expected.remove(key), st.delete(key));
+                break;
+            case 1:
+                expected.put(key, i);
+                st.put(key, i);
+                break;
+            default:
+                assertEquals(expected.get(key), st.get(key));
+            }
+            assertEquals(expected.size(), st.size());
+        }
+        for (Integer key : expected.keySet())
+            assertEquals(true, st.containsKey(key));
+    }
+
+    public void testTinyLfuResistsScans() {
+        int capacity = 1000;
+        BoundedCacheSymbolTable<Integer, Integer> lru = new BoundedCacheSymbolTable<Integer, Integer>(capacity);
+        BoundedCacheSymbolTable<Integer, Integer> lfu = new BoundedCacheSymbolTable<Integer, Integer>(capacity,
+                EvictionPolicy.TINY_LFU);
+        // a hot set of 500 keys read often, interleaved with a scan of keys
+        // read only once
+        int scanKey = 1000000;
+        for (int round = 0; round < 20; round++) {
+            for (int key = 0; key < 500; key++) {
+                access(lru, key);
+                access(lfu, key);
+            }
+            for (int i = 0; i < 2000; i++, scanKey++) {
+                access(lru, scanKey);
+                access(lfu, scanKey);
+            }
+        }
+        int lruHot = 0;
+        int lfuHot = 0;
+        for (int key = 0; key < 500; key++) {
+            if (lru.containsKey(key))
+                lruHot++;
+            if (lfu.containsKey(key))
+                lfuHot++;
+        }
+        assertEquals(0, lruHot);
+        assertTrue(lfuHot > 450);
+        assertEquals(capacity, lfu.size());
+        assertTrue(lfu.stats().getHitRatio() > lru.stats().getHitRatio());
+    }
+
+    public void testTinyLfuConsistency() {
+        List<Integer> evicted = new ArrayList<>();
+        BoundedCacheSymbolTable<Integer, Integer> st = new BoundedCacheSymbolTable<Integer, Integer>(200,
+                EvictionPolicy.TINY_LFU, (key, value) -> evicted.add(key));
+        Random random = new Random(7);
+        int puts = 0;
+        int deletes = 0;
+        for (int i = 0; i < 50000; i++) {
+            int key = (int) Math.abs(random.nextGaussian() * 300);
+            if (random.nextInt(10) == 0) {
+                if (st.delete(key) != null)
+                    deletes++;
+            } else if (st.get(key) == null) {
+                st.put(key, key);
+                puts++;
+            }
+            assertTrue(st.size() <= 200);
+        }
+        assertEquals(puts - deletes - evicted.size(), st.size());
+        assertEquals(evicted.size(), st.stats().getEvictionCount());
+        int[] count = { 0 };
+        st.forEach((key, value) -> {
+            assertEquals(key, value);
+            count[0]++;
+        });
+        assertEquals(st.size(), count[0]);
+        st.clear();
+        assertEquals(true, st.isEmpty());
+        st.put(1, 1);
+        assertEquals(Integer.valueOf(1), st.get(1));
+    }
+
+    /*
+     * Read the given key, and put it on a miss.
+     */
+    private static void access(BoundedCacheSymbolTable<Integer, Integer> st, int key) {
+        if (st.get(key) == null)
+            st.put(key, key);
+    }
+
+}
@@ -1,6 +1,14 @@
 package com.test.symboltables;
 
 import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
 
 import com.symboltables.BstSymbolTableImpl;
 import com.symboltables.SymbolTable;
@@ -118,4 +126,232 @@ public class TestBstSymbolTableImpl extends TestCase{
         
     }
     
+    public void testEntryOperations() {
+        SymbolTableChecks.checkEntryOperations(new BstSymbolTableImpl<String, Integer>());
+        SymbolTableChecks.checkEntryOperations(new BstSymbolTableImpl<String, Integer>(true));
+    }
+
+    public void testComputeKeepsOrderStatistics() {
+        // compute adds and removes the keys through put and delete, so the
+        // subtree sizes stay right and the tree stays balanced
+        BstSymbolTableImpl<Integer, Integer> st = new BstSymbolTableImpl<Integer, Integer>(true);
+        int n = 1 << 12;
+        for (int i = 0; i < n; i++)
+            assertEquals(Integer.valueOf(i), st.computeIfAbsent(i, k -> k));
+        assertTrue(st.height() <= 1.44 * 12 + 1);
+        for (int i = 0; i < n; i += 2)
+            assertEquals(null, st.compute(i, (k, v) -> null));
+        for (int i = 1; i < n; i += 2)
+            assertEquals(Integer.valueOf(2 * i), st.merge(i, i, Integer::sum));
+        assertEquals(n / 2, st.size());
+        assertTrue(st.height() <= 1.44 * 11 + 1);
+        assertEquals(Integer.valueOf(2 * 100 + 1), st.select(100));
+        assertEquals(100, st.rank(2 * 100 + 1));
+        assertEquals(5, st.rangeCount(0, 10));
+        assertEquals(Integer.valueOf(2 * 201), st.get(201));
+    }
+
+    public void testPutExistingKey() {
+        BstSymbolTableImpl<Integer, String> st = new BstSymbolTableImpl<Integer, String>();
+        st.put(8, "a");
+        st.put(8, "b");
+        assertEquals(1, st.size());
+        assertEquals("b", st.get(8));
+    }
+
+    public void testOrderStatistics() {
+        checkOrderStatistics(new BstSymbolTableImpl<Integer, Integer>());
+        checkOrderStatistics(new BstSymbolTableImpl<Integer, Integer>(true));
+    }
+
+    public void testSortedInsertsStayBalanced() {
+        BstSymbolTableImpl<Integer, Integer> st = new BstSymbolTableImpl<Integer, Integer>(true);
+        int n = 1 << 16;
+        for (int i = 0; i < n; i++)
+            st.put(i, i);
+        assertEquals(n, st.size());
+        assertTrue(st.height() <= 1.44 * 16 + 1);
+        for (int i = 0; i < n; i += 2)
+            st.delete(i);
+        assertEquals(n / 2, st.size());
+        assertTrue(st.height() <= 1.44 * 15 + 1);
+        assertEquals(Integer.valueOf(1), st.minKey());
+        assertEquals(Integer.valueOf(n - 1), st.maxKey());
+        assertEquals(Integer.valueOf(2 * 100 + 1), st.select(100));
+    }
+
+    public void testBuildFromSorted() {
+        for (int n = 0; n <= 300; n++) {
+            Integer[] keys = new Integer[n];
+            String[] values = new String[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = 2 * i;
+                values[i] = "v" + i;
+            }
+            BstSymbolTableImpl<Integer, String> st = new BstSymbolTableImpl<Integer, String>(keys, values, null, false);
+            assertEquals(n, st.size());
+            assertEquals(32 - Integer.numberOfLeadingZeros(n), st.height());
+            for (int i = 0; i < n; i++) {
+                assertEquals(values[i], st.get(2 * i));
+                assertEquals(i, st.rank(2 * i));
+                assertEquals(keys[i], st.select(i));
+            }
+            int expected = 0;
+            for (Integer key : st)
+                assertEquals(Integer.valueOf(2 * expected++), key);
+            assertEquals(n, expected);
+        }
+
+        Iterator<Integer> keys = new ArrayList<>(Arrays.asList(4, 3, 2, 1)).iterator();
+        Iterator<String> values = Arrays.asList("d", "c", "b", "a").iterator();
+        BstSymbolTableImpl<Integer, String> st = new BstSymbolTableImpl<Integer, String>(keys, values, 4,
+                Collections.reverseOrder(), true);
+        assertEquals(Integer.valueOf(4), st.minKey());
+        assertEquals("a", st.get(1));
+        for (int i = 5; i < 100; i++)
+            st.put(i, "v" + i);
+        assertTrue(st.height() <= 1.44 * 7 + 1);
+        try {
+            new BstSymbolTableImpl<Integer, String>(new Integer[] { 2, 1 }, new String[] { "b", "a" }, null, false);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        try {
+            new BstSymbolTableImpl<Integer, String>(new Integer[] { 1, 2 }, new String[] { "a", null }, null, false);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testPutAllSorted() {
+        BstSymbolTableImpl<Integer, Integer> st = new BstSymbolTableImpl<Integer, Integer>(true);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+        // large batches are merged, small ones are put one by one
+        for (int batch : new int[] { 0, 1000, 3000, 10, 1, 5000 }) {
+            TreeMap<Integer, Integer> entries = new TreeMap<>();
+            while (entries.size() < batch)
+                entries.put(random.nextInt(20000), random.nextInt());
+            st.putAllSorted(entries.keySet().toArray(new Integer[batch]), entries.values().toArray(new Integer[batch]));
+            expected.putAll(entries);
+            assertEquals(expected.size(), st.size());
+            assertTrue(st.height() <= 1.44 * 14 + 1);
+            for (Map.Entry<Integer, Integer> entry : expected.entrySet())
+                assertEquals(entry.getValue(), st.get(entry.getKey()));
+        }
+        int expectedKey = 0;
+        List<Integer> keys = new ArrayList<>(expected.keySet());
+        for (Integer key : st)
+            assertEquals(keys.get(expectedKey++), key);
+        try {
+            st.putAllSorted(new Integer[] { 3, 2 }, new Integer[] { 3, 2 });
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        assertEquals(expected.size(), st.size());
+    }
+
+    public void testDeepUnbalancedTree() {
+        // sorted keys make the unbalanced tree a list : nothing may recurse
+        // on its depth
+        BstSymbolTableImpl<Integer, Integer> st = new BstSymbolTableImpl<Integer, Integer>();
+        int n = 20000;
+        for (int i = 0; i < n; i++)
+            st.put(i, i);
+        assertEquals(n, st.size());
+        assertEquals(n, st.height());
+        assertEquals(true, st.containsValue(0));
+        int[] sum = { 0 };
+        st.forEach((k, v) -> sum[0] += v);
+        assertEquals(n * (n - 1) / 2, sum[0]);
+        int expected = 0;
+        for (Integer key : st)
+            assertEquals(Integer.valueOf(expected++), key);
+        // the deepest key, then the root each time
+        assertEquals(Integer.valueOf(n - 1), st.delete(n - 1));
+        for (int i = 0; i < n - 1; i++)
+            assertEquals(Integer.valueOf(i), st.delete(i));
+        assertEquals(true, st.isEmpty());
+    }
+
+    public void testRangeKeysFailFast() {
+        BstSymbolTableImpl<Integer, Integer> st = new BstSymbolTableImpl<Integer, Integer>(true);
+        for (int i = 0; i < 10; i++)
+            st.put(i, i);
+        Iterator<Integer> it = st.rangeKeys(2, 5).iterator();
+        assertEquals(Integer.valueOf(2), it.next());
+        st.put(42, 42);
+        try {
+            it.next();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertNotNull(e);
+        }
+    }
+
+    /*
+     * Check rank, select, floorKey, ceilingKey, rangeCount and rangeKeys
+     * against a TreeMap, while keys are added and deleted at random.
+     */
+    private void checkOrderStatistics(BstSymbolTableImpl<Integer, Integer> st) {
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        assertEquals(null, st.minKey());
+        assertEquals(null, st.maxKey());
+        assertEquals(null, st.floorKey(3));
+        assertEquals(0, st.rangeCount(0, 10));
+        assertFalse(st.rangeKeys(0, 10).iterator().hasNext());
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), st.delete(key));
+            } else {
+                expected.put(key, i);
+                st.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), st.size());
+        assertEquals(expected.firstKey(), st.minKey());
+        assertEquals(expected.lastKey(), st.maxKey());
+
+        List<Integer> sorted = new ArrayList<>(expected.keySet());
+        for (int k = 0; k < sorted.size(); k++) {
+            assertEquals(sorted.get(k), st.select(k));
+            assertEquals(k, st.rank(sorted.get(k)));
+        }
+        for (int key = -1; key <= 2001; key++) {
+            assertEquals(expected.headMap(key).size(), st.rank(key));
+            assertEquals(expected.floorKey(key), st.floorKey(key));
+            assertEquals(expected.ceilingKey(key), st.ceilingKey(key));
+        }
+        for (int i = 0; i < 200; i++) {
+            int lo = random.nextInt(2100) - 50;
+            int hi = lo + random.nextInt(300) - 20;
+            List<Integer> range = new ArrayList<>();
+            if (lo <= hi)
+                range.addAll(expected.subMap(lo, true, hi, true).keySet());
+            assertEquals(range.size(), st.rangeCount(lo, hi));
+            List<Integer> actual = new ArrayList<>();
+            for (Integer key : st.rangeKeys(lo, hi))
+                actual.add(key);
+            assertEquals(range, actual);
+        }
+
+        try {
+            st.select(st.size());
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        try {
+            st.select(-1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
 }
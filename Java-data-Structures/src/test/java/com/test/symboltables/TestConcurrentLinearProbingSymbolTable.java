@@ -0,0 +1,229 @@
+package com.test.symboltables;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.lists.ArrayImplOfList;
+import com.lists.List;
+import com.symboltables.ConcurrentLinearProbingSymbolTable;
+import com.symboltables.SymbolTable;
+
+import junit.framework.TestCase;
+
+public class TestConcurrentLinearProbingSymbolTable extends TestCase {
+
+    public void testEmpty() {
+        SymbolTable<Integer, String> st = new ConcurrentLinearProbingSymbolTable<Integer, String>();
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.delete(3));
+        assertEquals(null, st.get(3));
+        assertEquals(false, st.containsKey(3));
+        assertEquals(false, st.containsValue("3"));
+        assertEquals(false, st.iterator().hasNext());
+    }
+
+    public void testListOperations() {
+        SymbolTable<Integer, String> st = new ConcurrentLinearProbingSymbolTable<Integer, String>();
+        try {
+            st.put(2, null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+        try {
+            st.put(null, "1");
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        st.put(20, "life");
+        st.put(3, "good");
+        st.put(4, "best");
+        st.put(6, "java");
+        st.put(55, "datastructure");
+        assertEquals(5, st.size());
+        assertEquals("good", st.get(3));
+        assertEquals(true, st.containsKey(3));
+        assertEquals(true, st.containsValue("java"));
+        assertEquals(false, st.containsValue("computer"));
+        st.put(3, "better");
+        assertEquals(5, st.size());
+        assertEquals("better", st.get(3));
+        assertEquals("life", st.delete(20));
+        assertEquals(null, st.delete(20));
+        assertEquals(4, st.size());
+
+        List<Integer> contentKeyList = new ArrayImplOfList<>();
+        contentKeyList.add(3);
+        contentKeyList.add(4);
+        contentKeyList.add(6);
+        contentKeyList.add(55);
+        for (Integer key : st) {
+            assertEquals(true, contentKeyList.contains(key));
+            contentKeyList.remove(key);
+        }
+        assertEquals(0, contentKeyList.size());
+
+        st.clear();
+        assertEquals(true, st.isEmpty());
+
+        st = new ConcurrentLinearProbingSymbolTable<Integer, String>();
+        for (int i = 0; i < 3000; i++) {
+            st.put(201 + i, "life");
+        }
+        assertEquals(3000, st.size());
+        assertEquals(true, ((ConcurrentLinearProbingSymbolTable<Integer, String>) st).capacity() >= 6000);
+    }
+
+    public void testAgainstHashMap() {
+        Map<Integer, Integer> expected = new HashMap<>();
+        SymbolTable<Integer, Integer> st = new ConcurrentLinearProbingSymbolTable<Integer, Integer>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(5000) * 16;
+            switch (random.nextInt(3)) {
+            case 0:
+                st.put(key, i);
+                expected.put(key, i);
+                break;
+            case 1:
+                assertEquals(expected.remove(key), st.delete(key));
+                break;
+            default:
+                assertEquals(expected.containsKey(key), st.containsKey(key));
+                break;
+            }
+            assertEquals(expected.size(), st.size());
+        }
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), st.get(entry.getKey()));
+        }
+    }
+
+    public void testConcurrentUpdates() throws InterruptedException {
+        final SymbolTable<Integer, Integer> st = new ConcurrentLinearProbingSymbolTable<Integer, Integer>();
+        final int threadCount = 8;
+        final int keysPerThread = 20000;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int first = t * keysPerThread;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        // every thread owns its keys and reads the keys of
+                        // the other threads
+                        for (int i = first; i < first + keysPerThread; i++) {
+                            st.put(i, i);
+                            assertEquals(Integer.valueOf(i), st.get(i));
+                            Integer other = st.get((i + keysPerThread) % (threadCount * keysPerThread));
+                            if (other != null)
+                                assertEquals(Integer.valueOf((i + keysPerThread) % (threadCount * keysPerThread)),
+                                        other);
+                        }
+                        for (int i = first; i < first + keysPerThread; i += 2)
+                            assertEquals(Integer.valueOf(i), st.delete(i));
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertNull(failure.get());
+        assertEquals(threadCount * keysPerThread / 2, st.size());
+        for (int i = 0; i < threadCount * keysPerThread; i++)
+            assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), st.get(i));
+        int count = 0;
+        for (Integer key : st) {
+            assertEquals(1, key % 2);
+            count++;
+        }
+        assertEquals(threadCount * keysPerThread / 2, count);
+    }
+
+    public void testConcurrentPutIfAbsent() throws InterruptedException {
+        // every thread tries to put every key, exactly one wins each key
+        final ConcurrentLinearProbingSymbolTable<Integer, Integer> st = new ConcurrentLinearProbingSymbolTable<Integer, Integer>();
+        final int threadCount = 8;
+        final int keyCount = 50000;
+        final AtomicInteger winners = new AtomicInteger();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int id = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < keyCount; i++) {
+                        int key = (i * 7 + id * 977) % keyCount;
+                        if (st.putIfAbsent(key, id) == null)
+                            winners.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertEquals(keyCount, winners.get());
+        assertEquals(keyCount, st.size());
+        for (int i = 0; i < keyCount; i++)
+            assertNotNull(st.get(i));
+        int count = 0;
+        for (Integer key : st) {
+            assertNotNull(key);
+            count++;
+        }
+        assertEquals(keyCount, count);
+        assertEquals(Integer.valueOf(st.get(3)), st.putIfAbsent(3, -1));
+    }
+
+    public void testConcurrentMerge() throws InterruptedException {
+        // the threads merge into shared counters while other keys are put
+        // and deleted, so the size keeps changing during the merges
+        final SymbolTable<Integer, Integer> st = new ConcurrentLinearProbingSymbolTable<Integer, Integer>();
+        final int threadCount = 4;
+        final int mergesPerThread = 100000;
+        final int counterCount = 16;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int first = counterCount + t * mergesPerThread;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < mergesPerThread; i++) {
+                            st.merge(i % counterCount, 1, Integer::sum);
+                            st.put(first + i, i);
+                            st.computeIfAbsent(first + i, k -> -1);
+                            if (i % 2 == 0)
+                                st.delete(first + i);
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertNull(failure.get());
+        int total = 0;
+        for (int i = 0; i < counterCount; i++)
+            total += st.get(i);
+        assertEquals(threadCount * mergesPerThread, total);
+        assertEquals(counterCount + threadCount * mergesPerThread / 2, st.size());
+        assertEquals(Integer.valueOf(1), st.get(counterCount + 1));
+    }
+
+}
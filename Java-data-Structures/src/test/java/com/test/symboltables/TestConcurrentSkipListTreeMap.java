@@ -0,0 +1,195 @@
+package com.test.symboltables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.symboltables.ConcurrentSkipListTreeMap;
+import com.symboltables.I_TreeMapCustom;
+
+import junit.framework.TestCase;
+
+public class TestConcurrentSkipListTreeMap extends TestCase {
+
+    public void testEmpty() {
+        I_TreeMapCustom<Integer, String> st = new ConcurrentSkipListTreeMap<Integer, String>();
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.remove(3));
+        assertEquals(null, st.get(3));
+        assertEquals(false, st.containsKey(3));
+        assertEquals(false, st.containsValue("3"));
+        assertEquals(null, st.firstKey());
+        assertEquals(null, st.lastKey());
+        assertEquals(null, st.floorKey(3));
+        assertEquals(false, st.iterator().hasNext());
+    }
+
+    public void testListOperations() {
+        I_TreeMapCustom<Integer, String> st = new ConcurrentSkipListTreeMap<Integer, String>();
+        try {
+            st.put(2, null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+        st.put(20, "life");
+        st.put(3, "good");
+        st.put(4, "best");
+        st.put(55, "datastructure");
+        st.put(4, "better");
+        assertEquals(4, st.size());
+        assertEquals("better", st.get(4));
+        assertEquals(true, st.containsValue("life"));
+        assertEquals("good", st.remove(3));
+        assertEquals(null, st.remove(3));
+        assertEquals(3, st.size());
+
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : st)
+            keys.add(key);
+        assertEquals(Arrays.asList(4, 20, 55), keys);
+        assertEquals(Arrays.asList(20, 55), toList(st.tailMap(5).iterator()));
+        assertEquals(Arrays.asList(4), toList(st.headMap(20).iterator()));
+        assertEquals(Arrays.asList(20), toList(st.subMap(5, 55).iterator()));
+        assertEquals(Arrays.asList(55), toList(st.iterator(21)));
+
+        st = new ConcurrentSkipListTreeMap<Integer, String>(Collections.reverseOrder());
+        for (int i = 0; i < 5; i++)
+            st.put(i, "v" + i);
+        assertEquals(Arrays.asList(4, 3, 2, 1, 0), toList(st.iterator()));
+        assertEquals(Integer.valueOf(1), st.higherKey(2));
+    }
+
+    public void testAgainstTreeMap() {
+        I_TreeMapCustom<Integer, Integer> st = new ConcurrentSkipListTreeMap<Integer, Integer>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), st.remove(key));
+            } else {
+                expected.put(key, i);
+                st.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), st.size());
+        assertEquals(expected.firstKey(), st.firstKey());
+        assertEquals(expected.lastKey(), st.lastKey());
+        for (int key = -1; key <= 3001; key++) {
+            assertEquals(expected.get(key), st.get(key));
+            assertEquals(expected.ceilingKey(key), st.ceilingKey(key));
+            assertEquals(expected.floorKey(key), st.floorKey(key));
+            assertEquals(expected.higherKey(key), st.higherKey(key));
+            assertEquals(expected.lowerKey(key), st.lowerKey(key));
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), toList(st.iterator()));
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(st.values()));
+        assertEquals(new ArrayList<>(expected.subMap(100, 2000).keySet()), toList(st.subMap(100, 2000).iterator()));
+        assertEquals(expected.subMap(100, 2000).size(), st.subMap(100, 2000).size());
+
+        st.clear();
+        assertEquals(true, st.isEmpty());
+        assertEquals(0, st.size());
+    }
+
+    public void testConcurrentUpdates() throws InterruptedException {
+        final I_TreeMapCustom<Integer, Integer> st = new ConcurrentSkipListTreeMap<Integer, Integer>();
+        final int threadCount = 8;
+        final int keyCount = 160000;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int id = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        // the keys of the threads are interleaved, so that
+                        // they update neighbour nodes
+                        for (int i = id; i < keyCount; i += threadCount) {
+                            st.put(i, i);
+                            assertEquals(Integer.valueOf(i), st.get(i));
+                            assertEquals(Integer.valueOf(i), st.floorKey(i));
+                            assertEquals(Integer.valueOf(i), st.ceilingKey(i));
+                        }
+                        for (int i = id; i < keyCount; i += threadCount) {
+                            if (i % 2 == 0) {
+                                assertEquals(Integer.valueOf(i), st.remove(i));
+                                assertEquals(null, st.get(i));
+                            } else {
+                                Integer higher = st.higherKey(i);
+                                if (higher != null)
+                                    assertTrue(higher > i);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertNull(failure.get());
+        assertEquals(keyCount / 2, st.size());
+        int previous = -1;
+        int count = 0;
+        for (Integer key : st) {
+            assertEquals(1, key % 2);
+            assertTrue(key > previous);
+            previous = key;
+            count++;
+        }
+        assertEquals(keyCount / 2, count);
+        for (int i = 0; i < keyCount; i += 2)
+            assertEquals(Integer.valueOf(i + 1), st.ceilingKey(i));
+    }
+
+    public void testConcurrentRemoves() throws InterruptedException {
+        // every thread tries to remove every key, exactly one wins each key
+        final I_TreeMapCustom<Integer, Integer> st = new ConcurrentSkipListTreeMap<Integer, Integer>();
+        final int threadCount = 8;
+        final int keyCount = 50000;
+        for (int i = 0; i < keyCount; i++)
+            st.put(i, i);
+        final AtomicInteger winners = new AtomicInteger();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int id = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < keyCount; i++) {
+                        int key = (i * 7 + id * 977) % keyCount;
+                        if (st.remove(key) != null)
+                            winners.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertEquals(keyCount, winners.get());
+        assertEquals(0, st.size());
+        assertEquals(null, st.firstKey());
+        assertEquals(null, st.lastKey());
+    }
+
+    private static List<Integer> toList(Iterator<Integer> it) {
+        List<Integer> result = new ArrayList<>();
+        while (it.hasNext())
+            result.add(it.next());
+        return result;
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.test.symboltables;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.symboltables.CuckooHashingSymbolTableImpl;
+import com.symboltables.ProbeStatistics;
+
+import junit.framework.TestCase;
+
+public class TestCuckooHashingSymbolTableImpl extends TestCase {
+
+    /*** A key whose hash code is shared by all the keys. */
+    private static final class ConstantHashKey {
+        private final int id;
+
+        ConstantHashKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ConstantHashKey && ((ConstantHashKey) o).id == id;
+        }
+    }
+
+    public void testEmpty() {
+        CuckooHashingSymbolTableImpl<Integer, String> st = new CuckooHashingSymbolTableImpl<Integer, String>();
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.delete(3));
+        assertEquals(null, st.get(3));
+        assertEquals(false, st.containsKey(3));
+        assertEquals(false, st.containsValue("3"));
+        assertEquals(false, st.iterator().hasNext());
+        try {
+            new CuckooHashingSymbolTableImpl<Integer, String>(10, 1.0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testPutGetDelete() {
+        CuckooHashingSymbolTableImpl<Integer, String> st = new CuckooHashingSymbolTableImpl<Integer, String>();
+        for (int i = 0; i < 10000; i++)
+            st.put(i, "v" + i);
+        assertEquals(10000, st.size());
+        for (int i = 0; i < 10000; i++)
+            assertEquals("v" + i, st.get(i));
+        st.put(5, "five");
+        assertEquals(10000, st.size());
+        assertEquals("five", st.get(5));
+        assertEquals(true, st.containsValue("five"));
+        for (int i = 0; i < 10000; i += 2)
+            assertEquals("v" + i, st.delete(i));
+        assertEquals(5000, st.size());
+        Set<Integer> keys = new HashSet<>();
+        for (Integer key : st)
+            assertEquals(true, keys.add(key));
+        assertEquals(5000, keys.size());
+        st.clear();
+        assertEquals(true, st.isEmpty());
+    }
+
+    public void testAgainstHashMap() {
+        CuckooHashingSymbolTableImpl<Integer, Integer> st = new CuckooHashingSymbolTableImpl<Integer, Integer>();
+        Map<Integer, Integer> map = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 300000; i++) {
+            int key = random.nextInt(20000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(map.remove(key), st.delete(key));
+            } else {
+                map.put(key, i);
+                st.put(key, i);
+            }
+            assertEquals(map.size(), st.size());
+        }
+        for (Map.Entry<Integer, Integer> entry : map.entrySet())
+            assertEquals(entry.getValue(), st.get(entry.getKey()));
+        int[] count = { 0 };
+        st.forEach((key, value) -> {
+            assertEquals(map.get(key), value);
+            count[0]++;
+        });
+        assertEquals(map.size(), count[0]);
+    }
+
+    public void testBoundedProbeLength() {
+        int n = 900000;
+        CuckooHashingSymbolTableImpl<Integer, Integer> st = new CuckooHashingSymbolTableImpl<Integer, Integer>(n,
+                CuckooHashingSymbolTableImpl.DEFAULT_LOAD_FACTOR);
+        Random random = new Random(7);
+        Map<Integer, Integer> map = new HashMap<>();
+        while (map.size() < n) {
+            int key = random.nextInt();
+            map.put(key, key);
+            st.put(key, key);
+        }
+        ProbeStatistics stats = st.stats();
+        // filled to 86% without being resized
+        assertEquals(0, stats.getResizeCount());
+        assertEquals(n, stats.getSize());
+        // two buckets and the stash at most
+        assertTrue(stats.getMaxProbeLength() <= 12);
+        for (Map.Entry<Integer, Integer> entry : map.entrySet())
+            assertEquals(entry.getValue(), st.get(entry.getKey()));
+    }
+
+    public void testBoundedStash() {
+        CuckooHashingSymbolTableImpl<Integer, Integer> st = new CuckooHashingSymbolTableImpl<Integer, Integer>();
+        Random random = new Random(3);
+        for (int i = 0; i < 3000; i++) {
+            int key = random.nextInt();
+            st.put(key, key);
+            // two buckets and a stash of 4 keys at most, even while sparse
+            assertTrue(st.stats().getMaxProbeLength() <= 12);
+        }
+    }
+
+    public void testEqualHashCodes() {
+        CuckooHashingSymbolTableImpl<ConstantHashKey, Integer> st = new CuckooHashingSymbolTableImpl<ConstantHashKey, Integer>();
+        for (int i = 0; i < 50; i++)
+            st.put(new ConstantHashKey(i), i);
+        assertEquals(50, st.size());
+        // growing would not separate them
+        assertTrue(st.stats().getCapacity() <= 64);
+        for (int i = 0; i < 50; i++)
+            assertEquals(Integer.valueOf(i), st.get(new ConstantHashKey(i)));
+        for (int i = 0; i < 50; i += 2)
+            assertEquals(Integer.valueOf(i), st.delete(new ConstantHashKey(i)));
+        assertEquals(25, st.size());
+        assertEquals(null, st.get(new ConstantHashKey(2)));
+        int count = 0;
+        for (ConstantHashKey key : st) {
+            assertNotNull(st.get(key));
+            count++;
+        }
+        assertEquals(25, count);
+    }
+
+    public void testFailFastIterator() {
+        CuckooHashingSymbolTableImpl<Integer, Integer> st = new CuckooHashingSymbolTableImpl<Integer, Integer>();
+        for (int i = 0; i < 100; i++)
+            st.put(i, i);
+        Iterator<Integer> iterator = st.iterator();
+        iterator.next();
+        st.put(1000, 1000);
+        try {
+            iterator.next();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertNotNull(e);
+        }
+    }
+
+}
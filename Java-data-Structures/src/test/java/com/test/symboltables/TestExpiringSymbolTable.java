@@ -0,0 +1,135 @@
+package com.test.symboltables;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.symboltables.ExpiringSymbolTable;
+
+import junit.framework.TestCase;
+
+public class TestExpiringSymbolTable extends TestCase {
+
+    /*** The time read by the tested SymbolTables, in nanoseconds. */
+    private long now = 1000;
+
+    private void sleep(long duration, TimeUnit unit) {
+        now += unit.toNanos(duration);
+    }
+
+    public void testEmpty() {
+        ExpiringSymbolTable<Integer, String> st = new ExpiringSymbolTable<Integer, String>(1, TimeUnit.SECONDS);
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.delete(3));
+        assertEquals(null, st.get(3));
+        assertEquals(false, st.containsKey(3));
+        assertEquals(false, st.containsValue("3"));
+        assertEquals(false, st.iterator().hasNext());
+        assertEquals(-1, st.ttl(3, TimeUnit.SECONDS));
+        try {
+            new ExpiringSymbolTable<Integer, String>(0, TimeUnit.SECONDS);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testExpiration() {
+        List<String> expired = new ArrayList<>();
+        ExpiringSymbolTable<Integer, String> st = new ExpiringSymbolTable<Integer, String>(10, TimeUnit.SECONDS, 0,
+                () -> now, (key, value) -> expired.add(key + "=" + value));
+        st.put(1, "a");
+        st.put(2, "b", 1, TimeUnit.MINUTES);
+        st.put(3, "c", 500, TimeUnit.MILLISECONDS);
+        assertEquals(3, st.size());
+        assertEquals(10, st.ttl(1, TimeUnit.SECONDS));
+
+        sleep(600, TimeUnit.MILLISECONDS);
+        assertEquals(null, st.get(3));
+        assertEquals("a", st.get(1));
+        assertEquals(true, st.containsValue("b"));
+        assertEquals(false, st.containsValue("c"));
+
+        // a put resets the time to live
+        sleep(5, TimeUnit.SECONDS);
+        st.put(1, "aa");
+        sleep(9, TimeUnit.SECONDS);
+        assertEquals("aa", st.get(1));
+        sleep(2, TimeUnit.SECONDS);
+        assertEquals(null, st.get(1));
+        assertEquals(false, st.containsKey(1));
+        assertEquals("b", st.delete(2));
+        assertEquals(true, st.isEmpty());
+        assertEquals(2, expired.size());
+        assertEquals(true, expired.contains("3=c"));
+        assertEquals(true, expired.contains("1=aa"));
+    }
+
+    public void testReclaimedWithoutAccess() {
+        int[] expired = { 0 };
+        ExpiringSymbolTable<Integer, Integer> st = new ExpiringSymbolTable<Integer, Integer>(5, TimeUnit.SECONDS,
+                1000, () -> now, (key, value) -> expired[0]++);
+        for (int i = 0; i < 1000; i++)
+            st.put(i, i, 1 + i % 3, TimeUnit.HOURS);
+        for (int minute = 1; minute < 60; minute++) {
+            sleep(1, TimeUnit.MINUTES);
+            st.cleanUp();
+        }
+        assertEquals(1000, st.size());
+        sleep(31, TimeUnit.MINUTES);
+        st.cleanUp();
+        assertEquals(666, st.size());
+        assertEquals(334, expired[0]);
+        sleep(5, TimeUnit.HOURS);
+        st.cleanUp();
+        assertEquals(0, st.size());
+        assertEquals(1000, expired[0]);
+    }
+
+    public void testAgainstDeadlines() {
+        ExpiringSymbolTable<Integer, Integer> st = new ExpiringSymbolTable<Integer, Integer>(1, TimeUnit.SECONDS, 0,
+                () -> now, null);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        Random random = new Random(7);
+        long tick = 1L << 30;
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextInt(4) == 0) {
+                // from milliseconds to 10 days
+                long ttl = 1 + (long) Math.pow(10, 6 + 9 * random.nextDouble());
+                st.put(key, i, ttl, TimeUnit.NANOSECONDS);
+                deadlines.put(key, now + ttl);
+            } else {
+                Long deadline = deadlines.get(key);
+                boolean live = deadline != null && deadline > now;
+                assertEquals(live, st.get(key) != null);
+            }
+            sleep((long) Math.pow(10, 3 + 10 * random.nextDouble()), TimeUnit.NANOSECONDS);
+
+            if (i % 100 == 0) {
+                int live = 0;
+                int reclaimable = 0;
+                for (long deadline : deadlines.values()) {
+                    if (deadline > now)
+                        live++;
+                    if (deadline > now - 2 * tick)
+                        reclaimable++;
+                }
+                int size = st.size();
+                assertTrue(size >= live);
+                assertTrue(size <= reclaimable);
+                int count = 0;
+                for (Integer liveKey : st) {
+                    assertTrue(deadlines.get(liveKey) > now);
+                    count++;
+                }
+                assertEquals(live, count);
+            }
+        }
+    }
+
+}
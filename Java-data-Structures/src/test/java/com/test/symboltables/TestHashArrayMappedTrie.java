@@ -0,0 +1,225 @@
+package com.test.symboltables;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.symboltables.HashArrayMappedTrie;
+import com.symboltables.SymbolTable;
+
+import junit.framework.TestCase;
+
+public class TestHashArrayMappedTrie extends TestCase {
+
+    /*** A key whose hash code is shared by many keys. */
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 7;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+    }
+
+    public void testEmpty() {
+        HashArrayMappedTrie<Integer, String> st = new HashArrayMappedTrie<Integer, String>();
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.delete(3));
+        assertEquals(null, st.get(3));
+        assertEquals(false, st.containsKey(3));
+        assertEquals(false, st.containsValue("3"));
+        assertEquals(false, st.iterator().hasNext());
+        try {
+            st.put(null, "a");
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testPutGetDelete() {
+        HashArrayMappedTrie<Integer, String> st = new HashArrayMappedTrie<Integer, String>();
+        for (int i = 0; i < 10000; i++)
+            st.put(i, "v" + i);
+        assertEquals(10000, st.size());
+        for (int i = 0; i < 10000; i++)
+            assertEquals("v" + i, st.get(i));
+        st.put(5, "five");
+        assertEquals(10000, st.size());
+        assertEquals("five", st.get(5));
+        assertEquals(true, st.containsValue("five"));
+        for (int i = 0; i < 10000; i += 2)
+            assertEquals("v" + i, st.delete(i));
+        assertEquals(5000, st.size());
+        Set<Integer> keys = new HashSet<>();
+        for (Integer key : st)
+            assertEquals(true, keys.add(key));
+        assertEquals(5000, keys.size());
+        st.clear();
+        assertEquals(true, st.isEmpty());
+    }
+
+    public void testVersions() {
+        HashArrayMappedTrie<Integer, Integer> st = new HashArrayMappedTrie<Integer, Integer>();
+        for (int i = 0; i < 1000; i++)
+            st.put(i, i);
+        HashArrayMappedTrie<Integer, Integer> snapshot = st.snapshot();
+        for (int i = 0; i < 1000; i++)
+            st.put(i, -i);
+        st.delete(7);
+        st.put(1000, 1000);
+        assertEquals(1000, snapshot.size());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(Integer.valueOf(i), snapshot.get(i));
+        assertEquals(null, snapshot.get(1000));
+
+        HashArrayMappedTrie<Integer, Integer> plus = snapshot.plus(2000, 2000);
+        HashArrayMappedTrie<Integer, Integer> minus = plus.minus(3);
+        assertEquals(1000, snapshot.size());
+        assertEquals(1001, plus.size());
+        assertEquals(1000, minus.size());
+        assertEquals(Integer.valueOf(3), plus.get(3));
+        assertEquals(null, minus.get(3));
+        assertEquals(Integer.valueOf(2000), minus.get(2000));
+        assertEquals(true, minus.isReadOnly());
+        try {
+            snapshot.put(1, 1);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testCollisions() {
+        HashArrayMappedTrie<CollidingKey, Integer> st = new HashArrayMappedTrie<CollidingKey, Integer>();
+        for (int i = 0; i < 100; i++)
+            st.put(new CollidingKey(i), i);
+        HashArrayMappedTrie<CollidingKey, Integer> snapshot = st.snapshot();
+        assertEquals(100, st.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(Integer.valueOf(i), st.get(new CollidingKey(i)));
+        for (int i = 0; i < 100; i += 3)
+            assertEquals(Integer.valueOf(i), st.delete(new CollidingKey(i)));
+        assertEquals(66, st.size());
+        assertEquals(null, st.get(new CollidingKey(3)));
+        assertEquals(Integer.valueOf(4), st.get(new CollidingKey(4)));
+        assertEquals(Integer.valueOf(3), snapshot.get(new CollidingKey(3)));
+        int count = 0;
+        for (CollidingKey key : st) {
+            assertNotNull(st.get(key));
+            count++;
+        }
+        assertEquals(66, count);
+    }
+
+    public void testAgainstHashMap() {
+        HashArrayMappedTrie<Integer, Integer> st = new HashArrayMappedTrie<Integer, Integer>();
+        Map<Integer, Integer> map = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(map.remove(key), st.delete(key));
+            } else {
+                map.put(key, i);
+                st.put(key, i);
+            }
+            assertEquals(map.size(), st.size());
+        }
+        for (Map.Entry<Integer, Integer> entry : map.entrySet())
+            assertEquals(entry.getValue(), st.get(entry.getKey()));
+        int[] count = { 0 };
+        st.forEach((key, value) -> {
+            assertEquals(map.get(key), value);
+            count[0]++;
+        });
+        assertEquals(map.size(), count[0]);
+    }
+
+    public void testBatch() {
+        HashArrayMappedTrie<Integer, Integer> st = new HashArrayMappedTrie<Integer, Integer>();
+        for (int i = 0; i < 100; i++)
+            st.put(i, i);
+        HashArrayMappedTrie<Integer, Integer> snapshot = st.snapshot();
+        AtomicReference<SymbolTable<Integer, Integer>> leaked = new AtomicReference<>();
+        st.batch(batch -> {
+            for (int i = 0; i < 10000; i++)
+                batch.put(i, i + 1);
+            for (int i = 0; i < 10000; i += 2)
+                batch.delete(i);
+            assertEquals(5000, batch.size());
+            assertEquals(null, st.get(100));
+            leaked.set(batch);
+        });
+        assertEquals(5000, st.size());
+        assertEquals(Integer.valueOf(2), st.get(1));
+        assertEquals(null, st.get(2));
+        assertEquals(100, snapshot.size());
+        assertEquals(Integer.valueOf(2), snapshot.get(2));
+        try {
+            leaked.get().put(1, 1);
+            fail();
+        } catch (IllegalStateException e) {
+            assertNotNull(e);
+        }
+
+        // a failed batch publishes nothing
+        try {
+            st.batch(batch -> {
+                batch.clear();
+                throw new IllegalArgumentException();
+            });
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(5000, st.size());
+        }
+    }
+
+    public void testConcurrentReaders() throws InterruptedException {
+        HashArrayMappedTrie<Integer, Integer> st = new HashArrayMappedTrie<Integer, Integer>();
+        int n = 1000;
+        for (int i = 0; i < n; i++)
+            st.put(i, 0);
+        Thread[] readers = new Thread[4];
+        AtomicReference<String> failure = new AtomicReference<>();
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                for (int round = 0; round < 200; round++) {
+                    // every version holds the same value for all the keys
+                    HashArrayMappedTrie<Integer, Integer> snapshot = st.snapshot();
+                    Integer expected = snapshot.get(0);
+                    for (Integer key : snapshot) {
+                        if (!expected.equals(snapshot.get(key)))
+                            failure.set("Inconsistent snapshot");
+                    }
+                }
+            });
+            readers[r].start();
+        }
+        for (int version = 1; version <= 200; version++) {
+            int value = version;
+            st.batch(batch -> {
+                for (int i = 0; i < n; i++)
+                    batch.put(i, value);
+            });
+        }
+        for (Thread reader : readers)
+            reader.join();
+        assertEquals(null, failure.get());
+        assertEquals(Integer.valueOf(200), st.get(n - 1));
+    }
+
+}
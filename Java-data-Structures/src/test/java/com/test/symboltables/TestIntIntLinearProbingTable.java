@@ -0,0 +1,105 @@
+package com.test.symboltables;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.symboltables.IntIntLinearProbingTable;
+
+import junit.framework.TestCase;
+
+public class TestIntIntLinearProbingTable extends TestCase {
+
+    public void testEmpty() {
+        // test empty table
+        IntIntLinearProbingTable st = new IntIntLinearProbingTable();
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(0, st.delete(3));
+        assertEquals(0, st.get(3));
+        assertEquals(false, st.containsKey(3));
+        assertEquals(false, st.containsKey(0));
+        assertEquals(false, st.containsValue(3));
+    }
+
+    public void testListOperations() {
+        IntIntLinearProbingTable st = new IntIntLinearProbingTable(0, -1);
+        assertEquals(-1, st.getNoEntryValue());
+
+        st.put(20, 200);
+        st.put(3, 30);
+        st.put(4, 40);
+        st.put(0, 7);
+        st.put(-6, -60);
+        st.put(Integer.MIN_VALUE, 1);
+        st.put(Integer.MAX_VALUE, 2);
+
+        assertEquals(false, st.isEmpty());
+        assertEquals(7, st.size());
+        assertEquals(30, st.get(3));
+        assertEquals(7, st.get(0));
+        assertEquals(-60, st.get(-6));
+        assertEquals(1, st.get(Integer.MIN_VALUE));
+        assertEquals(-1, st.get(980));
+        assertEquals(true, st.containsKey(0));
+        assertEquals(true, st.containsValue(2));
+        assertEquals(true, st.containsValue(7));
+        assertEquals(false, st.containsValue(1000));
+
+        st.put(3, 33);
+        assertEquals(7, st.size());
+        assertEquals(33, st.get(3));
+
+        assertEquals(-1, st.delete(4536));
+        assertEquals(7, st.delete(0));
+        assertEquals(false, st.containsKey(0));
+        assertEquals(6, st.size());
+        assertEquals(33, st.delete(3));
+        assertEquals(5, st.size());
+
+        st.clear();
+        assertEquals(true, st.isEmpty());
+        assertEquals(false, st.containsKey(20));
+
+        for (int i = 0; i < 3000; i++) {
+            st.put(201 + i, i);
+        }
+        assertEquals(3000, st.size());
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(i, st.get(201 + i));
+        }
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(i, st.delete(201 + i));
+        }
+        assertEquals(true, st.isEmpty());
+    }
+
+    public void testAgainstHashMap() {
+        // random operations on a small key space to force long clusters
+        IntIntLinearProbingTable st = new IntIntLinearProbingTable();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            int value = random.nextInt();
+            switch (random.nextInt(3)) {
+            case 0:
+                st.put(key, value);
+                expected.put(key, value);
+                break;
+            case 1:
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? 0 : removed.intValue(), st.delete(key));
+                break;
+            default:
+                assertEquals(expected.containsKey(key), st.containsKey(key));
+                break;
+            }
+            assertEquals(expected.size(), st.size());
+        }
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), st.get(entry.getKey()));
+        }
+    }
+
+}
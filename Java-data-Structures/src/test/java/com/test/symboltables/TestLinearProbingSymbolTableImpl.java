@@ -1,9 +1,14 @@
 package com.test.symboltables;
 
+import java.util.ConcurrentModificationException;
+
 import com.lists.ArrayImplOfList;
 import com.lists.List;
+import com.symboltables.HashIndexing;
 import com.symboltables.LinearProbingSymbolTableImpl;
+import com.symboltables.ProbeStatistics;
 import com.symboltables.SymbolTable;
+import com.symboltables.SymbolTableCursor;
 
 import junit.framework.TestCase;
 
@@ -110,4 +115,220 @@ public class TestLinearProbingSymbolTableImpl extends TestCase{
         
     }
     
+    public void testDeleteInsideClusters() {
+        SymbolTableChecks.checkAgainstHashMap(new LinearProbingSymbolTableImpl<Integer, Integer>(), 500);
+    }
+
+    public void testRobinHood() {
+        SymbolTable<Integer, String> st = new LinearProbingSymbolTableImpl<Integer, String>(true);
+        st.put(20, "life");
+        st.put(3, "good");
+        st.put(19, "best");
+        st.put(35, "java");
+        st.put(51, "c++");
+        assertEquals(5, st.size());
+        assertEquals("java", st.get(35));
+        assertEquals(null, st.get(67));
+        assertEquals("good", st.delete(3));
+        assertEquals("java", st.get(35));
+        assertEquals("c++", st.get(51));
+        st.clear();
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.get(35));
+
+        SymbolTableChecks.checkAgainstHashMap(new LinearProbingSymbolTableImpl<Integer, Integer>(true), 500);
+    }
+
+    public void testPowerOfTwoIndexing() {
+        SymbolTable<Integer, String> st = new LinearProbingSymbolTableImpl<Integer, String>(
+                HashIndexing.POWER_OF_TWO);
+        st.put(20, "life");
+        st.put(36, "good");
+        assertEquals("good", st.get(36));
+        assertEquals(null, st.get(52));
+        assertEquals("life", st.delete(20));
+        assertEquals(1, st.size());
+
+        SymbolTableChecks.checkAgainstHashMap(
+                new LinearProbingSymbolTableImpl<Integer, Integer>(HashIndexing.POWER_OF_TWO), 500);
+        SymbolTableChecks.checkAgainstHashMap(
+                new LinearProbingSymbolTableImpl<Integer, Integer>(true, HashIndexing.POWER_OF_TWO), 500);
+
+        // strided keys all share the same low bits, the spreading must
+        // scatter them
+        LinearProbingSymbolTableImpl<Integer, String> modulo = new LinearProbingSymbolTableImpl<Integer, String>(
+                HashIndexing.MODULO);
+        LinearProbingSymbolTableImpl<Integer, String> spread = new LinearProbingSymbolTableImpl<Integer, String>(
+                HashIndexing.POWER_OF_TWO);
+        for (int i = 0; i < 1000; i++) {
+            modulo.put(i << 12, "x");
+            spread.put(i << 12, "x");
+        }
+        assertEquals(true, 10 * spread.stats().getMeanProbeLength() < modulo.stats().getMeanProbeLength());
+    }
+
+    public void testStats() {
+        LinearProbingSymbolTableImpl<Integer, String> st = new LinearProbingSymbolTableImpl<Integer, String>();
+        ProbeStatistics stats = st.stats();
+        assertEquals(0, stats.getSize());
+        assertEquals(0, stats.getMaxProbeLength());
+        assertEquals(0.0, stats.getMeanProbeLength());
+        assertEquals(0, stats.getResizeCount());
+
+        // 0, 16 and 32 share the home slot 0
+        st.put(0, "a");
+        st.put(16, "b");
+        st.put(32, "c");
+        st.put(5, "d");
+        stats = st.stats();
+        assertEquals(4, stats.getSize());
+        assertEquals(16, stats.getCapacity());
+        assertEquals(0.25, stats.getLoadFactor());
+        assertEquals(3, stats.getMaxProbeLength());
+        assertEquals(7.0 / 4, stats.getMeanProbeLength());
+
+        for (int i = 0; i < 100; i++)
+            st.put(100 + i, "e");
+        assertEquals(true, st.stats().getResizeCount() > 0);
+
+        // the Robin Hood policy equalizes the probe lengths
+        LinearProbingSymbolTableImpl<Integer, String> linear = new LinearProbingSymbolTableImpl<Integer, String>();
+        LinearProbingSymbolTableImpl<Integer, String> robinHood = new LinearProbingSymbolTableImpl<Integer, String>(
+                true);
+        for (int i = 0; i < 14; i++) {
+            linear.put(i * 17, "x");
+            robinHood.put(i * 17, "x");
+        }
+        assertEquals(linear.stats().getMeanProbeLength(), robinHood.stats().getMeanProbeLength());
+        assertEquals(true, robinHood.stats().getMaxProbeLength() <= linear.stats().getMaxProbeLength());
+    }
+
+    public void testPresizing() {
+        try {
+            new LinearProbingSymbolTableImpl<Integer, Integer>(-1, 0.5);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        try {
+            new LinearProbingSymbolTableImpl<Integer, Integer>(10, 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+
+        // no resize while the expected size is not reached
+        LinearProbingSymbolTableImpl<Integer, Integer> presized = new LinearProbingSymbolTableImpl<Integer, Integer>(
+                1000, 0.5, false, HashIndexing.POWER_OF_TWO);
+        for (int i = 0; i < 1000; i++)
+            presized.put(i, i);
+        assertEquals(0, presized.stats().getResizeCount());
+        assertEquals(true, presized.stats().getLoadFactor() <= 0.5);
+        for (int i = 1000; i < 2000; i++)
+            presized.put(i, i);
+        assertEquals(1, presized.stats().getResizeCount());
+
+        // overwriting the keys of a full presized SymbolTable never resizes it
+        for (boolean robinHood : new boolean[] { false, true }) {
+            LinearProbingSymbolTableImpl<Integer, Integer> full = new LinearProbingSymbolTableImpl<Integer, Integer>(
+                    10, 0.5, robinHood, HashIndexing.MODULO);
+            for (int i = 0; i < 10; i++)
+                full.put(i, i);
+            for (int i = 0; i < 10; i++)
+                full.put(i, -i);
+            assertEquals(0, full.stats().getResizeCount());
+            assertEquals(Integer.valueOf(-3), full.get(3));
+            full.put(10, 10);
+            assertEquals(1, full.stats().getResizeCount());
+            for (int i = 0; i <= 10; i++)
+                assertEquals(Integer.valueOf(i == 10 ? 10 : -i), full.get(i));
+        }
+
+        // the default load factor keeps the SymbolTable half empty
+        LinearProbingSymbolTableImpl<Integer, Integer> growing = new LinearProbingSymbolTableImpl<Integer, Integer>();
+        for (int i = 0; i < 5000; i++) {
+            growing.put(i, i);
+            assertEquals(true, growing.stats().getLoadFactor() <= 0.5);
+        }
+
+        // putAll resizes once
+        LinearProbingSymbolTableImpl<Integer, Integer> copy = new LinearProbingSymbolTableImpl<Integer, Integer>();
+        copy.putAll(growing);
+        assertEquals(5000, copy.size());
+        assertEquals(1, copy.stats().getResizeCount());
+        for (int i = 0; i < 5000; i++)
+            assertEquals(Integer.valueOf(i), copy.get(i));
+        copy.clear();
+        assertEquals(true, copy.isEmpty());
+        copy.put(1, 1);
+        assertEquals(Integer.valueOf(1), copy.get(1));
+    }
+
+    public void testCursor() {
+        checkCursor(new LinearProbingSymbolTableImpl<Integer, Integer>());
+        checkCursor(new LinearProbingSymbolTableImpl<Integer, Integer>(true));
+    }
+
+    /*
+     * Fill the given SymbolTable, then check that its cursor and its iterator
+     * see every entry once and are fail-fast.
+     */
+    private void checkCursor(LinearProbingSymbolTableImpl<Integer, Integer> st) {
+        SymbolTableCursor<Integer, Integer> cursor = st.cursor();
+        assertEquals(false, cursor.next());
+        try {
+            cursor.key();
+            fail();
+        } catch (IllegalStateException e) {
+            assertNotNull(e);
+        }
+
+        int n = 5000;
+        for (int i = 0; i < n; i++)
+            st.put(i, -i);
+        long keySum = 0;
+        int count = 0;
+        cursor = st.cursor();
+        while (cursor.next()) {
+            assertEquals(Integer.valueOf(-cursor.key()), cursor.value());
+            keySum += cursor.key();
+            count++;
+        }
+        assertEquals(false, cursor.next());
+        assertEquals(n, count);
+        assertEquals((long) n * (n - 1) / 2, keySum);
+
+        count = 0;
+        for (Integer key : st) {
+            assertNotNull(key);
+            count++;
+        }
+        assertEquals(n, count);
+
+        // replacing a value is not a structural modification
+        cursor = st.cursor();
+        assertEquals(true, cursor.next());
+        st.put(cursor.key(), 1);
+        assertEquals(Integer.valueOf(1), cursor.value());
+        st.put(n, n);
+        try {
+            cursor.next();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertNotNull(e);
+        }
+        try {
+            for (Integer key : st)
+                st.delete(key);
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testEntryOperations() {
+        SymbolTableChecks.checkEntryOperations(new LinearProbingSymbolTableImpl<String, Integer>());
+        SymbolTableChecks.checkEntryOperations(new LinearProbingSymbolTableImpl<String, Integer>(true));
+    }
+
 }
@@ -0,0 +1,105 @@
+package com.test.symboltables;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.symboltables.LongLongLinearProbingTable;
+
+import junit.framework.TestCase;
+
+public class TestLongLongLinearProbingTable extends TestCase {
+
+    public void testEmpty() {
+        // test empty table
+        LongLongLinearProbingTable st = new LongLongLinearProbingTable();
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(0L, st.delete(3L));
+        assertEquals(0L, st.get(3L));
+        assertEquals(false, st.containsKey(3L));
+        assertEquals(false, st.containsKey(0L));
+        assertEquals(false, st.containsValue(3L));
+    }
+
+    public void testListOperations() {
+        LongLongLinearProbingTable st = new LongLongLinearProbingTable(0, -1L);
+        assertEquals(-1L, st.getNoEntryValue());
+
+        st.put(20L, 200L);
+        st.put(3L, 30L);
+        st.put(4L, 40L);
+        st.put(0L, 7L);
+        st.put(-6L, -60L);
+        st.put(Long.MIN_VALUE, 1L);
+        st.put(Long.MAX_VALUE, 2L);
+
+        assertEquals(false, st.isEmpty());
+        assertEquals(7, st.size());
+        assertEquals(30L, st.get(3L));
+        assertEquals(7L, st.get(0L));
+        assertEquals(-60L, st.get(-6L));
+        assertEquals(1L, st.get(Long.MIN_VALUE));
+        assertEquals(-1L, st.get(980L));
+        assertEquals(true, st.containsKey(0L));
+        assertEquals(true, st.containsValue(2L));
+        assertEquals(true, st.containsValue(7L));
+        assertEquals(false, st.containsValue(1000L));
+
+        st.put(3L, 33L);
+        assertEquals(7, st.size());
+        assertEquals(33L, st.get(3L));
+
+        assertEquals(-1L, st.delete(4536L));
+        assertEquals(7L, st.delete(0L));
+        assertEquals(false, st.containsKey(0L));
+        assertEquals(6, st.size());
+        assertEquals(33L, st.delete(3L));
+        assertEquals(5, st.size());
+
+        st.clear();
+        assertEquals(true, st.isEmpty());
+        assertEquals(false, st.containsKey(20L));
+
+        for (long i = 0; i < 3000; i++) {
+            st.put(201 + i, i);
+        }
+        assertEquals(3000, st.size());
+        for (long i = 0; i < 3000; i++) {
+            assertEquals(i, st.get(201 + i));
+        }
+        for (long i = 0; i < 3000; i++) {
+            assertEquals(i, st.delete(201 + i));
+        }
+        assertEquals(true, st.isEmpty());
+    }
+
+    public void testAgainstHashMap() {
+        // random operations on a small key space to force long clusters
+        LongLongLinearProbingTable st = new LongLongLinearProbingTable();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextInt(2000) - 1000;
+            long value = random.nextLong();
+            switch (random.nextInt(3)) {
+            case 0:
+                st.put(key, value);
+                expected.put(key, value);
+                break;
+            case 1:
+                Long removed = expected.remove(key);
+                assertEquals(removed == null ? 0L : removed.longValue(), st.delete(key));
+                break;
+            default:
+                assertEquals(expected.containsKey(key), st.containsKey(key));
+                break;
+            }
+            assertEquals(expected.size(), st.size());
+        }
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().longValue(), st.get(entry.getKey()));
+        }
+    }
+
+}
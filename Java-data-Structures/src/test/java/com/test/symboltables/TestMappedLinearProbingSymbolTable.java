@@ -0,0 +1,183 @@
+package com.test.symboltables;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.symboltables.MappedLinearProbingSymbolTable;
+
+import junit.framework.TestCase;
+
+public class TestMappedLinearProbingSymbolTable extends TestCase {
+
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+        file = File.createTempFile("symboltable", ".map");
+        file.delete();
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".resize").delete();
+    }
+
+    public void testEmpty() throws IOException {
+        MappedLinearProbingSymbolTable st = new MappedLinearProbingSymbolTable(file, 4, 8, 0);
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.delete(key(3)));
+        assertEquals(null, st.get(key(3)));
+        assertEquals(false, st.containsKey(key(3)));
+        assertEquals(false, st.containsValue(value(3)));
+        assertEquals(false, st.iterator().hasNext());
+        st.close();
+    }
+
+    public void testListOperations() throws IOException {
+        MappedLinearProbingSymbolTable st = new MappedLinearProbingSymbolTable(file, 4, 8, 0);
+        try {
+            st.put(key(1), null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+        try {
+            st.put(new byte[3], value(1));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+
+        st.put(key(20), value(200));
+        st.put(key(3), value(30));
+        st.put(key(4), value(40));
+        assertEquals(3, st.size());
+        assertEquals(true, Arrays.equals(value(30), st.get(key(3))));
+        assertEquals(true, st.containsValue(value(40)));
+        st.put(key(3), value(31));
+        assertEquals(3, st.size());
+        assertEquals(true, Arrays.equals(value(31), st.get(key(3))));
+        assertEquals(true, Arrays.equals(value(200), st.delete(key(20))));
+        assertEquals(false, st.containsKey(key(20)));
+        assertEquals(2, st.size());
+
+        int count = 0;
+        for (byte[] key : st) {
+            assertEquals(true, st.containsKey(key));
+            count++;
+        }
+        assertEquals(2, count);
+        st.clear();
+        assertEquals(true, st.isEmpty());
+        assertEquals(false, st.containsKey(key(3)));
+        st.close();
+    }
+
+    public void testAgainstHashMap() throws IOException {
+        Map<Integer, Long> expected = new HashMap<>();
+        MappedLinearProbingSymbolTable st = new MappedLinearProbingSymbolTable(file, 4, 8, 0);
+        Random random = new Random(7);
+        for (int i = 0; i < 50000; i++) {
+            int k = random.nextInt(5000) * 16;
+            switch (random.nextInt(3)) {
+            case 0:
+                st.put(key(k), value(i));
+                expected.put(k, (long) i);
+                break;
+            case 1:
+                byte[] removed = st.delete(key(k));
+                Long previous = expected.remove(k);
+                assertEquals(previous == null, removed == null);
+                if (previous != null)
+                    assertEquals(true, Arrays.equals(value(previous), removed));
+                break;
+            default:
+                assertEquals(expected.containsKey(k), st.containsKey(key(k)));
+                break;
+            }
+            assertEquals(expected.size(), st.size());
+        }
+        for (Map.Entry<Integer, Long> entry : expected.entrySet()) {
+            assertEquals(true, Arrays.equals(value(entry.getValue()), st.get(key(entry.getKey()))));
+        }
+        st.close();
+    }
+
+    public void testReopen() throws IOException {
+        MappedLinearProbingSymbolTable st = new MappedLinearProbingSymbolTable(file, 4, 8, 10);
+        for (int i = 0; i < 1000; i++)
+            st.put(key(i), value(i * 10L));
+        long capacity = st.capacity();
+        assertEquals(true, capacity >= 1024);
+        // the resized files have replaced the file
+        assertEquals(false, new File(file.getPath() + ".resize").exists());
+        st.close();
+
+        st = new MappedLinearProbingSymbolTable(file, 4, 8, 0);
+        assertEquals(1000, st.size());
+        assertEquals(capacity, st.capacity());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(true, Arrays.equals(value(i * 10L), st.get(key(i))));
+        st.close();
+
+        try {
+            new MappedLinearProbingSymbolTable(file, 8, 8, 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testFailedResize() throws IOException {
+        // a directory prevents the creation of the resized file
+        File blocker = new File(file.getPath() + ".resize");
+        File child = new File(blocker, "child");
+        assertEquals(true, blocker.mkdir());
+        assertEquals(true, child.createNewFile());
+        try {
+            MappedLinearProbingSymbolTable st = new MappedLinearProbingSymbolTable(file, 4, 8, 0);
+            long capacity = st.capacity();
+            int size = 0;
+            try {
+                for (; size < 10000; size++)
+                    st.put(key(size), value(size));
+                fail();
+            } catch (UncheckedIOException e) {
+                assertNotNull(e);
+            }
+            // the entry was put before the failed resize, and the
+            // SymbolTable still works on its file
+            size++;
+            assertEquals(capacity, st.capacity());
+            assertEquals(size, st.size());
+            for (int i = 0; i < size; i++)
+                assertEquals(true, Arrays.equals(value(i), st.get(key(i))));
+            assertEquals(true, Arrays.equals(value(0), st.delete(key(0))));
+            st.close();
+
+            st = new MappedLinearProbingSymbolTable(file, 4, 8, 0);
+            assertEquals(size - 1, st.size());
+            st.close();
+        } finally {
+            child.delete();
+            blocker.delete();
+        }
+    }
+
+    private static byte[] key(int k) {
+        return ByteBuffer.allocate(4).putInt(k).array();
+    }
+
+    private static byte[] value(long v) {
+        return ByteBuffer.allocate(8).putLong(v).array();
+    }
+
+}
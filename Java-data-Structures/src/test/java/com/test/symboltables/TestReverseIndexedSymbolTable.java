@@ -0,0 +1,118 @@
+package com.test.symboltables;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.symboltables.BstSymbolTableImpl;
+import com.symboltables.ReverseIndexedSymbolTable;
+import com.symboltables.SeparateChainingSymbolTableImpl;
+import com.symboltables.SymbolTable;
+
+import junit.framework.TestCase;
+
+public class TestReverseIndexedSymbolTable extends TestCase {
+
+    public void testEmpty() {
+        ReverseIndexedSymbolTable<Integer, String> st = new ReverseIndexedSymbolTable<Integer, String>();
+        assertEquals(0, st.size());
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.delete(3));
+        assertEquals(false, st.containsValue("3"));
+        assertEquals(0, st.countKeysForValue("3"));
+        assertEquals(false, st.keysForValue("3").iterator().hasNext());
+    }
+
+    public void testListOperations() {
+        ReverseIndexedSymbolTable<Integer, String> st = new ReverseIndexedSymbolTable<Integer, String>();
+        st.put(1, "eu-west");
+        st.put(2, "eu-west");
+        st.put(3, "us-east");
+        assertEquals(3, st.size());
+        assertEquals(true, st.containsValue("eu-west"));
+        assertEquals(2, st.countKeysForValue("eu-west"));
+        assertEquals(keys(1, 2), toSet(st.keysForValue("eu-west")));
+
+        st.put(2, "us-east");
+        assertEquals(keys(1), toSet(st.keysForValue("eu-west")));
+        assertEquals(keys(2, 3), toSet(st.keysForValue("us-east")));
+        st.put(2, "us-east");
+        assertEquals(2, st.countKeysForValue("us-east"));
+
+        assertEquals("eu-west", st.delete(1));
+        assertEquals(false, st.containsValue("eu-west"));
+        assertEquals(0, st.countKeysForValue("eu-west"));
+
+        st.clear();
+        assertEquals(false, st.containsValue("us-east"));
+        assertEquals(true, st.isEmpty());
+    }
+
+    public void testExistingMappings() {
+        SymbolTable<Integer, String> bst = new BstSymbolTableImpl<Integer, String>();
+        bst.put(5, "a");
+        bst.put(7, "a");
+        ReverseIndexedSymbolTable<Integer, String> st = new ReverseIndexedSymbolTable<Integer, String>(bst);
+        assertEquals(keys(5, 7), toSet(st.keysForValue("a")));
+        assertEquals("b", st.merge(8, "b", (a, b) -> a + b));
+        assertEquals("bb", st.merge(8, "b", (a, b) -> a + b));
+        assertEquals(true, st.containsValue("bb"));
+        assertEquals(false, st.containsValue("b"));
+        assertEquals("bb", bst.get(8));
+        assertEquals(3, bst.size());
+    }
+
+    public void testPutEqualValue() {
+        ReverseIndexedSymbolTable<Integer, String> st = new ReverseIndexedSymbolTable<Integer, String>();
+        String value = new String("v");
+        st.put(1, "v");
+        st.put(1, value);
+        // the equal value replaces the stored one
+        assertSame(value, st.get(1));
+        assertEquals(1, st.countKeysForValue("v"));
+    }
+
+    public void testAgainstHashMap() {
+        ReverseIndexedSymbolTable<Integer, Integer> st = new ReverseIndexedSymbolTable<Integer, Integer>(
+                new SeparateChainingSymbolTableImpl<Integer, Integer>());
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(2000);
+            int value = random.nextInt(100);
+            if (random.nextBoolean()) {
+                st.put(key, value);
+                expected.put(key, value);
+            } else {
+                assertEquals(expected.remove(key), st.delete(key));
+            }
+            assertEquals(expected.containsValue(value), st.containsValue(value));
+        }
+        for (int value = 0; value < 100; value++) {
+            Set<Integer> keys = new HashSet<>();
+            for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+                if (entry.getValue() == value)
+                    keys.add(entry.getKey());
+            }
+            assertEquals(keys, toSet(st.keysForValue(value)));
+            assertEquals(keys.size(), st.countKeysForValue(value));
+        }
+    }
+
+    private static Set<Integer> keys(Integer... keys) {
+        Set<Integer> set = new HashSet<>();
+        for (Integer key : keys)
+            set.add(key);
+        return set;
+    }
+
+    private static Set<Integer> toSet(Iterable<Integer> keys) {
+        Set<Integer> set = new HashSet<>();
+        for (Integer key : keys)
+            set.add(key);
+        return set;
+    }
+
+}
@@ -1,9 +1,19 @@
 package com.test.symboltables;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
 import com.lists.ArrayImplOfList;
 import com.lists.List;
+import com.symboltables.HashIndexing;
 import com.symboltables.SeparateChainingSymbolTableImpl;
 import com.symboltables.SymbolTable;
+import com.symboltables.SymbolTableCursor;
 
 import junit.framework.TestCase;
 
@@ -109,4 +119,376 @@ public class TestSeparateChainingSymbolTableImpl extends TestCase{
         assertEquals(3000, st.size());       
     }
     
+    public void testPowerOfTwoIndexing() {
+        SymbolTable<Integer, String> st = new SeparateChainingSymbolTableImpl<Integer, String>(
+                HashIndexing.POWER_OF_TWO);
+        st.put(20, "life");
+        st.put(36, "good");
+        assertEquals("good", st.get(36));
+        assertEquals(null, st.get(52));
+        assertEquals("life", st.delete(20));
+        assertEquals(1, st.size());
+
+        SymbolTableChecks.checkAgainstHashMap(
+                new SeparateChainingSymbolTableImpl<Integer, Integer>(HashIndexing.POWER_OF_TWO), 5000);
+    }
+
+    public void testPresizing() {
+        try {
+            new SeparateChainingSymbolTableImpl<Integer, Integer>(-1, 0.5);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        try {
+            new SeparateChainingSymbolTableImpl<Integer, Integer>(10, 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+
+        SeparateChainingSymbolTableImpl<Integer, Integer> presized = new SeparateChainingSymbolTableImpl<Integer, Integer>(
+                1000, 0.75, HashIndexing.POWER_OF_TWO);
+        for (int i = 0; i < 5000; i++)
+            presized.put(i, i);
+
+        // overwriting the keys of a full presized SymbolTable never resizes
+        // it, so an iterator created before stays valid
+        SeparateChainingSymbolTableImpl<Integer, Integer> full = new SeparateChainingSymbolTableImpl<Integer, Integer>(
+                10, 0.5);
+        for (int i = 0; i < 10; i++)
+            full.put(i, i);
+        Iterator<Integer> iterator = full.iterator();
+        for (int i = 0; i < 10; i++)
+            full.put(i, -i);
+        int count = 0;
+        while (iterator.hasNext()) {
+            Integer key = iterator.next();
+            assertEquals(Integer.valueOf(-key), full.get(key));
+            count++;
+        }
+        assertEquals(10, count);
+
+        // putAll copies everything, and the copy stays usable after a clear
+        SeparateChainingSymbolTableImpl<Integer, Integer> copy = new SeparateChainingSymbolTableImpl<Integer, Integer>();
+        copy.putAll(presized);
+        assertEquals(5000, copy.size());
+        for (int i = 0; i < 5000; i++)
+            assertEquals(Integer.valueOf(i), copy.get(i));
+        copy.clear();
+        assertEquals(true, copy.isEmpty());
+        copy.put(1, 1);
+        assertEquals(Integer.valueOf(1), copy.get(1));
+
+        SymbolTableChecks.checkAgainstHashMap(new SeparateChainingSymbolTableImpl<Integer, Integer>(10, 0.75), 5000);
+    }
+
+    public void testIncrementalResize() {
+        SeparateChainingSymbolTableImpl<Integer, Integer> st = new SeparateChainingSymbolTableImpl<Integer, Integer>(
+                true);
+        assertEquals(false, st.isResizing());
+        int size = 0;
+        while (!st.isResizing()) {
+            st.put(size, size);
+            size++;
+        }
+        // every key is reachable during the migration
+        for (int i = 0; i < size; i++)
+            assertEquals(Integer.valueOf(i), st.get(i));
+        assertEquals(true, st.containsValue(0));
+        assertEquals(true, st.containsValue(size - 1));
+        List<Integer> keys = new ArrayImplOfList<>();
+        for (Integer key : st)
+            keys.add(key);
+        assertEquals(size, keys.size());
+        assertEquals(Integer.valueOf(0), st.delete(0));
+        assertEquals(null, st.get(0));
+        st.put(0, 0);
+
+        // the migration ends after a bounded number of operations
+        int puts = 0;
+        while (st.isResizing()) {
+            st.put(size + puts, size + puts);
+            puts++;
+        }
+        assertEquals(true, puts < size);
+        assertEquals(size + puts, st.size());
+        for (int i = 0; i < size + puts; i++)
+            assertEquals(Integer.valueOf(i), st.get(i));
+
+        SymbolTableChecks.checkAgainstHashMap(new SeparateChainingSymbolTableImpl<Integer, Integer>(true), 5000);
+        SymbolTableChecks.checkAgainstHashMap(
+                new SeparateChainingSymbolTableImpl<Integer, Integer>(0, 0.75, HashIndexing.POWER_OF_TWO, true), 5000);
+    }
+
+    public void testTreeifiedBuckets() {
+        SeparateChainingSymbolTableImpl<Object, Integer> st = new SeparateChainingSymbolTableImpl<Object, Integer>(0,
+                SeparateChainingSymbolTableImpl.DEFAULT_LOAD_FACTOR, HashIndexing.MODULO, false, true);
+        // all the keys fall in the same bucket
+        int n = 2000;
+        for (int i = 0; i < n; i++)
+            st.put(new CollidingKey(i), i);
+        assertEquals(n, st.size());
+        for (int i = 0; i < n; i++)
+            assertEquals(Integer.valueOf(i), st.get(new CollidingKey(i)));
+        st.put(new CollidingKey(0), -1);
+        assertEquals(n, st.size());
+        assertEquals(Integer.valueOf(-1), st.get(new CollidingKey(0)));
+        assertEquals(true, st.containsValue(n - 1));
+        int count = 0;
+        for (Object key : st) {
+            assertEquals(true, st.containsKey(key));
+            count++;
+        }
+        assertEquals(n, count);
+
+        // a key of another class converts the tree back to a chain
+        st.put("other", -2);
+        assertEquals(n + 1, st.size());
+        assertEquals(Integer.valueOf(-2), st.get("other"));
+        for (int i = 1; i < n; i++)
+            assertEquals(Integer.valueOf(i), st.get(new CollidingKey(i)));
+        assertEquals(Integer.valueOf(-2), st.delete("other"));
+
+        for (int i = 0; i < n; i++)
+            st.delete(new CollidingKey(i));
+        assertEquals(true, st.isEmpty());
+        assertEquals(null, st.get(new CollidingKey(1)));
+
+        SymbolTableChecks.checkAgainstHashMap(new SeparateChainingSymbolTableImpl<Integer, Integer>(0,
+                SeparateChainingSymbolTableImpl.DEFAULT_LOAD_FACTOR, HashIndexing.MODULO, false, true), 5000);
+        SymbolTableChecks.checkAgainstHashMap(
+                new SeparateChainingSymbolTableImpl<Integer, Integer>(0, 8.0, HashIndexing.POWER_OF_TWO, true, true),
+                5000);
+    }
+
+    public void testTreeifiedBucketsWithInconsistentCompareTo() {
+        // 1.0 and 1.00 are equal for compareTo but not for equals
+        BigDecimal one = new BigDecimal("1.0");
+        BigDecimal oneHundredths = new BigDecimal("1.00");
+        for (int order = 0; order < 2; order++) {
+            // 2791 buckets, so that 1.0 and 1.00 (hash codes 311 and 3102)
+            // fall in the same bucket as the other keys
+            SeparateChainingSymbolTableImpl<BigDecimal, String> st = new SeparateChainingSymbolTableImpl<BigDecimal, String>(
+                    2790, 1.0, HashIndexing.MODULO, false, true);
+            if (order == 0) {
+                // in the chain before it is treeified
+                st.put(one, "1.0");
+                st.put(oneHundredths, "1.00");
+            }
+            for (int k = 1; k <= 10; k++)
+                st.put(new BigDecimal(BigInteger.valueOf(10 + 2791L * k), 1), "k" + k);
+            if (order == 1) {
+                // in the tree
+                st.put(one, "1.0");
+                st.put(oneHundredths, "1.00");
+            }
+            assertEquals(12, st.size());
+            assertEquals("1.0", st.get(new BigDecimal("1.0")));
+            assertEquals("1.00", st.get(new BigDecimal("1.00")));
+            assertEquals(null, st.get(new BigDecimal("1.000")));
+            for (int k = 1; k <= 10; k++)
+                assertEquals("k" + k, st.get(new BigDecimal(BigInteger.valueOf(10 + 2791L * k), 1)));
+            assertEquals("1.0", st.delete(new BigDecimal("1.0")));
+            assertEquals(null, st.get(one));
+            assertEquals("1.00", st.get(oneHundredths));
+            assertEquals(11, st.size());
+        }
+
+        // treeified buckets hold the same keys as chains
+        SeparateChainingSymbolTableImpl<BigDecimal, Integer> st = new SeparateChainingSymbolTableImpl<BigDecimal, Integer>(
+                0, 1000.0, HashIndexing.MODULO, false, true);
+        Map<BigDecimal, Integer> map = new HashMap<BigDecimal, Integer>();
+        for (int scale = 0; scale < 3; scale++) {
+            for (int i = 0; i < 300; i++) {
+                BigDecimal key = BigDecimal.valueOf(i).setScale(scale);
+                st.put(key, 1000 * scale + i);
+                map.put(key, 1000 * scale + i);
+            }
+        }
+        assertEquals(900, st.size());
+        for (Map.Entry<BigDecimal, Integer> entry : map.entrySet())
+            assertEquals(entry.getValue(), st.get(entry.getKey()));
+    }
+
+    public void testUntreeifiableBucket() {
+        for (int order = 0; order < 2; order++) {
+            SeparateChainingSymbolTableImpl<TieKey, Integer> st = new SeparateChainingSymbolTableImpl<TieKey, Integer>(
+                    0, 100000.0, HashIndexing.MODULO, false, true);
+            int first = (order == 0) ? 0 : 2;
+            // the keys 0 and 1 tie : in the chain before it reaches the
+            // threshold, or put in the tree which then goes back to a chain
+            for (int i = first; i < 100; i++)
+                st.put(new TieKey(i), i);
+            if (order == 1) {
+                st.put(new TieKey(0), 0);
+                st.put(new TieKey(1), 1);
+            }
+            // the bucket is not treeified again by the next puts
+            TieKey.compareCount = 0;
+            for (int i = 100; i < 2000; i++)
+                st.put(new TieKey(i), i);
+            assertEquals(0, TieKey.compareCount);
+            assertEquals(2000, st.size());
+            for (int i = 0; i < 2000; i++)
+                assertEquals(Integer.valueOf(i), st.get(new TieKey(i)));
+        }
+    }
+
+    /*
+     * A Comparable key whose hash code is the same for every instance, and
+     * whose instances 0 and 1 are equal for compareTo only.
+     */
+    private static class TieKey implements Comparable<TieKey> {
+        static int compareCount;
+
+        private final int id;
+
+        TieKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(TieKey other) {
+            compareCount++;
+            return Integer.compare(Math.max(id, 1), Math.max(other.id, 1));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof TieKey) && ((TieKey) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    /*
+     * A Comparable key whose hash code is the same for every instance.
+     */
+    private static class CollidingKey implements Comparable<CollidingKey> {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(CollidingKey other) {
+            return Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof CollidingKey) && ((CollidingKey) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    public void testCursor() {
+        checkCursor(new SeparateChainingSymbolTableImpl<Integer, Integer>());
+        checkCursor(new SeparateChainingSymbolTableImpl<Integer, Integer>(true));
+    }
+
+    /*
+     * Fill the given SymbolTable, then check that its cursor and its iterator
+     * see every entry once and are fail-fast.
+     */
+    private void checkCursor(SeparateChainingSymbolTableImpl<Integer, Integer> st) {
+        SymbolTableCursor<Integer, Integer> cursor = st.cursor();
+        assertEquals(false, cursor.next());
+        try {
+            cursor.key();
+            fail();
+        } catch (IllegalStateException e) {
+            assertNotNull(e);
+        }
+
+        int n = 5000;
+        for (int i = 0; i < n; i++)
+            st.put(i, -i);
+        long keySum = 0;
+        int count = 0;
+        cursor = st.cursor();
+        while (cursor.next()) {
+            assertEquals(Integer.valueOf(-cursor.key()), cursor.value());
+            keySum += cursor.key();
+            count++;
+        }
+        assertEquals(false, cursor.next());
+        assertEquals(n, count);
+        assertEquals((long) n * (n - 1) / 2, keySum);
+
+        count = 0;
+        for (Integer key : st) {
+            assertNotNull(key);
+            count++;
+        }
+        assertEquals(n, count);
+
+        // replacing a value is not a structural modification
+        cursor = st.cursor();
+        assertEquals(true, cursor.next());
+        st.put(cursor.key(), 1);
+        assertEquals(Integer.valueOf(1), cursor.value());
+        st.put(n, n);
+        try {
+            cursor.next();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertNotNull(e);
+        }
+        try {
+            for (Integer key : st)
+                st.delete(key);
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testEntryOperations() {
+        SymbolTableChecks.checkEntryOperations(new SeparateChainingSymbolTableImpl<String, Integer>());
+        SymbolTableChecks.checkEntryOperations(new SeparateChainingSymbolTableImpl<String, Integer>(true));
+    }
+
+    public void testEntryOperationsInTreeifiedBucket() {
+        SeparateChainingSymbolTableImpl<CollidingKey, Integer> st = new SeparateChainingSymbolTableImpl<CollidingKey, Integer>(
+                0, SeparateChainingSymbolTableImpl.DEFAULT_LOAD_FACTOR, HashIndexing.MODULO, false, true);
+        Map<CollidingKey, Integer> expected = new HashMap<>();
+        // all the keys fall in the same bucket, which is soon a tree
+        Random random = new Random(11);
+        for (int i = 0; i < 20000; i++) {
+            CollidingKey key = new CollidingKey(random.nextInt(300));
+            assertEquals(expected.merge(key, 1, Integer::sum), st.merge(key, 1, Integer::sum));
+        }
+        assertEquals(expected.size(), st.size());
+        assertEquals(null, st.compute(new CollidingKey(7), (k, v) -> null));
+        expected.remove(new CollidingKey(7));
+        assertEquals(Integer.valueOf(1), st.compute(new CollidingKey(1000), (k, v) -> (v == null) ? 1 : v + 1));
+        assertEquals(Integer.valueOf(2), st.compute(new CollidingKey(1000), (k, v) -> (v == null) ? 1 : v + 1));
+        expected.put(new CollidingKey(1000), 2);
+        assertEquals(Integer.valueOf(3), st.computeIfAbsent(new CollidingKey(1001), k -> 3));
+        assertEquals(Integer.valueOf(3), st.computeIfAbsent(new CollidingKey(1001), k -> 4));
+        expected.put(new CollidingKey(1001), 3);
+        assertEquals(expected.size(), st.size());
+        for (Map.Entry<CollidingKey, Integer> entry : expected.entrySet())
+            assertEquals(entry.getValue(), st.get(entry.getKey()));
+        try {
+            st.compute(new CollidingKey(9), (k, v) -> {
+                st.put(new CollidingKey(2000), 1);
+                return 1;
+            });
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertNotNull(e);
+        }
+    }
+
 }
@@ -0,0 +1,158 @@
+package com.test.symboltables;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.symboltables.BstSymbolTableImpl;
+import com.symboltables.Codec;
+import com.symboltables.Codecs;
+import com.symboltables.LinearProbingSymbolTableImpl;
+import com.symboltables.SeparateChainingSymbolTableImpl;
+import com.symboltables.SymbolTable;
+import com.symboltables.SymbolTableSnapshot;
+
+import junit.framework.TestCase;
+
+public class TestSymbolTableSnapshot extends TestCase {
+
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+        file = File.createTempFile("symboltable", ".snapshot");
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+    }
+
+    public void testEmpty() throws IOException {
+        SymbolTable<Integer, String> st = new LinearProbingSymbolTableImpl<Integer, String>();
+        assertEquals(20, write(st));
+        SymbolTable<Integer, String> copy = read();
+        assertEquals(true, copy.isEmpty());
+    }
+
+    public void testRoundTrip() throws IOException {
+        Random random = new Random(7);
+        SymbolTable<Integer, String> st = new SeparateChainingSymbolTableImpl<Integer, String>();
+        for (int i = 0; i < 100000; i++)
+            st.put(random.nextInt(), "value-" + i + "-\u00e9\u4e2d\ud83d\ude00");
+        write(st);
+        checkEquals(st, read());
+
+        // a tree is written in the order of its keys
+        BstSymbolTableImpl<Integer, String> bst = new BstSymbolTableImpl<Integer, String>(true);
+        st.forEach(bst::put);
+        write(bst);
+        checkEquals(st, read());
+    }
+
+    public void testCompactRecords() throws IOException {
+        SymbolTable<Integer, Long> st = new LinearProbingSymbolTableImpl<Integer, Long>();
+        for (int i = 0; i < 1000; i++)
+            st.put(i, (long) i * i);
+        // a header, and 1 + 4 + 1 + 8 bytes per entry
+        assertEquals(20 + 1000 * 14, write(st, Codecs.INTEGER, Codecs.LONG));
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            SymbolTable<Integer, Long> copy = SymbolTableSnapshot.read(channel, Codecs.INTEGER, Codecs.LONG,
+                    n -> new LinearProbingSymbolTableImpl<Integer, Long>(n, 0.5));
+            assertEquals(1000, copy.size());
+            for (int i = 0; i < 1000; i++)
+                assertEquals(Long.valueOf((long) i * i), copy.get(i));
+        }
+    }
+
+    public void testRecordsLargerThanTheBuffer() throws IOException {
+        SymbolTable<String, byte[]> st = new LinearProbingSymbolTableImpl<String, byte[]>();
+        byte[] large = new byte[3 << 20];
+        new Random(7).nextBytes(large);
+        st.put("small", new byte[] { 1, 2, 3 });
+        st.put("large", large);
+        st.put("empty", new byte[0]);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            SymbolTableSnapshot.write(st, channel, Codecs.STRING, Codecs.BYTES);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            SymbolTable<String, byte[]> copy = SymbolTableSnapshot.read(channel, Codecs.STRING, Codecs.BYTES,
+                    n -> new SeparateChainingSymbolTableImpl<String, byte[]>(n, 1.0));
+            assertEquals(3, copy.size());
+            assertEquals(true, Arrays.equals(large, copy.get("large")));
+            assertEquals(true, Arrays.equals(new byte[] { 1, 2, 3 }, copy.get("small")));
+            assertEquals(0, copy.get("empty").length);
+        }
+    }
+
+    public void testStringCodec() {
+        String[] values = { "", "ascii", "caf\u00e9", "\u20ac100", "\ud83d\ude00 smile", "lone \ud83d", "\ude00" };
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (String value : values) {
+            byte[] expected = value.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, Codecs.STRING.encodedSize(value));
+            buffer.clear();
+            Codecs.STRING.encode(value, buffer);
+            assertEquals(expected.length, buffer.position());
+            assertTrue(Arrays.equals(expected, Arrays.copyOf(buffer.array(), expected.length)));
+        }
+    }
+
+    public void testInvalidSnapshots() throws IOException {
+        SymbolTable<Integer, String> st = new LinearProbingSymbolTableImpl<Integer, String>();
+        for (int i = 0; i < 100; i++)
+            st.put(i, "v" + i);
+        long length = write(st);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(length - 1);
+        }
+        try {
+            read();
+            fail();
+        } catch (EOFException e) {
+            assertNotNull(e);
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0 }), 0);
+        }
+        try {
+            read();
+            fail();
+        } catch (IOException e) {
+            assertNotNull(e);
+        }
+    }
+
+    private long write(SymbolTable<Integer, String> st) throws IOException {
+        return write(st, Codecs.INTEGER, Codecs.STRING);
+    }
+
+    private <K, V> long write(SymbolTable<K, V> st, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long written = SymbolTableSnapshot.write(st, channel, keyCodec, valueCodec);
+            assertEquals(channel.size(), written);
+            return written;
+        }
+    }
+
+    private SymbolTable<Integer, String> read() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return SymbolTableSnapshot.read(channel, Codecs.INTEGER, Codecs.STRING,
+                    n -> new LinearProbingSymbolTableImpl<Integer, String>(n, 0.5));
+        }
+    }
+
+    private static void checkEquals(SymbolTable<Integer, String> expected, SymbolTable<Integer, String> actual) {
+        assertEquals(expected.size(), actual.size());
+        expected.forEach((key, value) -> assertEquals(value, actual.get(key)));
+    }
+
+}
@@ -1,7 +1,15 @@
 package com.test.symboltables;
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
 
 import com.symboltables.I_TreeMapCustom;
 import com.symboltables.TreeMapCustom;
@@ -114,4 +122,259 @@ public class TestTreeMapCustom extends TestCase {
         
     }
 
+    public void testPutExistingKey() {
+        I_TreeMapCustom<Integer, String> st = new TreeMapCustom<Integer, String>();
+        st.put(1, "one");
+        st.put(2, "two");
+        st.put(1, "uno");
+        assertEquals(2, st.size());
+        assertEquals("uno", st.get(1));
+        int count = 0;
+        for (Integer key : st) {
+            assertNotNull(key);
+            count++;
+        }
+        assertEquals(2, count);
+    }
+
+    public void testRandomPutRemove() {
+        I_TreeMapCustom<Integer, Integer> st = new TreeMapCustom<Integer, Integer>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), st.remove(key));
+            } else {
+                expected.put(key, i);
+                st.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), st.size());
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(st.values()));
+        assertEquals(expected.keySet(), st.keySet());
+        for (int key = 0; key < 5000; key++)
+            assertEquals(expected.get(key), st.get(key));
+        assertEquals(true, st.containsValue(expected.firstEntry().getValue()));
+        assertEquals(false, st.containsValue(-1));
+        for (Integer key : new ArrayList<>(expected.keySet()))
+            assertEquals(expected.remove(key), st.remove(key));
+        assertEquals(true, st.isEmpty());
+    }
+
+    public void testBuildFromSorted() {
+        Random random = new Random(7);
+        for (int n = 0; n <= 300; n++) {
+            Integer[] keys = new Integer[n];
+            Integer[] vals = new Integer[n];
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            for (int i = 0; i < n; i++) {
+                keys[i] = 3 * i;
+                vals[i] = -i;
+                expected.put(keys[i], vals[i]);
+            }
+            TreeMapCustom<Integer, Integer> st = new TreeMapCustom<Integer, Integer>(keys, vals, null);
+            assertEquals(n, st.size());
+            assertEquals(new ArrayList<>(expected.keySet()), toList(st.iterator()));
+            assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(st.values()));
+
+            // the coloring must be a valid red-black tree for the updates
+            for (int i = 0; i < n; i++) {
+                int key = random.nextInt(3 * n);
+                if (random.nextBoolean()) {
+                    assertEquals(expected.remove(key), st.remove(key));
+                } else {
+                    expected.put(key, i);
+                    st.put(key, i);
+                }
+            }
+            assertEquals(new ArrayList<>(expected.keySet()), toList(st.iterator()));
+            List<Integer> shuffled = new ArrayList<>(expected.keySet());
+            Collections.shuffle(shuffled, random);
+            for (Integer key : shuffled)
+                assertEquals(expected.remove(key), st.remove(key));
+            assertEquals(true, st.isEmpty());
+        }
+
+        List<Integer> keys = Arrays.asList(5, 4, 3, 2, 1);
+        TreeMapCustom<Integer, String> st = new TreeMapCustom<Integer, String>(keys.iterator(),
+                Arrays.asList("e", "d", "c", "b", "a").iterator(), 4, Collections.reverseOrder());
+        assertEquals(4, st.size());
+        assertEquals(Arrays.asList(5, 4, 3, 2), toList(st.iterator()));
+        assertEquals("b", st.get(2));
+        assertEquals(null, st.get(1));
+        try {
+            new TreeMapCustom<Integer, String>(new Integer[] { 1, null, 3 }, new String[] { "a", "b", "c" }, null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+        try {
+            new TreeMapCustom<Integer, String>(keys.iterator(), Arrays.asList("e", "d", "c", "b", "a").iterator(),
+                    5, null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        try {
+            new TreeMapCustom<Integer, String>(new Integer[] { 1, 2 }, new String[] { "a" }, null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testPutAllSorted() {
+        TreeMapCustom<Integer, Integer> st = new TreeMapCustom<Integer, Integer>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+        // large batches are merged, small ones are put one by one
+        for (int batch : new int[] { 0, 1000, 3000, 10, 1, 5000 }) {
+            TreeMap<Integer, Integer> entries = new TreeMap<>();
+            while (entries.size() < batch)
+                entries.put(random.nextInt(20000), random.nextInt());
+            st.putAllSorted(entries.keySet().toArray(new Integer[batch]), entries.values().toArray(new Integer[batch]));
+            expected.putAll(entries);
+            assertEquals(expected.size(), st.size());
+            assertEquals(new ArrayList<>(expected.keySet()), toList(st.iterator()));
+            assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(st.values()));
+        }
+        for (int key = 0; key < 20000; key += 7)
+            assertEquals(expected.remove(key), st.remove(key));
+        assertEquals(new ArrayList<>(expected.keySet()), toList(st.iterator()));
+
+        try {
+            st.putAllSorted(new Integer[] { 1, 3, 2 }, new Integer[] { 1, 3, 2 });
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        try {
+            st.putAllSorted(new Integer[] { 1, 1 }, new Integer[] { 1, 1 });
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        assertEquals(expected.size(), st.size());
+    }
+
+    public void testNavigation() {
+        I_TreeMapCustom<Integer, Integer> st = new TreeMapCustom<Integer, Integer>();
+        assertEquals(null, st.firstKey());
+        assertEquals(null, st.lastKey());
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            int key = 2 * random.nextInt(400);
+            st.put(key, i);
+            expected.put(key, i);
+        }
+        assertEquals(expected.firstKey(), st.firstKey());
+        assertEquals(expected.lastKey(), st.lastKey());
+        for (int key = -2; key <= 802; key++) {
+            assertEquals(expected.higherKey(key), st.higherKey(key));
+            assertEquals(expected.lowerKey(key), st.lowerKey(key));
+            assertEquals(expected.ceilingKey(key), st.ceilingKey(key));
+            assertEquals(expected.floorKey(key), st.floorKey(key));
+        }
+    }
+
+    public void testRangeViews() {
+        I_TreeMapCustom<Integer, Integer> st = new TreeMapCustom<Integer, Integer>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            int key = 2 * random.nextInt(400);
+            st.put(key, i);
+            expected.put(key, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            int lo = random.nextInt(820) - 10;
+            int hi = lo + random.nextInt(200);
+            checkView(expected.headMap(hi, false), st.headMap(hi));
+            checkView(expected.tailMap(lo, true), st.tailMap(lo));
+            checkView(expected.subMap(lo, true, hi, false), st.subMap(lo, hi));
+            checkView(expected.subMap(lo, true, hi, false).headMap(Math.min(lo + 50, hi), false),
+                    st.subMap(lo, hi).tailMap(lo).headMap(Math.min(lo + 50, hi)));
+        }
+
+        // the views are backed by the TreeMap
+        I_TreeMapCustom<Integer, Integer> view = st.subMap(100, 200);
+        view.put(101, -1);
+        assertEquals(Integer.valueOf(-1), st.get(101));
+        try {
+            view.put(200, 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        try {
+            view.headMap(300);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+        assertEquals(null, view.remove(300));
+        int size = st.size();
+        int viewSize = view.size();
+        view.clear();
+        assertEquals(true, view.isEmpty());
+        assertEquals(size - viewSize, st.size());
+        assertEquals(null, view.firstKey());
+        assertEquals(false, st.containsKey(101));
+    }
+
+    public void testIteratorFrom() {
+        I_TreeMapCustom<Integer, String> st = new TreeMapCustom<Integer, String>();
+        for (int i = 0; i < 100; i += 10)
+            st.put(i, "v" + i);
+        List<Integer> keys = new ArrayList<>();
+        for (Iterator<Integer> it = st.iterator(35); it.hasNext();)
+            keys.add(it.next());
+        assertEquals(Arrays.asList(40, 50, 60, 70, 80, 90), keys);
+        assertEquals(Integer.valueOf(30), st.iterator(30).next());
+        assertEquals(false, st.iterator(91).hasNext());
+
+        Iterator<Integer> it = st.iterator();
+        it.next();
+        st.remove(50);
+        try {
+            it.next();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertNotNull(e);
+        }
+    }
+
+    private static <K> List<K> toList(Iterator<K> it) {
+        List<K> result = new ArrayList<>();
+        while (it.hasNext())
+            result.add(it.next());
+        return result;
+    }
+
+    /*
+     * Check a view against the same view of a java.util.TreeMap.
+     */
+    private void checkView(NavigableMap<Integer, Integer> expected, I_TreeMapCustom<Integer, Integer> view) {
+        assertEquals(expected.size(), view.size());
+        assertEquals(expected.isEmpty(), view.isEmpty());
+        assertEquals(expected.isEmpty() ? null : expected.firstKey(), view.firstKey());
+        assertEquals(expected.isEmpty() ? null : expected.lastKey(), view.lastKey());
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : view)
+            keys.add(key);
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+        assertEquals(expected.keySet(), view.keySet());
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(view.values()));
+        for (int key = -12; key <= 812; key += 3) {
+            assertEquals(expected.containsKey(key), view.containsKey(key));
+            assertEquals(expected.get(key), view.get(key));
+            assertEquals(expected.ceilingKey(key), view.ceilingKey(key));
+            assertEquals(expected.floorKey(key), view.floorKey(key));
+            assertEquals(expected.higherKey(key), view.higherKey(key));
+            assertEquals(expected.lowerKey(key), view.lowerKey(key));
+        }
+    }
+
 }